@@ -39,6 +39,36 @@ public interface TrKeys {
      */
     String ALLAY_COMMAND_STATUS_DESCRIPTION = "allay:command.status.description";
 
+    /**
+     * {@literal Record where the server spends time in ticks}
+     */
+    String ALLAY_COMMAND_TIMINGS_DESCRIPTION = "allay:command.timings.description";
+
+    /**
+     * {@literal Timings is disabled}
+     */
+    String ALLAY_COMMAND_TIMINGS_DISABLED = "allay:command.timings.disabled";
+
+    /**
+     * {@literal Timings is enabled, use /timings report to see the report}
+     */
+    String ALLAY_COMMAND_TIMINGS_ENABLED = "allay:command.timings.enabled";
+
+    /**
+     * {@literal Timings is not enabled}
+     */
+    String ALLAY_COMMAND_TIMINGS_NOTENABLED = "allay:command.timings.notenabled";
+
+    /**
+     * {@literal Recorded timings are reset}
+     */
+    String ALLAY_COMMAND_TIMINGS_RESET = "allay:command.timings.reset";
+
+    /**
+     * {@literal Timings report is saved to %1}
+     */
+    String ALLAY_COMMAND_TIMINGS_SAVED = "allay:command.timings.saved";
+
     /**
      * {@literal Show TPS or MSPT of the current world}
      */
@@ -129,6 +159,31 @@ public interface TrKeys {
      */
     String ALLAY_COMMAND_WORLD_LIST = "allay:command.world.list";
 
+    /**
+     * {@literal No pre-generation is running in this dimension}
+     */
+    String ALLAY_COMMAND_WORLD_PREGEN_NOTRUNNING = "allay:command.world.pregen.notrunning";
+
+    /**
+     * {@literal A pre-generation is already running in this dimension}
+     */
+    String ALLAY_COMMAND_WORLD_PREGEN_RUNNING = "allay:command.world.pregen.running";
+
+    /**
+     * {@literal Started pre-generating %1 chunks around chunk (%2, %3)}
+     */
+    String ALLAY_COMMAND_WORLD_PREGEN_STARTED = "allay:command.world.pregen.started";
+
+    /**
+     * {@literal Pre-generation progress: %1/%2 chunks (%3), %4 chunks/s, ETA %5s}
+     */
+    String ALLAY_COMMAND_WORLD_PREGEN_STATUS = "allay:command.world.pregen.status";
+
+    /**
+     * {@literal Pre-generation stopped}
+     */
+    String ALLAY_COMMAND_WORLD_PREGEN_STOPPED = "allay:command.world.pregen.stopped";
+
     /**
      * {@literal You are teleported to world %1:%2}
      */
@@ -3,18 +3,17 @@ package org.allaymc.api.pack;
 import com.google.gson.*;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.utils.SemVersion;
 
 import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
  * @author IWareQ | Cloudburst Server | daoge_cmd
  */
-@Slf4j
 @Getter
 public abstract class Pack implements AutoCloseable {
 
@@ -29,15 +28,15 @@ public abstract class Pack implements AutoCloseable {
         this.loader = loader;
         this.manifest = manifest;
         this.contentKey = contentKey;
-        var bytes = loader.readAllBytes();
+        // The buffer may be memory-mapped, so that the pack won't be copied into the heap
+        this.buffer = loader.readAllBytesAsBuffer();
         try {
-            this.hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(this.buffer.duplicate());
+            this.hash = digest.digest();
         } catch (Exception exception) {
             throw new IllegalStateException("Unable to calculate the hash of pack " + getName(), exception);
         }
-        this.buffer = ByteBuffer.allocateDirect(bytes.length);
-        this.buffer.put(bytes);
-        this.buffer.flip();
     }
 
     public String getName() {
@@ -70,23 +69,35 @@ public abstract class Pack implements AutoCloseable {
         return this.hash;
     }
 
+    /**
+     * Get a chunk of the pack. The returned array is a copy, consider using
+     * {@link #getChunkBuffer(int, int)} which doesn't copy the bytes.
+     *
+     * @param offset the offset of the chunk
+     * @param length the max length of the chunk
+     * @return the bytes of the chunk
+     */
     public byte[] getChunk(int offset, int length) {
-        byte[] chunk;
-        if ((this.getSize() - offset) > length) {
-            chunk = new byte[length];
-        } else {
-            chunk = new byte[(int) (this.getSize() - offset)];
-        }
-
-        try {
-            buffer.get(offset, chunk);
-        } catch (Exception exception) {
-            log.error("An error occurred while processing the resource pack {} at offset {} and length {}", getName(), offset, length, exception);
-        }
-
+        var buffer = getChunkBuffer(offset, length);
+        var chunk = new byte[buffer.remaining()];
+        buffer.get(chunk);
         return chunk;
     }
 
+    /**
+     * Get a chunk of the pack as a read-only view of the pack content, the bytes are not copied.
+     * This method is thread-safe.
+     *
+     * @param offset the offset of the chunk
+     * @param length the max length of the chunk, the chunk will be shorter if it is the last chunk of the pack
+     * @return the read-only buffer of the chunk
+     * @throws IndexOutOfBoundsException if the offset is out of the pack
+     */
+    public ByteBuffer getChunkBuffer(int offset, int length) {
+        Objects.checkIndex(offset, getSize());
+        return this.buffer.slice(offset, Math.min(length, getSize() - offset)).asReadOnlyBuffer();
+    }
+
     public abstract Type getType();
 
     @Override
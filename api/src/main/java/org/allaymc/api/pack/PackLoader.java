@@ -4,6 +4,7 @@ import org.jetbrains.annotations.ApiStatus;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 
 /**
@@ -54,6 +55,17 @@ public interface PackLoader extends AutoCloseable {
      */
     byte[] readAllBytes();
 
+    /**
+     * Read all bytes of the pack into a read-only byte buffer. Unlike {@link #readAllBytes()}, the pack
+     * doesn't need to be copied into the heap, loaders whose pack is a file should map the file into
+     * memory instead of reading it.
+     *
+     * @return the read-only byte buffer which contains the bytes of the pack
+     */
+    default ByteBuffer readAllBytesAsBuffer() {
+        return ByteBuffer.wrap(readAllBytes()).asReadOnlyBuffer();
+    }
+
     /**
      * The factory for creating pack loaders.
      */
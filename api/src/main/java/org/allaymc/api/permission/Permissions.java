@@ -191,6 +191,10 @@ public interface Permissions {
      * The permission to use /time command.
      */
     String COMMAND_TIME = "allay.command.time";
+    /**
+     * The permission to use /timings command.
+     */
+    String COMMAND_TIMINGS = "allay.command.timings";
     /**
      * The permission to use /title command.
      */
@@ -0,0 +1,185 @@
+package org.allaymc.api.registry;
+
+import org.allaymc.api.block.type.BlockState;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The registry of all the known block states, keyed by block state hash.
+ * <p>
+ * Besides the map, this registry keeps an open-addressed table with primitive int keys, so
+ * looking up a block state by hash with {@link #get(int)} doesn't box the hash. This is used
+ * in hot paths such as chunk loading and palette decoding.
+ *
+ * @author daoge_cmd
+ */
+public class BlockStatePaletteRegistry extends SimpleMappedRegistry<Integer, BlockState> {
+
+    private static final int INITIAL_CAPACITY = 16384;
+
+    // Open-addressed table with linear probing, a slot is empty if its value is null
+    private int[] keys;
+    private BlockState[] values;
+    private int mask;
+    private int size;
+
+    protected <I> BlockStatePaletteRegistry(I input, RegistryLoader<I, Map<Integer, BlockState>> registryLoader) {
+        super(input, registryLoader);
+        rebuildTable();
+    }
+
+    /**
+     * Creates a new block state palette registry with the given {@link RegistryLoader}.
+     *
+     * @param registryLoader the registry loader
+     * @param <I>            the input
+     *
+     * @return a new block state palette registry
+     */
+    public static <I> BlockStatePaletteRegistry create(RegistryLoader<I, Map<Integer, BlockState>> registryLoader) {
+        return new BlockStatePaletteRegistry(null, registryLoader);
+    }
+
+    private static int mix(int hash) {
+        var h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Get the block state by the given block state hash without boxing the hash.
+     *
+     * @param blockStateHash the block state hash
+     *
+     * @return the block state, or {@code null} if not found
+     */
+    public BlockState get(int blockStateHash) {
+        var keys = this.keys;
+        var values = this.values;
+        var mask = this.mask;
+        var index = mix(blockStateHash) & mask;
+        BlockState value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == blockStateHash) {
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Get the block state by the given block state hash without boxing the hash.
+     *
+     * @param blockStateHash the block state hash
+     * @param defaultValue   the value returned if the block state is not found
+     *
+     * @return the block state, or the default value if not found
+     */
+    public BlockState getOrDefault(int blockStateHash, BlockState defaultValue) {
+        var value = get(blockStateHash);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Check if a block state with the given hash is registered.
+     *
+     * @param blockStateHash the block state hash
+     *
+     * @return {@code true} if the block state is registered
+     */
+    public boolean contains(int blockStateHash) {
+        return get(blockStateHash) != null;
+    }
+
+    /**
+     * @return the count of the registered block states
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public BlockState get(Integer key) {
+        return get(key.intValue());
+    }
+
+    @Override
+    public BlockState getOrDefault(Integer key, BlockState defaultValue) {
+        return getOrDefault(key.intValue(), defaultValue);
+    }
+
+    @Override
+    public BlockState register(Integer key, BlockState value) {
+        var old = content.put(key, value);
+        if (value != null) {
+            put(key, value);
+        } else {
+            // A null value would be treated as an empty slot
+            rebuildTable();
+        }
+        return old;
+    }
+
+    @Override
+    public void register(Consumer<Map<Integer, BlockState>> consumer) {
+        super.register(consumer);
+        // The content may be changed in any way, so rebuild the whole table
+        rebuildTable();
+    }
+
+    @Override
+    public void setContent(Map<Integer, BlockState> content) {
+        super.setContent(content);
+        rebuildTable();
+    }
+
+    private void rebuildTable() {
+        var capacity = INITIAL_CAPACITY;
+        while (capacity < content.size() * 2) {
+            capacity <<= 1;
+        }
+
+        this.keys = new int[capacity];
+        this.values = new BlockState[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+        content.forEach((key, value) -> {
+            if (value != null) {
+                put(key, value);
+            }
+        });
+    }
+
+    private void put(int key, BlockState value) {
+        var index = mix(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        // Keep the load factor under 0.5
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        var oldKeys = this.keys;
+        var oldValues = this.values;
+        this.keys = new int[oldKeys.length << 1];
+        this.values = new BlockState[oldValues.length << 1];
+        this.mask = this.keys.length - 1;
+        this.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
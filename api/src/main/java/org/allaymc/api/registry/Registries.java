@@ -1,6 +1,5 @@
 package org.allaymc.api.registry;
 
-import org.allaymc.api.block.type.BlockState;
 import org.allaymc.api.block.type.BlockType;
 import org.allaymc.api.blockentity.type.BlockEntityType;
 import org.allaymc.api.command.CommandRegistry;
@@ -35,7 +34,7 @@ public final class Registries {
     public static SimpleMappedRegistry<String, BlockEntityType<?>> BLOCK_ENTITIES;
 
     // Block
-    public static SimpleMappedRegistry<Integer, BlockState> BLOCK_STATE_PALETTE;
+    public static BlockStatePaletteRegistry BLOCK_STATE_PALETTE;
     public static SimpleMappedRegistry<Identifier, BlockType<?>> BLOCKS;
 
     // Entity
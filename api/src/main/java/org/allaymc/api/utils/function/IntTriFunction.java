@@ -0,0 +1,17 @@
+package org.allaymc.api.utils.function;
+
+/**
+ * A {@link TriFunction} which accepts three int arguments, usually the x, y, z coordinates of a pos,
+ * without boxing them.
+ *
+ * @author daoge_cmd
+ */
+@FunctionalInterface
+public interface IntTriFunction<R> extends TriFunction<Integer, Integer, Integer, R> {
+    R apply(int x, int y, int z);
+
+    @Override
+    default R apply(Integer x, Integer y, Integer z) {
+        return apply(x.intValue(), y.intValue(), z.intValue());
+    }
+}
@@ -0,0 +1,17 @@
+package org.allaymc.api.utils.function;
+
+/**
+ * A {@link QuadConsumer} which accepts three int arguments, usually the x, y, z coordinates of a pos,
+ * and an object argument without boxing the int arguments.
+ *
+ * @author daoge_cmd
+ */
+@FunctionalInterface
+public interface IntTriObjConsumer<T> extends QuadConsumer<Integer, Integer, Integer, T> {
+    void accept(int x, int y, int z, T t);
+
+    @Override
+    default void accept(Integer x, Integer y, Integer z, T t) {
+        accept(x.intValue(), y.intValue(), z.intValue(), t);
+    }
+}
@@ -0,0 +1,186 @@
+package org.allaymc.api.world;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.allaymc.api.block.type.BlockState;
+import org.allaymc.api.utils.function.IntTriObjConsumer;
+
+import java.util.Arrays;
+
+/**
+ * BlockStateBuffer is a flat buffer of the block states in a region. Unlike {@code BlockState[][][]},
+ * only one array is needed for a region, and the array can be reused when reading another region
+ * with the same or a smaller volume. See {@link Dimension#getBlockStates(int, int, int, int, int, int, int, BlockStateBuffer)}.
+ * <p>
+ * The block states are indexed in x, y, z order, the block state of a pos in an unloaded chunk is {@code null}.
+ * This class is not thread-safe.
+ *
+ * @author daoge_cmd
+ */
+public final class BlockStateBuffer {
+
+    private static final BlockState[] EMPTY = new BlockState[0];
+
+    private BlockState[] blockStates;
+    /**
+     * The start x coordinate of the region.
+     */
+    @Getter
+    private int x;
+    /**
+     * The start y coordinate of the region.
+     */
+    @Getter
+    private int y;
+    /**
+     * The start z coordinate of the region.
+     */
+    @Getter
+    private int z;
+    @Getter
+    private int sizeX;
+    @Getter
+    private int sizeY;
+    @Getter
+    private int sizeZ;
+
+    public BlockStateBuffer() {
+        this.blockStates = EMPTY;
+    }
+
+    /**
+     * Create a buffer with the given capacity.
+     *
+     * @param capacity the max volume of the region that can be stored without growing the buffer
+     */
+    public BlockStateBuffer(int capacity) {
+        this.blockStates = new BlockState[capacity];
+    }
+
+    /**
+     * Reset this buffer to the given region. All the block states in the buffer will be cleared.
+     *
+     * @param x     the start x coordinate of the region
+     * @param y     the start y coordinate of the region
+     * @param z     the start z coordinate of the region
+     * @param sizeX the size of the region in the x-axis
+     * @param sizeY the size of the region in the y-axis
+     * @param sizeZ the size of the region in the z-axis
+     */
+    public void reset(int x, int y, int z, int sizeX, int sizeY, int sizeZ) {
+        Preconditions.checkArgument(sizeX >= 0 && sizeY >= 0 && sizeZ >= 0, "Size of the region cannot be negative");
+        var volume = Math.multiplyExact(Math.multiplyExact(sizeX, sizeY), sizeZ);
+        if (this.blockStates.length < volume) {
+            this.blockStates = new BlockState[volume];
+        } else {
+            Arrays.fill(this.blockStates, 0, getVolume(), null);
+        }
+
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+    }
+
+    /**
+     * @return the count of the positions in the region
+     */
+    public int getVolume() {
+        return sizeX * sizeY * sizeZ;
+    }
+
+    /**
+     * @return the max volume of the region that can be stored without growing the buffer
+     */
+    public int getCapacity() {
+        return blockStates.length;
+    }
+
+    /**
+     * Check if the given pos is in the region.
+     *
+     * @param x the global x coordinate of the pos
+     * @param y the global y coordinate of the pos
+     * @param z the global z coordinate of the pos
+     * @return {@code true} if the pos is in the region
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= this.x && x < this.x + sizeX &&
+               y >= this.y && y < this.y + sizeY &&
+               z >= this.z && z < this.z + sizeZ;
+    }
+
+    /**
+     * Get the block state at the given pos.
+     *
+     * @param x the global x coordinate of the pos
+     * @param y the global y coordinate of the pos
+     * @param z the global z coordinate of the pos
+     * @return the block state at the pos, or {@code null} if the block state is not set
+     */
+    public BlockState get(int x, int y, int z) {
+        return blockStates[index(x, y, z)];
+    }
+
+    /**
+     * Set the block state at the given pos.
+     *
+     * @param x          the global x coordinate of the pos
+     * @param y          the global y coordinate of the pos
+     * @param z          the global z coordinate of the pos
+     * @param blockState the block state to set, can be {@code null}
+     */
+    public void set(int x, int y, int z, BlockState blockState) {
+        blockStates[index(x, y, z)] = blockState;
+    }
+
+    /**
+     * Set the block state by the offset to the start of the region, without checking the bounds.
+     * Used by {@link Dimension} to fill the buffer.
+     */
+    void setByOffset(int offsetX, int offsetY, int offsetZ, BlockState blockState) {
+        blockStates[(offsetX * sizeY + offsetY) * sizeZ + offsetZ] = blockState;
+    }
+
+    /**
+     * For-each the block states in this buffer. The {@code null} block states will be skipped.
+     *
+     * @param blockStateConsumer the consumer which will be called with the global x, y, z coordinates of the pos, and the block state
+     */
+    public void forEach(IntTriObjConsumer<BlockState> blockStateConsumer) {
+        var index = 0;
+        for (int offsetX = 0; offsetX < sizeX; offsetX++) {
+            for (int offsetY = 0; offsetY < sizeY; offsetY++) {
+                for (int offsetZ = 0; offsetZ < sizeZ; offsetZ++, index++) {
+                    var blockState = blockStates[index];
+                    if (blockState != null) {
+                        blockStateConsumer.accept(x + offsetX, y + offsetY, z + offsetZ, blockState);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if all the block states in this buffer are {@code null}.
+     *
+     * @return {@code true} if no block state is set
+     */
+    public boolean isEmpty() {
+        for (int i = 0, volume = getVolume(); i < volume; i++) {
+            if (blockStates[i] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int x, int y, int z) {
+        Preconditions.checkElementIndex(x - this.x, sizeX, "x");
+        Preconditions.checkElementIndex(y - this.y, sizeY, "y");
+        Preconditions.checkElementIndex(z - this.z, sizeZ, "z");
+        return ((x - this.x) * sizeY + (y - this.y)) * sizeZ + (z - this.z);
+    }
+}
@@ -21,6 +21,8 @@ import org.allaymc.api.math.position.Position3ic;
 import org.allaymc.api.player.Player;
 import org.allaymc.api.scheduler.Scheduler;
 import org.allaymc.api.scheduler.TaskCreator;
+import org.allaymc.api.utils.function.IntTriFunction;
+import org.allaymc.api.utils.function.IntTriObjConsumer;
 import org.allaymc.api.utils.function.QuadConsumer;
 import org.allaymc.api.utils.function.TriFunction;
 import org.allaymc.api.utils.tuple.Pair;
@@ -48,7 +50,6 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -387,9 +388,9 @@ public interface Dimension extends TaskCreator {
     }
 
     /**
-     * @see #forEachBlockStates(int, int, int, int, int, int, int, QuadConsumer)
+     * @see #forEachBlockStates(int, int, int, int, int, int, int, IntTriObjConsumer)
      */
-    default void forEachBlockStates(AABBdc aabb, int layer, QuadConsumer<Integer, Integer, Integer, BlockState> blockStateConsumer) {
+    default void forEachBlockStates(AABBdc aabb, int layer, IntTriObjConsumer<BlockState> blockStateConsumer) {
         var maxX = (int) Math.ceil(aabb.maxX());
         var maxY = (int) Math.ceil(aabb.maxY());
         var maxZ = (int) Math.ceil(aabb.maxZ());
@@ -399,6 +400,14 @@ public interface Dimension extends TaskCreator {
         forEachBlockStates(minX, minY, minZ, maxX - minX, maxY - minY, maxZ - minZ, layer, blockStateConsumer);
     }
 
+    /**
+     * @deprecated use {@link #forEachBlockStates(AABBdc, int, IntTriObjConsumer)} instead, which doesn't box the coordinates
+     */
+    @Deprecated
+    default void forEachBlockStates(AABBdc aabb, int layer, QuadConsumer<Integer, Integer, Integer, BlockState> blockStateConsumer) {
+        forEachBlockStates(aabb, layer, (IntTriObjConsumer<BlockState>) blockStateConsumer::accept);
+    }
+
     /**
      * For-each the block states at the specified region. Blocks in unloaded chunks won't be iterated.
      *
@@ -411,35 +420,60 @@ public interface Dimension extends TaskCreator {
      * @param layer              the layer which contains the block
      * @param blockStateConsumer the block state consumer. The consumer will be called with the global x, y, z coordinates of the pos, and the block state
      */
+    default void forEachBlockStates(
+            int x, int y, int z,
+            @Range(from = 1, to = Integer.MAX_VALUE) int sizeX,
+            @Range(from = 1, to = Integer.MAX_VALUE) int sizeY,
+            @Range(from = 1, to = Integer.MAX_VALUE) int sizeZ,
+            int layer, IntTriObjConsumer<BlockState> blockStateConsumer) {
+        forEachBlockStates(x, y, z, sizeX, sizeY, sizeZ, layer, new BlockStateBuffer(), blockStateConsumer);
+    }
+
+    /**
+     * @deprecated use {@link #forEachBlockStates(int, int, int, int, int, int, int, IntTriObjConsumer)} instead, which doesn't box the coordinates
+     */
+    @Deprecated
     default void forEachBlockStates(
             int x, int y, int z,
             @Range(from = 1, to = Integer.MAX_VALUE) int sizeX,
             @Range(from = 1, to = Integer.MAX_VALUE) int sizeY,
             @Range(from = 1, to = Integer.MAX_VALUE) int sizeZ,
             int layer, QuadConsumer<Integer, Integer, Integer, BlockState> blockStateConsumer) {
-        var blockStates = getBlockStates(x, y, z, sizeX, sizeY, sizeZ, layer);
-        if (blockStates == null) {
+        forEachBlockStates(x, y, z, sizeX, sizeY, sizeZ, layer, (IntTriObjConsumer<BlockState>) blockStateConsumer::accept);
+    }
+
+    /**
+     * For-each the block states at the specified region, the block states are read into the given buffer first,
+     * so that the buffer can be reused by the caller. Blocks in unloaded chunks won't be iterated.
+     *
+     * @param x                  the start x coordinate of the region
+     * @param y                  the start y coordinate of the region
+     * @param z                  the start z coordinate of the region
+     * @param sizeX              the size of the region in the x-axis
+     * @param sizeY              the size of the region in the y-axis
+     * @param sizeZ              the size of the region in the z-axis
+     * @param layer              the layer which contains the block
+     * @param buffer             the buffer to read the block states into
+     * @param blockStateConsumer the block state consumer. The consumer will be called with the global x, y, z coordinates of the pos, and the block state
+     */
+    default void forEachBlockStates(
+            int x, int y, int z,
+            @Range(from = 1, to = Integer.MAX_VALUE) int sizeX,
+            @Range(from = 1, to = Integer.MAX_VALUE) int sizeY,
+            @Range(from = 1, to = Integer.MAX_VALUE) int sizeZ,
+            int layer, BlockStateBuffer buffer, IntTriObjConsumer<BlockState> blockStateConsumer) {
+        if (sizeX < 1 || sizeY < 1 || sizeZ < 1) {
             return;
         }
 
-        for (int offsetX = 0, length0 = blockStates.length; offsetX < length0; offsetX++) {
-            var sub1 = blockStates[offsetX];
-            for (int offsetY = 0, length1 = sub1.length; offsetY < length1; offsetY++) {
-                var sub2 = sub1[offsetY];
-                for (int offsetZ = 0, length2 = sub2.length; offsetZ < length2; offsetZ++) {
-                    var blockState = sub2[offsetZ];
-                    if (blockState == null) {
-                        continue;
-                    }
-
-                    blockStateConsumer.accept(x + offsetX, y + offsetY, z + offsetZ, blockState);
-                }
-            }
-        }
+        getBlockStates(x, y, z, sizeX, sizeY, sizeZ, layer, buffer).forEach(blockStateConsumer);
     }
 
     /**
      * Get the block state at the specified region.
+     * <p>
+     * Consider using {@link #getBlockStates(int, int, int, int, int, int, int, BlockStateBuffer)} instead,
+     * which only allocates one array and allows reusing it.
      *
      * @param x     the start x coordinate of the region
      * @param y     the start y coordinate of the region
@@ -488,7 +522,7 @@ public interface Dimension extends TaskCreator {
                     var localStartY = Math.max(y - cY, 0);
                     var localEndY = Math.min(y + sizeY - cY, 16);
 
-                    chunk.applyOperationInSection(sectionY, section -> {
+                    chunk.applyReadOperationInSection(sectionY, section -> {
                         for (int localX = localStartX; localX < localEndX; localX++) {
                             for (int localY = localStartY; localY < localEndY; localY++) {
                                 for (int localZ = localStartZ; localZ < localEndZ; localZ++) {
@@ -500,7 +534,7 @@ public interface Dimension extends TaskCreator {
                                 }
                             }
                         }
-                    }, OperationType.READ, OperationType.NONE);
+                    });
                 }
             }
         }
@@ -508,6 +542,73 @@ public interface Dimension extends TaskCreator {
         return blockStates;
     }
 
+    /**
+     * Get the block states at the specified region into a flat buffer.
+     *
+     * @param x      the start x coordinate of the region
+     * @param y      the start y coordinate of the region
+     * @param z      the start z coordinate of the region
+     * @param sizeX  the size of the region in the x-axis
+     * @param sizeY  the size of the region in the y-axis
+     * @param sizeZ  the size of the region in the z-axis
+     * @param layer  the layer which contains the block
+     * @param buffer the buffer to read the block states into, it will be reset to the specified region
+     * @return the given buffer. The block states of the positions in unloaded chunks will be {@code null}
+     */
+    default BlockStateBuffer getBlockStates(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, BlockStateBuffer buffer) {
+        buffer.reset(x, y, z, Math.max(sizeX, 0), Math.max(sizeY, 0), Math.max(sizeZ, 0));
+        if (sizeX < 1 || sizeY < 1 || sizeZ < 1) {
+            return buffer;
+        }
+
+        var dimensionInfo = getDimensionInfo();
+        var startX = x >> 4;
+        var endX = (x + sizeX - 1) >> 4;
+        var startY = y >> 4;
+        var endY = (y + sizeY - 1) >> 4;
+        var startZ = z >> 4;
+        var endZ = (z + sizeZ - 1) >> 4;
+        for (int chunkX = startX; chunkX <= endX; chunkX++) {
+            var cX = chunkX << 4;
+            var localStartX = Math.max(x - cX, 0);
+            var localEndX = Math.min(x + sizeX - cX, 16);
+
+            for (int chunkZ = startZ; chunkZ <= endZ; chunkZ++) {
+                var cZ = chunkZ << 4;
+                var localStartZ = Math.max(z - cZ, 0);
+                var localEndZ = Math.min(z + sizeZ - cZ, 16);
+
+                var chunk = getChunkManager().getChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    // Chunk is not loaded.
+                    continue;
+                }
+
+                for (int sectionY = startY; sectionY <= endY; sectionY++) {
+                    if (sectionY < dimensionInfo.minSectionY() || sectionY > dimensionInfo.maxSectionY()) {
+                        continue;
+                    }
+
+                    var cY = sectionY << 4;
+                    var localStartY = Math.max(y - cY, 0);
+                    var localEndY = Math.min(y + sizeY - cY, 16);
+
+                    chunk.applyReadOperationInSection(sectionY, section -> {
+                        for (int localX = localStartX; localX < localEndX; localX++) {
+                            for (int localY = localStartY; localY < localEndY; localY++) {
+                                for (int localZ = localStartZ; localZ < localEndZ; localZ++) {
+                                    buffer.setByOffset(cX + localX - x, cY + localY - y, cZ + localZ - z, section.getBlockState(localX, localY, localZ, layer));
+                                }
+                            }
+                        }
+                    });
+                }
+            }
+        }
+
+        return buffer;
+    }
+
     /**
      * Set the block states at the specified region. Blocks in unloaded chunks won't be set.
      *
@@ -521,7 +622,7 @@ public interface Dimension extends TaskCreator {
      * @param blockStateSupplier the block state supplier. The supplier will be called with the global x, y, z coordinates of the pos,
      *                           and it should return the block state to set. If the supplier returns {@code null}, the block state will keep unchanged.
      */
-    default void setBlockStates(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, TriFunction<Integer, Integer, Integer, BlockState> blockStateSupplier) {
+    default void setBlockStates(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, IntTriFunction<BlockState> blockStateSupplier) {
         if (sizeX < 1 || sizeY < 1 || sizeZ < 1) {
             return;
         }
@@ -578,6 +679,77 @@ public interface Dimension extends TaskCreator {
         }
     }
 
+    /**
+     * @deprecated use {@link #setBlockStates(int, int, int, int, int, int, int, IntTriFunction)} instead, which doesn't box the coordinates
+     */
+    @Deprecated
+    default void setBlockStates(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, TriFunction<Integer, Integer, Integer, BlockState> blockStateSupplier) {
+        setBlockStates(x, y, z, sizeX, sizeY, sizeZ, layer, (IntTriFunction<BlockState>) blockStateSupplier::apply);
+    }
+
+    /**
+     * @see #fillBlockStates(int, int, int, int, int, int, int, BlockState, boolean, boolean)
+     */
+    default int fillBlockStates(int x, int y, int z, int sizeX, int sizeY, int sizeZ, BlockState blockState) {
+        return fillBlockStates(x, y, z, sizeX, sizeY, sizeZ, 0, blockState, false, true);
+    }
+
+    /**
+     * Fill a region with the given block state in bulk. Chunk sections which are fully covered by the region
+     * will only contain the given block state after filling. See
+     * {@link #setBlockStatesInBulk(int, int, int, int, int, int, int, IntTriFunction, boolean, boolean)} for more details.
+     *
+     * @param x          the start x coordinate of the region
+     * @param y          the start y coordinate of the region
+     * @param z          the start z coordinate of the region
+     * @param sizeX      the size of the region in the x-axis
+     * @param sizeY      the size of the region in the y-axis
+     * @param sizeZ      the size of the region in the z-axis
+     * @param layer      the layer which the block will be set
+     * @param blockState the block state to fill
+     * @param callEvent  whether to call {@link org.allaymc.api.eventbus.event.block.BlockPlaceEvent} for each block
+     * @param update     whether to update the blocks at the edges of the region and the blocks around the region
+     * @return the count of the blocks that are set
+     */
+    int fillBlockStates(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, BlockState blockState, boolean callEvent, boolean update);
+
+    /**
+     * Set the block states in a region in bulk. Blocks in unloaded chunks won't be set.
+     * <p>
+     * Unlike calling {@link #setBlockState(int, int, int, BlockState, int, boolean, boolean, boolean, PlayerInteractInfo)}
+     * for each block, the blocks are set section by section: the write lock of a section is only acquired once, the light
+     * in a section is recalculated in one light update, and if a lot of blocks are changed in a chunk, the chunk is resent
+     * to the viewers instead of sending an update for each block. The behaviors of the blocks (e.g. {@code onPlace()}) are
+     * not called, except for the blocks with block entities, which are still set one by one so that their block entities
+     * are created and removed properly.
+     *
+     * @param x                  the start x coordinate of the region
+     * @param y                  the start y coordinate of the region
+     * @param z                  the start z coordinate of the region
+     * @param sizeX              the size of the region in the x-axis
+     * @param sizeY              the size of the region in the y-axis
+     * @param sizeZ              the size of the region in the z-axis
+     * @param layer              the layer which the block will be set
+     * @param blockStateSupplier the block state supplier. The supplier will be called with the global x, y, z coordinates of the pos,
+     *                           and it should return the block state to set. If the supplier returns {@code null}, the block state will
+     *                           keep unchanged. When {@code callEvent} is {@code false}, the supplier is called while the write lock of
+     *                           the section is held, so it shouldn't access the blocks in the dimension
+     * @param callEvent          whether to call {@link org.allaymc.api.eventbus.event.block.BlockPlaceEvent} for each block, blocks
+     *                           whose event is cancelled won't be set
+     * @param update             whether to update the blocks at the edges of the region and the blocks around the region
+     * @return the count of the blocks that are set
+     */
+    int setBlockStatesInBulk(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, IntTriFunction<BlockState> blockStateSupplier, boolean callEvent, boolean update);
+
+    /**
+     * @deprecated use {@link #setBlockStatesInBulk(int, int, int, int, int, int, int, IntTriFunction, boolean, boolean)} instead,
+     * which doesn't box the coordinates
+     */
+    @Deprecated
+    default int setBlockStatesInBulk(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, TriFunction<Integer, Integer, Integer, BlockState> blockStateSupplier, boolean callEvent, boolean update) {
+        return setBlockStatesInBulk(x, y, z, sizeX, sizeY, sizeZ, layer, (IntTriFunction<BlockState>) blockStateSupplier::apply, callEvent, update);
+    }
+
     /**
      * @see #updateBlockProperty(BlockPropertyType, Object, int, int, int, int)
      */
@@ -650,24 +822,135 @@ public interface Dimension extends TaskCreator {
      * @return the block states that collide with the specified AABB, or {@code null} if no block collides
      */
     default BlockState[][][] getCollidingBlockStates(AABBdc aabb, int layer, boolean ignoreCollision) {
+        var buffer = getCollidingBlockStates(aabb, layer, ignoreCollision, new BlockStateBuffer());
+        if (buffer == null) {
+            return null;
+        }
+
+        var blockStates = new BlockState[buffer.getSizeX()][buffer.getSizeY()][buffer.getSizeZ()];
+        buffer.forEach((x, y, z, blockState) -> blockStates[x - buffer.getX()][y - buffer.getY()][z - buffer.getZ()] = blockState);
+        return blockStates;
+    }
+
+    /**
+     * Get the block states that collide with the specified AABB into a flat buffer.
+     *
+     * @param aabb            the AABB to check
+     * @param layer           the layer which contains the block
+     * @param ignoreCollision include blocks that don't have collision
+     * @param buffer          the buffer to read the block states into, the block states that don't collide
+     *                        with the AABB will be {@code null} in the buffer
+     * @return the given buffer, or {@code null} if no block collides
+     */
+    default BlockStateBuffer getCollidingBlockStates(AABBdc aabb, int layer, boolean ignoreCollision, BlockStateBuffer buffer) {
+        var maxX = (int) Math.ceil(aabb.maxX());
+        var maxY = (int) Math.ceil(aabb.maxY());
+        var maxZ = (int) Math.ceil(aabb.maxZ());
+        var minX = (int) Math.floor(aabb.minX());
+        var minY = (int) Math.floor(aabb.minY());
+        var minZ = (int) Math.floor(aabb.minZ());
+        getBlockStates(minX, minY, minZ, maxX - minX, maxY - minY, maxZ - minZ, layer, buffer);
+        if (ignoreCollision) {
+            return buffer;
+        }
+
+        var notEmpty = false;
+        for (int x = minX; x < maxX; x++) {
+            for (int y = minY; y < maxY; y++) {
+                for (int z = minZ; z < maxZ; z++) {
+                    var blockState = buffer.get(x, y, z);
+                    if (blockState == null) {
+                        continue;
+                    }
+
+                    var blockStateData = blockState.getBlockStateData();
+                    if (blockStateData.hasCollision() && blockStateData.collisionShape().translate(x, y, z).intersectsAABB(aabb)) {
+                        notEmpty = true;
+                    } else {
+                        buffer.set(x, y, z, null);
+                    }
+                }
+            }
+        }
+        return notEmpty ? buffer : null;
+    }
+
+    /**
+     * @see #hasCollidingBlockStates(AABBdc, int)
+     */
+    default boolean hasCollidingBlockStates(AABBdc aabb) {
+        return hasCollidingBlockStates(aabb, 0);
+    }
+
+    /**
+     * Check if there are any block states that collide with the specified AABB. This method is cheaper than
+     * checking if {@link #getCollidingBlockStates(AABBdc, int)} returns {@code null}, since it returns as soon
+     * as a colliding block is found.
+     *
+     * @param aabb  the AABB to check
+     * @param layer the layer which contains the block
+     * @return {@code true} if any block collides with the specified AABB
+     */
+    default boolean hasCollidingBlockStates(AABBdc aabb, int layer) {
         var maxX = (int) Math.ceil(aabb.maxX());
         var maxY = (int) Math.ceil(aabb.maxY());
         var maxZ = (int) Math.ceil(aabb.maxZ());
         var minX = (int) Math.floor(aabb.minX());
         var minY = (int) Math.floor(aabb.minY());
         var minZ = (int) Math.floor(aabb.minZ());
-        var blockStates = new BlockState[maxX - minX][maxY - minY][maxZ - minZ];
-        AtomicBoolean notEmpty = new AtomicBoolean(false);
-        forEachBlockStates(minX, minY, minZ, maxX - minX, maxY - minY, maxZ - minZ, layer, (globalX, globalY, globalZ, blockState) -> {
-            var blockStateData = blockState.getBlockStateData();
-            if (ignoreCollision) {
-                blockStates[globalX - minX][globalY - minY][globalZ - minZ] = blockState;
-            } else if (blockStateData.hasCollision() && blockStateData.collisionShape().translate(globalX, globalY, globalZ).intersectsAABB(aabb)) {
-                blockStates[globalX - minX][globalY - minY][globalZ - minZ] = blockState;
-                notEmpty.set(true);
+        if (maxX <= minX || maxY <= minY || maxZ <= minZ) {
+            return false;
+        }
+
+        var dimensionInfo = getDimensionInfo();
+        // The read operation may be executed more than once, so the result is overwritten instead of accumulated
+        var colliding = new boolean[1];
+        for (int chunkX = minX >> 4; chunkX <= (maxX - 1) >> 4; chunkX++) {
+            var cX = chunkX << 4;
+            var localStartX = Math.max(minX - cX, 0);
+            var localEndX = Math.min(maxX - cX, 16);
+
+            for (int chunkZ = minZ >> 4; chunkZ <= (maxZ - 1) >> 4; chunkZ++) {
+                var cZ = chunkZ << 4;
+                var localStartZ = Math.max(minZ - cZ, 0);
+                var localEndZ = Math.min(maxZ - cZ, 16);
+
+                var chunk = getChunkManager().getChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    // Chunk is not loaded.
+                    continue;
+                }
+
+                for (int sectionY = minY >> 4; sectionY <= (maxY - 1) >> 4; sectionY++) {
+                    if (sectionY < dimensionInfo.minSectionY() || sectionY > dimensionInfo.maxSectionY()) {
+                        continue;
+                    }
+
+                    var cY = sectionY << 4;
+                    var localStartY = Math.max(minY - cY, 0);
+                    var localEndY = Math.min(maxY - cY, 16);
+
+                    chunk.applyReadOperationInSection(sectionY, section -> {
+                        colliding[0] = false;
+                        for (int localX = localStartX; localX < localEndX; localX++) {
+                            for (int localY = localStartY; localY < localEndY; localY++) {
+                                for (int localZ = localStartZ; localZ < localEndZ; localZ++) {
+                                    var blockStateData = section.getBlockState(localX, localY, localZ, layer).getBlockStateData();
+                                    if (blockStateData.hasCollision() && blockStateData.collisionShape().translate(cX + localX, cY + localY, cZ + localZ).intersectsAABB(aabb)) {
+                                        colliding[0] = true;
+                                        return;
+                                    }
+                                }
+                            }
+                        }
+                    });
+                    if (colliding[0]) {
+                        return true;
+                    }
+                }
             }
-        });
-        return ignoreCollision || notEmpty.get() ? blockStates : null;
+        }
+        return false;
     }
 
     /**
@@ -196,17 +196,12 @@ public record StructureFile(
      * @param z         the z coordinate to place the structure
      */
     public void place(Dimension dimension, int x, int y, int z) {
-        for (int lx = 0; lx < sizeX; lx++) {
-            for (int ly = 0; ly < sizeY; ly++) {
-                for (int lz = 0; lz < sizeZ; lz++) {
-                    if (!blockStates[0][lx][ly][lz].equals(STRUCTURE_VOID_DEFAULT_STATE)) {
-                        dimension.setBlockState(x + lx, y + ly, z + lz, blockStates[0][lx][ly][lz], 0, true, false);
-                    }
-                    if (!blockStates[1][lx][ly][lz].equals(STRUCTURE_VOID_DEFAULT_STATE)) {
-                        dimension.setBlockState(x + lx, y + ly, z + lz, blockStates[1][lx][ly][lz], 1, true, false);
-                    }
-                }
-            }
+        for (int layer = 0; layer < 2; layer++) {
+            var layerBlockStates = blockStates[layer];
+            dimension.setBlockStatesInBulk(x, y, z, sizeX, sizeY, sizeZ, layer, (bx, by, bz) -> {
+                var blockState = layerBlockStates[bx - x][by - y][bz - z];
+                return blockState.equals(STRUCTURE_VOID_DEFAULT_STATE) ? null : blockState;
+            }, false, false);
         }
 
         for (var entry : blockEntities.entrySet()) {
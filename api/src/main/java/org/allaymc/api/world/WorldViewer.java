@@ -145,6 +145,16 @@ public interface WorldViewer extends DebugShapeViewer {
      */
     void viewChunk(Chunk chunk);
 
+    /**
+     * Resends the chunk passed, which is used when a lot of blocks in the chunk are changed at once.
+     * Unlike {@link #viewChunk(Chunk)}, the entities in the chunk won't be sent again.
+     *
+     * @param chunk the chunk to resend
+     */
+    default void resendChunk(Chunk chunk) {
+        viewChunk(chunk);
+    }
+
     /**
      * Removes the chunk passed.
      *
@@ -42,6 +42,22 @@ public interface Chunk extends UnsafeChunk {
      */
     void applyOperationInSection(int sectionY, Consumer<ChunkSection> operation, OperationType block, OperationType biome);
 
+    /**
+     * Apply the section in the chunk with the specified read-only operation on blocks. Depending on the
+     * lock implementation, the operation may be executed optimistically without locking first, and be
+     * executed again under the read lock if a concurrent write is detected. Therefore, the operation
+     * must be idempotent: it should only read blocks from the section and store the results, and must
+     * not produce any other side effect.
+     *
+     * @param sectionY  the section y of the section
+     * @param operation the read-only operation to be applied in the chunk section
+     *
+     * @throws IllegalArgumentException if section y is out of range
+     */
+    default void applyReadOperationInSection(int sectionY, Consumer<ChunkSection> operation) {
+        applyOperationInSection(sectionY, operation, OperationType.READ, OperationType.NONE);
+    }
+
     /**
      * Convert this chunk to a {@link UnsafeChunk} which is unsafe in multithreaded environment.
      *
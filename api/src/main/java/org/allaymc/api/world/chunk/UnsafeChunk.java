@@ -178,7 +178,22 @@ public interface UnsafeChunk {
      * @param time the scheduled time of the scheduled update
      * @throws IllegalArgumentException if x, y or z is out of range
      */
-    void addScheduledUpdate(@Range(from = 0, to = 15) int x, int y, @Range(from = 0, to = 15) int z, long time);
+    default void addScheduledUpdate(@Range(from = 0, to = 15) int x, int y, @Range(from = 0, to = 15) int z, long time) {
+        addScheduledUpdate(x, y, z, time, 0);
+    }
+
+    /**
+     * Add a scheduled update to a pos in the chunk. Scheduled updates that are due in
+     * the same tick will be executed in the order of priority (lower value first).
+     *
+     * @param x        the x coordinate of the pos
+     * @param y        the y coordinate of the pos
+     * @param z        the z coordinate of the pos
+     * @param time     the scheduled time of the scheduled update
+     * @param priority the priority of the scheduled update
+     * @throws IllegalArgumentException if x, y or z is out of range
+     */
+    void addScheduledUpdate(@Range(from = 0, to = 15) int x, int y, @Range(from = 0, to = 15) int z, long time, int priority);
 
     /**
      * Check if a pos in the chunk has a scheduled update.
@@ -26,7 +26,18 @@ public interface BlockUpdateManager {
      * @param pos   The position of the block to update
      * @param delay The delay of the block update, in ticks
      */
-    void scheduleBlockUpdateInDelay(Vector3ic pos, long delay);
+    default void scheduleBlockUpdateInDelay(Vector3ic pos, long delay) {
+        scheduleBlockUpdateInDelay(pos, delay, 0);
+    }
+
+    /**
+     * Schedule a block update at the specified position with the specified priority.
+     *
+     * @param pos      The position of the block to update
+     * @param delay    The delay of the block update, in ticks
+     * @param priority The priority of the block update, see {@link #scheduleBlockUpdate(Vector3ic, long, int)}
+     */
+    void scheduleBlockUpdateInDelay(Vector3ic pos, long delay, int priority);
 
     /**
      * Schedule a block update at the specified position.
@@ -34,7 +45,20 @@ public interface BlockUpdateManager {
      * @param pos  The position of the block to update
      * @param time The time that the block update will be executed, in ticks
      */
-    void scheduleBlockUpdate(Vector3ic pos, long time);
+    default void scheduleBlockUpdate(Vector3ic pos, long time) {
+        scheduleBlockUpdate(pos, time, 0);
+    }
+
+    /**
+     * Schedule a block update at the specified position with the specified priority. Block
+     * updates that are due in the same tick will be executed in the order of priority (lower
+     * value first), and in the order they were scheduled if they have the same priority.
+     *
+     * @param pos      The position of the block to update
+     * @param time     The time that the block update will be executed, in ticks
+     * @param priority The priority of the block update
+     */
+    void scheduleBlockUpdate(Vector3ic pos, long time, int priority);
 
     /**
      * @see #scheduleRandomBlockUpdateInDelay(Vector3ic, long)
@@ -216,4 +216,62 @@ public interface ChunkManager extends ChunkSource {
      * will make these chunks be unloaded during the next tick.
      */
     void removeUnusedChunksImmediately();
+
+    /**
+     * Start pre-generating the chunks in a square around the specified chunk. The chunks are visited in
+     * a spiral from the center, generated to {@link ChunkState#FULL}, saved and then unloaded again if no
+     * chunk loader is using them. Pre-generation runs in the background and is throttled so that it won't
+     * slow down the world too much, and it will be resumed automatically if the server is restarted before
+     * it is finished.
+     *
+     * @param centerX the x coordinate of the center chunk
+     * @param centerZ the z coordinate of the center chunk
+     * @param radius  the radius of the square (in chunks)
+     * @return {@code true} if the pre-generation is started, or {@code false} if there is already a
+     * pre-generation running in this dimension
+     */
+    boolean startPreGeneration(int centerX, int centerZ, int radius);
+
+    /**
+     * Stop the running pre-generation. Chunks that are being generated will still be generated,
+     * but no more chunks will be submitted and the pre-generation won't be resumed after restart.
+     *
+     * @return {@code true} if the pre-generation is stopped, or {@code false} if there is no
+     * pre-generation running in this dimension
+     */
+    boolean stopPreGeneration();
+
+    /**
+     * Get the progress of the running pre-generation.
+     *
+     * @return the progress of the running pre-generation, or {@code null} if there is no
+     * pre-generation running in this dimension
+     */
+    PreGenerationProgress getPreGenerationProgress();
+
+    /**
+     * PreGenerationProgress holds the progress of a pre-generation.
+     *
+     * @param centerX         the x coordinate of the center chunk
+     * @param centerZ         the z coordinate of the center chunk
+     * @param radius          the radius of the square (in chunks)
+     * @param generatedChunks the count of the chunks that have been generated
+     * @param totalChunks     the count of the chunks that will be generated
+     * @param chunksPerSecond the average count of the chunks generated per second since the pre-generation is (re)started
+     */
+    record PreGenerationProgress(int centerX, int centerZ, int radius, long generatedChunks, long totalChunks, double chunksPerSecond) {
+        /**
+         * @return the percentage of the generated chunks, in range [0, 100]
+         */
+        public double percentage() {
+            return totalChunks == 0 ? 100 : generatedChunks * 100.0 / totalChunks;
+        }
+
+        /**
+         * @return the estimated remaining time in seconds, or {@code -1} if it can't be estimated yet
+         */
+        public long etaSeconds() {
+            return chunksPerSecond <= 0 ? -1 : (long) Math.ceil((totalChunks - generatedChunks) / chunksPerSecond);
+        }
+    }
 }
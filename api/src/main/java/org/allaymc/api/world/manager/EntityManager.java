@@ -95,6 +95,29 @@ public interface EntityManager {
      */
     void forEachEntitiesInChunkImmediately(int chunkX, int chunkZ, Consumer<Entity> consumer);
 
+    /**
+     * Get the count of entities in specified chunk. This method is not safe to be called in non-ticking thread.
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @return the count of entities in the chunk
+     */
+    int getEntityCountInChunk(int chunkX, int chunkZ);
+
+    /**
+     * For-each all entities whose location is within the specified radius of a pos. Entities are looked up
+     * by the chunks that the sphere covers, so this method is much cheaper than iterating {@link #getEntities()}.
+     * Same to {@link #forEachEntitiesInChunkImmediately(int, int, Consumer)}, the consumer will be called immediately,
+     * so it is not safe to be called in non-ticking thread.
+     *
+     * @param x        the x coordinate of the center
+     * @param y        the y coordinate of the center
+     * @param z        the z coordinate of the center
+     * @param radius   the radius
+     * @param consumer the consumer to be called with each entity in the radius
+     */
+    void forEachEntitiesInRadiusImmediately(double x, double y, double z, double radius, Consumer<Entity> consumer);
+
     /**
      * Get all entities in specified chunk. Since it used {@link #forEachEntitiesInChunkImmediately(int, int, Consumer)},
      * it is not safe to be called in non-ticking thread.
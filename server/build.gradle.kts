@@ -69,10 +69,25 @@ jacoco {
 }
 
 tasks {
+    val generateRegistrySnapshot by registering(JavaExec::class) {
+        group = "data"
+        description = "Generates the binary registry snapshot from the json files in data/resources"
+        val resourcesDir = "${rootProject.projectDir}/data/resources"
+        val snapshotFile = layout.buildDirectory.file("generated/registry-snapshot/registry_snapshot.bin")
+        inputs.files("$resourcesDir/block_states.json", "$resourcesDir/block_types.json", "$resourcesDir/items.json")
+        outputs.file(snapshotFile)
+        // Use the compiled classes and the json files directly instead of the processed resources,
+        // otherwise processResources would depend on itself
+        classpath = sourceSets.main.get().output.classesDirs + configurations.runtimeClasspath.get() + files(resourcesDir)
+        mainClass.set("org.allaymc.server.registry.RegistrySnapshotGen")
+        argumentProviders.add(CommandLineArgumentProvider { listOf(snapshotFile.get().asFile.absolutePath) })
+    }
+
     processResources {
         dependsOn("generateGitProperties")
         // input directory
         from("${rootProject.projectDir}/data/resources")
+        from(generateRegistrySnapshot)
         // exclude unpacked folder and block_palette.nbt
         exclude("unpacked")
     }
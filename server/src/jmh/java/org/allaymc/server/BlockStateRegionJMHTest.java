@@ -0,0 +1,119 @@
+package org.allaymc.server;
+
+import org.allaymc.api.block.type.BlockState;
+import org.allaymc.api.utils.function.QuadConsumer;
+import org.allaymc.api.world.BlockStateBuffer;
+import org.allaymc.api.world.Dimension;
+import org.allaymc.api.world.chunk.Chunk;
+import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.api.world.manager.ChunkManager;
+import org.allaymc.server.world.chunk.AllayUnsafeChunk;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import static org.allaymc.api.block.type.BlockTypes.*;
+
+/**
+ * Reads a 64x64x64 region through the nested array with a boxed consumer (the old implementation of
+ * {@link Dimension#forEachBlockStates(int, int, int, int, int, int, int, org.allaymc.api.utils.function.IntTriObjConsumer)}),
+ * the primitive consumer, and a reused {@link BlockStateBuffer}.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BlockStateRegionJMHTest {
+
+    private static final int SIZE = 64;
+
+    private Dimension dimension;
+    private BlockStateBuffer buffer;
+
+    @Setup
+    public void init() {
+        Allay.initI18n();
+        Allay.initAllay();
+        var chunks = new Chunk[SIZE >> 4][SIZE >> 4];
+        for (int chunkX = 0; chunkX < chunks.length; chunkX++) {
+            for (int chunkZ = 0; chunkZ < chunks.length; chunkZ++) {
+                var chunk = AllayUnsafeChunk.builder().voidChunk(chunkX, chunkZ, DimensionInfo.OVERWORLD).toSafeChunk();
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        for (int y = 0; y < SIZE; y++) {
+                            chunk.setBlockState(x, y, z, ((x + y + z) & 3) == 0 ? STONE.getDefaultState() : DIRT.getDefaultState());
+                        }
+                    }
+                }
+                chunks[chunkX][chunkZ] = chunk;
+            }
+        }
+
+        // Only the methods used by the region access methods are implemented
+        InvocationHandler chunkManagerHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "getChunk" -> {
+                if (args.length != 2) {
+                    yield InvocationHandler.invokeDefault(proxy, method, args);
+                }
+                int chunkX = (int) args[0], chunkZ = (int) args[1];
+                yield chunkX >= 0 && chunkX < chunks.length && chunkZ >= 0 && chunkZ < chunks.length ? chunks[chunkX][chunkZ] : null;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+        var chunkManager = (ChunkManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{ChunkManager.class}, chunkManagerHandler);
+        InvocationHandler dimensionHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "getChunkManager" -> chunkManager;
+            case "getDimensionInfo" -> DimensionInfo.OVERWORLD;
+            default -> {
+                if (method.isDefault()) {
+                    yield InvocationHandler.invokeDefault(proxy, method, args);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        };
+        dimension = (Dimension) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Dimension.class}, dimensionHandler);
+        buffer = new BlockStateBuffer();
+    }
+
+    @Benchmark
+    public void nestedArrayWithBoxedConsumer(Blackhole blackhole) {
+        QuadConsumer<Integer, Integer, Integer, BlockState> consumer = (x, y, z, blockState) -> {
+            blackhole.consume(x + y + z);
+            blackhole.consume(blockState);
+        };
+        var blockStates = dimension.getBlockStates(0, 0, 0, SIZE, SIZE, SIZE, 0);
+        for (int offsetX = 0; offsetX < SIZE; offsetX++) {
+            for (int offsetY = 0; offsetY < SIZE; offsetY++) {
+                for (int offsetZ = 0; offsetZ < SIZE; offsetZ++) {
+                    var blockState = blockStates[offsetX][offsetY][offsetZ];
+                    if (blockState != null) {
+                        consumer.accept(offsetX, offsetY, offsetZ, blockState);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void primitiveConsumer(Blackhole blackhole) {
+        dimension.forEachBlockStates(0, 0, 0, SIZE, SIZE, SIZE, 0, (x, y, z, blockState) -> {
+            blackhole.consume(x + y + z);
+            blackhole.consume(blockState);
+        });
+    }
+
+    @Benchmark
+    public void reusedBuffer(Blackhole blackhole) {
+        dimension.forEachBlockStates(0, 0, 0, SIZE, SIZE, SIZE, 0, buffer, (x, y, z, blockState) -> {
+            blackhole.consume(x + y + z);
+            blackhole.consume(blockState);
+        });
+    }
+}
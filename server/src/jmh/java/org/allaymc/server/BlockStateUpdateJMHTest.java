@@ -1,9 +1,12 @@
 package org.allaymc.server;
 
 import org.allaymc.api.block.property.enums.MinecraftFacingDirection;
+import org.allaymc.api.block.property.type.BlockPropertyType;
 import org.allaymc.api.block.property.type.BlockPropertyTypes;
 import org.allaymc.api.block.type.BlockState;
 import org.allaymc.api.block.type.BlockTypes;
+import org.allaymc.server.block.type.AllayBlockState;
+import org.allaymc.server.block.type.AllayBlockType;
 import org.openjdk.jmh.annotations.*;
 
 import java.util.concurrent.TimeUnit;
@@ -18,7 +21,10 @@ import java.util.concurrent.TimeUnit;
 @Fork(1)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 public class BlockStateUpdateJMHTest {
+    private static final MinecraftFacingDirection[] DIRECTIONS = MinecraftFacingDirection.values();
+
     private BlockState observer;
+    private int counter;
 
     @Setup
     public void init() {
@@ -37,4 +43,28 @@ public class BlockStateUpdateJMHTest {
         observer = observer.setPropertyValue(BlockPropertyTypes.MINECRAFT_FACING_DIRECTION, MinecraftFacingDirection.UP);
         observer = observer.setPropertyValue(BlockPropertyTypes.POWERED_BIT, true);
     }
+
+    @Benchmark
+    public void test3() {
+        // Walk through all the states, the transition table is looked up every time
+        observer = observer.setPropertyValue(BlockPropertyTypes.MINECRAFT_FACING_DIRECTION, DIRECTIONS[counter++ % DIRECTIONS.length]);
+        observer = observer.setPropertyValue(BlockPropertyTypes.POWERED_BIT, (counter & 1) == 0);
+    }
+
+    @Benchmark
+    public void test3Legacy() {
+        // The same as test3, but using the old way which copies the property values and looks up the special value map
+        observer = legacySetPropertyValue(observer, BlockPropertyTypes.MINECRAFT_FACING_DIRECTION.createValue(DIRECTIONS[counter++ % DIRECTIONS.length]));
+        observer = legacySetPropertyValue(observer, BlockPropertyTypes.POWERED_BIT.createValue((counter & 1) == 0));
+    }
+
+    private static BlockState legacySetPropertyValue(BlockState blockState, BlockPropertyType.BlockPropertyValue<?, ?, ?> propertyValue) {
+        var oldValues = ((AllayBlockState) blockState).blockPropertyValues();
+        var newValues = new BlockPropertyType.BlockPropertyValue<?, ?, ?>[oldValues.length];
+        for (int i = 0; i < oldValues.length; i++) {
+            newValues[i] = oldValues[i].getPropertyType() == propertyValue.getPropertyType() ? propertyValue : oldValues[i];
+        }
+        var blockType = blockState.getBlockType();
+        return blockType.getSpecialValueMap().get(AllayBlockType.computeSpecialValue(blockType.getSpecialValueBits(), newValues));
+    }
 }
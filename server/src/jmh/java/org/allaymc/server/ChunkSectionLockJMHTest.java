@@ -0,0 +1,80 @@
+package org.allaymc.server;
+
+import org.allaymc.api.world.chunk.Chunk;
+import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.server.ServerSettings.WorldSettings.ChunkSectionLockType;
+import org.allaymc.server.world.chunk.AllayUnsafeChunk;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.allaymc.api.block.type.BlockTypes.OAK_WOOD;
+import static org.allaymc.api.block.type.BlockTypes.STONE;
+
+/**
+ * Compares the chunk section lock types under multi-thread reads, with and without a concurrent writer.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChunkSectionLockJMHTest {
+
+    @Param({"READ_WRITE", "STAMPED"})
+    private ChunkSectionLockType lockType;
+
+    private Chunk chunk;
+
+    @Setup
+    public void init() {
+        Allay.initI18n();
+        Allay.initAllay();
+        AllayServer.getSettings().worldSettings().chunkSectionLockType(lockType);
+        chunk = AllayUnsafeChunk.builder().voidChunk(0, 0, DimensionInfo.OVERWORLD).toSafeChunk();
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < 16; y++) {
+                    chunk.setBlockState(x, y, z, OAK_WOOD.getDefaultState());
+                }
+            }
+        }
+    }
+
+    @Threads(Threads.MAX)
+    @Benchmark
+    public void read(Blackhole blackhole) {
+        var random = ThreadLocalRandom.current();
+        blackhole.consume(chunk.getBlockState(random.nextInt(16), random.nextInt(16), random.nextInt(16)));
+    }
+
+    @Threads(Threads.MAX)
+    @Benchmark
+    public void readSection(Blackhole blackhole) {
+        chunk.applyReadOperationInSection(0, section -> {
+            for (int y = 0; y < 16; y++) {
+                blackhole.consume(section.getBlockState(7, y, 7, 0));
+            }
+        });
+    }
+
+    @Group("contended")
+    @GroupThreads(3)
+    @Benchmark
+    public void contendedRead(Blackhole blackhole) {
+        var random = ThreadLocalRandom.current();
+        blackhole.consume(chunk.getBlockState(random.nextInt(16), random.nextInt(16), random.nextInt(16)));
+    }
+
+    @Group("contended")
+    @GroupThreads(1)
+    @Benchmark
+    public void contendedWrite() {
+        var random = ThreadLocalRandom.current();
+        chunk.setBlockState(random.nextInt(16), random.nextInt(16), random.nextInt(16), random.nextBoolean() ? STONE.getDefaultState() : OAK_WOOD.getDefaultState());
+    }
+}
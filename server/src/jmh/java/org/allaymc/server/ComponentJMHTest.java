@@ -0,0 +1,44 @@
+package org.allaymc.server;
+
+import org.allaymc.api.entity.EntityInitInfo;
+import org.allaymc.api.entity.type.EntityTypes;
+import org.allaymc.api.item.type.ItemTypes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of creating component based objects, which is dominated by component injection.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ComponentJMHTest {
+
+    @Setup
+    public void init() {
+        Allay.initI18n();
+        Allay.initAllay();
+    }
+
+    @Benchmark
+    public void createItemStack(Blackhole blackhole) {
+        blackhole.consume(ItemTypes.DIAMOND_SWORD.createItemStack(1));
+    }
+
+    @Benchmark
+    public void createSimpleItemStack(Blackhole blackhole) {
+        blackhole.consume(ItemTypes.STONE.createItemStack(1));
+    }
+
+    @Benchmark
+    public void createEntity(Blackhole blackhole) {
+        blackhole.consume(EntityTypes.SHEEP.createEntity(EntityInitInfo.builder().pos(0, 1, 2).build()));
+    }
+}
@@ -0,0 +1,86 @@
+package org.allaymc.server;
+
+import org.allaymc.api.entity.EntityInitInfo;
+import org.allaymc.api.entity.interfaces.EntityItem;
+import org.allaymc.api.entity.type.EntityTypes;
+import org.allaymc.api.item.ItemStack;
+import org.allaymc.api.item.type.ItemType;
+import org.allaymc.api.item.type.ItemTypes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the merge checks between dropped items. Every item entity is checked against its nearby
+ * item entities, which is what happens when a large pile of dropped items lies on the ground.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ItemMergeJMHTest {
+
+    private static final int ENTITY_COUNT = 5000;
+    private static final int NEIGHBOR_COUNT = 8;
+
+    private EntityItem[] entities;
+
+    @Setup
+    public void init() {
+        Allay.initI18n();
+        Allay.initAllay();
+
+        List<ItemType<?>> types = List.of(
+                ItemTypes.DIRT, ItemTypes.COBBLESTONE, ItemTypes.STONE, ItemTypes.SAND,
+                ItemTypes.ROTTEN_FLESH, ItemTypes.BONE, ItemTypes.ARROW, ItemTypes.STRING
+        );
+        var random = new Random(12345);
+        entities = new EntityItem[ENTITY_COUNT];
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            var itemStack = types.get(random.nextInt(types.size())).createItemStack(1);
+            if (random.nextInt(10) == 0) {
+                // Some renamed items, which can't merge with the others
+                itemStack.setCustomName("Item #" + random.nextInt(4));
+            }
+            var entity = EntityTypes.ITEM.createEntity(EntityInitInfo.builder().pos(i % 64, 64, i / 64).build());
+            entity.setItemStack(itemStack);
+            entities[i] = entity;
+        }
+    }
+
+    @Benchmark
+    public void canMerge(Blackhole blackhole) {
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            var itemStack = entities[i].getItemStack();
+            for (int j = 1; j <= NEIGHBOR_COUNT; j++) {
+                blackhole.consume(entities[(i + j) % ENTITY_COUNT].getItemStack().canMerge(itemStack));
+            }
+        }
+    }
+
+    @Benchmark
+    public void canMergeLegacy(Blackhole blackhole) {
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            var itemStack = entities[i].getItemStack();
+            for (int j = 1; j <= NEIGHBOR_COUNT; j++) {
+                blackhole.consume(legacyCanMerge(entities[(i + j) % ENTITY_COUNT].getItemStack(), itemStack));
+            }
+        }
+    }
+
+    // The old implementation, which builds the extra tags of both item stacks for every check
+    private static boolean legacyCanMerge(ItemStack a, ItemStack b) {
+        return a.getItemType() == b.getItemType() &&
+               a.getMeta() == b.getMeta() &&
+               a.getCount() + b.getCount() <= a.getItemType().getItemData().maxStackSize() &&
+               a.saveExtraTag().equals(b.saveExtraTag()) &&
+               a.toBlockState() == b.toBlockState();
+    }
+}
@@ -0,0 +1,99 @@
+package org.allaymc.server;
+
+import org.allaymc.api.block.type.BlockState;
+import org.allaymc.api.registry.Registries;
+import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.server.world.chunk.AllayUnsafeChunk;
+import org.allaymc.server.world.storage.leveldb.AllayLevelDBWorldStorage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a chunk from LevelDB, and compares looking up block states by hash through
+ * the boxed map with the primitive table of {@link org.allaymc.api.registry.BlockStatePaletteRegistry}.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoadChunkJMHTest {
+
+    private Path worldPath;
+    private AllayLevelDBWorldStorage storage;
+    private int[] hashes;
+    private Map<Integer, BlockState> boxedMap;
+
+    @Setup
+    public void init() throws IOException {
+        Allay.initI18n();
+        Allay.initAllay();
+
+        var allStates = Registries.BLOCK_STATE_PALETTE.getContent().values().toArray(BlockState[]::new);
+        var random = new Random(12345);
+        // Every section contains 64 different block states, so that the palettes are not trivial
+        var chunk = AllayUnsafeChunk.builder().voidChunk(0, 0, DimensionInfo.OVERWORLD);
+        for (int sectionY = -4; sectionY < 20; sectionY++) {
+            var sectionStates = new BlockState[64];
+            for (int i = 0; i < sectionStates.length; i++) {
+                sectionStates[i] = allStates[random.nextInt(allStates.length)];
+            }
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int y = 0; y < 16; y++) {
+                        chunk.setBlockState(x, (sectionY << 4) + y, z, sectionStates[random.nextInt(sectionStates.length)]);
+                    }
+                }
+            }
+        }
+
+        worldPath = Files.createTempDirectory("allay-load-chunk-jmh");
+        storage = new AllayLevelDBWorldStorage(worldPath.resolve("world"));
+        storage.writeChunkSync(chunk.toSafeChunk());
+
+        hashes = new int[4096];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = allStates[random.nextInt(allStates.length)].blockStateHash();
+        }
+        boxedMap = Registries.BLOCK_STATE_PALETTE.getContent();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.shutdown();
+        try (var paths = Files.walk(worldPath)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void loadChunk(Blackhole blackhole) {
+        blackhole.consume(storage.readChunkSync(0, 0, DimensionInfo.OVERWORLD));
+    }
+
+    @Benchmark
+    public void boxedLookup(Blackhole blackhole) {
+        for (var hash : hashes) {
+            blackhole.consume(boxedMap.get(hash));
+        }
+    }
+
+    @Benchmark
+    public void primitiveLookup(Blackhole blackhole) {
+        var registry = Registries.BLOCK_STATE_PALETTE;
+        for (var hash : hashes) {
+            blackhole.consume(registry.get(hash));
+        }
+    }
+}
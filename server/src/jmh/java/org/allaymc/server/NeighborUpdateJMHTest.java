@@ -0,0 +1,104 @@
+package org.allaymc.server;
+
+import io.netty.util.internal.PlatformDependent;
+import org.allaymc.api.block.data.BlockFace;
+import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.server.world.manager.NeighborUpdateQueue;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates the neighbor updates queued in one tick by a large contraption: a wall of blocks pushed
+ * by pistons, and redstone wires which update the blocks around themselves and around each of their
+ * neighbors. Compares the old queue, which keeps every queued update, with {@link NeighborUpdateQueue}.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NeighborUpdateJMHTest {
+
+    private static final BlockFace[] FACES = BlockFace.values();
+
+    @Param({"16", "64"})
+    private int size;
+
+    private Queue<Update> legacyQueue;
+    private NeighborUpdateQueue coalescingQueue;
+
+    @Setup
+    public void init() {
+        legacyQueue = PlatformDependent.newMpscQueue();
+        coalescingQueue = new NeighborUpdateQueue(DimensionInfo.OVERWORLD);
+    }
+
+    @Benchmark
+    public void legacyQueue(Blackhole blackhole) {
+        simulateContraption((x, y, z) -> {
+            var pos = new Vector3i(x, y, z);
+            for (var face : FACES) {
+                legacyQueue.add(new Update(face.offsetPos(pos), pos, face.opposite()));
+            }
+        });
+
+        int count = 0;
+        Update update;
+        while ((update = legacyQueue.poll()) != null) {
+            blackhole.consume(update);
+            count++;
+        }
+        blackhole.consume(count);
+    }
+
+    @Benchmark
+    public void coalescingQueue(Blackhole blackhole) {
+        simulateContraption((x, y, z) -> {
+            for (var face : FACES) {
+                var offset = face.getOffset();
+                coalescingQueue.offer(x + offset.x(), y + offset.y(), z + offset.z(), face.opposite());
+            }
+        });
+
+        var keys = coalescingQueue.poll(Integer.MAX_VALUE);
+        for (var key : keys) {
+            blackhole.consume(key);
+        }
+        blackhole.consume(keys.length);
+    }
+
+    private void simulateContraption(UpdateAround updateAround) {
+        // A size x size wall of blocks pushed by one block, the old and the new positions are both updated
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                updateAround.updateAround(x, y, 0);
+                updateAround.updateAround(x, y, 1);
+            }
+        }
+
+        // A line of redstone wires which is powered, each wire updates the blocks around itself and its neighbors
+        for (int x = 0; x < size * 4; x++) {
+            updateAround.updateAround(x, 0, 8);
+            for (var face : FACES) {
+                var offset = face.getOffset();
+                updateAround.updateAround(x + offset.x(), offset.y(), 8 + offset.z());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface UpdateAround {
+        void updateAround(int x, int y, int z);
+    }
+
+    private record Update(Vector3ic pos, Vector3ic neighborPos, BlockFace blockFace) {
+    }
+}
@@ -0,0 +1,99 @@
+package org.allaymc.server;
+
+import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.server.world.chunk.AllayChunkSection;
+import org.allaymc.server.world.chunk.AllayUnsafeChunk;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.allaymc.api.block.type.BlockTypes.*;
+
+/**
+ * Compares the old way of sampling random updates (looking up the palette for every
+ * sample) with the random update index maintained by {@link AllayChunkSection}.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RandomUpdateJMHTest {
+
+    @Param({"3", "100"})
+    private int randomTickSpeed;
+
+    private AllayUnsafeChunk chunk;
+    private int lcg;
+
+    @Setup
+    public void init() {
+        Allay.initI18n();
+        Allay.initAllay();
+        chunk = AllayUnsafeChunk.builder().voidChunk(0, 0, DimensionInfo.OVERWORLD);
+        // A typical surface chunk: solid stone below, a layer of grass and dirt on the top, and
+        // some sections containing only a few blocks that support random update
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                for (int y = -64; y < 60; y++) {
+                    chunk.setBlockState(x, y, z, STONE.getDefaultState());
+                }
+                for (int y = 60; y < 63; y++) {
+                    chunk.setBlockState(x, y, z, DIRT.getDefaultState());
+                }
+                chunk.setBlockState(x, 63, z, GRASS_BLOCK.getDefaultState());
+            }
+        }
+        chunk.setBlockState(3, 10, 3, GRASS_BLOCK.getDefaultState());
+        chunk.setBlockState(7, -20, 7, GRASS_BLOCK.getDefaultState());
+    }
+
+    private int nextLCG() {
+        return (lcg = (lcg * 3) ^ 1013904223);
+    }
+
+    @Benchmark
+    public void paletteLookup(Blackhole blackhole) {
+        for (var s : chunk.getSections()) {
+            var section = (AllayChunkSection) s;
+            if (section.isAirSection()) {
+                continue;
+            }
+            if (section.blockLayers()[0].allEntriesMatch(blockState -> !blockState.getBehavior().canRandomUpdate())) {
+                continue;
+            }
+
+            for (int i = 0; i < randomTickSpeed * 3; i++) {
+                int lcg = nextLCG();
+                var blockState = section.getBlockState(lcg & 0x0f, lcg >>> 16 & 0x0f, lcg >>> 8 & 0x0f, 0);
+                if (blockState.getBehavior().canRandomUpdate()) {
+                    blackhole.consume(blockState);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void randomUpdateIndex(Blackhole blackhole) {
+        for (var s : chunk.getSections()) {
+            var section = (AllayChunkSection) s;
+            if (section.getRandomUpdatableBlockCount() == 0) {
+                continue;
+            }
+
+            for (int i = 0; i < randomTickSpeed * 3; i++) {
+                int lcg = nextLCG();
+                int localX = lcg & 0x0f;
+                int localZ = lcg >>> 8 & 0x0f;
+                int localY = lcg >>> 16 & 0x0f;
+                if (section.isRandomUpdatable(localX, localY, localZ)) {
+                    blackhole.consume(section.getBlockState(localX, localY, localZ, 0));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.allaymc.server;
+
+import org.allaymc.server.registry.RegistrySnapshot;
+import org.allaymc.server.registry.loader.BlockDefaultStateHashRegistryLoader;
+import org.allaymc.server.registry.loader.BlockStateDataRegistryLoader;
+import org.allaymc.server.registry.loader.ItemDataRegistryLoader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup time of the registries which can be loaded from either the json files or the registry snapshot.
+ *
+ * @author daoge_cmd
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RegistrySnapshotJMHTest {
+
+    private final BlockStateDataRegistryLoader blockStateDataLoader = new BlockStateDataRegistryLoader();
+    private final BlockDefaultStateHashRegistryLoader blockDefaultStateHashLoader = new BlockDefaultStateHashRegistryLoader();
+    private final ItemDataRegistryLoader itemDataLoader = new ItemDataRegistryLoader();
+
+    private byte[] snapshot;
+
+    @Setup
+    public void init() throws Exception {
+        // Build the snapshot in memory, so that the benchmark doesn't depend on whether the snapshot is generated
+        var output = new ByteArrayOutputStream();
+        RegistrySnapshot.write(output, blockStateDataLoader.loadFromJson(), blockDefaultStateHashLoader.loadFromJson(), itemDataLoader.loadFromJson());
+        snapshot = output.toByteArray();
+    }
+
+    @Benchmark
+    public void loadFromJson(Blackhole blackhole) {
+        blackhole.consume(blockStateDataLoader.loadFromJson());
+        blackhole.consume(blockDefaultStateHashLoader.loadFromJson());
+        blackhole.consume(itemDataLoader.loadFromJson());
+    }
+
+    @Benchmark
+    public void loadFromSnapshot(Blackhole blackhole) {
+        // Includes the checksum calculation of the json files
+        var registrySnapshot = RegistrySnapshot.read(ByteBuffer.wrap(snapshot));
+        blackhole.consume(registrySnapshot.readBlockStateData());
+        blackhole.consume(registrySnapshot.readBlockDefaultStateHashes());
+        blackhole.consume(registrySnapshot.readItemData());
+    }
+}
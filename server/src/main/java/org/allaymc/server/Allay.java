@@ -19,6 +19,7 @@ import org.allaymc.api.item.enchantment.EnchantmentType;
 import org.allaymc.api.item.type.ItemType;
 import org.allaymc.api.message.I18n;
 import org.allaymc.api.message.TrKeys;
+import org.allaymc.api.registry.BlockStatePaletteRegistry;
 import org.allaymc.api.registry.DoubleKeyMappedRegistry;
 import org.allaymc.api.registry.Registries;
 import org.allaymc.api.registry.SimpleMappedRegistry;
@@ -42,6 +43,7 @@ import org.allaymc.server.network.ProtocolInfo;
 import org.allaymc.server.pdc.AllayPersistentDataTypeRegistry;
 import org.allaymc.server.registry.AllayCommandRegistry;
 import org.allaymc.server.registry.InternalRegistries;
+import org.allaymc.server.registry.RegistryBootstrap;
 import org.allaymc.server.registry.loader.*;
 import org.allaymc.server.registry.populator.*;
 import org.allaymc.server.scheduler.AllayScheduler;
@@ -179,82 +181,76 @@ public final class Allay {
     }
 
     private static void initRegistries() {
-        // Item
-        DoubleKeyMappedRegistry.create(
-                RegistryLoaders.empty(() -> new DoubleKeyMappedRegistry.MapPair<>(new Int2ObjectOpenHashMap<>(), new HashMap<Identifier, EnchantmentType>())),
-                r -> Registries.ENCHANTMENTS = r,
-                new EnchantmentTypeRegistryPopulator()
-        );
-        InternalRegistries.ITEM_DATA = SimpleMappedRegistry.create(new ItemDataRegistryLoader());
-        InternalRegistries.ITEM_TAGS = SimpleMappedRegistry.create(new ItemTagRegistryLoader());
-        InternalRegistries.ITEM_DEFINITIONS = SimpleMappedRegistry.create(new ItemDefinitionRegistryLoader());
-        SimpleMappedRegistry.create(
-                RegistryLoaders.empty(() -> new HashMap<Identifier, ItemType<?>>()),
-                r -> Registries.ITEMS = r,
-                new ItemTypeRegistryPopulator()
-        );
-
-        // BlockEntity
-        SimpleMappedRegistry.create(
-                RegistryLoaders.empty(() -> new HashMap<String, BlockEntityType<?>>()),
-                r -> Registries.BLOCK_ENTITIES = r,
-                new BlockEntityTypeRegistryPopulator()
-        );
-
-        // Block
-        InternalRegistries.BLOCK_STATE_DATA = SimpleMappedRegistry.create(new BlockStateDataRegistryLoader());
-        InternalRegistries.BLOCK_TAGS = SimpleMappedRegistry.create(new BlockTagRegistryLoader());
-        InternalRegistries.BLOCK_DEFAULT_STATE_HASHES = SimpleMappedRegistry.create(new BlockDefaultStateHashRegistryLoader());
-        InternalRegistries.BLOCK_PROPERTY_PROCESSORS = SimpleMappedRegistry.create(new BlockPropertyProcessorRegistryLoader());
-        Registries.BLOCK_STATE_PALETTE = SimpleMappedRegistry.create(RegistryLoaders.empty(Int2ObjectOpenHashMap::new));
-        SimpleMappedRegistry.create(
-                RegistryLoaders.empty(() -> new HashMap<Identifier, BlockType<?>>()),
-                r -> Registries.BLOCKS = r,
-                new BlockTypeRegistryPopulator()
-        );
-
-        // Entity
-        DoubleKeyMappedRegistry.create(
-                RegistryLoaders.empty(() -> new DoubleKeyMappedRegistry.MapPair<>(new Int2ObjectOpenHashMap<>(), new HashMap<Identifier, EffectType>())),
-                r -> Registries.EFFECTS = r,
-                new EffectTypeRegistryPopulator()
-        );
-        SimpleMappedRegistry.create(
-                RegistryLoaders.empty(() -> new HashMap<Identifier, EntityType<?>>()),
-                r -> Registries.ENTITIES = r,
-                new EntityTypeRegistryPopulator()
-        );
-
-        // Biome
-        InternalRegistries.BIOME_DATA = SimpleMappedRegistry.create(new BiomeDataRegistryLoader());
-        DoubleKeyMappedRegistry.create(
-                RegistryLoaders.empty(() -> new DoubleKeyMappedRegistry.MapPair<>(new Int2ObjectOpenHashMap<>(), new HashMap<Identifier, BiomeType>())),
-                r -> Registries.BIOMES = r,
-                new BiomeTypeRegistryPopulator()
-        );
-
-        // World
-        Registries.WORLD_STORAGE_FACTORIES = SimpleMappedRegistry.create(new WorldStorageFactoryRegistryLoader());
-        Registries.WORLD_GENERATOR_FACTORIES = SimpleMappedRegistry.create(new WorldGeneratorFactoryRegistryLoader());
-
-        // Creative Item
-        Registries.CREATIVE_ITEMS = new AllayCreativeItemRegistry();
-
-        // Recipe
-        Registries.RECIPES = SimpleMappedRegistry.create(new RecipeRegistryLoader());
-
-        // Trim Data
-        InternalRegistries.TRIM_PATTERNS = SimpleMappedRegistry.create(new TrimPatternRegistryLoader());
-        InternalRegistries.TRIM_MATERIALS = SimpleMappedRegistry.create(new TrimMaterialRegistryLoader());
-
-        // Pack
-        Registries.PACKS = SimpleMappedRegistry.create(new PackRegistryLoader());
-
-        // Command
-        Registries.COMMANDS = new AllayCommandRegistry();
-
-        // Persistent Data Container (PDC)
-        Registries.PERSISTENT_DATA_TYPES = new AllayPersistentDataTypeRegistry();
+        var bootstrap = new RegistryBootstrap()
+                // Item
+                .stage("enchantments", () -> DoubleKeyMappedRegistry.create(
+                        RegistryLoaders.empty(() -> new DoubleKeyMappedRegistry.MapPair<>(new Int2ObjectOpenHashMap<>(), new HashMap<Identifier, EnchantmentType>())),
+                        r -> Registries.ENCHANTMENTS = r,
+                        new EnchantmentTypeRegistryPopulator()
+                ))
+                .stage("item_data", () -> InternalRegistries.ITEM_DATA = SimpleMappedRegistry.create(new ItemDataRegistryLoader()))
+                .stage("item_tags", () -> InternalRegistries.ITEM_TAGS = SimpleMappedRegistry.create(new ItemTagRegistryLoader()))
+                .stage("item_definitions", () -> InternalRegistries.ITEM_DEFINITIONS = SimpleMappedRegistry.create(new ItemDefinitionRegistryLoader()))
+                .stage("items", () -> SimpleMappedRegistry.create(
+                        RegistryLoaders.empty(() -> new HashMap<Identifier, ItemType<?>>()),
+                        r -> Registries.ITEMS = r,
+                        new ItemTypeRegistryPopulator()
+                ), "enchantments", "item_data", "item_tags", "item_definitions")
+                // BlockEntity
+                .stage("block_entities", () -> SimpleMappedRegistry.create(
+                        RegistryLoaders.empty(() -> new HashMap<String, BlockEntityType<?>>()),
+                        r -> Registries.BLOCK_ENTITIES = r,
+                        new BlockEntityTypeRegistryPopulator()
+                ))
+                // Block
+                .stage("block_state_data", () -> InternalRegistries.BLOCK_STATE_DATA = SimpleMappedRegistry.create(new BlockStateDataRegistryLoader()))
+                .stage("block_tags", () -> InternalRegistries.BLOCK_TAGS = SimpleMappedRegistry.create(new BlockTagRegistryLoader()))
+                .stage("block_default_state_hashes", () -> InternalRegistries.BLOCK_DEFAULT_STATE_HASHES = SimpleMappedRegistry.create(new BlockDefaultStateHashRegistryLoader()))
+                .stage("block_property_processors", () -> InternalRegistries.BLOCK_PROPERTY_PROCESSORS = SimpleMappedRegistry.create(new BlockPropertyProcessorRegistryLoader()))
+                .stage("blocks", () -> {
+                    Registries.BLOCK_STATE_PALETTE = BlockStatePaletteRegistry.create(RegistryLoaders.empty(Int2ObjectOpenHashMap::new));
+                    SimpleMappedRegistry.create(
+                            RegistryLoaders.empty(() -> new HashMap<Identifier, BlockType<?>>()),
+                            r -> Registries.BLOCKS = r,
+                            new BlockTypeRegistryPopulator()
+                    );
+                }, "items", "block_entities", "block_state_data", "block_tags", "block_default_state_hashes", "block_property_processors")
+                // Entity
+                .stage("effects", () -> DoubleKeyMappedRegistry.create(
+                        RegistryLoaders.empty(() -> new DoubleKeyMappedRegistry.MapPair<>(new Int2ObjectOpenHashMap<>(), new HashMap<Identifier, EffectType>())),
+                        r -> Registries.EFFECTS = r,
+                        new EffectTypeRegistryPopulator()
+                ))
+                .stage("entities", () -> SimpleMappedRegistry.create(
+                        RegistryLoaders.empty(() -> new HashMap<Identifier, EntityType<?>>()),
+                        r -> Registries.ENTITIES = r,
+                        new EntityTypeRegistryPopulator()
+                ), "effects")
+                // Biome
+                .stage("biome_data", () -> InternalRegistries.BIOME_DATA = SimpleMappedRegistry.create(new BiomeDataRegistryLoader()))
+                .stage("biomes", () -> DoubleKeyMappedRegistry.create(
+                        RegistryLoaders.empty(() -> new DoubleKeyMappedRegistry.MapPair<>(new Int2ObjectOpenHashMap<>(), new HashMap<Identifier, BiomeType>())),
+                        r -> Registries.BIOMES = r,
+                        new BiomeTypeRegistryPopulator()
+                ), "biome_data")
+                // World
+                .stage("world_storage_factories", () -> Registries.WORLD_STORAGE_FACTORIES = SimpleMappedRegistry.create(new WorldStorageFactoryRegistryLoader()))
+                .stage("world_generator_factories", () -> Registries.WORLD_GENERATOR_FACTORIES = SimpleMappedRegistry.create(new WorldGeneratorFactoryRegistryLoader()))
+                // Persistent Data Container (PDC)
+                .stage("persistent_data_types", () -> Registries.PERSISTENT_DATA_TYPES = new AllayPersistentDataTypeRegistry())
+                // Creative Item
+                .stage("creative_items", () -> Registries.CREATIVE_ITEMS = new AllayCreativeItemRegistry(), "items", "blocks", "persistent_data_types")
+                // Recipe
+                .stage("recipes", () -> Registries.RECIPES = SimpleMappedRegistry.create(new RecipeRegistryLoader()), "items", "blocks", "persistent_data_types")
+                // Trim Data
+                .stage("trim_patterns", () -> InternalRegistries.TRIM_PATTERNS = SimpleMappedRegistry.create(new TrimPatternRegistryLoader()), "items")
+                .stage("trim_materials", () -> InternalRegistries.TRIM_MATERIALS = SimpleMappedRegistry.create(new TrimMaterialRegistryLoader()), "items")
+                // Pack
+                .stage("packs", () -> Registries.PACKS = SimpleMappedRegistry.create(new PackRegistryLoader()));
+        // Command, commands may look up any registry when they are built
+        bootstrap.stage("commands", () -> Registries.COMMANDS = new AllayCommandRegistry(), bootstrap.getStageNames().toArray(String[]::new));
+
+        bootstrap.run(Server.getInstance().getComputeThreadPool());
     }
 
     @VisibleForTesting
@@ -24,6 +24,7 @@ import org.allaymc.api.server.ServerState;
 import org.allaymc.api.utils.TextFormat;
 import org.allaymc.server.eventbus.AllayEventBus;
 import org.allaymc.server.network.AllayNetworkInterface;
+import org.allaymc.server.pack.PackDownloadScheduler;
 import org.allaymc.server.player.AllayEmptyPlayerStorage;
 import org.allaymc.server.player.AllayNBTFilePlayerStorage;
 import org.allaymc.server.player.AllayPlayerManager;
@@ -31,6 +32,9 @@ import org.allaymc.server.plugin.AllayPluginManager;
 import org.allaymc.server.scheduler.AllayScheduler;
 import org.allaymc.server.scroreboard.JsonScoreboardStorage;
 import org.allaymc.server.terminal.AllayTerminalConsole;
+import org.allaymc.server.timings.TickHistogram;
+import org.allaymc.server.timings.Timing;
+import org.allaymc.server.timings.Timings;
 import org.allaymc.server.utils.AllayForkJoinWorkerThreadFactory;
 import org.allaymc.server.utils.GameLoop;
 import org.allaymc.server.utils.SignalUtils;
@@ -66,7 +70,7 @@ public final class AllayServer implements Server {
     @Getter
     private final AllayPlayerManager playerManager;
     @Getter
-    private final ExecutorService computeThreadPool, virtualThreadPool;
+    private final ExecutorService computeThreadPool, virtualThreadPool, lightThreadPool;
     @Getter
     private final EventBus eventBus;
     @Getter
@@ -75,8 +79,11 @@ public final class AllayServer implements Server {
     private final AllayPluginManager pluginManager;
     @Getter
     private final Scheduler scheduler;
+    @Getter
+    private final PackDownloadScheduler packDownloadScheduler;
     private final AllayTerminalConsole terminalConsole;
     private final GameLoop gameLoop;
+    private final Timing schedulerTiming, packDownloadsTiming, playersTiming;
 
     @Getter
     @Setter
@@ -93,10 +100,12 @@ public final class AllayServer implements Server {
         this.worldPool = new AllayWorldPool();
         this.computeThreadPool = createComputeThreadPool();
         this.virtualThreadPool = Executors.newVirtualThreadPerTaskExecutor();
+        this.lightThreadPool = createLightThreadPool();
         this.eventBus = new AllayEventBus(virtualThreadPool);
         this.scoreboardManager = new ScoreboardManager(this, new JsonScoreboardStorage(Path.of("command_data/scoreboards.json")));
         this.pluginManager = new AllayPluginManager();
         this.scheduler = new AllayScheduler(virtualThreadPool);
+        this.packDownloadScheduler = createPackDownloadScheduler();
         this.terminalConsole = new AllayTerminalConsole(AllayServer.this);
         this.gameLoop = GameLoop.builder()
                 .loopCountPerSec(20)
@@ -104,6 +113,9 @@ public final class AllayServer implements Server {
                 .onTick(this::serverThreadMain)
                 .onStop(this::onServerStop)
                 .build();
+        this.schedulerTiming = Timings.of(Timings.SERVER_GROUP, "scheduler");
+        this.packDownloadsTiming = Timings.of(Timings.SERVER_GROUP, "pack downloads");
+        this.playersTiming = Timings.of(Timings.SERVER_GROUP, "players");
         this.messageChannel = new MessageChannel();
         this.messageChannel.addReceiver(this);
         this.permissionCalculator = new ConstantPermissionCalculator(Tristate.TRUE);
@@ -155,6 +167,18 @@ public final class AllayServer implements Server {
         );
     }
 
+    private ExecutorService createLightThreadPool() {
+        var threadCount = SETTINGS.worldSettings().lightThreadCount() <= 0 ?
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2) :
+                SETTINGS.worldSettings().lightThreadCount();
+        return Executors.newFixedThreadPool(threadCount, Thread.ofPlatform().name("Light Calculating Thread #", 0).factory());
+    }
+
+    private PackDownloadScheduler createPackDownloadScheduler() {
+        var settings = SETTINGS.resourcePackSettings();
+        return new PackDownloadScheduler(settings.maxChunkSize() * 1024, settings.downloadWindowPerPlayer(), settings.globalDownloadWindow());
+    }
+
     @SneakyThrows
     public void start(long initialTime) {
         var ctx = (LoggerContext) LogManager.getContext(false);
@@ -212,8 +236,29 @@ public final class AllayServer implements Server {
     }
 
     private void tick(long currentTick) {
+        var start = this.schedulerTiming.start();
         this.scheduler.tick();
+        this.schedulerTiming.stop(start);
+
+        start = this.packDownloadsTiming.start();
+        this.packDownloadScheduler.tick();
+        this.packDownloadsTiming.stop(start);
+
+        start = this.playersTiming.start();
         this.playerManager.tick(currentTick);
+        this.playersTiming.stop(start);
+    }
+
+    public float getTPS() {
+        return gameLoop.getTPS();
+    }
+
+    public float getMSPT() {
+        return gameLoop.getMSPT();
+    }
+
+    public TickHistogram getTickHistogram() {
+        return gameLoop.getTickHistogram();
     }
 
     @Override
@@ -254,6 +299,7 @@ public final class AllayServer implements Server {
         this.worldPool.shutdown();
 
         // Shutdown all thread pools
+        this.lightThreadPool.shutdown();
         this.virtualThreadPool.shutdown();
         this.computeThreadPool.shutdown();
 
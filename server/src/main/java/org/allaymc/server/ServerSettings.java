@@ -167,6 +167,21 @@ public class ServerSettings extends OkaeriConfig {
         @CustomKey("enable-encoding-protection")
         private boolean enableEncodingProtection = true;
 
+        @Comment("Whether to use the client blob cache if the client supports it. Blocks and biomes of chunks")
+        @Comment("will be sent as blob ids, and the client only asks for the blobs that it doesn't have")
+        @Comment("This reduces bandwidth significantly when the player revisits an area")
+        @CustomKey("enable-client-cache")
+        private boolean enableClientCache = true;
+
+        @Comment("The maximum total size (unit: MB) of the blobs kept in the server side blob store")
+        @CustomKey("client-blob-store-max-size")
+        private int clientBlobStoreMaxSize = 64;
+
+        @Comment("Whether to encode and compress the large login packets (items, creative content, recipes, etc.)")
+        @Comment("only once per protocol version and send the same compressed bytes to every joining player")
+        @CustomKey("precompress-login-data")
+        private boolean precompressLoginData = true;
+
         public enum CompressionAlgorithm {
             ZLIB,
             SNAPPY
@@ -228,10 +243,35 @@ public class ServerSettings extends OkaeriConfig {
         @CustomKey("max-light-update-count")
         private int maxLightUpdateCountPerDimension = 1280000;
 
+        @Comment("Determines the number of threads used to calculate light, which are shared by all dimensions")
+        @Comment("If set to a value <= 0, half of the available processors will be used")
+        @CustomKey("light-thread-count")
+        private int lightThreadCount = -1;
+
+        @Comment("Determines the maximum number of chunks that can be generated at the same time by pre-generation (per dimension)")
+        @CustomKey("pre-generation-max-in-flight-chunks")
+        private int preGenerationMaxInFlightChunks = 16;
+
+        @Comment("Pre-generation won't submit new chunks while the MSPT of the world is higher than this value")
+        @CustomKey("pre-generation-mspt-budget")
+        private float preGenerationMsptBudget = 40f;
+
+        @Comment("Determines the lock used to guard chunk sections. Possible values: READ_WRITE, STAMPED")
+        @Comment("STAMPED uses optimistic reads for block and biome reads, which scales better when many threads")
+        @Comment("are reading the same chunk (physics, light, explosions), but it is still experimental")
+        @CustomKey("chunk-section-lock-type")
+        @Setter
+        private ChunkSectionLockType chunkSectionLockType = ChunkSectionLockType.READ_WRITE;
+
         public enum ChunkSendingStrategy {
             ASYNC,
             SYNC
         }
+
+        public enum ChunkSectionLockType {
+            READ_WRITE,
+            STAMPED
+        }
     }
 
     @Getter
@@ -285,10 +325,21 @@ public class ServerSettings extends OkaeriConfig {
         @Comment("Determines the cycle of chunk auto saving")
         private int chunkAutoSaveCycle = 20 * 60 * 5;
 
+        @CustomKey("chunk-auto-save-max-chunks-per-tick")
+        @Comment("Determines the maximum number of chunks that can be auto saved during a tick (per dimension)")
+        @Comment("Chunks are spread over the auto saving cycle, chunks exceeding this limit will be saved in the next tick")
+        private int chunkAutoSaveMaxChunksPerTick = 8;
+
         @CustomKey("entity-auto-save-cycle")
         @Comment("Determines the cycle of entity auto saving. When entity auto saving is triggered, the")
         @Comment("entity manager will find all savable entities in unloaded chunks and save them")
         private int entityAutoSaveCycle = 20 * 60;
+
+        @CustomKey("leveldb-max-pending-writes")
+        @Comment("Determines the maximum number of keys that can wait to be written to a LevelDB world")
+        @Comment("Chunk and entity saves are queued and written in large batches, and saving will")
+        @Comment("be blocked until the queue is drained if the number of pending keys reaches this value")
+        private int levelDBMaxPendingWrites = 65536;
     }
 
     @Getter
@@ -297,6 +348,7 @@ public class ServerSettings extends OkaeriConfig {
 
         @CustomKey("auto-encrypt-packs")
         @Comment("If set to true, packs will be automatically encrypted")
+        @Comment("Encrypted packs are cached in cache/encrypted_packs, and a pack is only encrypted again after it is changed")
         @Comment("Notes that Vibrant Visuals will be disabled if this is set to true")
         private boolean autoEncryptPacks = true;
 
@@ -306,6 +358,16 @@ public class ServerSettings extends OkaeriConfig {
         @Comment("However, it may also increase the time it takes to send the packs")
         private int maxChunkSize = 100; // 100KB, from BDS
 
+        @CustomKey("download-window-per-player")
+        @Comment("The maximum number of resource pack chunks sent to a player per tick")
+        @Comment("Chunk requests beyond the window will be queued and sent in later ticks. Set to 0 to disable the limit")
+        private int downloadWindowPerPlayer = 8;
+
+        @CustomKey("global-download-window")
+        @Comment("The maximum number of resource pack chunks sent to all players per tick")
+        @Comment("Chunk requests beyond the window will be queued and sent in later ticks. Set to 0 to disable the limit")
+        private int globalDownloadWindow = 128;
+
         @Comment("true - the player must accept resource packs, otherwise he will not log in to the server")
         @Comment("false - the player can log in to the server without accepting resource packs")
         @CustomKey("force-resource-packs")
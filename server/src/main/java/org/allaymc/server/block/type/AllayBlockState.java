@@ -19,13 +19,15 @@ public record AllayBlockState(
         BlockPropertyType.BlockPropertyValue<?, ?, ?>[] blockPropertyValues,
         NbtMap blockStateTag,
         int blockStateHash,
-        long specialValue
+        long specialValue,
+        int stateIndex
 ) implements BlockState {
     public AllayBlockState(BlockType<?> blockType, BlockPropertyType.BlockPropertyValue<?, ?, ?>[] propertyValues) {
         this(
                 blockType, propertyValues, buildBlockStateTag(blockType, propertyValues),
                 HashUtils.computeBlockStateHash(blockType.getIdentifier(), Arrays.stream(propertyValues).toList()),
-                AllayBlockType.computeSpecialValue(propertyValues)
+                AllayBlockType.computeSpecialValue(propertyValues),
+                AllayBlockType.computeStateIndex(propertyValues)
         );
     }
 
@@ -81,22 +83,18 @@ public record AllayBlockState(
 
     @Override
     public BlockState setPropertyValue(BlockPropertyType.BlockPropertyValue<?, ?, ?> propertyValue) {
-        var newPropertyValues = new BlockPropertyType.BlockPropertyValue<?, ?, ?>[this.blockPropertyValues.length];
-        var succeed = false;
         for (int i = 0; i < blockPropertyValues.length; i++) {
-            if (blockPropertyValues[i].getPropertyType() == propertyValue.getPropertyType()) {
-                succeed = true;
-                newPropertyValues[i] = propertyValue;
-            } else {
-                newPropertyValues[i] = blockPropertyValues[i];
+            var oldValue = blockPropertyValues[i];
+            if (oldValue.getPropertyType() == propertyValue.getPropertyType()) {
+                if (oldValue == propertyValue) {
+                    return this;
+                }
+                // Look up the precomputed state table, no array or property value will be allocated
+                return ((AllayBlockType<?>) blockType).transitState(stateIndex, i, oldValue.getIndex(), propertyValue.getIndex());
             }
         }
 
-        if (!succeed) {
-            throw new IllegalArgumentException("Property " + propertyValue.getPropertyType() + " is not supported by block " + blockType.getIdentifier());
-        }
-
-        return getNewBlockState(newPropertyValues);
+        throw new IllegalArgumentException("Property " + propertyValue.getPropertyType() + " is not supported by block " + blockType.getIdentifier());
     }
 
     @Override
@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableList;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.block.BlockBehavior;
@@ -49,6 +50,17 @@ public final class AllayBlockType<T extends BlockBehavior> implements BlockType<
     private final Map<Integer, BlockState> blockStateHashMap;
     private final byte specialValueBits;
     private final Map<Long, BlockState> specialValueMap;
+    /**
+     * All the states of this block type, indexed by {@link AllayBlockState#stateIndex()}.
+     */
+    @Getter(AccessLevel.NONE)
+    private BlockState[] denseStates;
+    /**
+     * The distance in {@link #denseStates} between two states whose only difference is that the
+     * index of the property at the specified position differs by one.
+     */
+    @Getter(AccessLevel.NONE)
+    private int[] propertyStrides;
 
     private BlockState defaultState;
     private T blockBehavior;
@@ -101,6 +113,23 @@ public final class AllayBlockType<T extends BlockBehavior> implements BlockType<
         return specialValue;
     }
 
+    /**
+     * Compute the dense index of a block state, which is a mixed radix number whose digits are the
+     * indexes of the property values, and the last property value is the lowest digit.
+     *
+     * @param propertyValues the property values of the block state, in the order of the properties of the block type
+     * @return the dense index
+     */
+    public static int computeStateIndex(BlockPropertyType.BlockPropertyValue<?, ?, ?>[] propertyValues) {
+        int stateIndex = 0;
+        int stride = 1;
+        for (int i = propertyValues.length - 1; i >= 0; i--) {
+            stateIndex += propertyValues[i].getIndex() * stride;
+            stride *= propertyValues[i].getPropertyType().getValidValues().size();
+        }
+        return stateIndex;
+    }
+
     public static <T extends BlockBehavior> Builder builder(Class<T> clazz) {
         return new Builder(clazz);
     }
@@ -122,11 +151,27 @@ public final class AllayBlockType<T extends BlockBehavior> implements BlockType<
         return blockStateHashMap.values();
     }
 
+    /**
+     * Get the state that only differs from the given state in the value of one property. This is a
+     * plain array lookup and doesn't allocate anything.
+     *
+     * @param stateIndex    the dense index of the given state
+     * @param propertyIndex the position of the property in the property values of the given state
+     * @param oldValueIndex the index of the current value of the property
+     * @param newValueIndex the index of the new value of the property
+     * @return the new state
+     */
+    public BlockState transitState(int stateIndex, int propertyIndex, int oldValueIndex, int newValueIndex) {
+        return denseStates[stateIndex + (newValueIndex - oldValueIndex) * propertyStrides[propertyIndex]];
+    }
+
     private Map<Integer, BlockState> initStates(Function<Map<Integer, BlockState>, BlockState> defaultStateSupplier) {
         var propertyTypeList = this.properties.values().stream().toList();
         var size = propertyTypeList.size();
         if (size == 0) {
             this.defaultState = new AllayBlockState(this, new BlockPropertyType.BlockPropertyValue[]{});
+            this.denseStates = new BlockState[]{defaultState};
+            this.propertyStrides = new int[0];
             return new Int2ObjectArrayMap<>(new int[]{defaultState.blockStateHash()}, new BlockState[]{defaultState});
         }
 
@@ -173,6 +218,8 @@ public final class AllayBlockType<T extends BlockBehavior> implements BlockType<
             }
         }
 
+        initDenseStates(propertyTypeList, blockStates.values());
+
         this.defaultState = defaultStateSupplier.apply(blockStates);
         if (this.defaultState == null) {
             throw new BlockTypeBuildException("Block default state supplier cannot return null!");
@@ -181,6 +228,21 @@ public final class AllayBlockType<T extends BlockBehavior> implements BlockType<
         return Collections.unmodifiableMap(blockStates);
     }
 
+    private void initDenseStates(List<BlockPropertyType<?>> propertyTypeList, Collection<BlockState> blockStates) {
+        this.propertyStrides = new int[propertyTypeList.size()];
+        int stride = 1;
+        for (int i = propertyTypeList.size() - 1; i >= 0; i--) {
+            this.propertyStrides[i] = stride;
+            stride *= propertyTypeList.get(i).getValidValues().size();
+        }
+
+        // stride is the count of all the combinations of the property values now
+        this.denseStates = new BlockState[stride];
+        for (var state : blockStates) {
+            this.denseStates[((AllayBlockState) state).stateIndex()] = state;
+        }
+    }
+
     @Slf4j
     public static class Builder {
 
@@ -319,9 +381,12 @@ public final class AllayBlockType<T extends BlockBehavior> implements BlockType<
                 throw new BlockTypeBuildException("Failed to create block type!", t);
             }
 
-            Registries.BLOCKS.register(type.getIdentifier(), type);
-            for (var blockState : type.blockStateHashMap.values()) {
-                Registries.BLOCK_STATE_PALETTE.register(blockState.blockStateHash(), blockState);
+            // Block types may be built in parallel, see BlockTypeRegistryPopulator
+            synchronized (Registries.BLOCKS) {
+                Registries.BLOCKS.register(type.getIdentifier(), type);
+                for (var blockState : type.blockStateHashMap.values()) {
+                    Registries.BLOCK_STATE_PALETTE.register(blockState.blockStateHash(), blockState);
+                }
             }
 
             return type;
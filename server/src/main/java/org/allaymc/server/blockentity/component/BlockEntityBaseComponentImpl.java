@@ -19,6 +19,7 @@ import org.allaymc.server.component.annotation.ComponentObject;
 import org.allaymc.server.component.annotation.Manager;
 import org.allaymc.server.component.annotation.OnInitFinish;
 import org.allaymc.server.pdc.AllayPersistentDataContainer;
+import org.allaymc.server.world.chunk.AllayUnsafeChunk;
 import org.cloudburstmc.nbt.NbtMap;
 
 import java.util.Objects;
@@ -49,7 +50,6 @@ public class BlockEntityBaseComponentImpl implements BlockEntityBaseComponent {
     @Getter
     protected Position3ic position;
     @Getter
-    @Setter
     protected String customName;
     @Getter
     @Setter
@@ -114,6 +114,30 @@ public class BlockEntityBaseComponentImpl implements BlockEntityBaseComponent {
      */
     public void applyPlayerChange(EntityPlayer player, NbtMap nbt) {
         loadNBT(nbt);
+        markDirty();
+    }
+
+    @Override
+    public void setCustomName(String customName) {
+        this.customName = customName;
+        markDirty();
+    }
+
+    /**
+     * Mark the chunk that this block entity is in as changed, so that the chunk will be saved during the
+     * next auto saving. Should be called when the saved data of this block entity is changed. Changes of
+     * the container and changes sent to the viewers are tracked automatically.
+     */
+    public void markDirty() {
+        var pos = getPosition();
+        if (pos.dimension() == null) {
+            return;
+        }
+
+        var chunk = pos.dimension().getChunkManager().getChunkByDimensionPos(pos.x(), pos.z());
+        if (chunk != null) {
+            ((AllayUnsafeChunk) chunk.toUnsafeChunk()).markBlockEntitiesDirty();
+        }
     }
 
     /**
@@ -140,6 +164,8 @@ public class BlockEntityBaseComponentImpl implements BlockEntityBaseComponent {
         var pos = getPosition();
         var chunk = pos.dimension().getChunkManager().getChunkByDimensionPos(pos.x(), pos.z());
         Objects.requireNonNull(chunk, "The chunk located at pos " + pos + " is not loaded!");
+        // The block entity is sent to the viewers because it has been changed
+        ((AllayUnsafeChunk) chunk.toUnsafeChunk()).markBlockEntitiesDirty();
         if (immediately) {
             chunk.forEachChunkLoaders(loader -> {
                 if (loader instanceof EntityPlayer player && player.isActualPlayer()) {
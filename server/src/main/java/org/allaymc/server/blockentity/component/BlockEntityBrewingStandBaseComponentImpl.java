@@ -77,7 +77,12 @@ public class BlockEntityBrewingStandBaseComponentImpl extends BlockEntityBaseCom
     @Override
     public void tick(long currentTick) {
         BrewingStandContainerImpl container = containerHolderComponent.getContainer();
+        var lastBrewTime = brewTime;
+        var lastFuelAmount = fuelAmount;
         tickBrewingStand(container);
+        if (lastBrewTime != brewTime || lastFuelAmount != fuelAmount) {
+            markDirty();
+        }
         container.sendContainerData(ContainerSetDataPacket.BREWING_STAND_FUEL_AMOUNT, fuelAmount);
         container.sendContainerData(ContainerSetDataPacket.BREWING_STAND_FUEL_TOTAL, fuelTotal);
     }
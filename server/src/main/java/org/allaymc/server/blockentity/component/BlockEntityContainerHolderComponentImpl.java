@@ -1,6 +1,5 @@
 package org.allaymc.server.blockentity.component;
 
-import lombok.Setter;
 import org.allaymc.api.blockentity.component.BlockEntityBaseComponent;
 import org.allaymc.api.blockentity.component.BlockEntityContainerHolderComponent;
 import org.allaymc.api.container.Container;
@@ -30,11 +29,27 @@ public class BlockEntityContainerHolderComponentImpl implements BlockEntityConta
     @Dependency
     protected BlockEntityBaseComponent baseComponent;
 
-    @Setter
     protected Container container;
 
     public BlockEntityContainerHolderComponentImpl(Supplier<Container> containerSupplier) {
         this.container = containerSupplier.get();
+        listenForChanges(this.container);
+    }
+
+    public void setContainer(Container container) {
+        this.container = container;
+        listenForChanges(container);
+    }
+
+    protected void listenForChanges(Container container) {
+        // Mark the chunk as changed when the content of the container is changed, so that it will be auto saved
+        for (int slot = 0; slot < container.getContainerType().getSize(); slot++) {
+            container.addSlotChangeListener(slot, $ -> {
+                if (baseComponent != null) {
+                    ((BlockEntityBaseComponentImpl) baseComponent).markDirty();
+                }
+            });
+        }
     }
 
     @SuppressWarnings("unchecked")
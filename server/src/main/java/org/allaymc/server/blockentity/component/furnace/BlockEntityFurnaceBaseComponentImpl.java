@@ -148,9 +148,11 @@ public class BlockEntityFurnaceBaseComponentImpl extends BlockEntityBaseComponen
     @Override
     public void tick(long currentTick) {
         var lastBurnTime = burnTime;
+        var lastCookTime = cookTime;
         tickFurnace();
         if (lastBurnTime == 1 && burnTime == 0) setLit(false);
         if (lastBurnTime == 0 && burnTime > 0) setLit(true);
+        if (lastBurnTime != burnTime || lastCookTime != cookTime) markDirty();
         sendFurnaceContainerData();
     }
 
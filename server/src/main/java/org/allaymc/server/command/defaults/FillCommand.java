@@ -44,21 +44,20 @@ public class FillCommand extends Command {
                         return context.fail();
                     }
 
-                    var minX = Math.min(from.x, to.x);
-                    var maxX = Math.max(from.x, to.x);
-                    var minY = Math.min(from.y, to.y);
-                    var maxY = Math.max(from.y, to.y);
-                    var minZ = Math.min(from.z, to.z);
-                    var maxZ = Math.max(from.z, to.z);
+                    var minX = (int) Math.min(from.x, to.x);
+                    var maxX = (int) Math.max(from.x, to.x);
+                    var minY = (int) Math.min(from.y, to.y);
+                    var maxY = (int) Math.max(from.y, to.y);
+                    var minZ = (int) Math.min(from.z, to.z);
+                    var maxZ = (int) Math.max(from.z, to.z);
 
-                    int count = 0;
-                    for (var x = minX; x <= maxX; x++) {
-                        for (var y = minY; y <= maxY; y++) {
-                            for (var z = minZ; z <= maxZ; z++) {
-                                dim.setBlockState(x, y, z, blockState);
-                                count++;
-                            }
-                        }
+                    var sizeX = maxX - minX + 1;
+                    var sizeY = maxY - minY + 1;
+                    var sizeZ = maxZ - minZ + 1;
+                    var count = dim.fillBlockStates(minX, minY, minZ, sizeX, sizeY, sizeZ, blockState);
+                    if (count == 0) {
+                        context.addError("%" + TrKeys.MC_COMMANDS_FILL_FAILED);
+                        return context.fail();
                     }
 
                     context.addOutput(TrKeys.MC_COMMANDS_FILL_SUCCESS, count);
@@ -10,6 +10,11 @@ import org.allaymc.api.permission.Permissions;
 import org.allaymc.api.server.Server;
 import org.allaymc.api.utils.TextFormat;
 import org.allaymc.api.world.Dimension;
+import org.allaymc.server.world.chunk.ChunkBlobStore;
+import org.allaymc.server.world.chunk.ChunkNetworkCache;
+import org.allaymc.server.world.light.AllayLightEngine;
+import org.allaymc.server.world.manager.AllayChunkManager;
+import org.allaymc.server.world.storage.leveldb.AllayLevelDBWorldStorage;
 import oshi.SystemInfo;
 import oshi.util.platform.windows.WmiQueryHandler;
 
@@ -193,8 +198,37 @@ public class StatusCommand extends Command {
             sender.sendMessage("  Chunks: " + TextFormat.GREEN + chunks);
             sender.sendMessage("  Entities: " + TextFormat.GREEN + entities);
             sender.sendMessage("  BlockEntities: " + TextFormat.GREEN + blockEntities);
+            var chunkManagers = dims.stream().map(d -> (AllayChunkManager) d.getChunkManager()).toList();
+            sender.sendMessage("  Chunk auto saving: " + TextFormat.GREEN +
+                               chunkManagers.stream().mapToInt(AllayChunkManager::getLastTickAutoSavedChunkCount).sum() + " saved last tick, " +
+                               chunkManagers.stream().mapToLong(AllayChunkManager::getAutoSavedChunkCount).sum() + " saved, " +
+                               chunkManagers.stream().mapToLong(AllayChunkManager::getAutoSaveSkippedChunkCount).sum() + " skipped (unchanged), " +
+                               chunkManagers.stream().mapToInt(AllayChunkManager::getAutoSaveQueueSize).sum() + " queued");
+            if (world.getWorldStorage() instanceof AllayLevelDBWorldStorage storage) {
+                var writeQueue = storage.getWriteQueue();
+                sender.sendMessage("  Storage write queue: " + TextFormat.GREEN + writeQueue.getQueueDepth() + " pending keys, last batch " +
+                                   writeQueue.getLastBatchSize() + " keys in " + round(writeQueue.getLastBatchLatency() / 1_000_000d, 2) + " ms, " +
+                                   writeQueue.getCoalescedWriteCount() + " writes coalesced");
+            }
+            for (var dim : dims) {
+                if (dim.getLightEngine() instanceof AllayLightEngine lightEngine) {
+                    sender.sendMessage("  Light (" + dim.getDimensionInfo() + "): " + TextFormat.GREEN + lightEngine.getQueuedUpdateCount() + " queued, " +
+                                       lightEngine.getFinishedUpdateCount() + " processed, latency avg " + round(lightEngine.getAverageUpdateLatency() / 1_000_000d, 2) +
+                                       " ms / max " + round(lightEngine.getMaxUpdateLatency() / 1_000_000d, 2) + " ms");
+                }
+            }
             sender.sendMessage("\n");
         }
+
+        sender.sendMessage("Chunk encoding cache: " + TextFormat.GREEN + formatHitRate(ChunkNetworkCache.getHits(), ChunkNetworkCache.getMisses()));
+        sender.sendMessage("Chunk blob encoding cache: " + TextFormat.GREEN + formatHitRate(ChunkNetworkCache.getBlobHits(), ChunkNetworkCache.getBlobMisses()));
+        sender.sendMessage("Client blob cache: " + TextFormat.GREEN + ChunkBlobStore.getBlobCount() + " blobs stored, " +
+                           ChunkBlobStore.getSentBlobCount() + " sent as ids, " + ChunkBlobStore.getMissedBlobCount() + " missed by clients");
+    }
+
+    protected static String formatHitRate(long hits, long misses) {
+        var total = hits + misses;
+        return hits + " hits, " + misses + " misses" + (total > 0 ? " (" + round(hits * 100d / total, 2) + "%)" : "");
     }
 
     protected static void printUpTimeInfo(CommandSender sender) {
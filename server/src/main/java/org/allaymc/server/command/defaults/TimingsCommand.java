@@ -0,0 +1,79 @@
+package org.allaymc.server.command.defaults;
+
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.command.Command;
+import org.allaymc.api.command.tree.CommandTree;
+import org.allaymc.api.message.TrKeys;
+import org.allaymc.api.permission.Permissions;
+import org.allaymc.api.utils.TextFormat;
+import org.allaymc.server.timings.Timings;
+import org.allaymc.server.timings.TimingsReport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * @author daoge_cmd
+ */
+@Slf4j
+public class TimingsCommand extends Command {
+
+    protected static final Path REPORT_DIR = Path.of("timings");
+    protected static final DateTimeFormatter REPORT_FILE_NAME_FORMATTER = DateTimeFormatter.ofPattern("'timings-'yyyy-MM-dd_HH-mm-ss'.txt'");
+
+    public TimingsCommand() {
+        super("timings", TrKeys.ALLAY_COMMAND_TIMINGS_DESCRIPTION, Permissions.COMMAND_TIMINGS);
+    }
+
+    @Override
+    public void prepareCommandTree(CommandTree tree) {
+        tree.getRoot()
+                .key("on")
+                .exec(context -> {
+                    Timings.setEnabled(true);
+                    context.addOutput(TrKeys.ALLAY_COMMAND_TIMINGS_ENABLED);
+                    return context.success();
+                })
+                .root()
+                .key("off")
+                .exec(context -> {
+                    Timings.setEnabled(false);
+                    context.addOutput(TrKeys.ALLAY_COMMAND_TIMINGS_DISABLED);
+                    return context.success();
+                })
+                .root()
+                .key("reset")
+                .exec(context -> {
+                    if (!Timings.isEnabled()) {
+                        context.addError("%" + TrKeys.ALLAY_COMMAND_TIMINGS_NOTENABLED);
+                        return context.fail();
+                    }
+
+                    Timings.reset();
+                    context.addOutput(TrKeys.ALLAY_COMMAND_TIMINGS_RESET);
+                    return context.success();
+                })
+                .root()
+                .key("report")
+                .intNum("count", 10).optional()
+                .exec(context -> {
+                    int count = context.getResult(1);
+                    var lines = TimingsReport.generate(Math.max(count, 1));
+                    var sender = context.getSender();
+                    lines.forEach(sender::sendMessage);
+
+                    var reportFile = REPORT_DIR.resolve(LocalDateTime.now().format(REPORT_FILE_NAME_FORMATTER));
+                    try {
+                        Files.createDirectories(REPORT_DIR);
+                        Files.write(reportFile, lines.stream().map(TextFormat::clean).toList());
+                        context.addOutput(TrKeys.ALLAY_COMMAND_TIMINGS_SAVED, reportFile.toString());
+                    } catch (IOException exception) {
+                        log.error("Failed to save timings report", exception);
+                    }
+                    return context.success();
+                });
+    }
+}
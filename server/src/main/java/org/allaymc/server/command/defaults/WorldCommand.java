@@ -104,6 +104,52 @@ public class WorldCommand extends Command {
                     return context.success();
                 })
                 .root()
+                .key("pregen")
+                .key("start")
+                .intNum("radius")
+                .exec(context -> {
+                    int radius = context.getResult(2);
+                    var location = context.getSender().getCommandExecuteLocation();
+                    var chunkX = (int) Math.floor(location.x()) >> 4;
+                    var chunkZ = (int) Math.floor(location.z()) >> 4;
+                    if (!location.dimension().getChunkManager().startPreGeneration(chunkX, chunkZ, radius)) {
+                        context.addError("%" + TrKeys.ALLAY_COMMAND_WORLD_PREGEN_RUNNING);
+                        return context.fail();
+                    }
+
+                    context.addOutput(TrKeys.ALLAY_COMMAND_WORLD_PREGEN_STARTED, (2L * radius + 1) * (2L * radius + 1), chunkX, chunkZ);
+                    return context.success();
+                })
+                .up(2)
+                .key("stop")
+                .exec(context -> {
+                    if (!context.getSender().getCommandExecuteLocation().dimension().getChunkManager().stopPreGeneration()) {
+                        context.addError("%" + TrKeys.ALLAY_COMMAND_WORLD_PREGEN_NOTRUNNING);
+                        return context.fail();
+                    }
+
+                    context.addOutput(TrKeys.ALLAY_COMMAND_WORLD_PREGEN_STOPPED);
+                    return context.success();
+                })
+                .up()
+                .key("status")
+                .exec(context -> {
+                    var progress = context.getSender().getCommandExecuteLocation().dimension().getChunkManager().getPreGenerationProgress();
+                    if (progress == null) {
+                        context.addError("%" + TrKeys.ALLAY_COMMAND_WORLD_PREGEN_NOTRUNNING);
+                        return context.fail();
+                    }
+
+                    context.addOutput(
+                            TrKeys.ALLAY_COMMAND_WORLD_PREGEN_STATUS,
+                            progress.generatedChunks(), progress.totalChunks(),
+                            String.format("%.2f%%", progress.percentage()),
+                            String.format("%.1f", progress.chunksPerSecond()),
+                            progress.etaSeconds()
+                    );
+                    return context.success();
+                })
+                .root()
                 .key("create")
                 .exec((context, player) -> {
                     var langCode = player.getController().getLoginData().getLangCode();
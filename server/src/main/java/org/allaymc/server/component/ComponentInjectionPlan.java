@@ -0,0 +1,343 @@
+package org.allaymc.server.component;
+
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.component.Component;
+import org.allaymc.api.component.ComponentInitInfo;
+import org.allaymc.api.eventbus.EventException;
+import org.allaymc.api.eventbus.EventHandler;
+import org.allaymc.api.eventbus.event.Event;
+import org.allaymc.api.server.Server;
+import org.allaymc.server.component.annotation.ComponentObject;
+import org.allaymc.server.component.annotation.Dependency;
+import org.allaymc.server.component.annotation.Manager;
+import org.allaymc.server.component.annotation.OnInitFinish;
+import org.allaymc.server.utils.ComponentInjectException;
+import org.allaymc.server.utils.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ComponentInjectionPlan describes how the components are injected into a {@link ComponentClass} instance.
+ * <p>
+ * Looking up the annotated fields and methods through reflection is expensive, and the result only depends
+ * on the class of the instance and the classes of the components. So the lookup is done only once for each
+ * combination, and the found fields and methods are turned into method handles which are reused for every
+ * new instance. The event handlers of the components are also resolved here, so that an instance doesn't
+ * need its own event bus to dispatch events between its components.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+final class ComponentInjectionPlan {
+
+    private static final Map<Key, ComponentInjectionPlan> PLANS = new ConcurrentHashMap<>();
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // Component fields in the instance
+    private final Injection[] instanceInjections;
+    // @Dependency fields in each component
+    private final Injection[][] dependencyInjections;
+    // @Manager fields in each component
+    private final MethodHandle[][] managerSetters;
+    // @ComponentObject fields in each component
+    private final MethodHandle[][] componentObjectSetters;
+    // @OnInitFinish methods in each component
+    private final MethodHandle[][] onInitFinishMethods;
+    // Event class to the handlers in all the components, sorted by priority
+    private final Map<Class<?>, HandlerInvoker[]> eventHandlers;
+
+    private ComponentInjectionPlan(Key key) {
+        var instanceClass = key.instanceClass;
+        var componentClasses = key.componentClasses;
+        var count = componentClasses.length;
+
+        this.instanceInjections = buildInstanceInjections(instanceClass, componentClasses);
+        this.dependencyInjections = new Injection[count][];
+        this.managerSetters = new MethodHandle[count][];
+        this.componentObjectSetters = new MethodHandle[count][];
+        this.onInitFinishMethods = new MethodHandle[count][];
+        for (int i = 0; i < count; i++) {
+            var componentClass = componentClasses[i];
+            var fields = ReflectionUtils.getAllFields(componentClass);
+            this.dependencyInjections[i] = buildDependencyInjections(componentClass, fields, componentClasses);
+            this.managerSetters[i] = fields.stream()
+                    .filter(field -> field.isAnnotationPresent(Manager.class))
+                    .map(field -> setter(field, "Cannot inject component manager to component: " + componentClass.getName()))
+                    .toArray(MethodHandle[]::new);
+            this.componentObjectSetters[i] = fields.stream()
+                    .filter(field -> field.isAnnotationPresent(ComponentObject.class))
+                    .map(field -> setter(field, "Cannot inject componented object to component: " + componentClass.getName()))
+                    .toArray(MethodHandle[]::new);
+            this.onInitFinishMethods[i] = Arrays.stream(componentClass.getMethods())
+                    .filter(method ->
+                            method.isAnnotationPresent(OnInitFinish.class) &&
+                            method.getReturnType() == void.class &&
+                            method.getParameterCount() == 1)
+                    .map(method -> invoker(method, "Cannot call onInitFinish method on component: " + componentClass.getName()))
+                    .toArray(MethodHandle[]::new);
+        }
+        this.eventHandlers = buildEventHandlers(componentClasses);
+    }
+
+    /**
+     * Get the injection plan for the given instance class and components, the plan will be built if it doesn't exist.
+     *
+     * @param instanceClass the class of the instance
+     * @param components    the components of the instance
+     * @return the injection plan
+     */
+    static ComponentInjectionPlan of(Class<?> instanceClass, Component[] components) {
+        var componentClasses = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            componentClasses[i] = components[i].getClass();
+        }
+
+        return PLANS.computeIfAbsent(new Key(instanceClass, componentClasses), ComponentInjectionPlan::new);
+    }
+
+    private static Injection[] buildInstanceInjections(Class<?> instanceClass, Class<?>[] componentClasses) {
+        var injections = new ArrayList<Injection>();
+        for (var field : ReflectionUtils.getAllFields(instanceClass)) {
+            var type = field.getType();
+            if (!Component.class.isAssignableFrom(type)) {
+                continue;
+            }
+
+            var matched = findMatched(componentClasses, type);
+            // Matches to multiple components
+            if (matched.size() > 1) {
+                throw new ComponentInjectException("Found multiple components " + type.getName() + " for " + instanceClass.getName());
+            }
+            // No component available
+            if (matched.isEmpty()) {
+                throw new ComponentInjectException("Cannot find component " + type.getName() + " for " + instanceClass.getName());
+            }
+
+            var index = matched.getFirst();
+            injections.add(new Injection(setter(field, "Cannot inject component " + type.getName() + " to " + componentClasses[index].getName()), index));
+        }
+
+        return injections.toArray(Injection[]::new);
+    }
+
+    private static Injection[] buildDependencyInjections(Class<?> componentClass, List<Field> fields, Class<?>[] componentClasses) {
+        var injections = new ArrayList<Injection>();
+        for (var field : fields) {
+            var annotation = field.getAnnotation(Dependency.class);
+            if (annotation == null) {
+                continue;
+            }
+
+            var type = field.getType();
+            if (!Component.class.isAssignableFrom(type)) {
+                continue;
+            }
+
+            List<Integer> matched;
+            var requireCompId = annotation.identifier();
+            // Try to find dependencies through inheritance
+            // Try to match by namespace ID
+            if (!requireCompId.isBlank()) {
+                matched = new ArrayList<>();
+                for (int i = 0; i < componentClasses.length; i++) {
+                    if (Objects.requireNonNull(ComponentProvider.findComponentIdentifier(componentClasses[i])).toString().equals(requireCompId)) {
+                        matched.add(i);
+                    }
+                }
+            } else {
+                matched = findMatched(componentClasses, type);
+            }
+            // Matches to multiple dependencies
+            if (matched.size() > 1) {
+                throw new ComponentInjectException("Found multiple dependencies " + type.getName() + " for " + componentClass.getName());
+            }
+            // No dependencies available
+            if (matched.isEmpty()) {
+                if (!annotation.optional()) {
+                    throw new ComponentInjectException("Cannot find dependency " + type.getName() + " for " + componentClass.getName());
+                } else continue;
+            }
+
+            injections.add(new Injection(setter(field, "Cannot inject dependency " + type.getName() + " to " + componentClass.getName()), matched.getFirst()));
+        }
+
+        return injections.toArray(Injection[]::new);
+    }
+
+    private static List<Integer> findMatched(Class<?>[] componentClasses, Class<?> type) {
+        var matched = new ArrayList<Integer>(1);
+        for (int i = 0; i < componentClasses.length; i++) {
+            if (type.isAssignableFrom(componentClasses[i])) {
+                matched.add(i);
+            }
+        }
+        return matched;
+    }
+
+    private static Map<Class<?>, HandlerInvoker[]> buildEventHandlers(Class<?>[] componentClasses) {
+        var handlers = new HashMap<Class<?>, List<HandlerInvoker>>();
+        for (int i = 0; i < componentClasses.length; i++) {
+            var componentClass = componentClasses[i];
+            for (var method : ReflectionUtils.getAllMethods(componentClass)) {
+                var annotation = method.getAnnotation(EventHandler.class);
+                if (annotation == null) continue;
+                // Same checks as AllayEventBus.registerListener()
+                if (method.getReturnType() != void.class) {
+                    throw new EventException("Event handler method must return void: " + method.getName() + " in listener " + componentClass.getName());
+                }
+
+                if (method.getParameterCount() != 1) {
+                    throw new EventException("Event handler method must have only one parameter: " + method.getName() + " in listener " + componentClass.getName());
+                }
+
+                var eventClass = method.getParameterTypes()[0];
+                if (!Event.class.isAssignableFrom(eventClass)) {
+                    throw new EventException("Event handler method parameter must be a subclass of Event: " + method.getName() + " in listener " + componentClass.getName());
+                }
+
+                var invoker = new HandlerInvoker(invoker(method, "Cannot access event handler method " + method.getName() + " in " + componentClass.getName()), i, annotation.priority(), annotation.async());
+                handlers.computeIfAbsent(eventClass, k -> new ArrayList<>()).add(invoker);
+            }
+        }
+
+        var result = new HashMap<Class<?>, HandlerInvoker[]>(handlers.size());
+        handlers.forEach((eventClass, list) -> {
+            // The sort is stable, so handlers with the same priority keep the registration order
+            list.sort((h1, h2) -> Integer.compare(h2.priority, h1.priority));
+            result.put(eventClass, list.toArray(HandlerInvoker[]::new));
+        });
+        return result;
+    }
+
+    private static MethodHandle setter(Field field, String errorMessage) {
+        try {
+            field.setAccessible(true);
+            return LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (Exception e) {
+            throw new ComponentInjectException(errorMessage, e);
+        }
+    }
+
+    private static MethodHandle invoker(Method method, String errorMessage) {
+        try {
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method).asType(SETTER_TYPE);
+        } catch (Exception e) {
+            throw new ComponentInjectException(errorMessage, e);
+        }
+    }
+
+    /**
+     * Inject the components, the dependencies, the manager and the instance.
+     *
+     * @param instance   the instance
+     * @param components the components of the instance, in the same order as when the plan is built
+     * @param manager    the component manager of the instance
+     */
+    void inject(ComponentClass instance, Component[] components, ComponentManager manager) {
+        try {
+            for (var injection : instanceInjections) {
+                injection.setter.invokeExact((Object) instance, (Object) components[injection.index]);
+            }
+            for (int i = 0; i < components.length; i++) {
+                for (var injection : dependencyInjections[i]) {
+                    injection.setter.invokeExact((Object) components[i], (Object) components[injection.index]);
+                }
+            }
+            for (int i = 0; i < components.length; i++) {
+                for (var setter : managerSetters[i]) {
+                    setter.invokeExact((Object) components[i], (Object) manager);
+                }
+            }
+            for (int i = 0; i < components.length; i++) {
+                for (var setter : componentObjectSetters[i]) {
+                    setter.invokeExact((Object) components[i], (Object) instance);
+                }
+            }
+        } catch (Throwable t) {
+            throw new ComponentInjectException("Cannot inject components to " + instance.getClass().getName(), t);
+        }
+    }
+
+    /**
+     * Call the methods annotated with {@link OnInitFinish} in the components.
+     *
+     * @param components the components of the instance
+     * @param initInfo   the init info
+     */
+    void callOnInitFinishMethods(Component[] components, ComponentInitInfo initInfo) {
+        for (int i = 0; i < components.length; i++) {
+            for (var method : onInitFinishMethods[i]) {
+                try {
+                    method.invokeExact((Object) components[i], (Object) initInfo);
+                } catch (Throwable t) {
+                    throw new ComponentInjectException("Cannot call onInitFinish method on component: " + components[i].getClass().getName(), t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatch an event to the handlers in the components.
+     *
+     * @param components the components of the instance
+     * @param event      the event
+     */
+    void callEvent(Component[] components, Event event) {
+        var handlers = eventHandlers.get(event.getClass());
+        if (handlers == null) {
+            return;
+        }
+
+        for (var handler : handlers) {
+            var component = components[handler.componentIndex];
+            if (!handler.async) {
+                handler.invoke(component, event);
+            } else {
+                Server.getInstance().getVirtualThreadPool().submit(() -> handler.invoke(component, event));
+            }
+        }
+    }
+
+    /**
+     * Check if any component has a handler for the given event class.
+     *
+     * @param eventClass the event class
+     * @return {@code true} if any component handles the event, otherwise {@code false}
+     */
+    boolean hasEventHandlers(Class<?> eventClass) {
+        return eventHandlers.containsKey(eventClass);
+    }
+
+    private record Key(Class<?> instanceClass, Class<?>[] componentClasses) {
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key key && instanceClass == key.instanceClass && Arrays.equals(componentClasses, key.componentClasses);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * instanceClass.hashCode() + Arrays.hashCode(componentClasses);
+        }
+    }
+
+    private record Injection(MethodHandle setter, int index) {
+    }
+
+    private record HandlerInvoker(MethodHandle method, int componentIndex, int priority, boolean async) {
+        void invoke(Component component, Event event) {
+            try {
+                method.invokeExact((Object) component, (Object) event);
+            } catch (Throwable t) {
+                log.error("An error occurred while handling event", t);
+            }
+        }
+    }
+}
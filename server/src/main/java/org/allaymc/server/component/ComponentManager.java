@@ -11,4 +11,12 @@ import org.jetbrains.annotations.ApiStatus;
 @ApiStatus.Internal
 public interface ComponentManager {
     <E extends Event> E callEvent(E event);
+
+    /**
+     * Check if any component has a handler for the given event class.
+     *
+     * @param eventClass the event class
+     * @return {@code true} if any component handles the event, otherwise {@code false}
+     */
+    boolean hasEventHandlers(Class<? extends Event> eventClass);
 }
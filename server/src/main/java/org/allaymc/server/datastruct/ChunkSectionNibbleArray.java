@@ -1,5 +1,6 @@
 package org.allaymc.server.datastruct;
 
+import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.VisibleForTesting;
 
@@ -29,10 +30,39 @@ public final class ChunkSectionNibbleArray {
         if (bytes == null) {
             return;
         }
-        this.bytes = bytes;
         if (bytes.length != BYTES_LENGTH) {
             throw new IllegalArgumentException("Provided byte array should be " + BYTES_LENGTH + " long instead of " + bytes.length);
         }
+        for (var b : bytes) {
+            checkSum += (b & 15) + (b >> 4 & 15);
+        }
+        if (checkSum != 0 && checkSum != CHECK_SUM_MAX) {
+            this.bytes = bytes;
+        }
+    }
+
+    private ChunkSectionNibbleArray(byte[] bytes, int checkSum) {
+        this.bytes = bytes;
+        this.checkSum = checkSum;
+    }
+
+    /**
+     * Read a nibble array which is written by {@link #writeTo(ByteBuf)}.
+     *
+     * @param buffer the buffer to read from
+     * @return the nibble array
+     */
+    public static ChunkSectionNibbleArray readFrom(ByteBuf buffer) {
+        return switch (buffer.readByte()) {
+            case 0 -> new ChunkSectionNibbleArray();
+            case 1 -> new ChunkSectionNibbleArray(null, CHECK_SUM_MAX);
+            case 2 -> {
+                var bytes = new byte[BYTES_LENGTH];
+                buffer.readBytes(bytes);
+                yield new ChunkSectionNibbleArray(bytes);
+            }
+            default -> throw new IllegalArgumentException("Unknown nibble array type");
+        };
     }
 
     public static int calculateIndex(@Range(from = 0, to = 15) int x, @Range(from = 0, to = 15) int y, @Range(from = 0, to = 15) int z) {
@@ -111,7 +141,8 @@ public final class ChunkSectionNibbleArray {
             }
             bytes = new byte[BYTES_LENGTH];
             if (checkSum == CHECK_SUM_MAX) {
-                Arrays.fill(bytes, (byte) 15);
+                // Both nibbles of each byte are 15
+                Arrays.fill(bytes, (byte) 0xFF);
             }
         }
         int i = getArrayIndex(index);
@@ -130,6 +161,29 @@ public final class ChunkSectionNibbleArray {
         }
     }
 
+    /**
+     * Write this nibble array to the buffer. Arrays filled with {@code 0} or {@code 15} only take one byte.
+     *
+     * @param buffer the buffer to write to
+     */
+    public void writeTo(ByteBuf buffer) {
+        if (checkSum == 0) {
+            buffer.writeByte(0);
+        } else if (checkSum == CHECK_SUM_MAX) {
+            buffer.writeByte(1);
+        } else {
+            buffer.writeByte(2);
+            buffer.writeBytes(bytes);
+        }
+    }
+
+    /**
+     * @return a copy of this nibble array
+     */
+    public ChunkSectionNibbleArray copy() {
+        return new ChunkSectionNibbleArray(bytes != null ? bytes.clone() : null, checkSum);
+    }
+
     public void reset() {
         checkSum = 0;
         bytes = null;
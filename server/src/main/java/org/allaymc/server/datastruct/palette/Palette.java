@@ -35,6 +35,13 @@ public final class Palette<V> {
     @Getter
     @Setter
     private boolean dirty;
+    /**
+     * Increased every time the content of this palette is changed. Unlike {@link #dirty}, this
+     * counter is never reset, so it can be used to check whether data derived from this palette
+     * (e.g. the encoded network payload) is still up to date.
+     */
+    @Getter
+    private int modificationCount;
 
     public Palette(V first) {
         this(first, INITIAL_VERSION);
@@ -87,6 +94,21 @@ public final class Palette<V> {
         var paletteIndex = this.paletteIndexFor(value);
         this.bitArray.set(index, paletteIndex);
         this.dirty = true;
+        this.modificationCount++;
+    }
+
+    /**
+     * Set all the entries to the given value. After filling, the palette only contains the given value
+     * and the bit array is not needed anymore.
+     *
+     * @param value the value to fill
+     */
+    public void fill(V value) {
+        this.palette.clear();
+        this.palette.add(value);
+        this.bitArray = SingletonBitArray.INSTANCE;
+        this.dirty = true;
+        this.modificationCount++;
     }
 
     public void writeToNetwork(ByteBuf byteBuf, IntSerializer<V> serializer, Palette<V> last) {
@@ -116,6 +138,7 @@ public final class Palette<V> {
         }
 
         this.dirty = true;
+        this.modificationCount++;
         if (hasCopyLastFlag(header)) {
             if (last == null) {
                 throw new PaletteException("Find copy last flag but last palette is null!");
@@ -172,6 +195,7 @@ public final class Palette<V> {
         }
 
         this.dirty = true;
+        this.modificationCount++;
         this.palette.clear();
         var version = getVersionFromPaletteHeader(header);
         readWords(byteBuf, version);
@@ -216,6 +240,7 @@ public final class Palette<V> {
         }
 
         this.dirty = true;
+        this.modificationCount++;
         if (hasCopyLastFlag(header)) {
             if (last == null) {
                 throw new PaletteException("Find copy last flag but last palette is null!");
@@ -277,6 +302,30 @@ public final class Palette<V> {
         palette.palette.clear();
         palette.palette.addAll(this.palette);
         palette.dirty = true;
+        palette.modificationCount++;
+    }
+
+    /**
+     * Get the index of the entry at the given position in the palette entries.
+     *
+     * @param index the index of the position
+     * @return the palette index, which can be passed to {@link #getEntry(int)}
+     */
+    public int getPaletteIndex(int index) {
+        return this.bitArray.get(index);
+    }
+
+    public V getEntry(int paletteIndex) {
+        return this.palette.get(paletteIndex);
+    }
+
+    /**
+     * Get the count of the palette entries. Please note that some of the entries may be unused.
+     *
+     * @return the count of the palette entries
+     */
+    public int getEntryCount() {
+        return this.palette.size();
     }
 
     public BitArrayVersion getVersion() {
@@ -308,6 +357,7 @@ public final class Palette<V> {
         this.palette = newPalette;
         this.bitArray = newbitArray;
         this.dirty = true;
+        this.modificationCount++;
     }
 
     private void readWords(ByteBuf byteBuf, BitArrayVersion version) {
@@ -30,6 +30,7 @@ import org.allaymc.api.server.Server;
 import org.allaymc.api.utils.AllayNBTUtils;
 import org.allaymc.api.utils.AllayStringUtils;
 import org.allaymc.api.utils.identifier.Identifier;
+import org.allaymc.api.world.BlockStateBuffer;
 import org.allaymc.api.world.Dimension;
 import org.allaymc.api.world.WorldViewer;
 import org.allaymc.api.world.chunk.ChunkLoader;
@@ -40,6 +41,7 @@ import org.allaymc.server.component.annotation.OnInitFinish;
 import org.allaymc.server.entity.component.event.*;
 import org.allaymc.server.pdc.AllayPersistentDataContainer;
 import org.allaymc.server.scheduler.AllayScheduler;
+import org.allaymc.server.world.manager.AllayEntityManager;
 import org.cloudburstmc.nbt.NbtMap;
 import org.cloudburstmc.nbt.NbtMapBuilder;
 import org.cloudburstmc.nbt.NbtType;
@@ -112,6 +114,10 @@ public class EntityBaseComponentImpl implements EntityBaseComponent {
     protected PermissionCalculator permissionCalculator;
     @Getter(onMethod_ = {@Override})
     protected Scheduler scheduler;
+    /**
+     * Reused by {@link #tickBlockCollision()} to avoid allocating an array each tick.
+     */
+    protected final BlockStateBuffer blockCollisionBuffer;
 
     public EntityBaseComponentImpl(EntityInitInfo info) {
         this.location = new Location3d(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, info.dimension());
@@ -126,6 +132,7 @@ public class EntityBaseComponentImpl implements EntityBaseComponent {
         this.persistentDataContainer = new AllayPersistentDataContainer(Registries.PERSISTENT_DATA_TYPES);
         this.permissionCalculator = new ConstantPermissionCalculator(Tristate.TRUE);
         this.scheduler = new AllayScheduler(Server.getInstance().getVirtualThreadPool());
+        this.blockCollisionBuffer = new BlockStateBuffer();
     }
 
     @OnInitFinish
@@ -148,7 +155,13 @@ public class EntityBaseComponentImpl implements EntityBaseComponent {
         var aabb = getOffsetAABB();
         var aabbFat = getOffsetAABBForCollisionCheck();
         var dimension = getDimension();
-        dimension.forEachBlockStates(aabbFat, 0, (x, y, z, blockState) -> {
+        var minX = (int) Math.floor(aabbFat.minX());
+        var minY = (int) Math.floor(aabbFat.minY());
+        var minZ = (int) Math.floor(aabbFat.minZ());
+        var sizeX = (int) Math.ceil(aabbFat.maxX()) - minX;
+        var sizeY = (int) Math.ceil(aabbFat.maxY()) - minY;
+        var sizeZ = (int) Math.ceil(aabbFat.maxZ()) - minZ;
+        dimension.forEachBlockStates(minX, minY, minZ, sizeX, sizeY, sizeZ, 0, blockCollisionBuffer, (x, y, z, blockState) -> {
             var block = new Block(blockState, new Position3i(x, y, z, dimension), 0);
 
             if (blockState.getBlockStateData().collisionShape().translate(x, y, z).intersectsAABB(aabbFat)) {
@@ -286,6 +299,10 @@ public class EntityBaseComponentImpl implements EntityBaseComponent {
             return;
         }
 
+        if (newDimension != null && newDimension == oldDimension) {
+            ((AllayEntityManager) newDimension.getEntityManager()).onEntityChangeChunk(thisEntity);
+        }
+
         var oldChunk = oldDimension != null ? oldDimension.getChunkManager().getChunk(oldChunkX, oldChunkZ) : null;
         var newChunk = newDimension != null ? newDimension.getChunkManager().getChunk(newChunkX, newChunkZ) : null;
         Set<ChunkLoader> oldChunkLoaders = oldChunk != null ? oldChunk.getChunkLoaders() : Collections.emptySet();
@@ -527,7 +544,7 @@ public class EntityBaseComponentImpl implements EntityBaseComponent {
         }
 
         var aabb = getOffsetAABBForCollisionCheck();
-        return getDimension().getCollidingBlockStates(aabb) != null;
+        return getDimension().hasCollidingBlockStates(aabb);
     }
 
     @Override
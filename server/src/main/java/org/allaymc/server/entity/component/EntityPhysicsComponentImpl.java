@@ -3,7 +3,6 @@ package org.allaymc.server.entity.component;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.allaymc.api.block.dto.Block;
-import org.allaymc.api.block.type.BlockState;
 import org.allaymc.api.block.type.BlockTypes;
 import org.allaymc.api.entity.Entity;
 import org.allaymc.api.entity.component.EntityLivingComponent;
@@ -19,6 +18,7 @@ import org.allaymc.api.math.position.Position3i;
 import org.allaymc.api.utils.AllayNBTUtils;
 import org.allaymc.api.utils.identifier.Identifier;
 import org.allaymc.api.utils.tuple.Pair;
+import org.allaymc.api.world.BlockStateBuffer;
 import org.allaymc.api.world.Dimension;
 import org.allaymc.server.component.ComponentManager;
 import org.allaymc.server.component.annotation.ComponentObject;
@@ -35,7 +35,6 @@ import org.joml.primitives.AABBdc;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static java.lang.Math.abs;
-import static java.lang.Math.floor;
 import static org.allaymc.api.utils.AllayNBTUtils.readVector3f;
 import static org.allaymc.server.world.physics.AllayEntityPhysicsEngine.FAT_AABB_MARGIN;
 
@@ -77,12 +76,17 @@ public class EntityPhysicsComponentImpl implements EntityPhysicsComponent {
     protected double fallDistance;
     @Getter
     protected float knockbackResistance;
+    /**
+     * Reused when computing the collision with blocks, which happens several times each tick.
+     */
+    protected final BlockStateBuffer collisionBuffer;
 
     public EntityPhysicsComponentImpl() {
         this.motion = new Vector3d();
         this.lastMotion = new Vector3d();
         this.onGround = true;
         this.hasGravity = true;
+        this.collisionBuffer = new BlockStateBuffer();
     }
 
     @EventHandler
@@ -270,7 +274,7 @@ public class EntityPhysicsComponentImpl implements EntityPhysicsComponent {
         var deltaInAxis = motion;
         var collision = false;
 
-        var blocks = thisEntity.getDimension().getCollidingBlockStates(extAABBInAxis);
+        var blocks = thisEntity.getDimension().getCollidingBlockStates(extAABBInAxis, 0, false, collisionBuffer);
         if (blocks != null) {
             // There is a collision if `blocks` is not null
             if (axis == Axis.Y) {
@@ -332,7 +336,7 @@ public class EntityPhysicsComponentImpl implements EntityPhysicsComponent {
         moveAlongAxisAndStopWhenCollision(offsetAABB, stepHeight, recorder, Axis.Y);
         moveAlongAxisAndStopWhenCollision(offsetAABB, -stepHeight, recorder, Axis.Y);
 
-        if (recorder.y == 0 || thisEntity.getDimension().getCollidingBlockStates(offsetAABB) != null) {
+        if (recorder.y == 0 || thisEntity.getDimension().hasCollidingBlockStates(offsetAABB)) {
             return false;
         } else {
             aabb.set(offsetAABB.translate(xAxis ? -offset : 0, 0, xAxis ? 0 : -offset));
@@ -341,42 +345,31 @@ public class EntityPhysicsComponentImpl implements EntityPhysicsComponent {
         }
     }
 
-    private double computeCollisionCoordinate(AABBdc entityAABB, AABBdc extAABBInAxis, BlockState[][][] blocks, Axis axis, boolean shouldTowardNegative) {
-        double coordinate = shouldTowardNegative ? -Double.MAX_VALUE : Double.MAX_VALUE;
-
-        for (int ox = 0; ox < blocks.length; ox++) {
-            var sub1 = blocks[ox];
-            for (int oy = 0; oy < sub1.length; oy++) {
-                var sub2 = sub1[oy];
-                for (int oz = 0; oz < sub2.length; oz++) {
-                    var blockState = sub2[oz];
-                    if (blockState == null) {
-                        continue;
-                    }
-
-                    var shape = blockState.getBlockStateData().computeOffsetCollisionShape(floor(extAABBInAxis.minX()) + ox, floor(extAABBInAxis.minY()) + oy, floor(extAABBInAxis.minZ()) + oz);
-                    if (shape.intersectsAABB(entityAABB)) {
-                        // Ignore the blocks that collided with the entity
-                        continue;
-                    }
-
-                    var solids = shape.getSolids();
-                    for (var solid : solids) {
-                        if (!solid.intersectsAABB(extAABBInAxis)) {
-                            // This solid part is not intersected with `extAABBInAxis`, ignore it
-                            continue;
-                        }
-
-                        double current = shouldTowardNegative ? axis.getMax(solid) : axis.getMin(solid);
-                        if (shouldTowardNegative ? (current > coordinate) : (current < coordinate)) {
-                            coordinate = current;
-                        }
-                    }
+    private double computeCollisionCoordinate(AABBdc entityAABB, AABBdc extAABBInAxis, BlockStateBuffer blocks, Axis axis, boolean shouldTowardNegative) {
+        var coordinate = new double[]{shouldTowardNegative ? -Double.MAX_VALUE : Double.MAX_VALUE};
+
+        blocks.forEach((x, y, z, blockState) -> {
+            var shape = blockState.getBlockStateData().computeOffsetCollisionShape(x, y, z);
+            if (shape.intersectsAABB(entityAABB)) {
+                // Ignore the blocks that collided with the entity
+                return;
+            }
+
+            var solids = shape.getSolids();
+            for (var solid : solids) {
+                if (!solid.intersectsAABB(extAABBInAxis)) {
+                    // This solid part is not intersected with `extAABBInAxis`, ignore it
+                    continue;
+                }
+
+                double current = shouldTowardNegative ? axis.getMax(solid) : axis.getMin(solid);
+                if (shouldTowardNegative ? (current > coordinate[0]) : (current < coordinate[0])) {
+                    coordinate[0] = current;
                 }
             }
-        }
+        });
 
-        return coordinate;
+        return coordinate[0];
     }
 
     @Override
@@ -497,7 +490,7 @@ public class EntityPhysicsComponentImpl implements EntityPhysicsComponent {
             return false;
         }
         var aabb = thisEntity.getAABB().translate(x + 0.5, y + 0.5, z + 0.5, new AABBd());
-        return dimension.getCollidingBlockStates(aabb) == null;
+        return !dimension.hasCollidingBlockStates(aabb);
     }
 
     @Override
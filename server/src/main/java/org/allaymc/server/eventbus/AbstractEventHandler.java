@@ -1,27 +1,66 @@
 package org.allaymc.server.eventbus;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.allaymc.server.timings.Timing;
+import org.allaymc.server.timings.Timings;
 
 import java.util.concurrent.ExecutorService;
 
 /**
  * @author daoge_cmd
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public abstract class AbstractEventHandler {
 
     protected final boolean async;
     protected final int priority;
     protected final Class<?> eventClass;
     protected final ExecutorService asyncExecutorService;
+    /**
+     * The timing of this handler, created when the handler is invoked for the first time with timings enabled.
+     */
+    private Timing timing;
 
     public void invoke(Object event) {
         if (!async) {
-            invoke0(event);
+            invokeWithTiming(event);
         } else {
-            asyncExecutorService.submit(() -> invoke0(event));
+            asyncExecutorService.submit(() -> invokeWithTiming(event));
         }
     }
 
+    protected void invokeWithTiming(Object event) {
+        if (!Timings.isEnabled()) {
+            invoke0(event);
+            return;
+        }
+
+        var timing = getTiming();
+        var start = timing.start();
+        try {
+            invoke0(event);
+        } finally {
+            timing.stop(start);
+        }
+    }
+
+    protected Timing getTiming() {
+        if (timing == null) {
+            // Timings.of() returns the same timing for the same name, so the race here is harmless
+            timing = Timings.of(Timings.groupOf(getOwnerClass()), "event " + eventClass.getSimpleName() + " " + getName());
+        }
+        return timing;
+    }
+
     protected abstract void invoke0(Object event);
+
+    /**
+     * @return the class which the handler belongs to, used to find the plugin of the handler
+     */
+    protected abstract Class<?> getOwnerClass();
+
+    /**
+     * @return the name of the handler shown in timings
+     */
+    protected abstract String getName();
 }
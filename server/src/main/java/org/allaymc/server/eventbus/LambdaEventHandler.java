@@ -28,4 +28,18 @@ public class LambdaEventHandler<E extends Event> extends AbstractEventHandler {
             log.error("An error occurred while handling event", t);
         }
     }
+
+    @Override
+    protected Class<?> getOwnerClass() {
+        return eventConsumer.getClass();
+    }
+
+    @Override
+    protected String getName() {
+        // The name of a lambda class is like "Foo$$Lambda/0x0000000800c03000"
+        var name = eventConsumer.getClass().getName();
+        var lambdaIndex = name.indexOf("$$Lambda");
+        name = lambdaIndex == -1 ? name : name.substring(0, lambdaIndex) + " (lambda)";
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
 }
@@ -19,6 +19,7 @@ public class MethodEventHandler extends AbstractEventHandler {
 
     protected final FastMethod method;
     protected final Object instance;
+    protected final String methodName;
 
     public MethodEventHandler(boolean async, int priority, Class<?> eventClass, ExecutorService asyncExecutorService, Method method, Object instance) {
         super(async, priority, eventClass, asyncExecutorService);
@@ -31,6 +32,7 @@ public class MethodEventHandler extends AbstractEventHandler {
                 true
         );
         this.instance = instance;
+        this.methodName = method.getName();
     }
 
     @Override
@@ -41,4 +43,14 @@ public class MethodEventHandler extends AbstractEventHandler {
             log.error("An error occurred while handling event", t);
         }
     }
+
+    @Override
+    protected Class<?> getOwnerClass() {
+        return instance.getClass();
+    }
+
+    @Override
+    protected String getName() {
+        return instance.getClass().getSimpleName() + "#" + methodName;
+    }
 }
@@ -33,6 +33,7 @@ import org.allaymc.server.component.annotation.ComponentObject;
 import org.allaymc.server.component.annotation.Manager;
 import org.allaymc.server.component.annotation.OnInitFinish;
 import org.allaymc.server.item.component.event.*;
+import org.allaymc.server.item.impl.ItemStackImpl;
 import org.allaymc.server.pdc.AllayPersistentDataContainer;
 import org.cloudburstmc.nbt.NbtMap;
 import org.cloudburstmc.nbt.NbtType;
@@ -74,6 +75,20 @@ public class ItemBaseComponentImpl implements ItemBaseComponent {
 
     // The unique id counter should start at 1 because 0 is used to indicate that this item stack does not have a unique id
     private static final AtomicInteger UNIQUE_ID = new AtomicInteger(1);
+    /**
+     * Whether the component class overrides {@link #saveExtraTag()}. The extra tag of these components can't be
+     * cached, because the subclasses may change the data they save without calling {@link #invalidateExtraTag()}.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_SAVE_EXTRA_TAG = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("saveExtraTag").getDeclaringClass() != ItemBaseComponentImpl.class;
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
 
     @ComponentObject
     protected ItemStack thisItemStack;
@@ -92,26 +107,27 @@ public class ItemBaseComponentImpl implements ItemBaseComponent {
     @Getter
     protected int repairCost;
     @Getter
-    @Setter
     protected String customName = "";
     @Getter
-    @Setter
-    protected List<String> lore = new ArrayList<>();
+    protected List<String> lore = List.of();
     protected Map<EnchantmentType, EnchantmentInstance> enchantments = new HashMap<>();
     @Getter
-    @Setter
     protected ItemLockMode lockMode = ItemLockMode.NONE;
     @Getter
-    @Setter
     protected PersistentDataContainer persistentDataContainer = new AllayPersistentDataContainer(Registries.PERSISTENT_DATA_TYPES);
 
     @Getter
-    @Setter
     protected NbtMap blockEntityNBT;
     @Getter
     @Setter
     protected int uniqueId;
 
+    // The cached result of saveExtraTag() and its hash, so that comparing the extra tags of two item
+    // stacks doesn't build them every time. It is dropped when any data saved in the extra tag changes
+    private NbtMap cachedExtraTag;
+    private int cachedExtraTagHash;
+    private int cachedPdcModificationCount;
+
     public ItemBaseComponentImpl(ItemStackInitInfo initInfo) {
         this.itemType = initInfo.getItemType();
         this.count = initInfo.count();
@@ -144,7 +160,7 @@ public class ItemBaseComponentImpl implements ItemBaseComponent {
 
         extraTag.listenForCompound(TAG_DISPLAY, displayNbt -> {
             this.customName = displayNbt.getString(TAG_CUSTOM_NAME);
-            this.lore = displayNbt.getList(TAG_LORE, NbtType.STRING);
+            this.lore = List.copyOf(displayNbt.getList(TAG_LORE, NbtType.STRING));
         });
         extraTag.listenForList(TAG_ENCHANTMENT, NbtType.COMPOUND, enchsNbt -> enchsNbt.forEach(enchNbt -> {
             var enchantment = EnchantmentHelper.fromNBT(enchNbt);
@@ -156,7 +172,7 @@ public class ItemBaseComponentImpl implements ItemBaseComponent {
             this.persistentDataContainer.clear();
             this.persistentDataContainer.putAll(customNbt);
         });
-
+        invalidateExtraTag();
     }
 
     @Override
@@ -266,12 +282,45 @@ public class ItemBaseComponentImpl implements ItemBaseComponent {
 
         Preconditions.checkArgument(damage >= 0, "Damage must be greater or equal to 0");
         this.damage = damage;
+        invalidateExtraTag();
     }
 
     @Override
     public void setRepairCost(int repairCost) {
         Preconditions.checkArgument(repairCost >= 0, "RepairCost must be greater or equal to 0");
         this.repairCost = repairCost;
+        invalidateExtraTag();
+    }
+
+    @Override
+    public void setCustomName(String customName) {
+        this.customName = customName;
+        invalidateExtraTag();
+    }
+
+    @Override
+    public void setLore(List<String> lore) {
+        // The lore is kept unmodifiable, so it can only be changed through this method
+        this.lore = List.copyOf(lore);
+        invalidateExtraTag();
+    }
+
+    @Override
+    public void setLockMode(ItemLockMode lockMode) {
+        this.lockMode = lockMode;
+        invalidateExtraTag();
+    }
+
+    @Override
+    public void setPersistentDataContainer(PersistentDataContainer persistentDataContainer) {
+        this.persistentDataContainer = persistentDataContainer;
+        invalidateExtraTag();
+    }
+
+    @Override
+    public void setBlockEntityNBT(NbtMap blockEntityNBT) {
+        this.blockEntityNBT = blockEntityNBT;
+        invalidateExtraTag();
     }
 
     @Override
@@ -413,10 +462,54 @@ public class ItemBaseComponentImpl implements ItemBaseComponent {
         return itemStack.getItemType() == getItemType() &&
                itemStack.getMeta() == getMeta() &&
                (ignoreCount || count + itemStack.getCount() <= itemType.getItemData().maxStackSize()) &&
-               saveExtraTag().equals(itemStack.saveExtraTag()) &&
+               extraTagEquals(itemStack) &&
                itemStack.toBlockState() == toBlockState();
     }
 
+    protected boolean extraTagEquals(ItemStack itemStack) {
+        if (!(itemStack instanceof ItemStackImpl impl) || !(impl.getBaseComponent() instanceof ItemBaseComponentImpl other)) {
+            return saveExtraTag().equals(itemStack.saveExtraTag());
+        }
+
+        var extraTag = getCachedExtraTag();
+        var otherExtraTag = other.getCachedExtraTag();
+        if (extraTag == otherExtraTag) {
+            return true;
+        }
+        if (extraTag == null || otherExtraTag == null) {
+            // At least one of the extra tags can't be cached
+            return (extraTag != null ? extraTag : saveExtraTag()).equals(otherExtraTag != null ? otherExtraTag : other.saveExtraTag());
+        }
+
+        return cachedExtraTagHash == other.cachedExtraTagHash && extraTag.equals(otherExtraTag);
+    }
+
+    /**
+     * Get the cached extra tag, which is built by {@link #saveExtraTag()} lazily.
+     *
+     * @return the cached extra tag, or {@code null} if the extra tag can't be cached. This happens when the extra tag
+     * contains data from other components or from a subclass which overrides {@link #saveExtraTag()}, because the
+     * changes of these data can't be tracked
+     */
+    protected NbtMap getCachedExtraTag() {
+        if (!(persistentDataContainer instanceof AllayPersistentDataContainer pdc) ||
+            OVERRIDES_SAVE_EXTRA_TAG.get(getClass()) ||
+            manager.hasEventHandlers(CItemSaveExtraTagEvent.class)) {
+            return null;
+        }
+
+        if (cachedExtraTag == null || cachedPdcModificationCount != pdc.getModificationCount()) {
+            cachedPdcModificationCount = pdc.getModificationCount();
+            cachedExtraTag = saveExtraTag();
+            cachedExtraTagHash = cachedExtraTag.hashCode();
+        }
+        return cachedExtraTag;
+    }
+
+    protected void invalidateExtraTag() {
+        this.cachedExtraTag = null;
+    }
+
     @Override
     public float calculateAttackDamage() {
         return itemType.getItemData().attackDamage();
@@ -435,27 +528,31 @@ public class ItemBaseComponentImpl implements ItemBaseComponent {
 
     @Override
     public Collection<EnchantmentInstance> getEnchantments() {
-        return enchantments.values();
+        return Collections.unmodifiableCollection(enchantments.values());
     }
 
     @Override
     public void addEnchantment(EnchantmentType enchantmentType, int level) {
         enchantments.put(enchantmentType, new EnchantmentInstance(enchantmentType, level));
+        invalidateExtraTag();
     }
 
     @Override
     public void addEnchantments(Collection<EnchantmentInstance> enchantmentInstances) {
         enchantmentInstances.forEach(instance -> enchantments.put(instance.getType(), instance));
+        invalidateExtraTag();
     }
 
     @Override
     public EnchantmentInstance removeEnchantment(EnchantmentType enchantmentType) {
+        invalidateExtraTag();
         return enchantments.remove(enchantmentType);
     }
 
     @Override
     public void removeAllEnchantments() {
         enchantments.clear();
+        invalidateExtraTag();
     }
 
     @Override
@@ -1,6 +1,10 @@
 package org.allaymc.server.network;
 
 import com.google.common.base.Suppliers;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.compression.Snappy;
 import lombok.experimental.UtilityClass;
 import org.allaymc.api.item.ItemStack;
 import org.allaymc.api.item.recipe.*;
@@ -9,10 +13,13 @@ import org.allaymc.api.pack.PackManifest;
 import org.allaymc.api.registry.Registries;
 import org.allaymc.api.utils.Utils;
 import org.allaymc.server.AllayServer;
+import org.allaymc.server.ServerSettings;
 import org.allaymc.server.item.recipe.ComplexRecipe;
 import org.allaymc.server.registry.InternalRegistries;
 import org.cloudburstmc.nbt.NbtMap;
 import org.cloudburstmc.nbt.NbtUtils;
+import org.cloudburstmc.protocol.bedrock.codec.BedrockCodec;
+import org.cloudburstmc.protocol.bedrock.data.EncodingSettings;
 import org.cloudburstmc.protocol.bedrock.data.ExperimentData;
 import org.cloudburstmc.protocol.bedrock.data.TrimMaterial;
 import org.cloudburstmc.protocol.bedrock.data.TrimPattern;
@@ -29,10 +36,14 @@ import org.cloudburstmc.protocol.bedrock.data.inventory.crafting.PotionMixData;
 import org.cloudburstmc.protocol.bedrock.data.inventory.crafting.recipe.*;
 import org.cloudburstmc.protocol.bedrock.data.inventory.descriptor.ItemDescriptorWithCount;
 import org.cloudburstmc.protocol.bedrock.packet.*;
+import org.cloudburstmc.protocol.common.SimpleDefinitionRegistry;
+import org.cloudburstmc.protocol.common.util.VarInts;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 
 /**
  * A utility class that provides memoized suppliers for various encoded data packets and definitions.
@@ -66,6 +77,19 @@ public final class NetworkData {
 
     public static final List<Recipe> INDEXED_RECIPES = new ArrayList<>();
 
+    /**
+     * The large packets sent to every player after {@link StartGamePacket}, in the order they should be sent.
+     */
+    public static final Supplier<List<BedrockPacket>> LOGIN_DATA_PACKETS = Suppliers.memoize(() -> List.of(
+            ITEM_REGISTRY_PACKET.get(),
+            CREATIVE_CONTENT_PACKET.get(),
+            AVAILABLE_ENTITY_IDENTIFIERS_PACKET.get(),
+            BIOME_DEFINITION_LIST_PACKET.get(),
+            CRAFTING_DATA_PACKET.get()
+    ));
+
+    private static final Map<LoginDataKey, byte[]> LOGIN_DATA_BATCHES = new ConcurrentHashMap<>();
+
     public static List<ItemDefinition> encodeItemDefinitions() {
         return Registries.ITEMS.getContent().values().stream().map(NetworkHelper::toNetwork).toList();
     }
@@ -317,4 +341,89 @@ public final class NetworkData {
         ).collect(Collectors.toSet()));
         return packet;
     }
+
+    /**
+     * Get the packets in {@link #LOGIN_DATA_PACKETS} as one batch which is encoded with the given codec and
+     * compressed with the given algorithm. The batch is built only once for each protocol version and
+     * compression algorithm, so that the packets are not encoded and compressed again for every joining player.
+     * <p>
+     * The returned bytes are in the format of a compressed batch (compression header included) and can be
+     * written to the session directly. Encryption, if enabled, is still done by the session.
+     *
+     * @param codec     the codec of the session
+     * @param algorithm the compression algorithm of the session
+     * @return the compressed batch, which should not be modified
+     */
+    public static byte[] getLoginDataBatch(BedrockCodec codec, ServerSettings.NetworkSettings.CompressionAlgorithm algorithm) {
+        return LOGIN_DATA_BATCHES.computeIfAbsent(new LoginDataKey(codec.getProtocolVersion(), algorithm), key -> encodeLoginDataBatch(codec, algorithm));
+    }
+
+    private static byte[] encodeLoginDataBatch(BedrockCodec codec, ServerSettings.NetworkSettings.CompressionAlgorithm algorithm) {
+        // Same definitions as the ones set in AllayPlayer.startGame()
+        var helper = codec.createHelper();
+        helper.setItemDefinitions(SimpleDefinitionRegistry.<ItemDefinition>builder().addAll(ITEM_DEFINITIONS.get()).build());
+        helper.setBlockDefinitions(SimpleDefinitionRegistry.<BlockDefinition>builder().addAll(BLOCK_DEFINITIONS.get()).build());
+        // The packets are built by the server, the limits are for the packets from the clients
+        helper.setEncodingSettings(EncodingSettings.UNLIMITED);
+
+        var batch = Unpooled.buffer();
+        var packetBuf = Unpooled.buffer();
+        try {
+            for (var packet : LOGIN_DATA_PACKETS.get()) {
+                packetBuf.clear();
+                // Packet header, the sender and target sub client ids are both 0
+                VarInts.writeUnsignedInt(packetBuf, codec.getPacketDefinition(packet.getClass()).getId() & 0x3ff);
+                codec.tryEncode(helper, packetBuf, packet);
+                VarInts.writeUnsignedInt(batch, packetBuf.readableBytes());
+                batch.writeBytes(packetBuf);
+            }
+
+            return switch (algorithm) {
+                case ZLIB -> compressZlib(batch);
+                case SNAPPY -> compressSnappy(batch);
+            };
+        } finally {
+            batch.release();
+            packetBuf.release();
+        }
+    }
+
+    private static byte[] compressZlib(ByteBuf batch) {
+        // The batch is compressed only once, so the best compression level is used
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(ByteBufUtil.getBytes(batch));
+            deflater.finish();
+            var out = Unpooled.buffer(batch.readableBytes() / 4 + 64);
+            try {
+                // Compression header of zlib
+                out.writeByte(0x00);
+                var buffer = new byte[64 * 1024];
+                while (!deflater.finished()) {
+                    var length = deflater.deflate(buffer);
+                    out.writeBytes(buffer, 0, length);
+                }
+                return ByteBufUtil.getBytes(out);
+            } finally {
+                out.release();
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] compressSnappy(ByteBuf batch) {
+        var out = Unpooled.buffer(batch.readableBytes() / 2 + 64);
+        try {
+            // Compression header of snappy
+            out.writeByte(0x01);
+            new Snappy().encode(batch, out, batch.readableBytes());
+            return ByteBufUtil.getBytes(out);
+        } finally {
+            out.release();
+        }
+    }
+
+    private record LoginDataKey(int protocolVersion, ServerSettings.NetworkSettings.CompressionAlgorithm algorithm) {
+    }
 }
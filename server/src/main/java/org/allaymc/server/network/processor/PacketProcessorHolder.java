@@ -84,6 +84,8 @@ public final class PacketProcessorHolder {
         // Client will send sub chunk request packets during spawned stage if the sub chunk
         // sending system is enabled
         registerProcessor(ClientState.SPAWNED, new SubChunkRequestPacketProcessor());
+        // And the client will answer the blob ids in the chunks if the client blob cache is used
+        registerProcessor(ClientState.SPAWNED, new ClientCacheBlobStatusPacketProcessor());
 
         // Client will start sending the auth input packet after spawned, however, these packets will be ignored.
         // See PlayerAuthInputPacketProcessor#notReadyForInput()
@@ -100,6 +102,7 @@ public final class PacketProcessorHolder {
     private void registerInGamePacketProcessors() {
         registerProcessor(ClientState.IN_GAME, new AnimatePacketProcessor());
         registerProcessor(ClientState.IN_GAME, new BlockPickRequestPacketProcessor());
+        registerProcessor(ClientState.IN_GAME, new ClientCacheBlobStatusPacketProcessor());
         registerProcessor(ClientState.IN_GAME, new CommandRequestPacketProcessor());
         registerProcessor(ClientState.IN_GAME, new ContainerClosePacketProcessor());
         registerProcessor(ClientState.IN_GAME, new InteractPacketProcessor());
@@ -0,0 +1,26 @@
+package org.allaymc.server.network.processor.ingame;
+
+import org.allaymc.api.player.Player;
+import org.allaymc.server.network.processor.PacketProcessor;
+import org.allaymc.server.player.AllayPlayer;
+import org.cloudburstmc.protocol.bedrock.packet.BedrockPacketType;
+import org.cloudburstmc.protocol.bedrock.packet.ClientCacheBlobStatusPacket;
+import org.cloudburstmc.protocol.common.PacketSignal;
+
+/**
+ * @author daoge_cmd
+ */
+public class ClientCacheBlobStatusPacketProcessor extends PacketProcessor<ClientCacheBlobStatusPacket> {
+
+    @Override
+    public PacketSignal handleAsync(Player player, ClientCacheBlobStatusPacket packet, long receiveTime) {
+        // Naks are the blobs that the client doesn't have, and acks are the blobs that the client already has
+        ((AllayPlayer) player).handleClientCacheBlobStatus(packet.getNaks(), packet.getAcks());
+        return PacketSignal.HANDLED;
+    }
+
+    @Override
+    public BedrockPacketType getPacketType() {
+        return BedrockPacketType.CLIENT_CACHE_BLOB_STATUS;
+    }
+}
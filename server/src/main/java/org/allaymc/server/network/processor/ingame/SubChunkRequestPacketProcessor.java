@@ -9,7 +9,9 @@ import org.allaymc.api.player.Player;
 import org.allaymc.api.world.chunk.OperationType;
 import org.allaymc.api.world.data.DimensionInfo;
 import org.allaymc.server.network.processor.PacketProcessor;
+import org.allaymc.server.player.AllayPlayer;
 import org.allaymc.server.world.chunk.AllayChunkSection;
+import org.allaymc.server.world.chunk.AllayUnsafeChunk;
 import org.allaymc.server.world.chunk.ChunkEncoder;
 import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.nbt.NbtUtils;
@@ -45,20 +47,22 @@ public class SubChunkRequestPacketProcessor extends PacketProcessor<SubChunkRequ
         }
 
         var centerPosition = packet.getSubChunkPosition();
+        var cacheEnabled = ((AllayPlayer) player).isClientCacheUsable();
         var responseData = new ArrayList<SubChunkData>(packet.getPositionOffsets().size());
         for (var offset : packet.getPositionOffsets()) {
-            responseData.add(createSubChunkDataForPlayer(player, dimensionInfo, centerPosition, offset));
+            responseData.add(createSubChunkDataForPlayer(player, dimensionInfo, centerPosition, offset, cacheEnabled));
         }
 
         var subChunkPacket = new SubChunkPacket();
         subChunkPacket.setDimension(packet.getDimension());
         subChunkPacket.setCenterPosition(centerPosition);
+        subChunkPacket.setCacheEnabled(cacheEnabled);
         subChunkPacket.setSubChunks(responseData);
         player.sendPacket(subChunkPacket);
         return PacketSignal.HANDLED;
     }
 
-    private SubChunkData createSubChunkDataForPlayer(Player player, DimensionInfo dimensionInfo, Vector3i center, Vector3i offset) {
+    private SubChunkData createSubChunkDataForPlayer(Player player, DimensionInfo dimensionInfo, Vector3i center, Vector3i offset, boolean cacheEnabled) {
         var entity = player.getControlledEntity();
         var subChunkData = new SubChunkData();
         subChunkData.setPosition(offset);
@@ -137,7 +141,14 @@ public class SubChunkRequestPacketProcessor extends PacketProcessor<SubChunkRequ
                 subChunkData.setResult(SubChunkRequestResult.SUCCESS);
 
                 var buffer = ByteBufAllocator.DEFAULT.ioBuffer();
-                ChunkEncoder.writeToNetwork(subChunk, buffer);
+                if (cacheEnabled) {
+                    // The blocks are sent as a blob, and the payload only contains the block entities
+                    var blob = ChunkEncoder.getSectionBlob((AllayUnsafeChunk) chunk.toUnsafeChunk(), subChunk);
+                    subChunkData.setBlobId(blob.id());
+                    ((AllayPlayer) player).addPendingBlob(blob);
+                } else {
+                    ChunkEncoder.writeToNetwork(subChunk, buffer);
+                }
 
                 var blockEntities = chunk.getSectionBlockEntities(sectionY);
                 if (!blockEntities.isEmpty()) {
@@ -1,14 +1,11 @@
 package org.allaymc.server.network.processor.login;
 
-import io.netty.buffer.Unpooled;
 import org.allaymc.api.message.TrKeys;
-import org.allaymc.api.pack.Pack;
 import org.allaymc.api.player.Player;
 import org.allaymc.api.registry.Registries;
 import org.allaymc.server.AllayServer;
 import org.allaymc.server.network.processor.ingame.ILoginPacketProcessor;
 import org.cloudburstmc.protocol.bedrock.packet.BedrockPacketType;
-import org.cloudburstmc.protocol.bedrock.packet.ResourcePackChunkDataPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ResourcePackChunkRequestPacket;
 
 import static org.cloudburstmc.protocol.bedrock.packet.BedrockPacketType.RESOURCE_PACK_CHUNK_REQUEST;
@@ -25,18 +22,14 @@ public class ResourcePackChunkRequestPacketProcessor extends ILoginPacketProcess
             return;
         }
 
-        player.sendPacket(getChunkDataPacket(pack, packet.getChunkIndex()));
-    }
+        var scheduler = AllayServer.getInstance().getPackDownloadScheduler();
+        var chunkIndex = packet.getChunkIndex();
+        if (chunkIndex < 0 || chunkIndex >= scheduler.getChunkCount(pack)) {
+            player.disconnect(TrKeys.MC_DISCONNECTIONSCREEN_RESOURCEPACK);
+            return;
+        }
 
-    public ResourcePackChunkDataPacket getChunkDataPacket(Pack pack, int chunkIndex) {
-        var chunkSize = AllayServer.getSettings().resourcePackSettings().maxChunkSize() * 1024;
-        var packet = new ResourcePackChunkDataPacket();
-        packet.setPackId(pack.getId());
-        packet.setPackVersion(pack.getStringVersion());
-        packet.setChunkIndex(chunkIndex);
-        packet.setData(Unpooled.wrappedBuffer(pack.getChunk(chunkSize * chunkIndex, chunkSize)));
-        packet.setProgress((long) chunkSize * chunkIndex);
-        return packet;
+        scheduler.request(player, pack, chunkIndex);
     }
 
     @Override
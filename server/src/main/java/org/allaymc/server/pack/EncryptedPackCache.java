@@ -0,0 +1,125 @@
+package org.allaymc.server.pack;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.message.I18n;
+import org.allaymc.api.message.TrKeys;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.Executor;
+
+/**
+ * EncryptedPackCache stores the encrypted packs on disk, so that a pack is only encrypted again when it is changed.
+ * The encrypted pack is keyed by the SHA-256 of the source pack: {@code <sha256>.zip} is the encrypted pack and
+ * {@code <sha256>.zip.key} is its content key, which can be loaded by {@link org.allaymc.server.pack.loader.ZipPackLoader}
+ * directly. The source packs are never modified.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+public final class EncryptedPackCache {
+
+    private static final String PACK_SUFFIX = ".zip";
+    private static final String KEY_SUFFIX = ".key";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    @Getter
+    private final Path directory;
+
+    public EncryptedPackCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Calculate the SHA-256 of a file.
+     *
+     * @param path the path of the file
+     * @return the SHA-256 of the file in hex
+     */
+    public static String sha256(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+
+        try (var stream = new DigestInputStream(Files.newInputStream(path), digest)) {
+            stream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Get the encrypted pack of the given source pack. The source pack will be encrypted if it is not
+     * in the cache or it is changed since the last encryption.
+     *
+     * @param sourcePack the path of the source pack
+     * @param executor   the executor used to encrypt the files in the pack
+     * @return the cached encrypted pack
+     */
+    public Entry getOrEncrypt(Path sourcePack, Executor executor) throws IOException {
+        Files.createDirectories(directory);
+        var hash = sha256(sourcePack);
+        var packPath = directory.resolve(hash + PACK_SUFFIX);
+        var keyPath = directory.resolve(hash + PACK_SUFFIX + KEY_SUFFIX);
+        if (Files.isRegularFile(packPath) && Files.isRegularFile(keyPath)) {
+            return new Entry(packPath, Files.readString(keyPath), true);
+        }
+
+        log.info(I18n.get().tr(TrKeys.ALLAY_PACK_ENCRYPTING, sourcePack.getFileName()));
+        var tmpPath = directory.resolve(hash + PACK_SUFFIX + TMP_SUFFIX);
+        try {
+            var key = PackEncryptor.encrypt(sourcePack, tmpPath, executor);
+            // The key is written before the pack, so a pack in the cache always has its key
+            Files.writeString(keyPath, key);
+            Files.move(tmpPath, packPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Entry(packPath, key, false);
+        } finally {
+            Files.deleteIfExists(tmpPath);
+        }
+    }
+
+    /**
+     * Delete the encrypted packs in the cache which are not in the given entries, e.g. the packs of
+     * which the source pack has been changed or removed.
+     *
+     * @param usedEntries the entries which are still used
+     */
+    public void retainOnly(Collection<Entry> usedEntries) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        var usedPaths = usedEntries.stream().map(Entry::path).toList();
+        try (var stream = Files.newDirectoryStream(directory)) {
+            for (var path : stream) {
+                var fileName = path.getFileName().toString();
+                var packFileName = fileName.endsWith(KEY_SUFFIX) ? fileName.substring(0, fileName.length() - KEY_SUFFIX.length()) : fileName;
+                if (usedPaths.contains(directory.resolve(packFileName))) {
+                    continue;
+                }
+
+                log.debug("Deleting unused encrypted pack {}", path);
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * @param path   the path of the encrypted pack
+     * @param key    the content key of the encrypted pack
+     * @param cached {@code true} if the encrypted pack is reused from the cache
+     */
+    public record Entry(Path path, String key, boolean cached) {
+    }
+}
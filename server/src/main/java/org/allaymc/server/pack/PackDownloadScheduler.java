@@ -0,0 +1,127 @@
+package org.allaymc.server.pack;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.allaymc.api.pack.Pack;
+import org.allaymc.api.player.Player;
+import org.cloudburstmc.protocol.bedrock.packet.ResourcePackChunkDataPacket;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * PackDownloadScheduler limits how many pack chunks are sent per tick. Chunk requests beyond the
+ * download window of the player or the global download window are queued and sent in later ticks,
+ * so a lot of players downloading large packs at the same time won't flood the network.
+ * <p>
+ * The chunks are sent as read-only views of the pack content, see {@link Pack#getChunkBuffer(int, int)}.
+ * {@link #request(Player, Pack, int)} can be called from any thread, while {@link #tick()} should only
+ * be called in the server thread.
+ *
+ * @author daoge_cmd
+ */
+public final class PackDownloadScheduler {
+
+    private final int chunkSize;
+    private final int playerWindow;
+    private final int globalWindow;
+    private final Map<Player, Queue<ChunkRequest>> pendingRequests;
+
+    /**
+     * @param chunkSize    the max size of a pack chunk in bytes
+     * @param playerWindow the max count of chunks sent to a player per tick, {@code <= 0} means no limit
+     * @param globalWindow the max count of chunks sent to all players per tick, {@code <= 0} means no limit
+     */
+    public PackDownloadScheduler(int chunkSize, int playerWindow, int globalWindow) {
+        this.chunkSize = chunkSize;
+        this.playerWindow = playerWindow;
+        this.globalWindow = globalWindow;
+        this.pendingRequests = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the count of the chunks of a pack.
+     *
+     * @param pack the pack
+     * @return the count of the chunks
+     */
+    public int getChunkCount(Pack pack) {
+        return (int) Math.ceil(pack.getSize() / (double) chunkSize);
+    }
+
+    /**
+     * Request a chunk of a pack for a player. The chunk will be sent immediately if no window
+     * is configured, otherwise it will be sent in {@link #tick()}.
+     *
+     * @param player     the player who requests the chunk
+     * @param pack       the pack
+     * @param chunkIndex the index of the chunk, should be smaller than {@link #getChunkCount(Pack)}
+     */
+    public void request(Player player, Pack pack, int chunkIndex) {
+        if (playerWindow <= 0 && globalWindow <= 0) {
+            player.sendPacket(createChunkDataPacket(pack, chunkIndex));
+            return;
+        }
+
+        pendingRequests.computeIfAbsent(player, $ -> new ConcurrentLinkedQueue<>()).offer(new ChunkRequest(pack, chunkIndex));
+    }
+
+    public void tick() {
+        if (pendingRequests.isEmpty()) {
+            return;
+        }
+
+        var budget = globalWindow <= 0 ? Integer.MAX_VALUE : globalWindow;
+        var sentCounts = new Object2IntOpenHashMap<Player>();
+        var sent = true;
+        // Send one chunk to each player per round, so that the global window is shared fairly
+        while (budget > 0 && sent) {
+            sent = false;
+            var iterator = pendingRequests.entrySet().iterator();
+            while (iterator.hasNext() && budget > 0) {
+                var entry = iterator.next();
+                var player = entry.getKey();
+                if (player.isDisconnected() || player.isInitialized()) {
+                    // The player won't download packs anymore
+                    iterator.remove();
+                    continue;
+                }
+
+                if (playerWindow > 0 && sentCounts.getInt(player) >= playerWindow) {
+                    continue;
+                }
+
+                var request = entry.getValue().poll();
+                if (request == null) {
+                    continue;
+                }
+
+                player.sendPacket(createChunkDataPacket(request.pack(), request.chunkIndex()));
+                sentCounts.addTo(player, 1);
+                budget--;
+                sent = true;
+            }
+        }
+    }
+
+    /**
+     * @return the count of the chunk requests waiting to be sent
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    public ResourcePackChunkDataPacket createChunkDataPacket(Pack pack, int chunkIndex) {
+        var packet = new ResourcePackChunkDataPacket();
+        packet.setPackId(pack.getId());
+        packet.setPackVersion(pack.getStringVersion());
+        packet.setChunkIndex(chunkIndex);
+        packet.setData(Unpooled.wrappedBuffer(pack.getChunkBuffer(chunkSize * chunkIndex, chunkSize)));
+        packet.setProgress((long) chunkSize * chunkIndex);
+        return packet;
+    }
+
+    private record ChunkRequest(Pack pack, int chunkIndex) {}
+}
@@ -14,12 +14,18 @@ import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -43,24 +49,42 @@ public final class PackEncryptor {
 
     public static String encrypt(Path inputPath, Path outputPath) {
         var key = RandomStringUtils.secure().nextAlphabetic(KEY_LENGTH);
-        try (var inputZip = new ZipFile(inputPath.toString())) {
-            encrypt0(inputZip, outputPath, key);
+        encrypt(inputPath, outputPath, key);
+        return key;
+    }
+
+    public static void encrypt(Path inputPath, Path outputPath, String key) {
+        try {
+            encrypt(inputPath, outputPath, key, Runnable::run);
         } catch (Exception e) {
             log.error("Failed to encrypt pack", e);
         }
+    }
+
+    /**
+     * Encrypt a pack with a random key. The files in the pack are encrypted in parallel using the given executor,
+     * while the output is still written in the order of the input files.
+     *
+     * @param inputPath  the path of the pack to encrypt
+     * @param outputPath the path of the encrypted pack
+     * @param executor   the executor used to encrypt the files
+     * @return the key of the encrypted pack
+     * @throws IOException if failed to read the pack or write the encrypted pack
+     */
+    public static String encrypt(Path inputPath, Path outputPath, Executor executor) throws IOException {
+        var key = RandomStringUtils.secure().nextAlphabetic(KEY_LENGTH);
+        encrypt(inputPath, outputPath, key, executor);
         return key;
     }
 
-    public static void encrypt(Path inputPath, Path outputPath, String key) {
+    public static void encrypt(Path inputPath, Path outputPath, String key, Executor executor) throws IOException {
         try (var inputZip = new ZipFile(inputPath.toString())) {
-            encrypt0(inputZip, outputPath, key);
-        } catch (Exception e) {
-            log.error("Failed to encrypt pack", e);
+            encrypt0(inputZip, outputPath, key, executor);
         }
     }
 
     @SneakyThrows
-    private static void encrypt0(ZipFile inputZip, Path outputPath, String key) {
+    private static void encrypt0(ZipFile inputZip, Path outputPath, String key, Executor executor) {
         if (key.length() != KEY_LENGTH) {
             throw new IllegalArgumentException("key length must be 32");
         }
@@ -72,41 +96,35 @@ public final class PackEncryptor {
 
         // Delete old output
         Files.deleteIfExists(outputPath);
-        var outputStream = new ZipOutputStream(new FileOutputStream(outputPath.toFile()), StandardCharsets.UTF_8);
-        // Encrypt files
-        inputZip.stream().forEach(zipEntry -> {
-            if (zipEntry.isDirectory()) {
-                createDirectoryRoot(zipEntry, outputStream);
-                if (isSubPackRoot(zipEntry)) {
-                    // Handle sub pack
-                    encryptSubPack(inputZip, outputStream, zipEntry.getName(), key, uuid);
-                }
+        try (var outputStream = new ZipOutputStream(new FileOutputStream(outputPath.toFile()), StandardCharsets.UTF_8)) {
+            var writer = new EntryWriter(inputZip, outputStream, executor);
+            // Encrypt files
+            inputZip.stream().forEach(zipEntry -> {
+                if (zipEntry.isDirectory()) {
+                    createDirectoryRoot(zipEntry, outputStream);
+                    if (isSubPackRoot(zipEntry)) {
+                        // Handle sub pack
+                        encryptSubPack(inputZip, writer, zipEntry.getName(), key, uuid);
+                    }
 
-                return;
-            }
-            // Sub pack files will be handled in encryptSubPack()
-            if (isSubPackFile(zipEntry)) {
-                return;
-            }
+                    return;
+                }
+                // Sub pack files will be handled in encryptSubPack()
+                if (isSubPackFile(zipEntry)) {
+                    return;
+                }
 
-            String entryKey = null;
-            // Check if file is excluded
-            if (EXCLUDED_FILES.contains(zipEntry.getName())) {
-                encryptExcludedFile(inputZip, outputStream, zipEntry);
-                // Excluded file does not have entry key
-            } else {
-                // Encrypt file
-                entryKey = encryptFile(inputZip, outputStream, zipEntry);
-            }
-            contentEntries.add(new ContentEntry(zipEntry.getName(), entryKey));
-        });
+                // Check if file is excluded, excluded file does not have entry key
+                var encrypt = !EXCLUDED_FILES.contains(zipEntry.getName());
+                writer.write(zipEntry, encrypt, entryKey -> contentEntries.add(new ContentEntry(zipEntry.getName(), entryKey)));
+            });
 
-        generateContentsJson("contents.json", outputStream, uuid, key, contentEntries);
-        outputStream.close();
+            writer.flush();
+            generateContentsJson("contents.json", outputStream, uuid, key, contentEntries);
+        }
     }
 
-    @SneakyThrows
-    private static void encryptSubPack(ZipFile inputZip, ZipOutputStream zos, String subPackPath, String key, String contentId) {
+    private static void encryptSubPack(ZipFile inputZip, EntryWriter writer, String subPackPath, String key, String contentId) {
         var subPackContentEntries = new ArrayList<ContentEntry>();
 
         // Encrypt files
@@ -115,11 +133,13 @@ public final class PackEncryptor {
                 return;
             }
 
-            String entryKey = encryptFile(inputZip, zos, zipEntry);
-            subPackContentEntries.add(new ContentEntry(zipEntry.getName().substring(subPackPath.length()), entryKey));
+            var name = zipEntry.getName().substring(subPackPath.length());
+            writer.write(zipEntry, true, entryKey -> subPackContentEntries.add(new ContentEntry(name, entryKey)));
         });
 
-        generateContentsJson(subPackPath + "contents.json", zos, contentId, key, subPackContentEntries);
+        // contents.json of the sub pack needs the keys of all its files
+        writer.flush();
+        generateContentsJson(subPackPath + "contents.json", writer.outputStream, contentId, key, subPackContentEntries);
     }
 
     @SneakyThrows
@@ -148,28 +168,19 @@ public final class PackEncryptor {
     }
 
     @SneakyThrows
-    private static void encryptExcludedFile(ZipFile inputZip, ZipOutputStream outputStream, ZipEntry zipEntry) {
-        outputStream.putNextEntry(copyZipEntry(zipEntry));
-        outputStream.write(inputZip.getInputStream(zipEntry).readAllBytes());
-        outputStream.closeEntry();
-    }
+    private static EncryptedEntry encryptFile(ZipFile inputZip, ZipEntry zipEntry, boolean encrypt) {
+        var bytes = inputZip.getInputStream(zipEntry).readAllBytes();
+        if (!encrypt) {
+            return new EncryptedEntry(zipEntry, bytes, null);
+        }
 
-    @SneakyThrows
-    private static String encryptFile(ZipFile inputZip, ZipOutputStream outputStream, ZipEntry zipEntry) {
-        byte[] bytes;
-        bytes = inputZip.getInputStream(zipEntry).readAllBytes();
         // Init encryptor
         var key = RandomStringUtils.secure().nextAlphabetic(KEY_LENGTH);
         var secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
         var cipher = Cipher.getInstance("AES/CFB8/NoPadding");
         cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(key.substring(0, 16).getBytes(StandardCharsets.UTF_8)));
         // Encrypt the file
-        var encryptedBytes = cipher.doFinal(bytes);
-        // Write bytes
-        outputStream.putNextEntry(copyZipEntry(zipEntry));
-        outputStream.write(encryptedBytes);
-        outputStream.closeEntry();
-        return key;
+        return new EncryptedEntry(zipEntry, cipher.doFinal(bytes), key);
     }
 
     private static boolean isSubPackFile(ZipEntry zipEntry) {
@@ -230,4 +241,59 @@ public final class PackEncryptor {
 
     public record ContentEntry(String path, String key) {
     }
+
+    private record EncryptedEntry(ZipEntry zipEntry, byte[] bytes, String key) {
+    }
+
+    /**
+     * Encrypts the files using the executor and writes them to the output in the order they are submitted.
+     * At most {@link #MAX_PENDING_ENTRIES} files are held in memory at the same time.
+     */
+    private static final class EntryWriter {
+        private static final int MAX_PENDING_ENTRIES = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+        private final ZipFile inputZip;
+        private final ZipOutputStream outputStream;
+        private final Executor executor;
+        private final Queue<PendingEntry> pendingEntries;
+
+        EntryWriter(ZipFile inputZip, ZipOutputStream outputStream, Executor executor) {
+            this.inputZip = inputZip;
+            this.outputStream = outputStream;
+            this.executor = executor;
+            this.pendingEntries = new ArrayDeque<>();
+        }
+
+        /**
+         * @param zipEntry the file to write
+         * @param encrypt  whether the file should be encrypted
+         * @param callback called with the key of the file (or {@code null} if not encrypted) after the file is written
+         */
+        void write(ZipEntry zipEntry, boolean encrypt, Consumer<String> callback) {
+            var future = CompletableFuture.supplyAsync(() -> encryptFile(inputZip, zipEntry, encrypt), executor);
+            pendingEntries.offer(new PendingEntry(future, callback));
+            if (pendingEntries.size() >= MAX_PENDING_ENTRIES) {
+                writeNext();
+            }
+        }
+
+        void flush() {
+            while (!pendingEntries.isEmpty()) {
+                writeNext();
+            }
+        }
+
+        @SneakyThrows
+        private void writeNext() {
+            var pendingEntry = pendingEntries.poll();
+            var entry = pendingEntry.future().join();
+            outputStream.putNextEntry(copyZipEntry(entry.zipEntry()));
+            outputStream.write(entry.bytes());
+            outputStream.closeEntry();
+            pendingEntry.callback().accept(entry.key());
+        }
+
+        private record PendingEntry(CompletableFuture<EncryptedEntry> future, Consumer<String> callback) {
+        }
+    }
 }
@@ -8,10 +8,13 @@ import org.allaymc.server.pack.ResourcePackException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 
 /**
@@ -58,6 +61,16 @@ public class ZipPackLoader implements PackLoader {
         }
     }
 
+    @Override
+    public ByteBuffer readAllBytesAsBuffer() {
+        // The mapping stays valid after the channel is closed
+        try (var channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new ResourcePackException(e);
+        }
+    }
+
     @Override
     public String getContentKey() {
         var keyFilePath = path.getParent().resolve(path.getFileName() + ".key");
@@ -1,11 +1,13 @@
 package org.allaymc.server.pdc;
 
+import lombok.Getter;
 import org.allaymc.api.pdc.PersistentDataContainer;
 import org.allaymc.api.pdc.PersistentDataType;
 import org.allaymc.api.pdc.PersistentDataTypeRegistry;
 import org.allaymc.api.utils.identifier.Identifier;
 import org.cloudburstmc.nbt.NbtMap;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -15,6 +17,11 @@ import java.util.Objects;
  */
 public class AllayPersistentDataContainer extends AllayPersistentDataContainerView implements PersistentDataContainer {
     private final Map<String, Object> customDataTags = new HashMap<>();
+    /**
+     * Increased every time the content is changed, so that the holders can tell if their cached data is stale.
+     */
+    @Getter
+    private int modificationCount;
 
     public AllayPersistentDataContainer(PersistentDataTypeRegistry registry) {
         super(registry);
@@ -23,21 +30,26 @@ public class AllayPersistentDataContainer extends AllayPersistentDataContainerVi
     @Override
     public <P, C> void set(Identifier key, PersistentDataType<P, C> type, C value) {
         this.customDataTags.put(key.toString(), this.registry.wrap(type, type.toPrimitive(value, this.adapterContext)));
+        this.modificationCount++;
     }
 
     @Override
     public void remove(Identifier key) {
-        this.customDataTags.remove(key.toString());
+        if (this.customDataTags.remove(key.toString()) != null) {
+            this.modificationCount++;
+        }
     }
 
     @Override
     public void putAll(Map<String, Object> map) {
         this.customDataTags.putAll(map);
+        this.modificationCount++;
     }
 
     @Override
     public void clear() {
         this.customDataTags.clear();
+        this.modificationCount++;
     }
 
     @Override
@@ -56,7 +68,7 @@ public class AllayPersistentDataContainer extends AllayPersistentDataContainerVi
     }
 
     public Map<String, Object> getRaw() {
-        return this.customDataTags;
+        return Collections.unmodifiableMap(this.customDataTags);
     }
 
     @Override
@@ -6,7 +6,10 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.bytes.Byte2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import lombok.Getter;
 import lombok.Setter;
@@ -106,6 +109,7 @@ import org.allaymc.server.utils.JSONUtils;
 import org.allaymc.server.world.AllayDimension;
 import org.allaymc.server.world.AllayWorld;
 import org.allaymc.server.world.chunk.AllayUnsafeChunk;
+import org.allaymc.server.world.chunk.ChunkBlobStore;
 import org.allaymc.server.world.chunk.ChunkEncoder;
 import org.cloudburstmc.math.vector.Vector2f;
 import org.cloudburstmc.math.vector.Vector3f;
@@ -125,6 +129,7 @@ import org.cloudburstmc.protocol.bedrock.data.entity.EntityEventType;
 import org.cloudburstmc.protocol.bedrock.data.entity.EntityFlag;
 import org.cloudburstmc.protocol.bedrock.data.inventory.ContainerSlotType;
 import org.cloudburstmc.protocol.bedrock.data.inventory.FullContainerName;
+import org.cloudburstmc.protocol.bedrock.netty.BedrockBatchWrapper;
 import org.cloudburstmc.protocol.bedrock.packet.*;
 import org.cloudburstmc.protocol.common.PacketSignal;
 import org.cloudburstmc.protocol.common.SimpleDefinitionRegistry;
@@ -142,6 +147,7 @@ import java.util.*;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static org.allaymc.api.utils.AllayNBTUtils.readVector3f;
@@ -210,6 +216,10 @@ public class AllayPlayer implements Player {
     protected BiMap<ContainerType<?>, Container> typeToContainer;
     protected Map<ContainerSlotType, ContainerType<?>> slotTypeToFullType;
 
+    // Client blob cache, blobs that have been sent to the client as ids and are waiting for the
+    // client to answer whether it has them. Guarded by itself
+    protected final Long2ObjectOpenHashMap<byte[]> pendingBlobs;
+
     // Form
     protected AtomicInteger formIdCounter;
     protected Cache<@NotNull Integer, Form> forms;
@@ -239,6 +249,9 @@ public class AllayPlayer implements Player {
         this.typeToContainer = HashBiMap.create(new Object2ObjectOpenHashMap<>());
         this.slotTypeToFullType = new HashMap<>();
 
+        // Client blob cache
+        this.pendingBlobs = new Long2ObjectOpenHashMap<>();
+
         // Form
         this.formIdCounter = new AtomicInteger(0);
         this.forms = Caffeine.newBuilder()
@@ -253,16 +266,33 @@ public class AllayPlayer implements Player {
     }
 
     public static LevelChunkPacket createSubChunkLevelChunkPacket(AllayUnsafeChunk chunk) {
+        return createSubChunkLevelChunkPacket(chunk, null);
+    }
+
+    /**
+     * Create the level chunk packet used by the sub chunk sending system.
+     *
+     * @param chunk        the chunk
+     * @param blobConsumer the consumer that receives the sent blobs if the client blob cache
+     *                     should be used, or {@code null} to send the biomes directly
+     * @return the packet
+     */
+    public static LevelChunkPacket createSubChunkLevelChunkPacket(AllayUnsafeChunk chunk, Consumer<ChunkBlobStore.Blob> blobConsumer) {
         var dimensionInfo = chunk.getDimensionInfo();
         var packet = new LevelChunkPacket();
         packet.setDimension(dimensionInfo.dimensionId());
         packet.setChunkX(chunk.getX());
         packet.setChunkZ(chunk.getZ());
-        packet.setCachingEnabled(false);
         packet.setRequestSubChunks(true);
         // NOTICE: Sub chunk limit is bigger than zero
         packet.setSubChunkLimit(findHighestNonAirSectionY(chunk) - dimensionInfo.minSectionY());
-        packet.setData(ChunkEncoder.writeToNetworkBiomeOnly(chunk));
+        if (blobConsumer != null) {
+            packet.setCachingEnabled(true);
+            packet.setData(ChunkEncoder.writeToNetworkBiomeOnlyCached(chunk, packet.getBlobIds(), blobConsumer));
+        } else {
+            packet.setCachingEnabled(false);
+            packet.setData(ChunkEncoder.writeToNetworkBiomeOnly(chunk));
+        }
         return packet;
     }
 
@@ -278,15 +308,32 @@ public class AllayPlayer implements Player {
     }
 
     public static LevelChunkPacket createFullLevelChunkPacketChunk(AllayUnsafeChunk chunk) {
+        return createFullLevelChunkPacketChunk(chunk, null);
+    }
+
+    /**
+     * Create the level chunk packet which contains the whole chunk.
+     *
+     * @param chunk        the chunk
+     * @param blobConsumer the consumer that receives the sent blobs if the client blob cache
+     *                     should be used, or {@code null} to send the blocks and biomes directly
+     * @return the packet
+     */
+    public static LevelChunkPacket createFullLevelChunkPacketChunk(AllayUnsafeChunk chunk, Consumer<ChunkBlobStore.Blob> blobConsumer) {
         var dimensionInfo = chunk.getDimensionInfo();
         var packet = new LevelChunkPacket();
         packet.setDimension(dimensionInfo.dimensionId());
         packet.setChunkX(chunk.getX());
         packet.setChunkZ(chunk.getZ());
-        packet.setCachingEnabled(false);
         packet.setRequestSubChunks(false);
         packet.setSubChunksLength(dimensionInfo.chunkSectionCount());
-        packet.setData(ChunkEncoder.writeToNetwork(chunk));
+        if (blobConsumer != null) {
+            packet.setCachingEnabled(true);
+            packet.setData(ChunkEncoder.writeToNetworkCached(chunk, packet.getBlobIds(), blobConsumer));
+        } else {
+            packet.setCachingEnabled(false);
+            packet.setData(ChunkEncoder.writeToNetwork(chunk));
+        }
         return packet;
     }
 
@@ -903,6 +950,11 @@ public class AllayPlayer implements Player {
         }
     }
 
+    @Override
+    public void resendChunk(Chunk chunk) {
+        sendPacket(createLevelChunkPacket(chunk));
+    }
+
     protected NetworkChunkPublisherUpdatePacket createNetworkChunkPublisherUpdatePacket() {
         var packet = new NetworkChunkPublisherUpdatePacket();
         var location = this.controlledEntity.getLocation();
@@ -913,16 +965,71 @@ public class AllayPlayer implements Player {
 
     protected LevelChunkPacket createLevelChunkPacket(Chunk chunk) {
         var lcp = new LevelChunkPacket[1];
+        Consumer<ChunkBlobStore.Blob> blobConsumer = isClientCacheUsable() ? this::addPendingBlob : null;
         chunk.applyOperation(unsafeChunk -> {
             if (AllayServer.getSettings().worldSettings().useSubChunkSendingSystem()) {
-                lcp[0] = createSubChunkLevelChunkPacket((AllayUnsafeChunk) unsafeChunk);
+                lcp[0] = createSubChunkLevelChunkPacket((AllayUnsafeChunk) unsafeChunk, blobConsumer);
             } else {
-                lcp[0] = createFullLevelChunkPacketChunk((AllayUnsafeChunk) unsafeChunk);
+                lcp[0] = createFullLevelChunkPacketChunk((AllayUnsafeChunk) unsafeChunk, blobConsumer);
             }
         }, OperationType.READ, OperationType.READ);
         return lcp[0];
     }
 
+    /**
+     * Check if chunks should be sent to this player using the client blob cache.
+     *
+     * @return {@code true} if the client supports the blob cache and it is enabled in the server settings
+     */
+    public boolean isClientCacheUsable() {
+        return clientCacheEnabled && AllayServer.getSettings().networkSettings().enableClientCache();
+    }
+
+    /**
+     * Keep a blob that has been sent to the client as id until the client answers whether it has the blob.
+     *
+     * @param blob the sent blob
+     */
+    public void addPendingBlob(ChunkBlobStore.Blob blob) {
+        synchronized (pendingBlobs) {
+            pendingBlobs.put(blob.id(), blob.data());
+        }
+        ChunkBlobStore.onBlobsSent(1);
+    }
+
+    /**
+     * Handle the blob status sent by the client, the blobs that the client doesn't have will be sent.
+     *
+     * @param missingBlobIds the ids of the blobs that the client doesn't have
+     * @param ackedBlobIds   the ids of the blobs that the client already has
+     */
+    public void handleClientCacheBlobStatus(LongList missingBlobIds, LongList ackedBlobIds) {
+        var packet = new ClientCacheMissResponsePacket();
+        synchronized (pendingBlobs) {
+            for (int i = 0; i < ackedBlobIds.size(); i++) {
+                pendingBlobs.remove(ackedBlobIds.getLong(i));
+            }
+
+            for (int i = 0; i < missingBlobIds.size(); i++) {
+                var id = missingBlobIds.getLong(i);
+                var data = pendingBlobs.remove(id);
+                if (data == null) {
+                    data = ChunkBlobStore.get(id);
+                }
+                if (data == null) {
+                    log.warn("Player {} requested an unknown blob {}", getOriginName(), id);
+                    continue;
+                }
+                packet.getBlobs().put(id, Unpooled.wrappedBuffer(data));
+            }
+        }
+
+        if (!packet.getBlobs().isEmpty()) {
+            ChunkBlobStore.onBlobsMissed(packet.getBlobs().size());
+            sendPacket(packet);
+        }
+    }
+
     @Override
     public void removeChunk(long chunkHash) {
         this.controlledEntity.getDimension().getEntityManager().forEachEntitiesInChunk(
@@ -2518,14 +2625,51 @@ public class AllayPlayer implements Player {
 
         startGame(dimension.getWorld(), playerData, dimension);
 
-        sendPacket(NetworkData.ITEM_REGISTRY_PACKET.get());
-        sendPacket(NetworkData.CREATIVE_CONTENT_PACKET.get());
-        sendPacket(NetworkData.AVAILABLE_ENTITY_IDENTIFIERS_PACKET.get());
-        sendPacket(NetworkData.BIOME_DEFINITION_LIST_PACKET.get());
-        sendPacket(NetworkData.CRAFTING_DATA_PACKET.get());
+        sendLoginData();
         sendPacket(NetworkData.TRIM_DATA_PACKET.get());
     }
 
+    /**
+     * Sends the packets in {@link NetworkData#LOGIN_DATA_PACKETS} to the client. These packets are large
+     * and the same for all the players, so they are sent as a batch which is encoded and compressed only
+     * once per protocol version. If a plugin changes or cancels any of them, the packets that passed
+     * {@link PacketSendEvent} are sent one by one instead.
+     */
+    protected void sendLoginData() {
+        if (!getClientState().canHandlePackets()) {
+            return;
+        }
+
+        var packets = NetworkData.LOGIN_DATA_PACKETS.get();
+        var networkSettings = AllayServer.getSettings().networkSettings();
+        var prepared = networkSettings.precompressLoginData();
+        // The event is called exactly once for each packet, so the packets that should be
+        // sent are collected here instead of calling sendPacket() which calls the event again
+        var packetsToSend = new ArrayList<BedrockPacket>(packets.size());
+        for (var packet : packets) {
+            var event = new PacketSendEvent(this, packet);
+            if (!event.call()) {
+                prepared = false;
+                continue;
+            }
+
+            if (event.getPacket() != packet) {
+                prepared = false;
+            }
+            packetsToSend.add(event.getPacket());
+        }
+
+        if (!prepared) {
+            packetsToSend.forEach(this.session::sendPacket);
+            return;
+        }
+
+        var batch = NetworkData.getLoginDataBatch(session.getCodec(), networkSettings.compressionAlgorithm());
+        // The batch is already compressed, so it is written to the channel directly instead of being queued. StartGamePacket
+        // is sent immediately, so it will still be received before these packets
+        session.getPeer().getChannel().writeAndFlush(BedrockBatchWrapper.newInstance(Unpooled.wrappedBuffer(batch).asReadOnly(), null));
+    }
+
     /**
      * Sends {@link StartGamePacket} to the client.
      */
@@ -2592,7 +2736,8 @@ public class AllayPlayer implements Player {
         packet.setOwnerId("");
         packet.getExperiments().addAll(NetworkData.EXPERIMENT_DATA_LIST.get());
         MultiVersionHelper.adaptExperimentData(this, packet.getExperiments());
-        sendPacket(packet);
+        // NOTICE: Sent immediately so that it is written before the prepared login data, see sendLoginData()
+        sendPacketImmediately(packet);
     }
 
     public void completeLogin() {
@@ -36,6 +36,7 @@ public class AllayCommandRegistry extends CommandRegistry {
         register(new GameModeCommand());
         register(new GameRuleCommand());
         register(new TpsCommand());
+        register(new TimingsCommand());
         register(new KickCommand());
         register(new PluginCommand());
         register(new StatusCommand());
@@ -0,0 +1,116 @@
+package org.allaymc.server.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.server.datastruct.dag.DAGCycleException;
+import org.allaymc.server.datastruct.dag.HashDirectedAcyclicGraph;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * RegistryBootstrap loads the registries as a dependency graph. Each stage loads one or more registries and
+ * declares the stages whose registries it reads. Stages are run on the given executor as soon as all their
+ * dependencies are finished, so independent registries (e.g. item data, block state data and biome data)
+ * are loaded at the same time.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+public final class RegistryBootstrap {
+
+    private final HashDirectedAcyclicGraph<String> dag = new HashDirectedAcyclicGraph<>();
+    private final Map<String, Runnable> tasks = new HashMap<>();
+    private final Map<String, Set<String>> dependencies = new HashMap<>();
+    private final Map<String, Long> timings = new ConcurrentHashMap<>();
+
+    /**
+     * Add a stage.
+     *
+     * @param name         the name of the stage
+     * @param task         the task of the stage
+     * @param dependencies the names of the stages which should be finished before this stage, they should be added before
+     * @return this bootstrap
+     * @throws IllegalArgumentException if a stage with the same name exists, or a dependency doesn't exist
+     */
+    public RegistryBootstrap stage(String name, Runnable task, String... dependencies) {
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate registry stage: " + name);
+        }
+        for (var dependency : dependencies) {
+            if (!tasks.containsKey(dependency)) {
+                throw new IllegalArgumentException("Unknown dependency " + dependency + " of registry stage " + name);
+            }
+        }
+
+        tasks.put(name, task);
+        dag.add(name);
+        for (var dependency : dependencies) {
+            try {
+                dag.setBefore(dependency, name);
+            } catch (DAGCycleException e) {
+                // Shouldn't happen since the dependencies are always added before
+                throw new IllegalArgumentException("Cyclic dependency between registry stage " + dependency + " and " + name, e);
+            }
+        }
+        this.dependencies.put(name, Set.of(dependencies));
+        return this;
+    }
+
+    /**
+     * Run all the stages and wait for them to finish.
+     *
+     * @param executor the executor to run the stages on
+     * @throws RuntimeException if any stage failed
+     */
+    public void run(Executor executor) {
+        var startTime = System.nanoTime();
+        var futures = new HashMap<String, CompletableFuture<Void>>();
+        // Stages are sorted topologically, so the futures of the dependencies always exist
+        for (var name : dag.getSortedList()) {
+            var task = tasks.get(name);
+            var dependencyFutures = dependencies.get(name).stream().map(futures::get).toArray(CompletableFuture[]::new);
+            futures.put(name, CompletableFuture.allOf(dependencyFutures).thenRunAsync(() -> {
+                var stageStartTime = System.nanoTime();
+                task.run();
+                timings.put(name, System.nanoTime() - stageStartTime);
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+
+        log.info("Loaded {} registry stages in {} ms ({})",
+                tasks.size(), (System.nanoTime() - startTime) / 1_000_000,
+                timings.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .map(entry -> entry.getKey() + ": " + entry.getValue() / 1_000_000 + " ms")
+                        .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * @return the names of all the added stages
+     */
+    public Set<String> getStageNames() {
+        return Collections.unmodifiableSet(tasks.keySet());
+    }
+
+    /**
+     * Get the time spent in each stage. Only available after {@link #run(Executor)} is called.
+     *
+     * @return the time (unit: ns) spent in each stage
+     */
+    public Map<String, Long> getTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+}
@@ -0,0 +1,471 @@
+package org.allaymc.server.registry;
+
+import com.google.common.base.Suppliers;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.block.data.BlockStateData;
+import org.allaymc.api.block.data.LiquidReactionOnTouch;
+import org.allaymc.api.block.data.TintMethod;
+import org.allaymc.api.item.data.ItemData;
+import org.allaymc.api.math.voxelshape.VoxelShape;
+import org.allaymc.api.utils.Utils;
+import org.allaymc.api.utils.identifier.Identifier;
+import org.allaymc.server.block.data.BlockId;
+import org.allaymc.server.item.data.ItemId;
+import org.joml.primitives.AABBdc;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * RegistrySnapshot is a compact binary form of the registries which are parsed from the json files in the
+ * resources (block state data, default block state hashes and item data). It is generated by the data module
+ * and is memory-mapped at startup when it exists as a file, otherwise it is read from the classpath.
+ * <p>
+ * Each section stores the checksum of the json file it is built from, and a section is only decoded when
+ * the corresponding registry is loaded. A section is ignored if its checksum does not match the current
+ * json file, in which case the registry will be loaded from the json file as usual.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+public final class RegistrySnapshot {
+
+    public static final String RESOURCE_NAME = "registry_snapshot.bin";
+
+    public static final String BLOCK_STATE_DATA = "block_state_data";
+    public static final String BLOCK_DEFAULT_STATE_HASHES = "block_default_state_hashes";
+    public static final String ITEM_DATA = "item_data";
+
+    private static final int MAGIC = 0x414C5253; // "ALRS"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Map<String, String> SOURCES = Map.of(
+            BLOCK_STATE_DATA, "block_states.json",
+            BLOCK_DEFAULT_STATE_HASHES, "block_types.json",
+            ITEM_DATA, "items.json"
+    );
+
+    private static final Supplier<RegistrySnapshot> INSTANCE = Suppliers.memoize(RegistrySnapshot::open);
+
+    private final ByteBuffer buffer;
+    private final Map<String, Section> sections;
+
+    private RegistrySnapshot(ByteBuffer buffer, Map<String, Section> sections) {
+        this.buffer = buffer;
+        this.sections = sections;
+    }
+
+    /**
+     * Get the registry snapshot in the resources.
+     *
+     * @return the registry snapshot, or {@code null} if the snapshot is missing or broken
+     */
+    public static RegistrySnapshot get() {
+        return INSTANCE.get();
+    }
+
+    private static RegistrySnapshot open() {
+        var url = RegistrySnapshot.class.getClassLoader().getResource(RESOURCE_NAME);
+        if (url == null) {
+            log.debug("Registry snapshot is missing, registries will be loaded from json files");
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer;
+            if (url.getProtocol().equals("file")) {
+                try (var channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } else {
+                // Resources inside a jar can't be mapped
+                try (var input = url.openStream()) {
+                    buffer = ByteBuffer.wrap(input.readAllBytes());
+                }
+            }
+            return read(buffer);
+        } catch (Exception e) {
+            log.warn("Failed to open registry snapshot, registries will be loaded from json files", e);
+            return null;
+        }
+    }
+
+    /**
+     * Read the header of a snapshot. The sections are not decoded until they are used.
+     *
+     * @param buffer the buffer which contains the snapshot
+     * @return the snapshot
+     * @throws IllegalArgumentException if the buffer doesn't contain a snapshot of the current format
+     */
+    public static RegistrySnapshot read(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a registry snapshot");
+        }
+        var version = buffer.getInt(4);
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported registry snapshot version " + version);
+        }
+
+        var header = buffer.duplicate().position(8);
+        var count = header.getInt();
+        var sections = new HashMap<String, Section>(count);
+        for (int i = 0; i < count; i++) {
+            var name = readString(header);
+            sections.put(name, new Section(header.getInt(), header.getInt(), header.getInt()));
+        }
+        return new RegistrySnapshot(buffer, sections);
+    }
+
+    /**
+     * Get the content of a section if it is up to date.
+     *
+     * @param name the name of the section
+     * @return a buffer which contains the content of the section, or {@code null} if the section is missing or stale
+     */
+    private ByteBuffer section(String name) {
+        var section = sections.get(name);
+        if (section == null) {
+            return null;
+        }
+        if (section.sourceChecksum != checksum(SOURCES.get(name))) {
+            log.warn("Section {} of registry snapshot is stale, it will be loaded from {}", name, SOURCES.get(name));
+            return null;
+        }
+        return buffer.slice(section.offset, section.length);
+    }
+
+    /**
+     * Decode a section if it is up to date. A broken section is ignored like a stale one, so that
+     * the registry can still be loaded from the json files.
+     *
+     * @param name    the name of the section
+     * @param decoder the decoder of the section content
+     * @return the decoded section, or {@code null} if the section is missing, stale or broken
+     */
+    private <T> T readSection(String name, Function<ByteBuffer, T> decoder) {
+        try {
+            var in = section(name);
+            return in != null ? decoder.apply(in) : null;
+        } catch (RuntimeException e) {
+            log.warn("Section {} of registry snapshot is broken, it will be loaded from {}", name, SOURCES.get(name), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the block state data in this snapshot, or {@code null} if it is missing, stale or broken
+     */
+    public Map<BlockId, Map<Integer, BlockStateData>> readBlockStateData() {
+        return readSection(BLOCK_STATE_DATA, RegistrySnapshot::decodeBlockStateData);
+    }
+
+    private static Map<BlockId, Map<Integer, BlockStateData>> decodeBlockStateData(ByteBuffer in) {
+        // Lots of block states share the same data, so the distinct data is stored only once
+        var distinct = new BlockStateData[in.getInt()];
+        for (int i = 0; i < distinct.length; i++) {
+            distinct[i] = readBlockStateData(in);
+        }
+
+        var loaded = new EnumMap<BlockId, Map<Integer, BlockStateData>>(BlockId.class);
+        var blockCount = in.getInt();
+        for (int i = 0; i < blockCount; i++) {
+            var identifier = readString(in);
+            var stateCount = in.getInt();
+            var type = BlockId.fromIdentifier(new Identifier(identifier));
+            if (type == null) {
+                log.warn("Unknown block id: {}", identifier);
+                in.position(in.position() + stateCount * 8);
+                continue;
+            }
+
+            var states = new Int2ObjectOpenHashMap<BlockStateData>(stateCount);
+            for (int j = 0; j < stateCount; j++) {
+                states.put(in.getInt(), distinct[in.getInt()]);
+            }
+            loaded.put(type, states);
+        }
+        return loaded;
+    }
+
+    /**
+     * @return the default block state hashes in this snapshot, or {@code null} if they are missing, stale or broken
+     */
+    public Map<BlockId, Integer> readBlockDefaultStateHashes() {
+        return readSection(BLOCK_DEFAULT_STATE_HASHES, RegistrySnapshot::decodeBlockDefaultStateHashes);
+    }
+
+    private static Map<BlockId, Integer> decodeBlockDefaultStateHashes(ByteBuffer in) {
+        var loaded = new EnumMap<BlockId, Integer>(BlockId.class);
+        var count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            var identifier = readString(in);
+            var hash = in.getInt();
+            var id = BlockId.fromIdentifier(new Identifier(identifier));
+            if (id == null) {
+                log.warn("Unknown block id: {}", identifier);
+                continue;
+            }
+            loaded.put(id, hash);
+        }
+        return loaded;
+    }
+
+    /**
+     * @return the item data in this snapshot, or {@code null} if it is missing, stale or broken
+     */
+    public Map<ItemId, ItemData> readItemData() {
+        return readSection(ITEM_DATA, RegistrySnapshot::decodeItemData);
+    }
+
+    private static Map<ItemId, ItemData> decodeItemData(ByteBuffer in) {
+        var loaded = new HashMap<ItemId, ItemData>();
+        var count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            var identifier = readString(in);
+            var itemData = ItemData.builder()
+                    .armorValue(in.getInt())
+                    .enchantValue(in.getInt())
+                    .attackDamage(in.getInt())
+                    .isDamageable(in.get() != 0)
+                    .maxDamage(in.getInt())
+                    .maxStackSize(in.getInt())
+                    .toughnessValue(in.getInt())
+                    .furnaceBurnDuration(in.getFloat())
+                    .furnaceXPMultiplier(in.getFloat())
+                    .build();
+            var id = ItemId.fromIdentifier(new Identifier(identifier));
+            if (id == null) {
+                log.warn("Unknown item id: {}", identifier);
+                continue;
+            }
+            loaded.put(id, itemData);
+        }
+        return loaded;
+    }
+
+    /**
+     * Write a snapshot of the given registries.
+     *
+     * @param output                  the output stream to write to
+     * @param blockStateData          the block state data
+     * @param blockDefaultStateHashes the default block state hashes
+     * @param itemData                the item data
+     */
+    public static void write(
+            OutputStream output,
+            Map<BlockId, Map<Integer, BlockStateData>> blockStateData,
+            Map<BlockId, Integer> blockDefaultStateHashes,
+            Map<ItemId, ItemData> itemData
+    ) throws IOException {
+        var contents = new LinkedHashMap<String, byte[]>();
+        contents.put(BLOCK_STATE_DATA, encodeBlockStateData(blockStateData));
+        contents.put(BLOCK_DEFAULT_STATE_HASHES, encode(out -> {
+            out.writeInt(blockDefaultStateHashes.size());
+            for (var entry : blockDefaultStateHashes.entrySet()) {
+                writeString(out, entry.getKey().getIdentifier().toString());
+                out.writeInt(entry.getValue());
+            }
+        }));
+        contents.put(ITEM_DATA, encode(out -> {
+            out.writeInt(itemData.size());
+            for (var entry : itemData.entrySet()) {
+                var data = entry.getValue();
+                writeString(out, entry.getKey().getIdentifier().toString());
+                out.writeInt(data.armorValue());
+                out.writeInt(data.enchantValue());
+                out.writeInt(data.attackDamage());
+                out.writeBoolean(data.isDamageable());
+                out.writeInt(data.maxDamage());
+                out.writeInt(data.maxStackSize());
+                out.writeInt(data.toughnessValue());
+                out.writeFloat(data.furnaceBurnDuration());
+                out.writeFloat(data.furnaceXPMultiplier());
+            }
+        }));
+
+        var header = encode(out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(contents.size());
+            for (var name : contents.keySet()) {
+                writeString(out, name);
+                // Placeholders of the checksum, offset and length which are filled below
+                out.writeLong(0);
+                out.writeInt(0);
+            }
+        });
+
+        var headerBuffer = ByteBuffer.wrap(header).position(12);
+        var offset = header.length;
+        for (var entry : contents.entrySet()) {
+            headerBuffer.position(headerBuffer.position() + 2 + headerBuffer.getShort(headerBuffer.position()));
+            headerBuffer.putInt(checksum(SOURCES.get(entry.getKey())));
+            headerBuffer.putInt(offset);
+            headerBuffer.putInt(entry.getValue().length);
+            offset += entry.getValue().length;
+        }
+
+        output.write(header);
+        for (var content : contents.values()) {
+            output.write(content);
+        }
+    }
+
+    private static byte[] encodeBlockStateData(Map<BlockId, Map<Integer, BlockStateData>> blockStateData) throws IOException {
+        // BlockStateData doesn't have a content based equals() because of VoxelShape,
+        // so the encoded bytes are used to find the same data
+        var indexes = new LinkedHashMap<ByteBuffer, Integer>();
+        var blocks = encode(out -> {
+            out.writeInt(blockStateData.size());
+            for (var entry : blockStateData.entrySet()) {
+                writeString(out, entry.getKey().getIdentifier().toString());
+                out.writeInt(entry.getValue().size());
+                for (var state : entry.getValue().entrySet()) {
+                    var encoded = ByteBuffer.wrap(encode(dataOut -> writeBlockStateData(dataOut, state.getValue())));
+                    out.writeInt(state.getKey());
+                    out.writeInt(indexes.computeIfAbsent(encoded, $ -> indexes.size()));
+                }
+            }
+        });
+
+        return encode(out -> {
+            out.writeInt(indexes.size());
+            for (var encoded : indexes.keySet()) {
+                out.write(encoded.array());
+            }
+            out.write(blocks);
+        });
+    }
+
+    private static void writeBlockStateData(DataOutputStream out, BlockStateData data) throws IOException {
+        out.writeInt(data.burnOdds());
+        out.writeBoolean(data.canContainLiquidSource());
+        writeString(out, data.liquidReactionOnTouch().name());
+        writeVoxelShape(out, data.collisionShape());
+        writeVoxelShape(out, data.shape());
+        out.writeFloat(data.hardness());
+        out.writeFloat(data.explosionResistance());
+        out.writeInt(data.flameOdds());
+        out.writeFloat(data.friction());
+        out.writeInt(data.lightDampening());
+        out.writeInt(data.lightEmission());
+        out.writeInt(data.mapColor().getRGB());
+        writeString(out, data.tintMethod().name());
+        out.writeFloat(data.thickness());
+        out.writeBoolean(data.requiresCorrectToolForDrops());
+        out.writeBoolean(data.isSolid());
+        out.writeFloat(data.translucency());
+    }
+
+    private static BlockStateData readBlockStateData(ByteBuffer in) {
+        return BlockStateData.builder()
+                .burnOdds(in.getInt())
+                .canContainLiquidSource(in.get() != 0)
+                .liquidReactionOnTouch(LiquidReactionOnTouch.valueOf(readString(in)))
+                .collisionShape(readVoxelShape(in))
+                .shape(readVoxelShape(in))
+                .hardness(in.getFloat())
+                .explosionResistance(in.getFloat())
+                .flameOdds(in.getInt())
+                .friction(in.getFloat())
+                .lightDampening(in.getInt())
+                .lightEmission(in.getInt())
+                .mapColor(new Color(in.getInt(), true))
+                .tintMethod(TintMethod.valueOf(readString(in)))
+                .thickness(in.getFloat())
+                .requiresCorrectToolForDrops(in.get() != 0)
+                .isSolid(in.get() != 0)
+                .translucency(in.getFloat())
+                .build();
+    }
+
+    private static void writeVoxelShape(DataOutputStream out, VoxelShape shape) throws IOException {
+        // Keep the same order for the same shape, so that the encoded bytes can be compared
+        var solids = shape.getSolids().stream()
+                .sorted(Comparator.comparingDouble(AABBdc::minX).thenComparingDouble(AABBdc::minY).thenComparingDouble(AABBdc::minZ)
+                        .thenComparingDouble(AABBdc::maxX).thenComparingDouble(AABBdc::maxY).thenComparingDouble(AABBdc::maxZ))
+                .toList();
+        out.writeShort(solids.size());
+        for (var solid : solids) {
+            out.writeDouble(solid.minX());
+            out.writeDouble(solid.minY());
+            out.writeDouble(solid.minZ());
+            out.writeDouble(solid.maxX());
+            out.writeDouble(solid.maxY());
+            out.writeDouble(solid.maxZ());
+        }
+    }
+
+    private static VoxelShape readVoxelShape(ByteBuffer in) {
+        var count = in.getShort();
+        if (count == 0) {
+            return VoxelShape.EMPTY;
+        }
+
+        var builder = VoxelShape.builder();
+        for (int i = 0; i < count; i++) {
+            builder.solid(in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble());
+        }
+        return builder.build();
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        var bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        var bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(Encoder encoder) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            encoder.encode(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Calculate the checksum of a json file in the resources.
+     *
+     * @param resourceName the name of the json file
+     * @return the checksum
+     */
+    @SneakyThrows
+    public static int checksum(String resourceName) {
+        var crc = new CRC32C();
+        try (var input = Utils.getResource(resourceName)) {
+            var buffer = new byte[64 * 1024];
+            int length;
+            while ((length = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, length);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    private interface Encoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
+    private record Section(int sourceChecksum, int offset, int length) {
+    }
+}
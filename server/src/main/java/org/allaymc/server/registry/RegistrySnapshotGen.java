@@ -0,0 +1,35 @@
+package org.allaymc.server.registry;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.server.registry.loader.BlockDefaultStateHashRegistryLoader;
+import org.allaymc.server.registry.loader.BlockStateDataRegistryLoader;
+import org.allaymc.server.registry.loader.ItemDataRegistryLoader;
+
+import java.io.BufferedOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates the binary registry snapshot from the json files. This is run by the
+ * {@code generateRegistrySnapshot} task during the build, with the path of the
+ * snapshot file as the only argument.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+public class RegistrySnapshotGen {
+
+    @SneakyThrows
+    public static void main(String[] args) {
+        var output = Path.of(args[0]);
+        var blockStateData = new BlockStateDataRegistryLoader().loadFromJson();
+        var blockDefaultStateHashes = new BlockDefaultStateHashRegistryLoader().loadFromJson();
+        var itemData = new ItemDataRegistryLoader().loadFromJson();
+
+        try (var stream = new BufferedOutputStream(Files.newOutputStream(output))) {
+            RegistrySnapshot.write(stream, blockStateData, blockDefaultStateHashes, itemData);
+        }
+        log.info("Registry snapshot is written to {} ({} bytes)", output, Files.size(output));
+    }
+}
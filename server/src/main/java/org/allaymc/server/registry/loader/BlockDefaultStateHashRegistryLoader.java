@@ -6,6 +6,7 @@ import org.allaymc.api.registry.RegistryLoader;
 import org.allaymc.api.utils.Utils;
 import org.allaymc.api.utils.identifier.Identifier;
 import org.allaymc.server.block.data.BlockId;
+import org.allaymc.server.registry.RegistrySnapshot;
 
 import java.io.BufferedInputStream;
 import java.io.InputStreamReader;
@@ -16,9 +17,20 @@ import java.util.Map;
  * @author daoge_cmd
  */
 public class BlockDefaultStateHashRegistryLoader implements RegistryLoader<Void, Map<BlockId, Integer>> {
-    @SneakyThrows
     @Override
     public Map<BlockId, Integer> load(Void unused) {
+        var snapshot = RegistrySnapshot.get();
+        if (snapshot != null) {
+            var loaded = snapshot.readBlockDefaultStateHashes();
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        return loadFromJson();
+    }
+
+    @SneakyThrows
+    public Map<BlockId, Integer> loadFromJson() {
         var map = new EnumMap<BlockId, Integer>(BlockId.class);
         try (var reader = new InputStreamReader(new BufferedInputStream(Utils.getResource("block_types.json")))) {
             JsonParser.parseReader(reader).getAsJsonObject().entrySet().forEach(entry -> {
@@ -12,6 +12,7 @@ import org.allaymc.api.registry.RegistryLoader;
 import org.allaymc.api.utils.Utils;
 import org.allaymc.api.utils.identifier.Identifier;
 import org.allaymc.server.block.data.BlockId;
+import org.allaymc.server.registry.RegistrySnapshot;
 import org.joml.primitives.AABBd;
 
 import java.awt.*;
@@ -98,8 +99,19 @@ public class BlockStateDataRegistryLoader implements RegistryLoader<Void, Map<Bl
     }
 
     @Override
-    @SneakyThrows
     public Map<BlockId, Map<Integer, BlockStateData>> load(Void $) {
+        var snapshot = RegistrySnapshot.get();
+        if (snapshot != null) {
+            var loaded = snapshot.readBlockStateData();
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        return loadFromJson();
+    }
+
+    @SneakyThrows
+    public Map<BlockId, Map<Integer, BlockStateData>> loadFromJson() {
         try (var reader = new InputStreamReader(new BufferedInputStream(Utils.getResource("block_states.json")))) {
             var loaded = new EnumMap<BlockId, Map<Integer, BlockStateData>>(BlockId.class);
             JsonParser.parseReader(reader).getAsJsonArray().forEach(entry -> {
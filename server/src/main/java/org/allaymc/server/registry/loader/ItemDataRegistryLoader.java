@@ -8,6 +8,7 @@ import org.allaymc.api.registry.RegistryLoader;
 import org.allaymc.api.utils.Utils;
 import org.allaymc.api.utils.identifier.Identifier;
 import org.allaymc.server.item.data.ItemId;
+import org.allaymc.server.registry.RegistrySnapshot;
 
 import java.io.BufferedInputStream;
 import java.io.InputStreamReader;
@@ -20,8 +21,19 @@ import java.util.Map;
 @Slf4j
 public class ItemDataRegistryLoader implements RegistryLoader<Void, Map<ItemId, ItemData>> {
     @Override
-    @SneakyThrows
     public Map<ItemId, ItemData> load(Void $) {
+        var snapshot = RegistrySnapshot.get();
+        if (snapshot != null) {
+            var loaded = snapshot.readItemData();
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        return loadFromJson();
+    }
+
+    @SneakyThrows
+    public Map<ItemId, ItemData> loadFromJson() {
         try (var reader = new InputStreamReader(new BufferedInputStream(Utils.getResource("items.json")))) {
             var loaded = new HashMap<ItemId, ItemData>();
             JsonParser.parseReader(reader).getAsJsonObject().entrySet().forEach(entry -> {
@@ -9,8 +9,9 @@ import org.allaymc.api.pack.Pack;
 import org.allaymc.api.pack.PackLoader;
 import org.allaymc.api.pack.PackManifest;
 import org.allaymc.api.registry.RegistryLoader;
+import org.allaymc.api.server.Server;
 import org.allaymc.server.AllayServer;
-import org.allaymc.server.pack.PackEncryptor;
+import org.allaymc.server.pack.EncryptedPackCache;
 import org.allaymc.server.pack.PackUtils;
 import org.allaymc.server.pack.defaults.ResourcePack;
 import org.allaymc.server.pack.loader.InPluginPackLoader;
@@ -20,8 +21,10 @@ import org.allaymc.server.plugin.DefaultPluginSource;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * @author daoge_cmd
@@ -36,8 +39,10 @@ public class PackRegistryLoader implements RegistryLoader<Void, Map<UUID, Pack>>
             // In-plugin resource packs path
             DefaultPluginSource.DEFAULT_PLUGIN_FOLDER
     );
+    private static final Path ENCRYPTED_PACKS_CACHE_PATH = Path.of("cache", "encrypted_packs");
     private static final List<String> EXCLUDED_FORMATS = List.of(".tmp", ".key", ".bak");
 
+    private final EncryptedPackCache encryptedPackCache = new EncryptedPackCache(ENCRYPTED_PACKS_CACHE_PATH);
     private final List<PackLoader.Factory> packLoaders = new ArrayList<>();
     private final Map<Pack.Type, Pack.Factory> packFactories = new EnumMap<>(Pack.Type.class);
 
@@ -59,19 +64,29 @@ public class PackRegistryLoader implements RegistryLoader<Void, Map<UUID, Pack>>
         // find loaders
         List<PackLoader> foundedLoaders = new ArrayList<>();
         for (var path : PACKS_PATHS) {
+            var entries = new ArrayList<Path>();
             try (var stream = Files.newDirectoryStream(path)) {
                 for (var entry : stream) {
                     if (isExcludedFormat(entry)) {
                         continue;
                     }
 
-                    var loader = this.findLoader(entry);
-                    if (loader == null) {
-                        continue;
-                    }
+                    entries.add(entry);
+                }
+            }
+
+            // Only encrypt packs in the normal packs path
+            if (path.equals(NORMAL_PACKS_PATH) && AllayServer.getSettings().resourcePackSettings().autoEncryptPacks()) {
+                entries = encryptPacks(entries);
+            }
 
-                    foundedLoaders.add(loader);
+            for (var entry : entries) {
+                var loader = this.findLoader(entry);
+                if (loader == null) {
+                    continue;
                 }
+
+                foundedLoaders.add(loader);
             }
         }
 
@@ -114,43 +129,61 @@ public class PackRegistryLoader implements RegistryLoader<Void, Map<UUID, Pack>>
                 Files.createDirectories(path);
             }
         }
-        if (AllayServer.getSettings().resourcePackSettings().autoEncryptPacks()) {
-            encryptPacks();
-        }
         this.registerLoaderFactory(ZipPackLoader.FACTORY);
         this.registerLoaderFactory(InPluginPackLoader.FACTORY);
         this.registerPackFactory(Pack.Type.RESOURCES, ResourcePack.FACTORY);
     }
 
+    /**
+     * Replace the zip packs which are not encrypted yet with their encrypted packs in the cache. The packs
+     * are encrypted in parallel, and a pack which is not changed since the last encryption won't be encrypted
+     * again. Packs which already have a key file are considered to be encrypted by the user.
+     *
+     * @param entries the packs in the normal packs path
+     * @return the packs to load
+     */
     @SneakyThrows
-    private void encryptPacks() {
-        // Only encrypt packs in the normal packs path
-        try (var stream = Files.newDirectoryStream(NORMAL_PACKS_PATH)) {
-            for (var zipPack : stream) {
-                if (!PackUtils.isZipPack(zipPack)) continue;
-
-                var keyPath = NORMAL_PACKS_PATH.resolve(zipPack.getFileName().toString() + ".key");
-                if (Files.exists(keyPath)) continue;
-
-                log.info(I18n.get().tr(TrKeys.ALLAY_PACK_ENCRYPTING, zipPack.getFileName()));
-                var backupPath = NORMAL_PACKS_PATH.resolve(zipPack.getFileName().toString() + ".bak");
-                Files.copy(zipPack, backupPath, StandardCopyOption.REPLACE_EXISTING);
-
-                var tmpPath = NORMAL_PACKS_PATH.resolve(zipPack.getFileName().toString() + ".tmp");
-                Files.deleteIfExists(tmpPath);
-
-                String key;
-                try {
-                    Files.move(zipPack, tmpPath);
-                    key = PackEncryptor.encrypt(tmpPath, zipPack);
-                } finally {
-                    Files.delete(tmpPath);
-                }
+    private ArrayList<Path> encryptPacks(List<Path> entries) {
+        var pool = Server.getInstance().getComputeThreadPool();
+        var futures = new HashMap<Path, CompletableFuture<EncryptedPackCache.Entry>>();
+        for (var entry : entries) {
+            if (!PackUtils.isZipPack(entry) || Files.exists(entry.resolveSibling(entry.getFileName().toString() + ".key"))) {
+                continue;
+            }
 
-                Files.writeString(keyPath, key);
-                log.info(I18n.get().tr(TrKeys.ALLAY_PACK_ENCRYPTED, zipPack.getFileName(), key));
+            futures.put(entry, CompletableFuture.supplyAsync(() -> encryptPack(entry, pool), pool));
+        }
+
+        var result = new ArrayList<Path>(entries.size());
+        var cachedEntries = new ArrayList<EncryptedPackCache.Entry>();
+        for (var entry : entries) {
+            var future = futures.get(entry);
+            if (future == null) {
+                result.add(entry);
+                continue;
+            }
+
+            try {
+                var cachedEntry = future.join();
+                cachedEntries.add(cachedEntry);
+                result.add(cachedEntry.path());
+            } catch (CompletionException exception) {
+                // Don't send the unencrypted pack to the clients
+                log.error("Failed to encrypt pack {}", entry.getFileName(), exception.getCause());
             }
         }
+
+        encryptedPackCache.retainOnly(cachedEntries);
+        return result;
+    }
+
+    @SneakyThrows
+    private EncryptedPackCache.Entry encryptPack(Path zipPack, Executor executor) {
+        var entry = encryptedPackCache.getOrEncrypt(zipPack, executor);
+        if (!entry.cached()) {
+            log.info(I18n.get().tr(TrKeys.ALLAY_PACK_ENCRYPTED, zipPack.getFileName(), entry.key()));
+        }
+        return entry;
     }
 
     private PackLoader findLoader(Path path) throws IOException {
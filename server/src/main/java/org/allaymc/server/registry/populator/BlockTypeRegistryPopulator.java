@@ -1,11 +1,14 @@
 package org.allaymc.server.registry.populator;
 
 import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.server.Server;
 import org.allaymc.server.block.type.BlockTypeDefaultInitializer;
 import org.allaymc.server.block.type.BlockTypeInitializer;
 import org.allaymc.server.utils.ReflectionUtils;
 import org.allaymc.server.utils.Utils;
 
+import static org.allaymc.api.utils.Utils.forEachInParallel;
+
 /**
  * @author daoge_cmd
  */
@@ -13,7 +16,13 @@ import org.allaymc.server.utils.Utils;
 public class BlockTypeRegistryPopulator implements Runnable {
     @Override
     public void run() {
-        ReflectionUtils.getAllStaticVoidParameterlessMethods(BlockTypeInitializer.class).forEach(Utils::callInitializer);
+        // Initializer methods don't depend on each other, and building block types (mainly creating the block
+        // states) is the slowest part of the startup, so the methods are called in parallel
+        forEachInParallel(
+                ReflectionUtils.getAllStaticVoidParameterlessMethods(BlockTypeInitializer.class),
+                Server.getInstance().getComputeThreadPool(),
+                Utils::callInitializer
+        ).join();
         BlockTypeDefaultInitializer.init();
     }
 }
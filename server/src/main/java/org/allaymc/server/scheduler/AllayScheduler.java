@@ -3,6 +3,7 @@ package org.allaymc.server.scheduler;
 import org.allaymc.api.scheduler.Scheduler;
 import org.allaymc.api.scheduler.Task;
 import org.allaymc.api.scheduler.TaskCreator;
+import org.allaymc.server.timings.Timings;
 
 import java.util.Comparator;
 import java.util.concurrent.ExecutorService;
@@ -74,6 +75,7 @@ public class AllayScheduler implements Scheduler {
 
     protected void runTask(RunningTaskInfo info) {
         var task = info.getTask();
+        var start = Timings.isEnabled() ? info.getTiming().start() : 0;
         try {
             info.setRunning(true);
             if (!task.onRun()) {
@@ -83,6 +85,9 @@ public class AllayScheduler implements Scheduler {
             task.onError(exception);
             cancelTask(info);
         } finally {
+            if (start != 0) {
+                info.getTiming().stop(start);
+            }
             info.setRunning(false);
             // Run only once
             if (!info.isRepeating()) {
@@ -4,8 +4,11 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.allaymc.api.plugin.Plugin;
 import org.allaymc.api.scheduler.Task;
 import org.allaymc.api.scheduler.TaskCreator;
+import org.allaymc.server.timings.Timing;
+import org.allaymc.server.timings.Timings;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -30,6 +33,11 @@ public final class RunningTaskInfo {
 
     @Setter
     private long nextRunTick;
+    /**
+     * The timing of the tasks created by the creator, created when the task is run for the first time with timings enabled.
+     */
+    @Getter(AccessLevel.NONE)
+    private Timing timing;
 
     public boolean isCancelled() {
         return cancelled.get();
@@ -50,4 +58,17 @@ public final class RunningTaskInfo {
     public boolean isRepeating() {
         return period > 0;
     }
+
+    public Timing getTiming() {
+        if (timing == null) {
+            var creatorClass = creator.getClass();
+            var creatorName = creator instanceof Plugin ? "plugin" : creatorClass.getSimpleName();
+            if (creatorName.isEmpty()) {
+                // Anonymous class
+                creatorName = creatorClass.getName().substring(creatorClass.getName().lastIndexOf('.') + 1);
+            }
+            timing = Timings.of(Timings.groupOf(creator), "tasks of " + creatorName);
+        }
+        return timing;
+    }
 }
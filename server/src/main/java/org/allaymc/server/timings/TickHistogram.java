@@ -0,0 +1,98 @@
+package org.allaymc.server.timings;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * TickHistogram keeps the durations of the latest ticks in a ring buffer, so that the distribution
+ * of the tick durations can be seen instead of only the average MSPT. Recording a tick is always
+ * cheap and does not depend on whether {@link Timings} is enabled. This class is thread-safe.
+ *
+ * @author daoge_cmd
+ */
+public final class TickHistogram {
+
+    private final long[] durations;
+    private int next;
+    private int size;
+
+    /**
+     * @param capacity the count of the latest ticks to keep
+     */
+    public TickHistogram(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be greater than 0");
+        this.durations = new long[capacity];
+    }
+
+    /**
+     * Record the duration of a tick.
+     *
+     * @param nanos the duration of the tick in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        durations[next] = nanos;
+        next = (next + 1) % durations.length;
+        if (size < durations.length) {
+            size++;
+        }
+    }
+
+    /**
+     * @return the count of the ticks recorded, at most the capacity
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return durations.length;
+    }
+
+    /**
+     * Count the recorded ticks in each bucket.
+     *
+     * @param upperBoundsNanos the exclusive upper bounds of the buckets in nanoseconds, in ascending order
+     * @return the counts of the buckets, the length is {@code upperBoundsNanos.length + 1} and the
+     * last bucket contains the ticks which are not shorter than the last upper bound
+     */
+    public synchronized int[] getBucketCounts(long[] upperBoundsNanos) {
+        var counts = new int[upperBoundsNanos.length + 1];
+        for (int i = 0; i < size; i++) {
+            var bucket = 0;
+            while (bucket < upperBoundsNanos.length && durations[i] >= upperBoundsNanos[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Get the duration at the given percentile of the recorded ticks.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @return the duration in nanoseconds, or {@code 0} if no tick is recorded
+     */
+    public synchronized long getPercentile(double percentile) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 1, "Percentile must be between 0 and 1");
+        if (size == 0) {
+            return 0;
+        }
+
+        var sorted = Arrays.copyOf(durations, size);
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * size) - (percentile == 0 ? 0 : 1)];
+    }
+
+    /**
+     * @return the max duration of the recorded ticks in nanoseconds
+     */
+    public synchronized long getMax() {
+        var max = 0L;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, durations[i]);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,102 @@
+package org.allaymc.server.timings;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing accumulates the time spent in a piece of code. A timing is used like this:
+ * <pre>{@code
+ * var start = timing.start();
+ * try {
+ *     doSomething();
+ * } finally {
+ *     timing.stop(start);
+ * }
+ * }</pre>
+ * When {@link Timings} is disabled, {@link #start()} returns {@code 0} and nothing will be recorded. This class is thread-safe.
+ *
+ * @author daoge_cmd
+ */
+public final class Timing {
+
+    /**
+     * The group of this timing, e.g. the name of the world or the plugin.
+     */
+    @Getter
+    private final String group;
+    @Getter
+    private final String name;
+    private final LongAdder totalNanos;
+    private final LongAdder count;
+    private final AtomicLong maxNanos;
+
+    Timing(String group, String name) {
+        this.group = group;
+        this.name = name;
+        this.totalNanos = new LongAdder();
+        this.count = new LongAdder();
+        this.maxNanos = new AtomicLong();
+    }
+
+    /**
+     * Start timing.
+     *
+     * @return the start time which should be passed to {@link #stop(long)}, or {@code 0} if timings is disabled
+     */
+    public long start() {
+        return Timings.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stop timing and record the time spent since the given start time.
+     *
+     * @param startNanos the value returned by {@link #start()}
+     */
+    public void stop(long startNanos) {
+        if (startNanos == 0) {
+            return;
+        }
+
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Record a time directly.
+     *
+     * @param nanos the time spent in nanoseconds
+     */
+    public void record(long nanos) {
+        totalNanos.add(nanos);
+        count.increment();
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return the total time recorded in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return the count of the records
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the max time of a single record in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    void reset() {
+        totalNanos.reset();
+        count.reset();
+        maxNanos.set(0);
+    }
+}
@@ -0,0 +1,107 @@
+package org.allaymc.server.timings;
+
+import lombok.experimental.UtilityClass;
+import org.allaymc.api.plugin.Plugin;
+import org.allaymc.api.scheduler.TaskCreator;
+import org.allaymc.api.server.Server;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timings is the registry of all the {@link Timing}s. Timings is disabled by default, and can be
+ * enabled by {@code /timings on}. When disabled, the overhead of a timing is only a volatile read.
+ *
+ * @author daoge_cmd
+ */
+@UtilityClass
+public class Timings {
+
+    public static final String SERVER_GROUP = "Server";
+
+    private static final Map<String, Timing> TIMINGS = new ConcurrentHashMap<>();
+    private static volatile boolean enabled;
+    private static volatile long startTime;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable timings. The recorded timings will be reset when timings is enabled.
+     *
+     * @param enabled {@code true} to enable timings
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        if (enabled && !Timings.enabled) {
+            reset();
+        }
+        Timings.enabled = enabled;
+    }
+
+    /**
+     * Reset all the recorded timings.
+     */
+    public static synchronized void reset() {
+        TIMINGS.values().forEach(Timing::reset);
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * @return the time in nanoseconds since timings is enabled or reset
+     */
+    public static long getRecordedNanos() {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Get or create a timing. The timing should be cached by the caller if it is used frequently.
+     *
+     * @param group the group of the timing
+     * @param name  the name of the timing
+     * @return the timing
+     */
+    public static Timing of(String group, String name) {
+        return TIMINGS.computeIfAbsent(group + '\0' + name, $ -> new Timing(group, name));
+    }
+
+    public static Collection<Timing> getTimings() {
+        return Collections.unmodifiableCollection(TIMINGS.values());
+    }
+
+    /**
+     * Get the group of the code in the given class, which is the plugin that the class belongs to.
+     *
+     * @param clazz the class
+     * @return {@code "Plugin <name>"} if the class belongs to a plugin, otherwise {@link #SERVER_GROUP}
+     */
+    public static String groupOf(Class<?> clazz) {
+        var classLoader = clazz.getClassLoader();
+        if (classLoader == Timings.class.getClassLoader()) {
+            return SERVER_GROUP;
+        }
+
+        for (var container : Server.getInstance().getPluginManager().getPlugins().values()) {
+            if (container.plugin().getClass().getClassLoader() == classLoader) {
+                return pluginGroup(container.plugin());
+            }
+        }
+        return SERVER_GROUP;
+    }
+
+    /**
+     * Get the group of the tasks created by the given task creator.
+     *
+     * @param creator the task creator
+     * @return {@code "Plugin <name>"} if the creator is a plugin or belongs to a plugin, otherwise {@link #SERVER_GROUP}
+     */
+    public static String groupOf(TaskCreator creator) {
+        return creator instanceof Plugin plugin ? pluginGroup(plugin) : groupOf(creator.getClass());
+    }
+
+    private static String pluginGroup(Plugin plugin) {
+        return "Plugin " + plugin.getPluginContainer().descriptor().getName();
+    }
+}
@@ -0,0 +1,123 @@
+package org.allaymc.server.timings;
+
+import lombok.experimental.UtilityClass;
+import org.allaymc.api.server.Server;
+import org.allaymc.api.utils.TextFormat;
+import org.allaymc.api.world.Dimension;
+import org.allaymc.server.AllayServer;
+import org.allaymc.server.world.AllayWorld;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * TimingsReport generates a human-readable report of the recorded {@link Timings}, the tick histograms
+ * and the chunk and entity counts of the worlds.
+ *
+ * @author daoge_cmd
+ */
+@UtilityClass
+public class TimingsReport {
+
+    /**
+     * The exclusive upper bounds of the buckets of the tick histogram in milliseconds.
+     */
+    private static final long[] HISTOGRAM_BUCKETS_MS = {10, 25, 50, 100};
+
+    /**
+     * Generate the report.
+     *
+     * @param maxEntriesPerGroup the max count of the timings shown in each group, the timings which take the most time are shown
+     * @return the lines of the report
+     */
+    public static List<String> generate(int maxEntriesPerGroup) {
+        var lines = new ArrayList<String>();
+        var recordedNanos = Timings.getRecordedNanos();
+        lines.add(TextFormat.GOLD + "--- Timings Report ---");
+        if (Timings.isEnabled()) {
+            lines.add("Recorded for " + TextFormat.GREEN + String.format("%.1fs", recordedNanos / 1e9));
+        } else {
+            lines.add(TextFormat.YELLOW + "Timings is disabled, only the tick histograms are shown");
+        }
+
+        var server = AllayServer.getInstance();
+        lines.add(TextFormat.YELLOW + "Server" + TextFormat.WHITE + ": TPS " + TextFormat.GREEN + String.format("%.1f", server.getTPS()) +
+                  TextFormat.WHITE + ", MSPT " + TextFormat.GREEN + String.format("%.2f", server.getMSPT()));
+        addHistogram(lines, server.getTickHistogram());
+        for (var world : Server.getInstance().getWorldPool().getWorlds().values()) {
+            lines.add(TextFormat.YELLOW + "World " + world.getName() + TextFormat.WHITE + ": TPS " + TextFormat.GREEN + String.format("%.1f", world.getTPS()) +
+                      TextFormat.WHITE + ", MSPT " + TextFormat.GREEN + String.format("%.2f", world.getMSPT()));
+            addHistogram(lines, ((AllayWorld) world).getTickHistogram());
+            for (var dimension : world.getDimensions().values()) {
+                addDimensionCounts(lines, dimension);
+            }
+        }
+
+        if (Timings.isEnabled()) {
+            addTimings(lines, recordedNanos, maxEntriesPerGroup);
+        }
+        return lines;
+    }
+
+    private static void addHistogram(List<String> lines, TickHistogram histogram) {
+        var bucketBounds = new long[HISTOGRAM_BUCKETS_MS.length];
+        for (int i = 0; i < bucketBounds.length; i++) {
+            bucketBounds[i] = HISTOGRAM_BUCKETS_MS[i] * 1_000_000;
+        }
+
+        var counts = histogram.getBucketCounts(bucketBounds);
+        var builder = new StringBuilder("  Last ").append(histogram.size()).append(" ticks:");
+        for (int i = 0; i < counts.length; i++) {
+            var bucket = i == 0 ? "<" + HISTOGRAM_BUCKETS_MS[0] :
+                    i == HISTOGRAM_BUCKETS_MS.length ? ">=" + HISTOGRAM_BUCKETS_MS[i - 1] :
+                            HISTOGRAM_BUCKETS_MS[i - 1] + "-" + HISTOGRAM_BUCKETS_MS[i];
+            builder.append(' ').append(bucket).append("ms ").append(TextFormat.GREEN).append(counts[i]).append(TextFormat.WHITE);
+        }
+        lines.add(builder.toString());
+        lines.add("  p50 " + formatMillis(histogram.getPercentile(0.5)) + ", p95 " + formatMillis(histogram.getPercentile(0.95)) +
+                  ", p99 " + formatMillis(histogram.getPercentile(0.99)) + ", max " + formatMillis(histogram.getMax()));
+    }
+
+    private static void addDimensionCounts(List<String> lines, Dimension dimension) {
+        lines.add("  " + dimension.getDimensionInfo() + ": " +
+                  TextFormat.GREEN + dimension.getChunkManager().getLoadedChunks().size() + TextFormat.WHITE + " chunks, " +
+                  TextFormat.GREEN + dimension.getEntityCount() + TextFormat.WHITE + " entities, " +
+                  TextFormat.GREEN + dimension.getBlockEntityCount() + TextFormat.WHITE + " block entities");
+    }
+
+    private static void addTimings(List<String> lines, long recordedNanos, int maxEntriesPerGroup) {
+        var groups = new TreeMap<String, List<Timing>>();
+        for (var timing : Timings.getTimings()) {
+            if (timing.getCount() > 0) {
+                groups.computeIfAbsent(timing.getGroup(), $ -> new ArrayList<>()).add(timing);
+            }
+        }
+
+        groups.forEach((group, timings) -> {
+            timings.sort(Comparator.comparingLong(Timing::getTotalNanos).reversed());
+            var total = timings.stream().mapToLong(Timing::getTotalNanos).sum();
+            lines.add(TextFormat.YELLOW + "[" + group + "]" + TextFormat.WHITE + " total " + formatMillis(total) + " (" + formatPercentage(total, recordedNanos) + ")");
+            for (int i = 0; i < Math.min(maxEntriesPerGroup, timings.size()); i++) {
+                var timing = timings.get(i);
+                lines.add("  " + timing.getName() + ": " +
+                          TextFormat.GREEN + formatMillis(timing.getTotalNanos()) + TextFormat.WHITE +
+                          " (" + formatPercentage(timing.getTotalNanos(), recordedNanos) + "), count " + timing.getCount() +
+                          ", avg " + formatMillis(timing.getTotalNanos() / timing.getCount()) +
+                          ", max " + formatMillis(timing.getMaxNanos()));
+            }
+            if (timings.size() > maxEntriesPerGroup) {
+                lines.add("  ... and " + (timings.size() - maxEntriesPerGroup) + " more");
+            }
+        });
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2fms", nanos / 1e6);
+    }
+
+    private static String formatPercentage(long nanos, long totalNanos) {
+        return String.format("%.1f%%", totalNanos == 0 ? 0 : nanos * 100.0 / totalNanos);
+    }
+}
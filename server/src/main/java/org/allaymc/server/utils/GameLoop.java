@@ -3,6 +3,7 @@ package org.allaymc.server.utils;
 import com.google.common.base.Preconditions;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.allaymc.server.timings.TickHistogram;
 
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
@@ -16,6 +17,11 @@ import java.util.function.Consumer;
  */
 @Slf4j
 public final class GameLoop {
+    /**
+     * The tick histogram keeps the ticks in the latest 60 seconds.
+     */
+    private static final int TICK_HISTOGRAM_SECONDS = 60;
+
     private final AtomicBoolean isRunning = new AtomicBoolean(true);
     private final Runnable onStart;
     private final Consumer<GameLoop> onTick;
@@ -25,6 +31,8 @@ public final class GameLoop {
     private final float[] tickSummary = new float[20];
     private final float[] MSPTSummary = new float[20];
     @Getter
+    private final TickHistogram tickHistogram;
+    @Getter
     private long tick;
 
     private GameLoop(Runnable onStart, Consumer<GameLoop> onTick, Runnable onStop, int loopCountPerSec, long currentTick) {
@@ -36,6 +44,7 @@ public final class GameLoop {
         this.onStop = onStop;
         this.loopCountPerSec = loopCountPerSec;
         this.tick = currentTick;
+        this.tickHistogram = new TickHistogram(loopCountPerSec * TICK_HISTOGRAM_SECONDS);
         Arrays.fill(tickSummary, 20f);
         Arrays.fill(MSPTSummary, 0f);
     }
@@ -78,6 +87,7 @@ public final class GameLoop {
             long timeTakenToTick = System.nanoTime() - startTickTime;
             updateMSPT(timeTakenToTick, MSPTSummary);
             updateTPS(timeTakenToTick);
+            tickHistogram.record(timeTakenToTick);
 
             long sumOperateTime = System.nanoTime() - startTickTime;
             // Sleep for the ideal time but take into account the time spent running the tick
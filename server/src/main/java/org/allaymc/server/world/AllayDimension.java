@@ -3,6 +3,7 @@ package org.allaymc.server.world;
 import com.google.common.base.Preconditions;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.block.component.BlockBlockEntityHolderComponent;
 import org.allaymc.api.block.dto.Block;
 import org.allaymc.api.block.dto.PlayerInteractInfo;
 import org.allaymc.api.block.type.BlockState;
@@ -18,12 +19,19 @@ import org.allaymc.api.player.Player;
 import org.allaymc.api.scheduler.Scheduler;
 import org.allaymc.api.server.Server;
 import org.allaymc.api.world.Dimension;
+import org.allaymc.api.utils.function.IntTriFunction;
+import org.allaymc.api.utils.hash.HashUtils;
 import org.allaymc.api.world.WorldViewer;
+import org.allaymc.api.world.chunk.Chunk;
+import org.allaymc.api.world.chunk.OperationType;
 import org.allaymc.api.world.data.DimensionInfo;
 import org.allaymc.api.world.generator.WorldGenerator;
 import org.allaymc.api.world.particle.BlockBreakParticle;
 import org.allaymc.server.network.processor.login.SetLocalPlayerAsInitializedPacketProcessor;
 import org.allaymc.server.scheduler.AllayScheduler;
+import org.allaymc.server.timings.Timing;
+import org.allaymc.server.timings.Timings;
+import org.allaymc.server.world.chunk.AllayChunkSection;
 import org.allaymc.server.world.chunk.AllayUnsafeChunk;
 import org.allaymc.server.world.light.AllayLightEngine;
 import org.allaymc.server.world.manager.AllayBlockUpdateManager;
@@ -32,7 +40,9 @@ import org.allaymc.server.world.manager.AllayEntityManager;
 import org.jctools.maps.NonBlockingHashSet;
 import org.jetbrains.annotations.UnmodifiableView;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import static org.allaymc.api.block.type.BlockTypes.AIR;
@@ -54,10 +64,15 @@ public class AllayDimension implements Dimension {
     protected final AllayLightEngine lightEngine;
     protected final Set<Player> players;
     protected final Set<DebugShape> debugShapes;
+    protected final Timing schedulerTiming, chunkTickTiming, blockUpdatesTiming, sendBlockUpdatesTiming;
 
     public AllayDimension(AllayWorld world, WorldGenerator worldGenerator, DimensionInfo dimensionInfo) {
         this.world = world;
         this.dimensionInfo = dimensionInfo;
+        this.schedulerTiming = createTiming("scheduler");
+        this.chunkTickTiming = createTiming("chunk tick");
+        this.blockUpdatesTiming = createTiming("block updates");
+        this.sendBlockUpdatesTiming = createTiming("send block updates");
         this.worldGenerator = worldGenerator;
         this.chunkManager = new AllayChunkManager(this, worldGenerator, world.getWorldStorage());
         this.entityManager = new AllayEntityManager(this, world.getWorldStorage());
@@ -74,15 +89,38 @@ public class AllayDimension implements Dimension {
     }
 
     public void tick(long currentTick) {
+        var start = this.schedulerTiming.start();
         this.scheduler.tick();
+        this.schedulerTiming.stop(start);
+
+        // Entity tick and physics are timed in entity manager
         this.entityManager.tick(currentTick);
+
+        start = this.chunkTickTiming.start();
         this.chunkManager.tick(currentTick);
+        this.chunkTickTiming.stop(start);
+
+        start = this.blockUpdatesTiming.start();
         this.blockUpdateManager.tick();
+        this.blockUpdatesTiming.stop(start);
+
+        start = this.sendBlockUpdatesTiming.start();
         this.chunkManager.forEachLoadedChunks(c -> {
             var chunk = (AllayUnsafeChunk) c.toUnsafeChunk();
             chunk.sendBlockUpdates();
             chunk.performChunkTasks();
         });
+        this.sendBlockUpdatesTiming.stop(start);
+    }
+
+    /**
+     * Create a timing of a tick phase of this dimension, which is in the timings group of the world.
+     *
+     * @param phase the name of the tick phase
+     * @return the timing
+     */
+    public Timing createTiming(String phase) {
+        return Timings.of(this.world.getTimingsGroup(), this.dimensionInfo + " " + phase);
     }
 
     public void shutdown() {
@@ -230,6 +268,233 @@ public class AllayDimension implements Dimension {
         return true;
     }
 
+    @Override
+    public int fillBlockStates(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, BlockState blockState, boolean callEvent, boolean update) {
+        return setBlockStatesInBulk(x, y, z, sizeX, sizeY, sizeZ, layer, (bx, by, bz) -> blockState, blockState, callEvent, update);
+    }
+
+    @Override
+    public int setBlockStatesInBulk(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, IntTriFunction<BlockState> blockStateSupplier, boolean callEvent, boolean update) {
+        return setBlockStatesInBulk(x, y, z, sizeX, sizeY, sizeZ, layer, blockStateSupplier, null, callEvent, update);
+    }
+
+    /**
+     * @param fillBlockState the block state returned by the supplier for every pos, or {@code null} if the
+     *                       supplier may return different block states. Chunk sections which are fully covered
+     *                       by the region will be filled directly if this is not {@code null}
+     */
+    protected int setBlockStatesInBulk(int x, int y, int z, int sizeX, int sizeY, int sizeZ, int layer, IntTriFunction<BlockState> blockStateSupplier, BlockState fillBlockState, boolean callEvent, boolean update) {
+        if (sizeX < 1 || sizeY < 1 || sizeZ < 1) {
+            return 0;
+        }
+
+        var changedCount = 0;
+        var startX = x >> 4;
+        var endX = (x + sizeX - 1) >> 4;
+        var startY = Math.max(y >> 4, dimensionInfo.minSectionY());
+        var endY = Math.min((y + sizeY - 1) >> 4, dimensionInfo.maxSectionY());
+        var startZ = z >> 4;
+        var endZ = (z + sizeZ - 1) >> 4;
+        for (int chunkX = startX; chunkX <= endX; chunkX++) {
+            for (int chunkZ = startZ; chunkZ <= endZ; chunkZ++) {
+                var chunk = getChunkManager().getChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    // Chunk is not loaded
+                    continue;
+                }
+
+                for (int sectionY = startY; sectionY <= endY; sectionY++) {
+                    var edit = new SectionEdit(
+                            chunk, sectionY, layer,
+                            Math.max(x - (chunkX << 4), 0), Math.min(x + sizeX - (chunkX << 4), 16),
+                            Math.max(y - (sectionY << 4), 0), Math.min(y + sizeY - (sectionY << 4), 16),
+                            Math.max(z - (chunkZ << 4), 0), Math.min(z + sizeZ - (chunkZ << 4), 16)
+                    );
+                    changedCount += edit.apply(blockStateSupplier, fillBlockState, callEvent, update);
+                }
+            }
+        }
+
+        if (update && changedCount != 0) {
+            updateRegionBorder(x, Math.max(y, dimensionInfo.minHeight()), z, x + sizeX - 1, Math.min(y + sizeY - 1, dimensionInfo.maxHeight()), z + sizeZ - 1);
+        }
+
+        return changedCount;
+    }
+
+    protected void updateRegionBorder(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        // Blocks inside the region are not updated, since all their neighbors are changed together with them
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                var onBorder = x == minX || x == maxX || y == minY || y == maxY;
+                var step = onBorder ? 1 : Math.max(maxZ - minZ, 1);
+                for (int z = minZ; z <= maxZ; z += step) {
+                    updateAround(x, y, z);
+                }
+            }
+        }
+    }
+
+    protected static boolean hasBlockEntity(BlockState blockState) {
+        return blockState.getBehavior() instanceof BlockBlockEntityHolderComponent<?>;
+    }
+
+    /**
+     * An edit of the blocks in one chunk section. The range is in local coordinates, the end coordinates are exclusive.
+     */
+    protected class SectionEdit {
+        protected final Chunk chunk;
+        protected final int sectionY;
+        protected final int layer;
+        protected final int startX, endX, startY, endY, startZ, endZ;
+        protected final int[] changedIndices = new int[AllayUnsafeChunk.MAX_BLOCK_UPDATES_PER_BULK_EDIT];
+        protected final List<Block> deferredChanges = new ArrayList<>();
+        protected int changedCount;
+
+        protected SectionEdit(Chunk chunk, int sectionY, int layer, int startX, int endX, int startY, int endY, int startZ, int endZ) {
+            this.chunk = chunk;
+            this.sectionY = sectionY;
+            this.layer = layer;
+            this.startX = startX;
+            this.endX = endX;
+            this.startY = startY;
+            this.endY = endY;
+            this.startZ = startZ;
+            this.endZ = endZ;
+        }
+
+        protected int apply(IntTriFunction<BlockState> blockStateSupplier, BlockState fillBlockState, boolean callEvent, boolean update) {
+            // Events are called before the lock is acquired, since the listeners may access the dimension
+            var blockStates = callEvent ? collectPlacedBlockStates(blockStateSupplier) : null;
+            chunk.applyOperationInSection(sectionY, section -> {
+                var allaySection = (AllayChunkSection) section;
+                if (fillBlockState != null && !callEvent && canFill(allaySection, fillBlockState)) {
+                    changedCount = countChangedBlocks(allaySection, fillBlockState);
+                    if (changedCount != 0) {
+                        allaySection.fillBlockState(fillBlockState, layer);
+                    }
+                } else {
+                    setBlockStates(allaySection, blockStates, blockStateSupplier);
+                }
+                ((AllayUnsafeChunk) chunk.toUnsafeChunk()).onBlocksChangedInBulk(sectionY, layer, changedIndices, changedCount, true);
+                if (changedCount != 0 && layer == 0) {
+                    // Queue the light update before the lock is released, otherwise the chunk may be saved
+                    // with the new blocks and the old light in between
+                    lightEngine.onSectionChange(chunk, sectionY);
+                }
+            }, OperationType.WRITE, OperationType.NONE);
+
+            var count = changedCount;
+            for (var block : deferredChanges) {
+                var pos = block.getPosition();
+                if (setBlockState(pos.x(), pos.y(), pos.z(), block.getBlockState(), layer, true, update, true, null)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        protected boolean canFill(AllayChunkSection section, BlockState fillBlockState) {
+            if (startX != 0 || endX != 16 || startY != 0 || endY != 16 || startZ != 0 || endZ != 16 || hasBlockEntity(fillBlockState)) {
+                return false;
+            }
+
+            var palette = section.blockLayers()[layer];
+            for (int i = 0; i < palette.getEntryCount(); i++) {
+                if (hasBlockEntity(palette.getEntry(i))) {
+                    // Block entities should be removed properly
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Count the blocks in the section that will be changed by filling the section with the given block state.
+         */
+        protected int countChangedBlocks(AllayChunkSection section, BlockState fillBlockState) {
+            var palette = section.blockLayers()[layer];
+            if (palette.oneEntryOnly()) {
+                return palette.get(0) == fillBlockState ? 0 : 16 * 16 * 16;
+            }
+            if (palette.allEntriesMatch(entry -> entry != fillBlockState)) {
+                // All the blocks in the section are changed
+                return 16 * 16 * 16;
+            }
+
+            var count = 0;
+            for (int index = 0; index < 16 * 16 * 16; index++) {
+                if (palette.get(index) != fillBlockState) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        protected BlockState[] collectPlacedBlockStates(IntTriFunction<BlockState> blockStateSupplier) {
+            var blockStates = new BlockState[(endX - startX) * (endY - startY) * (endZ - startZ)];
+            var i = 0;
+            for (int localX = startX; localX < endX; localX++) {
+                for (int localY = startY; localY < endY; localY++) {
+                    for (int localZ = startZ; localZ < endZ; localZ++, i++) {
+                        var globalX = (chunk.getX() << 4) + localX;
+                        var globalY = (sectionY << 4) + localY;
+                        var globalZ = (chunk.getZ() << 4) + localZ;
+                        var blockState = blockStateSupplier.apply(globalX, globalY, globalZ);
+                        if (blockState == null) {
+                            continue;
+                        }
+
+                        var oldBlockState = chunk.getBlockState(localX, globalY, localZ, layer);
+                        if (oldBlockState == blockState) {
+                            continue;
+                        }
+
+                        var block = new Block(blockState, new Position3i(globalX, globalY, globalZ, AllayDimension.this), layer);
+                        if (new BlockPlaceEvent(block, oldBlockState, null).call()) {
+                            blockStates[i] = blockState;
+                        }
+                    }
+                }
+            }
+            return blockStates;
+        }
+
+        protected void setBlockStates(AllayChunkSection section, BlockState[] blockStates, IntTriFunction<BlockState> blockStateSupplier) {
+            var i = 0;
+            for (int localX = startX; localX < endX; localX++) {
+                for (int localY = startY; localY < endY; localY++) {
+                    for (int localZ = startZ; localZ < endZ; localZ++, i++) {
+                        var globalX = (chunk.getX() << 4) + localX;
+                        var globalY = (sectionY << 4) + localY;
+                        var globalZ = (chunk.getZ() << 4) + localZ;
+                        var blockState = blockStates != null ? blockStates[i] : blockStateSupplier.apply(globalX, globalY, globalZ);
+                        if (blockState == null) {
+                            continue;
+                        }
+
+                        var oldBlockState = section.getBlockState(localX, localY, localZ, layer);
+                        if (oldBlockState == blockState) {
+                            continue;
+                        }
+
+                        if (hasBlockEntity(blockState) || hasBlockEntity(oldBlockState)) {
+                            // Block entities are created and removed in the block behavior, so these blocks are set one by one later
+                            deferredChanges.add(new Block(blockState, new Position3i(globalX, globalY, globalZ, AllayDimension.this), layer));
+                            continue;
+                        }
+
+                        section.setBlockState(localX, localY, localZ, blockState, layer);
+                        if (changedCount < changedIndices.length) {
+                            changedIndices[changedCount] = HashUtils.hashChunkSectionXYZ(localX, localY, localZ);
+                        }
+                        changedCount++;
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public boolean breakBlock(int x, int y, int z, ItemStack usedItem, Entity entity, boolean sendParticle) {
         var block = getBlockState(x, y, z);
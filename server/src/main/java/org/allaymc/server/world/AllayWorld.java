@@ -31,6 +31,9 @@ import org.allaymc.server.AllayServer;
 import org.allaymc.server.datastruct.collections.queue.BlockingQueueWrapper;
 import org.allaymc.server.player.AllayPlayer;
 import org.allaymc.server.scheduler.AllayScheduler;
+import org.allaymc.server.timings.TickHistogram;
+import org.allaymc.server.timings.Timing;
+import org.allaymc.server.timings.Timings;
 import org.allaymc.server.utils.GameLoop;
 import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
 import org.jetbrains.annotations.UnmodifiableView;
@@ -70,6 +73,7 @@ public class AllayWorld implements World {
     @Getter
     protected final Scheduler scheduler;
     protected final GameLoop gameLoop;
+    protected final Timing packetsTiming, schedulerTiming, storageTiming;
     @Getter
     protected final Thread worldThread, networkThread;
 
@@ -104,6 +108,9 @@ public class AllayWorld implements World {
                 .onTick(this::worldThreadMain)
                 .onStop(this::shutdownReally)
                 .build();
+        this.packetsTiming = Timings.of(getTimingsGroup(), "packets");
+        this.schedulerTiming = Timings.of(getTimingsGroup(), "scheduler");
+        this.storageTiming = Timings.of(getTimingsGroup(), "storage");
         this.worldThread = Thread.ofPlatform()
                 .name("World Thread #" + this.getName())
                 .unstarted(gameLoop::startLoop);
@@ -164,6 +171,7 @@ public class AllayWorld implements World {
     }
 
     protected void handleSyncPackets(PacketQueueEntry firstEntry) {
+        var start = packetsTiming.start();
         try {
             PacketQueueEntry entry = firstEntry;
             int count = 0;
@@ -190,6 +198,8 @@ public class AllayWorld implements World {
             } while (count < MAX_PACKETS_HANDLE_COUNT_AT_ONCE && (entry = packetQueue.pollNow()) != null);
         } catch (Throwable throwable) {
             log.error("Error while handling sync packet in world {}", this.getWorldData().getDisplayName(), throwable);
+        } finally {
+            packetsTiming.stop(start);
         }
     }
 
@@ -202,7 +212,9 @@ public class AllayWorld implements World {
         tickTime(currentTick);
         tickWeather();
         tickSleep();
+        var start = schedulerTiming.start();
         scheduler.tick();
+        schedulerTiming.stop(start);
 
         var dimensions = dimensionMap.values();
         if (TICK_DIMENSION_IN_PARALLEL && dimensions.size() > 1) {
@@ -216,7 +228,9 @@ public class AllayWorld implements World {
             }
         }
 
+        start = storageTiming.start();
         worldStorage.tick(currentTick);
+        storageTiming.stop(start);
     }
 
     protected void checkFirstTick() {
@@ -385,6 +399,17 @@ public class AllayWorld implements World {
         return this.gameLoop.getTickUsage();
     }
 
+    public TickHistogram getTickHistogram() {
+        return this.gameLoop.getTickHistogram();
+    }
+
+    /**
+     * @return the group of the timings of this world, see {@link Timings}
+     */
+    public String getTimingsGroup() {
+        return "World " + this.name;
+    }
+
     public void startTick() {
         if (this.worldThread.getState() != Thread.State.NEW) {
             throw new IllegalStateException("World " + this.name + " is already ticking!");
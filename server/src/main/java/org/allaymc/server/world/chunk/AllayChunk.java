@@ -33,8 +33,8 @@ public class AllayChunk implements Chunk {
         this.unsafeChunk = unsafeChunk;
 
         var dimensionInfo = unsafeChunk.getDimensionInfo();
-        this.blockLocks = new ChunkSectionLocks(dimensionInfo);
-        this.biomeLocks = new ChunkSectionLocks(dimensionInfo);
+        this.blockLocks = ChunkSectionLocks.create(dimensionInfo);
+        this.biomeLocks = ChunkSectionLocks.create(dimensionInfo);
     }
 
     @Override
@@ -53,6 +53,18 @@ public class AllayChunk implements Chunk {
 
         AllayUnsafeChunk.checkXZ(x, z);
         var sectionY = y >> 4;
+        var stamp = blockLocks.tryOptimisticReadAt(sectionY);
+        if (stamp != 0) {
+            try {
+                var blockState = unsafeChunk.getBlockState(x, y, z, layer);
+                if (blockLocks.validate(sectionY, stamp)) {
+                    return blockState;
+                }
+            } catch (RuntimeException ignored) {
+                // The palette was being modified concurrently, fall back to read lock
+            }
+        }
+
         blockLocks.lockReadLockAt(sectionY);
         try {
             return unsafeChunk.getBlockState(x, y, z, layer);
@@ -82,6 +94,18 @@ public class AllayChunk implements Chunk {
 
         AllayUnsafeChunk.checkXZ(x, z);
         var sectionY = y >> 4;
+        var stamp = biomeLocks.tryOptimisticReadAt(sectionY);
+        if (stamp != 0) {
+            try {
+                var biome = unsafeChunk.getBiome(x, y, z);
+                if (biomeLocks.validate(sectionY, stamp)) {
+                    return biome;
+                }
+            } catch (RuntimeException ignored) {
+                // The palette was being modified concurrently, fall back to read lock
+            }
+        }
+
         biomeLocks.lockReadLockAt(sectionY);
         try {
             return unsafeChunk.getBiome(x, y, z);
@@ -128,6 +152,30 @@ public class AllayChunk implements Chunk {
         }
     }
 
+    @Override
+    public void applyReadOperationInSection(int sectionY, Consumer<ChunkSection> operation) {
+        unsafeChunk.checkSectionY(sectionY);
+        var section = unsafeChunk.getSection(sectionY);
+        var stamp = blockLocks.tryOptimisticReadAt(sectionY);
+        if (stamp != 0) {
+            try {
+                operation.accept(section);
+                if (blockLocks.validate(sectionY, stamp)) {
+                    return;
+                }
+            } catch (RuntimeException ignored) {
+                // The palette was being modified concurrently, fall back to read lock
+            }
+        }
+
+        blockLocks.lockReadLockAt(sectionY);
+        try {
+            operation.accept(section);
+        } finally {
+            blockLocks.unlockReadLockAt(sectionY);
+        }
+    }
+
     protected void tryLockAllSections(OperationType operationType, ChunkSectionLocks locks) {
         switch (operationType) {
             case READ -> locks.lockAllReadLocks();
@@ -206,6 +254,8 @@ public class AllayChunk implements Chunk {
 
         void addScheduledUpdate(int x, int y, int z, long time);
 
+        void addScheduledUpdate(int x, int y, int z, long time, int priority);
+
         boolean hasScheduledUpdate(int x, int y, int z);
 
         ChunkSection getSection(int sectionY);
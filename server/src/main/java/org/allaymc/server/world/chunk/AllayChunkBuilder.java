@@ -5,6 +5,7 @@ import lombok.Getter;
 import org.allaymc.api.blockentity.BlockEntity;
 import org.allaymc.api.world.chunk.ChunkState;
 import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.server.world.light.ChunkLightData;
 import org.jctools.maps.NonBlockingHashMap;
 
 /**
@@ -20,12 +21,14 @@ public class AllayChunkBuilder {
     private AllayChunkSection[] sections;
     private HeightMap heightMap;
     private NonBlockingHashMap<Integer, BlockEntity> blockEntities;
-    private NonBlockingHashMap<Integer, ScheduledUpdateInfo> scheduledUpdates;
+    private ScheduledUpdateQueue scheduledUpdates;
+    private ChunkLightData lightData;
+    private long[] savedSectionChecksums;
 
     public AllayChunkBuilder() {
         this.state = ChunkState.FULL;
         this.blockEntities = new NonBlockingHashMap<>();
-        this.scheduledUpdates = new NonBlockingHashMap<>();
+        this.scheduledUpdates = new ScheduledUpdateQueue();
     }
 
     private static AllayChunkSection[] createEmptySections(DimensionInfo dimensionInfo) {
@@ -79,22 +82,39 @@ public class AllayChunkBuilder {
         return this;
     }
 
-    public AllayChunkBuilder scheduledUpdates(NonBlockingHashMap<Integer, ScheduledUpdateInfo> scheduledUpdates) {
+    public AllayChunkBuilder scheduledUpdates(ScheduledUpdateQueue scheduledUpdates) {
         this.scheduledUpdates = scheduledUpdates;
         return this;
     }
 
+    public AllayChunkBuilder lightData(ChunkLightData lightData) {
+        this.lightData = lightData;
+        return this;
+    }
+
+    public AllayChunkBuilder savedSectionChecksums(long[] savedSectionChecksums) {
+        Preconditions.checkNotNull(dimensionInfo);
+        Preconditions.checkArgument(savedSectionChecksums.length == dimensionInfo.chunkSectionCount());
+        this.savedSectionChecksums = savedSectionChecksums;
+        return this;
+    }
+
     public AllayUnsafeChunk build() {
         Preconditions.checkNotNull(dimensionInfo);
 
         if (sections == null) sections = createEmptySections(dimensionInfo);
         if (heightMap == null) heightMap = new HeightMap((short) dimensionInfo.minHeight());
 
-        return new AllayUnsafeChunk(
+        var chunk = new AllayUnsafeChunk(
                 chunkX, chunkZ, dimensionInfo,
                 sections, heightMap, scheduledUpdates,
                 state, blockEntities
         );
+        chunk.lightData = lightData;
+        if (savedSectionChecksums != null) {
+            System.arraycopy(savedSectionChecksums, 0, chunk.savedSectionChecksums, 0, savedSectionChecksums.length);
+        }
+        return chunk;
     }
 
     public AllayUnsafeChunk newChunk(int chunkX, int chunkZ, DimensionInfo dimensionInfo) {
@@ -102,7 +122,7 @@ public class AllayChunkBuilder {
                 chunkX, chunkZ, dimensionInfo,
                 createEmptySections(dimensionInfo),
                 new HeightMap((short) dimensionInfo.minHeight()),
-                new NonBlockingHashMap<>(),
+                new ScheduledUpdateQueue(),
                 ChunkState.NEW, new NonBlockingHashMap<>()
         );
     }
@@ -112,7 +132,7 @@ public class AllayChunkBuilder {
                 chunkX, chunkZ, dimensionInfo,
                 createEmptySections(dimensionInfo),
                 new HeightMap((short) dimensionInfo.minHeight()),
-                new NonBlockingHashMap<>(),
+                new ScheduledUpdateQueue(),
                 ChunkState.FULL, new NonBlockingHashMap<>()
         );
     }
@@ -18,20 +18,25 @@ import static org.allaymc.api.utils.hash.HashUtils.hashChunkSectionXYZ;
 public record AllayChunkSection(
         byte sectionY,
         Palette<BlockState>[] blockLayers,
-        Palette<BiomeType> biomes
+        Palette<BiomeType> biomes,
+        SectionRandomUpdateIndex randomUpdateIndex
 ) implements ChunkSection {
     public static final int LAYER_COUNT = 2;
     public static final int CURRENT_CHUNK_SECTION_VERSION = ChunkSectionVersion.PALETTED_MULTI_WITH_OFFSET.ordinal();
 
     @SuppressWarnings("unchecked")
     public AllayChunkSection(byte sectionY) {
-        this(sectionY, new Palette[]{new Palette<>(AIR.getDefaultState()), new Palette<>(AIR.getDefaultState())}, new Palette<>(BiomeTypes.PLAINS));
+        this(sectionY, new Palette[]{new Palette<>(AIR.getDefaultState()), new Palette<>(AIR.getDefaultState())});
     }
 
     public AllayChunkSection(byte sectionY, Palette<BlockState>[] blockLayer) {
         this(sectionY, blockLayer, new Palette<>(BiomeTypes.PLAINS));
     }
 
+    public AllayChunkSection(byte sectionY, Palette<BlockState>[] blockLayer, Palette<BiomeType> biomes) {
+        this(sectionY, blockLayer, biomes, new SectionRandomUpdateIndex());
+    }
+
     @Override
     public BlockState getBlockState(int x, int y, int z, int layer) {
         return blockLayers[layer].get(hashChunkSectionXYZ(x, y, z));
@@ -39,7 +44,30 @@ public record AllayChunkSection(
 
     @Override
     public void setBlockState(int x, int y, int z, BlockState blockState, int layer) {
-        blockLayers[layer].set(hashChunkSectionXYZ(x, y, z), blockState);
+        var index = hashChunkSectionXYZ(x, y, z);
+        var palette = blockLayers[layer];
+        if (layer != 0) {
+            palette.set(index, blockState);
+            return;
+        }
+
+        // Only blocks in the first layer can be random updated
+        var upToDate = randomUpdateIndex.isUpToDate(palette);
+        palette.set(index, blockState);
+        if (upToDate) {
+            randomUpdateIndex.onBlockStateSet(index, blockState, palette);
+        }
+    }
+
+    /**
+     * Set all the blocks in the given layer to the given block state. The palette of the layer will
+     * only contain the given block state after filling.
+     *
+     * @param blockState the block state to fill
+     * @param layer      the layer to fill
+     */
+    public void fillBlockState(BlockState blockState, int layer) {
+        blockLayers[layer].fill(blockState);
     }
 
     @Override
@@ -57,6 +85,28 @@ public record AllayChunkSection(
         return blockLayers[0].oneEntryOnly();
     }
 
+    /**
+     * Get the count of the blocks that support random update in this section.
+     *
+     * @return the count of the blocks that support random update
+     */
+    public int getRandomUpdatableBlockCount() {
+        return randomUpdateIndex.getCount(blockLayers[0]);
+    }
+
+    /**
+     * Check if the block at the specified position supports random update. {@link #getRandomUpdatableBlockCount()}
+     * should be called before to make sure that the index is up to date.
+     *
+     * @param x the x coordinate of the pos
+     * @param y the y coordinate of the pos
+     * @param z the z coordinate of the pos
+     * @return {@code true} if the block at the specified position supports random update
+     */
+    public boolean isRandomUpdatable(int x, int y, int z) {
+        return randomUpdateIndex.get(hashChunkSectionXYZ(x, y, z));
+    }
+
     public boolean hasDirtyBlockLayer() {
         for (var layer : blockLayers) {
             if (layer.isDirty()) {
@@ -23,10 +23,10 @@ import org.allaymc.api.world.chunk.*;
 import org.allaymc.api.world.data.DimensionInfo;
 import org.allaymc.api.world.gamerule.GameRule;
 import org.allaymc.api.world.storage.WorldStorage;
-import org.allaymc.server.AllayServer;
 import org.allaymc.server.blockentity.component.BlockEntityBaseComponentImpl;
 import org.allaymc.server.blockentity.impl.BlockEntityImpl;
 import org.allaymc.server.world.light.AllayLightEngine;
+import org.allaymc.server.world.light.ChunkLightData;
 import org.allaymc.server.world.manager.AllayEntityManager;
 import org.jctools.maps.NonBlockingHashMap;
 import org.jetbrains.annotations.Range;
@@ -34,6 +34,7 @@ import org.jetbrains.annotations.VisibleForTesting;
 
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +44,11 @@ import java.util.stream.Collectors;
 public class AllayUnsafeChunk implements UnsafeChunk {
 
     protected static final int LCG_CONSTANT = 1013904223;
+    /**
+     * If more blocks than this value are changed in a section by a bulk edit, the whole chunk will be
+     * resent to the viewers instead of sending a block update for each changed block.
+     */
+    public static final int MAX_BLOCK_UPDATES_PER_BULK_EDIT = 64;
 
     @Getter
     protected final int x, z;
@@ -51,23 +57,47 @@ public class AllayUnsafeChunk implements UnsafeChunk {
     protected final AllayChunkSection[] sections;
     protected final HeightMap heightMap;
     @Getter
-    protected final NonBlockingHashMap<Integer, ScheduledUpdateInfo> scheduledUpdates;
+    protected final ScheduledUpdateQueue scheduledUpdates;
     protected final NonBlockingHashMap<Integer, BlockEntity> blockEntities;
     protected final ChunkBitMap heightMapDirtyFlags;
     protected final Set<ChunkLoader> chunkLoaders;
     protected final Queue<WorldViewer.BlockUpdate> blockUpdates;
     protected final Queue<WorldViewer.BlockUpdate> extraBlockUpdates;
     protected final Queue<Runnable> chunkTaskQueue;
+    /**
+     * Whether the whole chunk should be resent to the viewers in the next {@link #sendBlockUpdates()}.
+     */
+    protected final AtomicBoolean resendRequested;
     protected final AllayChunk safeChunk;
     @Getter
+    protected final ChunkNetworkCache networkCache;
+    @Getter
     @Setter
     protected volatile ChunkState state;
     @Setter
     protected BlockChangeCallback blockChangeCallback;
     @Getter
     protected volatile boolean loaded;
-    protected int autoSaveTimer = 0;
+    /**
+     * The saved light data which is restored when the chunk is loaded, or the light data which is copied when the
+     * chunk is unloaded and will be saved with the chunk. {@code null} if there is no light data available.
+     */
+    @Getter
+    @Setter
+    protected volatile ChunkLightData lightData;
+    /**
+     * The checksums of the saved data of each section, {@code -1} if the section hasn't been saved. They are kept
+     * in memory so that the unchanged sections don't need to be read again when saving the light data.
+     */
+    @Getter
+    protected final long[] savedSectionChecksums;
+    // The modification stamp when this chunk was last saved
+    protected long savedModificationStamp;
+    // Whether the block entities in this chunk have been changed since this chunk was last saved
+    protected volatile boolean blockEntitiesDirty;
     protected int updateLCG = ThreadLocalRandom.current().nextInt();
+    // The random numbers of the positions sampled for random updates in a section, reused between ticks
+    protected int[] randomUpdateSamples = new int[0];
 
     /**
      * Create a new {@link AllayUnsafeChunk}.
@@ -84,7 +114,7 @@ public class AllayUnsafeChunk implements UnsafeChunk {
     AllayUnsafeChunk(
             int x, int z, DimensionInfo dimensionInfo,
             AllayChunkSection[] sections, HeightMap heightMap,
-            NonBlockingHashMap<Integer, ScheduledUpdateInfo> scheduledUpdates,
+            ScheduledUpdateQueue scheduledUpdates,
             ChunkState state, NonBlockingHashMap<Integer, BlockEntity> blockEntities) {
         this.x = x;
         this.z = z;
@@ -95,11 +125,16 @@ public class AllayUnsafeChunk implements UnsafeChunk {
         this.state = state;
         this.blockEntities = blockEntities;
         this.heightMapDirtyFlags = new ChunkBitMap();
+        this.savedSectionChecksums = new long[dimensionInfo.chunkSectionCount()];
+        Arrays.fill(this.savedSectionChecksums, -1);
         this.chunkLoaders = Sets.newConcurrentHashSet();
         this.blockUpdates = PlatformDependent.newMpscQueue();
         this.extraBlockUpdates = PlatformDependent.newMpscQueue();
         this.chunkTaskQueue = PlatformDependent.newMpscQueue();
+        this.resendRequested = new AtomicBoolean(false);
         this.safeChunk = new AllayChunk(this);
+        this.networkCache = new ChunkNetworkCache();
+        this.savedModificationStamp = computeModificationStamp();
     }
 
     public static AllayChunkBuilder builder() {
@@ -131,34 +166,56 @@ public class AllayUnsafeChunk implements UnsafeChunk {
         tickRandomUpdates(dimension);
     }
 
-    public void checkAutoSave(WorldStorage worldStorage) {
-        autoSaveTimer++;
-        if (autoSaveTimer >= AllayServer.getSettings().storageSettings().chunkAutoSaveCycle()) {
-            worldStorage.writeChunk(safeChunk);
-            autoSaveTimer = 0;
+    /**
+     * Save this chunk if it has been changed since it was last saved through this method (or loaded).
+     *
+     * @param worldStorage the world storage to save this chunk to
+     * @return {@code true} if the chunk is saved, {@code false} if it is skipped because it hasn't been changed
+     */
+    public boolean saveIfDirty(WorldStorage worldStorage) {
+        var modificationStamp = computeModificationStamp();
+        if (modificationStamp == savedModificationStamp && !blockEntitiesDirty) {
+            return false;
         }
+
+        // Changes made after this point will be found during the next check
+        savedModificationStamp = modificationStamp;
+        blockEntitiesDirty = false;
+        worldStorage.writeChunk(safeChunk);
+        return true;
     }
 
-    protected void tickScheduledUpdates(long currentTick, Dimension dimension) {
-        List<ScheduledUpdateInfo> positions = new ArrayList<>(scheduledUpdates.size());
-        for (var entry : scheduledUpdates.entrySet()) {
-            if (entry.getValue().getTime() <= currentTick) {
-                positions.add(entry.getValue());
-                scheduledUpdates.remove(entry.getKey());
-            }
-        }
+    /**
+     * Compute the modification stamp of this chunk, which will be changed if the blocks, the biomes
+     * or the scheduled updates in this chunk are changed.
+     *
+     * @return the modification stamp of this chunk
+     */
+    protected long computeModificationStamp() {
+        return computeNetworkStamp() + scheduledUpdates.getModificationCount();
+    }
 
-        positions.forEach(info -> {
+    /**
+     * Mark the block entities in this chunk as changed, so that this chunk will be saved during the next
+     * auto saving. This is called when a block entity is added, removed or changed.
+     */
+    public void markBlockEntitiesDirty() {
+        blockEntitiesDirty = true;
+    }
+
+    protected void tickScheduledUpdates(long currentTick, Dimension dimension) {
+        // Updates scheduled during the loop will be executed in the next tick at the earliest
+        for (var info : scheduledUpdates.pollDue(currentTick)) {
             var pos = info.getPos();
             var blockState = getBlockState(pos.x() & 15, pos.y(), pos.z() & 15);
 
             var block = new Block(blockState, new Position3i(pos, dimension));
             if (!new BlockScheduleUpdateEvent(block).call()) {
-                return;
+                continue;
             }
 
             blockState.getBehavior().onScheduledUpdate(block);
-        });
+        }
     }
 
     protected void tickRandomUpdates(Dimension dimension) {
@@ -167,32 +224,50 @@ public class AllayUnsafeChunk implements UnsafeChunk {
             return;
         }
 
-        for (var section : sections) {
-            if (section.isAirSection()) {
-                continue;
-            }
-            // Check the entry list of this section, and
-            // if there is no block that support random tick
-            // in this section, we can just skip this section
-            if (section.blockLayers()[0].allEntriesMatch(blockState -> !blockState.getBehavior().canRandomUpdate())) {
-                continue;
-            }
+        var sampleCount = randomTickSpeed * 3;
+        if (randomUpdateSamples.length < sampleCount) {
+            randomUpdateSamples = new int[sampleCount];
+        }
 
+        for (var section : sections) {
             int sectionY = section.sectionY();
-            for (int i = 0; i < randomTickSpeed * 3; i++) {
-                int lcg = nextUpdateLCG();
+            var samples = randomUpdateSamples;
+            var candidateCount = new int[1];
+            // The random update index is only accessed under the lock of the section, since it is also
+            // updated by the threads which set the blocks in the section
+            safeChunk.applyOperationInSection(sectionY, s -> {
+                var allaySection = (AllayChunkSection) s;
+                // Skip the section directly if there is no block that supports random update
+                if (allaySection.getRandomUpdatableBlockCount() == 0) {
+                    return;
+                }
+
+                for (int i = 0; i < sampleCount; i++) {
+                    int lcg = nextUpdateLCG();
+                    int localX = lcg & 0x0f;
+                    int localZ = lcg >>> 8 & 0x0f;
+                    int localY = lcg >>> 16 & 0x0f;
+                    if (allaySection.isRandomUpdatable(localX, localY, localZ)) {
+                        samples[candidateCount[0]++] = lcg;
+                    }
+                }
+            }, OperationType.READ, OperationType.NONE);
+
+            // The blocks are updated after the lock is released, since updating a block may change the blocks in the section
+            for (int i = 0; i < candidateCount[0]; i++) {
+                int lcg = samples[i];
                 int localX = lcg & 0x0f;
                 int localZ = lcg >>> 8 & 0x0f;
-                int localY = lcg >>> 16 & 0x0f;
-                // TODO: instead of get the block state from palette and check if it supports random tick,
-                // we can add a bitset to every chunk section to mark whether a block pos contains a block
-                // that supports random tick, this would be much quicker
-                var blockState = getBlockState(localX, sectionY * 16 + localY, localZ, 0);
-                if (blockState.getBehavior().canRandomUpdate()) {
-                    var block = new Block(blockState, new Position3i(localX + (this.x << 4), localY + (sectionY << 4), localZ + (this.z << 4), dimension), 0);
-                    if (new BlockRandomUpdateEvent(block).call()) {
-                        blockState.getBehavior().onRandomUpdate(block);
-                    }
+                int y = (lcg >>> 16 & 0x0f) + (sectionY << 4);
+                var blockState = safeChunk.getBlockState(localX, y, localZ, 0);
+                if (!blockState.getBehavior().canRandomUpdate()) {
+                    // The block may have been changed by the updates before
+                    continue;
+                }
+
+                var block = new Block(blockState, new Position3i(localX + (this.x << 4), y, localZ + (this.z << 4), dimension), 0);
+                if (new BlockRandomUpdateEvent(block).call()) {
+                    blockState.getBehavior().onRandomUpdate(block);
                 }
             }
         }
@@ -203,7 +278,8 @@ public class AllayUnsafeChunk implements UnsafeChunk {
     }
 
     public void onChunkLoad(Dimension dimension) {
-        ((AllayLightEngine) dimension.getLightEngine()).onChunkLoad(toSafeChunk());
+        ((AllayLightEngine) dimension.getLightEngine()).onChunkLoad(toSafeChunk(), lightData);
+        lightData = null;
         setBlockChangeCallback((x, y, z, blockState, layer) -> {
             if (layer == 0) {
                 ((AllayLightEngine) dimension.getLightEngine()).onBlockChange(x + (this.x << 4), y, z + (this.z << 4), blockState.getBlockStateData().lightEmission(), blockState.getBlockStateData().lightDampening());
@@ -215,9 +291,32 @@ public class AllayUnsafeChunk implements UnsafeChunk {
     }
 
     public void onChunkUnload(Dimension dimension) {
-        ((AllayLightEngine) dimension.getLightEngine()).onChunkUnload(safeChunk);
+        var lightEngine = (AllayLightEngine) dimension.getLightEngine();
+        // Copy the light data before it is removed from the light engine
+        lightData = lightEngine.copyChunkLightData(this.x, this.z);
+        lightEngine.onChunkUnload(safeChunk);
         ((AllayEntityManager) dimension.getEntityManager()).onChunkUnload(this.x, this.z);
         blockChangeCallback = null;
+        networkCache.release();
+    }
+
+    /**
+     * Compute the stamp used by {@link ChunkNetworkCache} to check whether the cached network
+     * payload is still up to date. The stamp is the sum of the modification counters of all
+     * the palettes in this chunk, so any change to blocks or biomes will change the stamp.
+     *
+     * @return the network stamp of this chunk
+     */
+    public long computeNetworkStamp() {
+        long stamp = 0;
+        for (var section : sections) {
+            for (var blockLayer : section.blockLayers()) {
+                stamp += blockLayer.getModificationCount();
+            }
+            stamp += section.biomes().getModificationCount();
+        }
+
+        return stamp;
     }
 
     @Override
@@ -240,17 +339,15 @@ public class AllayUnsafeChunk implements UnsafeChunk {
     }
 
     @Override
-    public void addScheduledUpdate(@Range(from = 0, to = 15) int x, int y, @Range(from = 0, to = 15) int z, long time) {
+    public void addScheduledUpdate(@Range(from = 0, to = 15) int x, int y, @Range(from = 0, to = 15) int z, long time, int priority) {
         checkXYZ(x, y, z);
-        var key = HashUtils.hashChunkXYZ(x, y, z);
-        scheduledUpdates.put(key, new ScheduledUpdateInfo(new org.joml.Vector3i((this.x << 4) + x, y, (this.z << 4) + z), time));
+        scheduledUpdates.add(new ScheduledUpdateInfo(new org.joml.Vector3i((this.x << 4) + x, y, (this.z << 4) + z), time, priority));
     }
 
     @Override
     public boolean hasScheduledUpdate(@Range(from = 0, to = 15) int x, int y, @Range(from = 0, to = 15) int z) {
         checkXYZ(x, y, z);
-        var scheduledUpdateInfo = scheduledUpdates.get(HashUtils.hashChunkXYZ(x, y, z));
-        return scheduledUpdateInfo != null;
+        return scheduledUpdates.contains(HashUtils.hashChunkXYZ(x, y, z));
     }
 
     @Override
@@ -287,6 +384,55 @@ public class AllayUnsafeChunk implements UnsafeChunk {
         }
     }
 
+    /**
+     * Called after the blocks in a section are changed in bulk without going through
+     * {@link #setBlockState(int, int, int, BlockState, int, boolean)}. Should be called while the
+     * write lock of the section is held.
+     *
+     * @param sectionY       the y coordinate of the section
+     * @param layer          the layer of the changed blocks
+     * @param changedIndices the indices of the changed blocks in the section, see {@link HashUtils#hashChunkSectionXYZ(int, int, int)}
+     * @param changedCount   the count of the changed blocks, all the blocks in the section are changed if
+     *                       the count is greater than the length of {@code changedIndices}
+     * @param send           whether to send the changed blocks to the viewers
+     */
+    public void onBlocksChangedInBulk(int sectionY, int layer, int[] changedIndices, int changedCount, boolean send) {
+        if (changedCount == 0) {
+            return;
+        }
+
+        if (layer == 0) {
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    heightMapDirtyFlags.set(x, z, true);
+                }
+            }
+        }
+
+        if (!send || !loaded) {
+            return;
+        }
+
+        if (changedCount > MAX_BLOCK_UPDATES_PER_BULK_EDIT || changedCount > changedIndices.length) {
+            resendRequested.set(true);
+            return;
+        }
+
+        var section = getSection(sectionY);
+        for (int i = 0; i < changedCount; i++) {
+            var index = changedIndices[i];
+            var localX = index >> 8;
+            var localZ = (index >> 4) & 15;
+            var localY = index & 15;
+            var update = new WorldViewer.BlockUpdate((this.x << 4) + localX, (sectionY << 4) + localY, (this.z << 4) + localZ, section.getBlockState(localX, localY, localZ, layer));
+            switch (layer) {
+                case 0 -> blockUpdates.offer(update);
+                case 1 -> extraBlockUpdates.offer(update);
+                default -> throw new IllegalArgumentException("Unsupported layer: " + layer);
+            }
+        }
+    }
+
     @Override
     public short getHeight(int x, int z) {
         checkXZ(x, z);
@@ -386,13 +532,18 @@ public class AllayUnsafeChunk implements UnsafeChunk {
         var pos = blockEntity.getPosition();
         var key = HashUtils.hashChunkXYZ(pos.x() & 15, pos.y(), pos.z() & 15);
         blockEntities.put(key, blockEntity);
+        markBlockEntitiesDirty();
     }
 
     @Override
     public BlockEntity removeBlockEntity(int x, int y, int z) {
         checkXYZ(x, y, z);
         var key = HashUtils.hashChunkXYZ(x, y, z);
-        return blockEntities.remove(key);
+        var removed = blockEntities.remove(key);
+        if (removed != null) {
+            markBlockEntitiesDirty();
+        }
+        return removed;
     }
 
     @Override
@@ -415,6 +566,20 @@ public class AllayUnsafeChunk implements UnsafeChunk {
         if (chunkLoaders.isEmpty()) {
             blockUpdates.clear();
             extraBlockUpdates.clear();
+            resendRequested.set(false);
+            return;
+        }
+
+        if (resendRequested.getAndSet(false)) {
+            // The resent chunk already contains all the queued block updates. Clear the queues before
+            // encoding the chunk, so the updates queued after encoding will still be sent next time
+            blockUpdates.clear();
+            extraBlockUpdates.clear();
+            chunkLoaders.forEach(loader -> {
+                if (loader instanceof EntityPlayer player && player.isActualPlayer()) {
+                    player.getController().resendChunk(toSafeChunk());
+                }
+            });
             return;
         }
 
@@ -0,0 +1,113 @@
+package org.allaymc.server.world.chunk;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.allaymc.server.AllayServer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChunkBlobStore is the server side store of the Bedrock client blob cache. When the client supports
+ * the blob cache, sub-chunk and biome payloads are sent as blob ids, and the client asks for the blobs
+ * that it doesn't have. Blobs are identified by the hash of their content, so identical payloads (e.g.
+ * sections full of stone) are stored only once and shared by all the chunks and players.
+ * <p>
+ * The total size of the stored blobs is bounded, least recently used blobs are evicted first. A blob
+ * that has been sent to a player is also held by that player until the client answers, so eviction
+ * won't break the pending requests.
+ *
+ * @author daoge_cmd
+ */
+public final class ChunkBlobStore {
+
+    private static final LongAdder SENT_BLOBS = new LongAdder();
+    private static final LongAdder MISSED_BLOBS = new LongAdder();
+    private static final Cache<Long, byte[]> BLOBS = Caffeine.newBuilder()
+            .maximumWeight(AllayServer.getSettings().networkSettings().clientBlobStoreMaxSize() * 1024L * 1024L)
+            .weigher((Long id, byte[] data) -> data.length)
+            .build();
+
+    private ChunkBlobStore() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Create a blob from the encoded payload and put it into the store. The payload is released.
+     *
+     * @param encoded the encoded payload
+     * @return the blob, whose data is shared with the blob of the same content in the store
+     */
+    public static Blob intern(ByteBuf encoded) {
+        byte[] data;
+        try {
+            data = ByteBufUtil.getBytes(encoded);
+        } finally {
+            encoded.release();
+        }
+
+        var id = Hashing.farmHashFingerprint64().hashBytes(data).asLong();
+        var existing = BLOBS.asMap().putIfAbsent(id, data);
+        return new Blob(id, existing != null ? existing : data);
+    }
+
+    /**
+     * Get the data of a blob.
+     *
+     * @param id the id of the blob
+     * @return the data of the blob, or {@code null} if the blob has been evicted
+     */
+    public static byte[] get(long id) {
+        return BLOBS.getIfPresent(id);
+    }
+
+    /**
+     * Called when blobs are sent to a client as ids.
+     *
+     * @param count the count of the blobs
+     */
+    public static void onBlobsSent(int count) {
+        SENT_BLOBS.add(count);
+    }
+
+    /**
+     * Called when a client asks for the blobs that it doesn't have.
+     *
+     * @param count the count of the blobs
+     */
+    public static void onBlobsMissed(int count) {
+        MISSED_BLOBS.add(count);
+    }
+
+    /**
+     * @return the total count of the blobs sent as ids
+     */
+    public static long getSentBlobCount() {
+        return SENT_BLOBS.sum();
+    }
+
+    /**
+     * @return the total count of the blobs that clients didn't have and were sent in full
+     */
+    public static long getMissedBlobCount() {
+        return MISSED_BLOBS.sum();
+    }
+
+    /**
+     * @return the count of the blobs in the store
+     */
+    public static long getBlobCount() {
+        return BLOBS.estimatedSize();
+    }
+
+    /**
+     * A blob of the client blob cache.
+     *
+     * @param id   the id of the blob, which is the hash of the data
+     * @param data the data of the blob
+     */
+    public record Blob(long id, byte[] data) {
+    }
+}
@@ -4,25 +4,133 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.LongList;
 import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.block.type.BlockState;
 import org.allaymc.api.world.biome.BiomeType;
 import org.allaymc.server.datastruct.palette.Palette;
 import org.cloudburstmc.nbt.NbtUtils;
 
+import java.util.function.Consumer;
+
 /**
  * @author daoge_cmd
  */
 @Slf4j
 public final class ChunkEncoder {
     public static ByteBuf writeToNetwork(AllayUnsafeChunk chunk) {
+        // Blocks and biomes are shared by all the viewers of the chunk, while block entities
+        // are always encoded freshly since their nbt can be changed without touching the palettes
+        var payload = chunk.getNetworkCache().getFull(chunk.computeNetworkStamp(), () -> writeBlocksAndBiomes(chunk));
+        if (chunk.getBlockEntities().isEmpty() || !payload.isReadable()) {
+            return payload;
+        }
+
+        var blockEntities = ByteBufAllocator.DEFAULT.ioBuffer();
+        writeBlockEntities(chunk, blockEntities);
+        return Unpooled.wrappedBuffer(payload, blockEntities);
+    }
+
+    public static ByteBuf writeToNetworkBiomeOnly(AllayUnsafeChunk chunk) {
+        return chunk.getNetworkCache().getBiomeOnly(chunk.computeNetworkStamp(), () -> writeBiomesOnly(chunk));
+    }
+
+    /**
+     * Encode the chunk for a client that supports the blob cache. Blocks of each section and the biomes
+     * are sent as blobs, so the returned payload only contains the border blocks and the block entities.
+     *
+     * @param chunk        the chunk to encode
+     * @param blobIds      the list that the ids of the blobs will be added to, in the order required by the protocol
+     * @param blobConsumer the consumer that receives the blobs, which should be kept until the client answers
+     * @return the payload
+     */
+    public static ByteBuf writeToNetworkCached(AllayUnsafeChunk chunk, LongList blobIds, Consumer<ChunkBlobStore.Blob> blobConsumer) {
+        for (var s : chunk.getSections()) {
+            var blob = getSectionBlob(chunk, (AllayChunkSection) s);
+            blobIds.add(blob.id());
+            blobConsumer.accept(blob);
+        }
+        var biomeBlob = getBiomeBlob(chunk);
+        blobIds.add(biomeBlob.id());
+        blobConsumer.accept(biomeBlob);
+
+        var byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
+        // Length of 1 byte for the border block count
+        byteBuf.writeByte(0);
+        writeBlockEntities(chunk, byteBuf);
+        return byteBuf;
+    }
+
+    /**
+     * Encode the biomes of the chunk for a client that supports the blob cache. The biomes are sent as
+     * a blob, so the returned payload only contains the border blocks.
+     *
+     * @param chunk        the chunk to encode
+     * @param blobIds      the list that the id of the biome blob will be added to
+     * @param blobConsumer the consumer that receives the biome blob
+     * @return the payload
+     */
+    public static ByteBuf writeToNetworkBiomeOnlyCached(AllayUnsafeChunk chunk, LongList blobIds, Consumer<ChunkBlobStore.Blob> blobConsumer) {
+        var biomeBlob = getBiomeBlob(chunk);
+        blobIds.add(biomeBlob.id());
+        blobConsumer.accept(biomeBlob);
+
+        var byteBuf = ByteBufAllocator.DEFAULT.ioBuffer(1);
+        // Length of 1 byte for the border block count
+        byteBuf.writeByte(0);
+        return byteBuf;
+    }
+
+    /**
+     * Get the blob of the blocks in a section. The read lock of the section should be held.
+     *
+     * @param chunk   the chunk that the section belongs to
+     * @param section the section
+     * @return the blob
+     */
+    public static ChunkBlobStore.Blob getSectionBlob(AllayUnsafeChunk chunk, AllayChunkSection section) {
+        long stamp = 0;
+        for (var blockLayer : section.blockLayers()) {
+            stamp += blockLayer.getModificationCount();
+        }
+
+        var dimensionInfo = chunk.getDimensionInfo();
+        return chunk.getNetworkCache().getSectionBlob(
+                section.sectionY() - dimensionInfo.minSectionY(), dimensionInfo.chunkSectionCount(), stamp,
+                () -> {
+                    var byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
+                    writeToNetwork(section, byteBuf);
+                    return byteBuf;
+                }
+        );
+    }
+
+    private static ChunkBlobStore.Blob getBiomeBlob(AllayUnsafeChunk chunk) {
+        long stamp = 0;
+        for (var section : chunk.getSections()) {
+            stamp += ((AllayChunkSection) section).biomes().getModificationCount();
+        }
+
+        return chunk.getNetworkCache().getBiomeBlob(stamp, () -> {
+            var byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
+            try {
+                writeBiomes(chunk, byteBuf);
+                return byteBuf;
+            } catch (Throwable t) {
+                log.error("Error while encoding biomes of chunk(x={}, z={})!", chunk.getX(), chunk.getZ(), t);
+                byteBuf.release();
+                return Unpooled.EMPTY_BUFFER;
+            }
+        });
+    }
+
+    private static ByteBuf writeBlocksAndBiomes(AllayUnsafeChunk chunk) {
         var byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
         try {
             writeBlocks(chunk, byteBuf);
             writeBiomes(chunk, byteBuf);
             // Length of 1 byte for the border block count
             byteBuf.writeByte(0);
-            writeBlockEntities(chunk, byteBuf);
             return byteBuf;
         } catch (Throwable t) {
             log.error("Error while encoding chunk(x={}, z={})!", chunk.getX(), chunk.getZ(), t);
@@ -31,7 +139,7 @@ public final class ChunkEncoder {
         }
     }
 
-    public static ByteBuf writeToNetworkBiomeOnly(AllayUnsafeChunk chunk) {
+    private static ByteBuf writeBiomesOnly(AllayUnsafeChunk chunk) {
         var byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
         try {
             writeBiomes(chunk, byteBuf);
@@ -0,0 +1,200 @@
+package org.allaymc.server.world.chunk;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches the encoded network payload of a chunk, so that a chunk which is viewed by many
+ * players is only encoded once until its content is changed.
+ * <p>
+ * Each cached payload is associated with a stamp which is computed from the modification
+ * counters of the chunk's palettes (see {@link AllayUnsafeChunk#computeNetworkStamp()}). The
+ * payload is re-encoded when the stamp changes. Callers receive a retained duplicate of the
+ * cached buffer and are responsible for releasing it (usually by sending it in a packet).
+ * <p>
+ * For the clients that support the blob cache, the blobs of each section and the biomes are
+ * cached in the same way, see {@link ChunkBlobStore}.
+ * <p>
+ * The caller must hold the read locks of the chunk sections while calling the methods
+ * in this class, so that the content of the chunk won't change while encoding.
+ *
+ * @author daoge_cmd
+ */
+public final class ChunkNetworkCache {
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder BLOB_HITS = new LongAdder();
+    private static final LongAdder BLOB_MISSES = new LongAdder();
+
+    private final Entry full = new Entry();
+    private final Entry biomeOnly = new Entry();
+    private final BlobEntry biomeBlob = new BlobEntry();
+    private volatile BlobEntry[] sectionBlobs;
+    private volatile boolean released;
+
+    /**
+     * @return the total count of full and biome only payload cache hits across all chunks
+     */
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return the total count of full and biome only payload cache misses across all chunks
+     */
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * @return the total count of section and biome blob cache hits across all chunks
+     */
+    public static long getBlobHits() {
+        return BLOB_HITS.sum();
+    }
+
+    /**
+     * @return the total count of section and biome blob cache misses across all chunks
+     */
+    public static long getBlobMisses() {
+        return BLOB_MISSES.sum();
+    }
+
+    /**
+     * Get the cached full payload (blocks, biomes and border blocks, without block entities), or
+     * encode it if the cached one is out of date.
+     *
+     * @param stamp   the current network stamp of the chunk
+     * @param encoder the encoder used when the cached payload is out of date
+     * @return a retained duplicate of the cached payload
+     */
+    public ByteBuf getFull(long stamp, Supplier<ByteBuf> encoder) {
+        return full.get(stamp, encoder);
+    }
+
+    /**
+     * Get the cached biome only payload, or encode it if the cached one is out of date.
+     *
+     * @param stamp   the current network stamp of the chunk
+     * @param encoder the encoder used when the cached payload is out of date
+     * @return a retained duplicate of the cached payload
+     */
+    public ByteBuf getBiomeOnly(long stamp, Supplier<ByteBuf> encoder) {
+        return biomeOnly.get(stamp, encoder);
+    }
+
+    /**
+     * Get the cached blob of the biomes, or encode it if the cached one is out of date.
+     *
+     * @param stamp   the current stamp of the biomes
+     * @param encoder the encoder used when the cached blob is out of date
+     * @return the blob
+     */
+    public ChunkBlobStore.Blob getBiomeBlob(long stamp, Supplier<ByteBuf> encoder) {
+        return biomeBlob.get(stamp, encoder);
+    }
+
+    /**
+     * Get the cached blob of a section, or encode it if the cached one is out of date.
+     *
+     * @param sectionIndex the index of the section, starting from zero
+     * @param sectionCount the count of the sections in the chunk
+     * @param stamp        the current stamp of the section
+     * @param encoder      the encoder used when the cached blob is out of date
+     * @return the blob
+     */
+    public ChunkBlobStore.Blob getSectionBlob(int sectionIndex, int sectionCount, long stamp, Supplier<ByteBuf> encoder) {
+        var blobs = sectionBlobs;
+        if (blobs == null) {
+            synchronized (this) {
+                blobs = sectionBlobs;
+                if (blobs == null) {
+                    blobs = new BlobEntry[sectionCount];
+                    for (int i = 0; i < sectionCount; i++) {
+                        blobs[i] = new BlobEntry();
+                    }
+                    sectionBlobs = blobs;
+                }
+            }
+        }
+
+        return blobs[sectionIndex].get(stamp, encoder);
+    }
+
+    /**
+     * Release all the cached payloads. Should be called when the chunk is unloaded.
+     */
+    public void release() {
+        released = true;
+        full.release();
+        biomeOnly.release();
+        biomeBlob.release();
+        var blobs = sectionBlobs;
+        if (blobs != null) {
+            for (var blob : blobs) {
+                blob.release();
+            }
+        }
+    }
+
+    private final class Entry {
+        private long stamp = -1;
+        private ByteBuf buffer;
+
+        synchronized ByteBuf get(long stamp, Supplier<ByteBuf> encoder) {
+            if (buffer != null && this.stamp == stamp) {
+                HITS.increment();
+                return buffer.retainedDuplicate();
+            }
+
+            MISSES.increment();
+            release();
+            var encoded = encoder.get();
+            if (released || !encoded.isReadable()) {
+                // Either the chunk has been unloaded or we failed to encode
+                // the chunk, in both cases the buffer shouldn't be cached
+                return encoded;
+            }
+
+            this.buffer = encoded;
+            this.stamp = stamp;
+            return encoded.retainedDuplicate();
+        }
+
+        synchronized void release() {
+            if (buffer != null) {
+                buffer.release();
+                buffer = null;
+                stamp = -1;
+            }
+        }
+    }
+
+    private final class BlobEntry {
+        private long stamp = -1;
+        private ChunkBlobStore.Blob blob;
+
+        synchronized ChunkBlobStore.Blob get(long stamp, Supplier<ByteBuf> encoder) {
+            if (blob != null && this.stamp == stamp) {
+                BLOB_HITS.increment();
+                return blob;
+            }
+
+            BLOB_MISSES.increment();
+            var encoded = ChunkBlobStore.intern(encoder.get());
+            if (!released && encoded.data().length != 0) {
+                this.blob = encoded;
+                this.stamp = stamp;
+            }
+            return encoded;
+        }
+
+        synchronized void release() {
+            blob = null;
+            stamp = -1;
+        }
+    }
+}
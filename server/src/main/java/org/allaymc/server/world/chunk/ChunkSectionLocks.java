@@ -1,67 +1,60 @@
 package org.allaymc.server.world.chunk;
 
 import org.allaymc.api.world.data.DimensionInfo;
-
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.allaymc.server.AllayServer;
 
 /**
+ * ChunkSectionLocks holds a lock for each section in a chunk.
+ *
  * @author daoge_cmd
  */
-public final class ChunkSectionLocks {
-
-    private final int minSectionY;
-    private final ReadWriteLock[] locks;
+public interface ChunkSectionLocks {
 
-    public ChunkSectionLocks(DimensionInfo dimensionInfo) {
-        this(dimensionInfo.minSectionY(), dimensionInfo.chunkSectionCount());
+    /**
+     * Create the chunk section locks based on the lock type in server settings.
+     *
+     * @param dimensionInfo the dimension info of the chunk
+     * @return the created chunk section locks
+     */
+    static ChunkSectionLocks create(DimensionInfo dimensionInfo) {
+        return switch (AllayServer.getSettings().worldSettings().chunkSectionLockType()) {
+            case READ_WRITE -> new ReadWriteChunkSectionLocks(dimensionInfo);
+            case STAMPED -> new StampedChunkSectionLocks(dimensionInfo);
+        };
     }
 
-    public ChunkSectionLocks(int minSectionY, int sectionCount) {
-        this.minSectionY = minSectionY;
-        this.locks = new ReentrantReadWriteLock[sectionCount];
-        for (int i = 0; i < sectionCount; i++) {
-            locks[i] = new ReentrantReadWriteLock();
-        }
-    }
+    /**
+     * Try to start an optimistic read at the specified section. The stamp should be validated
+     * through {@link #validate(int, long)} after reading. Implementations that do not support
+     * optimistic read always return {@code 0}.
+     *
+     * @param sectionY the y coordinate of the section
+     * @return a stamp for later validation, or {@code 0} if the optimistic read is not available
+     */
+    long tryOptimisticReadAt(int sectionY);
 
-    public void lockReadLockAt(int sectionY) {
-        locks[sectionY - minSectionY].readLock().lock();
-    }
+    /**
+     * Check if no write happened at the specified section since the stamp was issued.
+     *
+     * @param sectionY the y coordinate of the section
+     * @param stamp    the stamp returned by {@link #tryOptimisticReadAt(int)}
+     * @return {@code true} if the data read since the stamp was issued is consistent
+     */
+    boolean validate(int sectionY, long stamp);
 
-    public void lockAllReadLocks() {
-        for (var lock : locks) {
-            lock.readLock().lock();
-        }
-    }
+    void lockReadLockAt(int sectionY);
 
-    public void unlockReadLockAt(int sectionY) {
-        locks[sectionY - minSectionY].readLock().unlock();
-    }
+    void lockAllReadLocks();
 
-    public void unlockAllReadLocks() {
-        for (var lock : locks) {
-            lock.readLock().unlock();
-        }
-    }
+    void unlockReadLockAt(int sectionY);
 
-    public void lockWriteLockAt(int sectionY) {
-        locks[sectionY - minSectionY].writeLock().lock();
-    }
+    void unlockAllReadLocks();
 
-    public void lockAllWriteLocks() {
-        for (var lock : locks) {
-            lock.writeLock().lock();
-        }
-    }
+    void lockWriteLockAt(int sectionY);
 
-    public void unlockWriteLockAt(int sectionY) {
-        locks[sectionY - minSectionY].writeLock().unlock();
-    }
+    void lockAllWriteLocks();
 
-    public void unlockAllWriteLocks() {
-        for (var lock : locks) {
-            lock.writeLock().unlock();
-        }
-    }
+    void unlockWriteLockAt(int sectionY);
+
+    void unlockAllWriteLocks();
 }
@@ -0,0 +1,87 @@
+package org.allaymc.server.world.chunk;
+
+import org.allaymc.api.world.data.DimensionInfo;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ChunkSectionLocks implementation backed by {@link ReentrantReadWriteLock}. Optimistic read is not supported.
+ *
+ * @author daoge_cmd
+ */
+public final class ReadWriteChunkSectionLocks implements ChunkSectionLocks {
+
+    private final int minSectionY;
+    private final ReadWriteLock[] locks;
+
+    public ReadWriteChunkSectionLocks(DimensionInfo dimensionInfo) {
+        this(dimensionInfo.minSectionY(), dimensionInfo.chunkSectionCount());
+    }
+
+    public ReadWriteChunkSectionLocks(int minSectionY, int sectionCount) {
+        this.minSectionY = minSectionY;
+        this.locks = new ReentrantReadWriteLock[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    @Override
+    public long tryOptimisticReadAt(int sectionY) {
+        return 0;
+    }
+
+    @Override
+    public boolean validate(int sectionY, long stamp) {
+        return false;
+    }
+
+    @Override
+    public void lockReadLockAt(int sectionY) {
+        locks[sectionY - minSectionY].readLock().lock();
+    }
+
+    @Override
+    public void lockAllReadLocks() {
+        for (var lock : locks) {
+            lock.readLock().lock();
+        }
+    }
+
+    @Override
+    public void unlockReadLockAt(int sectionY) {
+        locks[sectionY - minSectionY].readLock().unlock();
+    }
+
+    @Override
+    public void unlockAllReadLocks() {
+        for (var lock : locks) {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void lockWriteLockAt(int sectionY) {
+        locks[sectionY - minSectionY].writeLock().lock();
+    }
+
+    @Override
+    public void lockAllWriteLocks() {
+        for (var lock : locks) {
+            lock.writeLock().lock();
+        }
+    }
+
+    @Override
+    public void unlockWriteLockAt(int sectionY) {
+        locks[sectionY - minSectionY].writeLock().unlock();
+    }
+
+    @Override
+    public void unlockAllWriteLocks() {
+        for (var lock : locks) {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -6,21 +6,43 @@ import org.cloudburstmc.nbt.NbtMap;
 import org.joml.Vector3i;
 import org.joml.Vector3ic;
 
+import java.util.Comparator;
+
 /**
  * @author daoge_cmd
  */
 @Getter
 public final class ScheduledUpdateInfo {
 
+    /**
+     * Scheduled updates are executed in the order of time, then priority (lower first), and
+     * finally the order in which they were scheduled.
+     */
+    public static final Comparator<ScheduledUpdateInfo> EXECUTION_ORDER = Comparator
+            .comparingLong(ScheduledUpdateInfo::getTime)
+            .thenComparingInt(ScheduledUpdateInfo::getPriority)
+            .thenComparingLong(ScheduledUpdateInfo::getSequence);
+
     // The world pos of the block that the scheduled update is for
     private final Vector3ic pos;
     // The time that the scheduled update should be executed, it is calculated
     // by adding the delay to the current world tick
     private final long time;
+    // The priority of the scheduled update, updates with lower priority value
+    // will be executed first if they are scheduled at the same tick
+    private final int priority;
+    // Assigned by ScheduledUpdateQueue, used to keep the insertion order
+    // of scheduled updates with the same time and priority
+    long sequence;
 
     public ScheduledUpdateInfo(Vector3ic pos, long time) {
+        this(pos, time, 0);
+    }
+
+    public ScheduledUpdateInfo(Vector3ic pos, long time, int priority) {
         this.pos = pos;
         this.time = time;
+        this.priority = priority;
     }
 
     public static ScheduledUpdateInfo fromNBT(NbtMap nbt) {
@@ -41,4 +63,4 @@ public final class ScheduledUpdateInfo {
                 .putCompound("blockState", BlockTypes.AIR.getDefaultState().getBlockStateNBT())
                 .build();
     }
-}
\ No newline at end of file
+}
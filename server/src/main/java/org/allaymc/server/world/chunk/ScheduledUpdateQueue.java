@@ -0,0 +1,113 @@
+package org.allaymc.server.world.chunk;
+
+import org.allaymc.api.utils.hash.HashUtils;
+import org.jctools.maps.NonBlockingHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The scheduled updates of a chunk. Scheduled updates are indexed by their position for
+ * O(1) lookup, and kept in a min-heap ordered by {@link ScheduledUpdateInfo#EXECUTION_ORDER}
+ * so that polling the due updates only touches the updates that are actually due.
+ * <p>
+ * When a position is rescheduled, the old entry is left in the heap and skipped
+ * when it is polled, since it no longer matches the entry in the index.
+ *
+ * @author daoge_cmd
+ */
+public final class ScheduledUpdateQueue {
+
+    private final NonBlockingHashMap<Integer, ScheduledUpdateInfo> updates;
+    private final PriorityBlockingQueue<ScheduledUpdateInfo> queue;
+    private final AtomicLong sequence;
+    /**
+     * Increased every time a scheduled update is added or removed.
+     */
+    private final AtomicLong modificationCount;
+
+    public ScheduledUpdateQueue() {
+        this.updates = new NonBlockingHashMap<>();
+        this.queue = new PriorityBlockingQueue<>(11, ScheduledUpdateInfo.EXECUTION_ORDER);
+        this.sequence = new AtomicLong();
+        this.modificationCount = new AtomicLong();
+    }
+
+    private static int hashPos(ScheduledUpdateInfo info) {
+        var pos = info.getPos();
+        return HashUtils.hashChunkXYZ(pos.x() & 15, pos.y(), pos.z() & 15);
+    }
+
+    /**
+     * Add a scheduled update. The old scheduled update at the same position will be replaced.
+     *
+     * @param info the scheduled update to add
+     */
+    public void add(ScheduledUpdateInfo info) {
+        info.sequence = sequence.getAndIncrement();
+        updates.put(hashPos(info), info);
+        queue.offer(info);
+        modificationCount.incrementAndGet();
+    }
+
+    /**
+     * Check if there is a scheduled update at the specified position.
+     *
+     * @param key the position hash, see {@link HashUtils#hashChunkXYZ(int, int, int)}
+     * @return {@code true} if there is a scheduled update at the specified position
+     */
+    public boolean contains(int key) {
+        return updates.containsKey(key);
+    }
+
+    /**
+     * Remove and return all scheduled updates which are due at the specified tick, in execution order.
+     *
+     * @param currentTick the current tick
+     * @return the due scheduled updates
+     */
+    public List<ScheduledUpdateInfo> pollDue(long currentTick) {
+        var head = queue.peek();
+        if (head == null || head.getTime() > currentTick) {
+            return Collections.emptyList();
+        }
+
+        var due = new ArrayList<ScheduledUpdateInfo>();
+        while ((head = queue.peek()) != null && head.getTime() <= currentTick) {
+            var info = queue.poll();
+            // The entry may have been replaced by a newer scheduled update
+            if (info != null && updates.remove(hashPos(info), info)) {
+                due.add(info);
+            }
+        }
+        modificationCount.incrementAndGet();
+
+        return due;
+    }
+
+    /**
+     * @return all the pending scheduled updates
+     */
+    public Collection<ScheduledUpdateInfo> values() {
+        return Collections.unmodifiableCollection(updates.values());
+    }
+
+    /**
+     * @return a counter which is increased every time a scheduled update is added or removed
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    public int size() {
+        return updates.size();
+    }
+
+    public boolean isEmpty() {
+        return updates.isEmpty();
+    }
+}
@@ -0,0 +1,130 @@
+package org.allaymc.server.world.chunk;
+
+import org.allaymc.api.annotation.NotThreadSafe;
+import org.allaymc.api.block.type.BlockState;
+import org.allaymc.server.datastruct.palette.Palette;
+
+/**
+ * SectionRandomUpdateIndex marks which positions in a chunk section contain a block that
+ * supports random update, so that random updates can skip a section in O(1) and sample
+ * positions without looking up the palette.
+ * <p>
+ * The index is updated incrementally when a block is set through {@link AllayChunkSection},
+ * and is rebuilt lazily if the palette was changed in other ways (e.g. when the section is
+ * loaded from storage), which is detected through {@link Palette#getModificationCount()}.
+ * <p>
+ * The bits are only allocated while the section contains at least one block that supports
+ * random update, so sections of air or stone don't cost any memory for the index.
+ * <p>
+ * The index should only be accessed while holding the lock of the section: the write lock when
+ * setting a block, and at least the read lock when reading the index, since reading it may rebuild it.
+ *
+ * @author daoge_cmd
+ */
+@NotThreadSafe
+public final class SectionRandomUpdateIndex {
+
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+
+    private static final int WORD_COUNT = SECTION_SIZE / Long.SIZE;
+
+    // Null if no position in the section supports random update
+    private long[] bits;
+    private int count;
+    private boolean built;
+    // The modification count of the palette when this index was last synced with it
+    private int modificationCount;
+
+    private static boolean canRandomUpdate(BlockState blockState) {
+        return blockState.getBehavior().canRandomUpdate();
+    }
+
+    /**
+     * Check if this index is up to date with the given palette.
+     *
+     * @param palette the palette of the first block layer
+     * @return {@code true} if this index is up to date
+     */
+    public boolean isUpToDate(Palette<BlockState> palette) {
+        return built && modificationCount == palette.getModificationCount();
+    }
+
+    /**
+     * Update the flag of a position after the block at that position has been set. Should only
+     * be called if the index was up to date before the block was set.
+     *
+     * @param index      the index of the position, see {@link org.allaymc.api.utils.hash.HashUtils#hashChunkSectionXYZ(int, int, int)}
+     * @param blockState the new block state at the position
+     * @param palette    the palette of the first block layer
+     */
+    public void onBlockStateSet(int index, BlockState blockState, Palette<BlockState> palette) {
+        var mask = 1L << index;
+        var word = index >>> 6;
+        var old = get(index);
+        if (canRandomUpdate(blockState)) {
+            if (!old) {
+                if (bits == null) {
+                    bits = new long[WORD_COUNT];
+                }
+                bits[word] |= mask;
+                count++;
+            }
+        } else if (old) {
+            bits[word] &= ~mask;
+            if (--count == 0) {
+                bits = null;
+            }
+        }
+        modificationCount = palette.getModificationCount();
+    }
+
+    /**
+     * Get the count of the positions that support random update, the index will be rebuilt if it is out of date.
+     *
+     * @param palette the palette of the first block layer
+     * @return the count of the positions that support random update
+     */
+    public int getCount(Palette<BlockState> palette) {
+        if (!isUpToDate(palette)) {
+            rebuild(palette);
+        }
+
+        return count;
+    }
+
+    /**
+     * Check if the block at the specified position supports random update. {@link #getCount(Palette)}
+     * should be called before to make sure that the index is up to date.
+     *
+     * @param index the index of the position, see {@link org.allaymc.api.utils.hash.HashUtils#hashChunkSectionXYZ(int, int, int)}
+     * @return {@code true} if the block at the specified position supports random update
+     */
+    public boolean get(int index) {
+        var bits = this.bits;
+        return bits != null && (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void rebuild(Palette<BlockState> palette) {
+        var modificationCount = palette.getModificationCount();
+        // Fast path: no entry in the palette supports random update
+        if (palette.allEntriesMatch(blockState -> !canRandomUpdate(blockState))) {
+            this.bits = null;
+            this.count = 0;
+        } else {
+            // The bits are built in a new array, so that the old array seen by a reader is never half cleared
+            var bits = new long[WORD_COUNT];
+            var count = 0;
+            for (int index = 0; index < SECTION_SIZE; index++) {
+                if (canRandomUpdate(palette.get(index))) {
+                    bits[index >>> 6] |= 1L << index;
+                    count++;
+                }
+            }
+            this.bits = count != 0 ? bits : null;
+            this.count = count;
+        }
+
+        this.built = true;
+        this.modificationCount = modificationCount;
+    }
+}
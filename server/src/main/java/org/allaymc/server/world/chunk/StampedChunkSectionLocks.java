@@ -0,0 +1,246 @@
+package org.allaymc.server.world.chunk;
+
+import org.allaymc.api.world.data.DimensionInfo;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * ChunkSectionLocks implementation backed by {@link StampedLock}, which supports optimistic read.
+ * <p>
+ * {@link StampedLock} is not reentrant, and a new read lock blocks once a writer is waiting, so a
+ * thread that reads a section again while it is already reading it (e.g. a block behavior callback
+ * inside {@link AllayChunk#applyReadOperationInSection}) would deadlock with itself. To behave like
+ * {@link ReadWriteChunkSectionLocks}, the read and write locks held by each thread are tracked:
+ * <ul>
+ *     <li>Reading or writing a section again from the thread that holds its write lock won't acquire the lock again.</li>
+ *     <li>Reading a section again from a thread that holds its read lock won't acquire the lock again.</li>
+ *     <li>Upgrading a read lock to a write lock is refused with an {@link IllegalMonitorStateException}
+ *     instead of deadlocking, as well as unlocking a lock that is not held by the current thread.</li>
+ * </ul>
+ *
+ * @author daoge_cmd
+ */
+public final class StampedChunkSectionLocks implements ChunkSectionLocks {
+
+    private final int minSectionY;
+    private final StampedLock[] locks;
+    // The thread that holds the write lock of each section, only compared with the current
+    // thread, and it is always set and cleared by the owner thread itself
+    private final Thread[] writeOwners;
+    private final long[] writeStamps;
+    // How many times the owner thread has re-entered the write lock or read from the section
+    private final int[] reentrantCounts;
+
+    public StampedChunkSectionLocks(DimensionInfo dimensionInfo) {
+        this(dimensionInfo.minSectionY(), dimensionInfo.chunkSectionCount());
+    }
+
+    public StampedChunkSectionLocks(int minSectionY, int sectionCount) {
+        this.minSectionY = minSectionY;
+        this.locks = new StampedLock[sectionCount];
+        this.writeOwners = new Thread[sectionCount];
+        this.writeStamps = new long[sectionCount];
+        this.reentrantCounts = new int[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            locks[i] = new StampedLock();
+        }
+    }
+
+    @Override
+    public long tryOptimisticReadAt(int sectionY) {
+        return locks[sectionY - minSectionY].tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(int sectionY, long stamp) {
+        return locks[sectionY - minSectionY].validate(stamp);
+    }
+
+    @Override
+    public void lockReadLockAt(int sectionY) {
+        lockRead(sectionY - minSectionY);
+    }
+
+    @Override
+    public void lockAllReadLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            lockRead(i);
+        }
+    }
+
+    @Override
+    public void unlockReadLockAt(int sectionY) {
+        unlockRead(sectionY - minSectionY);
+    }
+
+    @Override
+    public void unlockAllReadLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            unlockRead(i);
+        }
+    }
+
+    @Override
+    public void lockWriteLockAt(int sectionY) {
+        lockWrite(sectionY - minSectionY);
+    }
+
+    @Override
+    public void lockAllWriteLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            lockWrite(i);
+        }
+    }
+
+    @Override
+    public void unlockWriteLockAt(int sectionY) {
+        unlockWrite(sectionY - minSectionY);
+    }
+
+    @Override
+    public void unlockAllWriteLocks() {
+        for (int i = 0; i < locks.length; i++) {
+            unlockWrite(i);
+        }
+    }
+
+    private boolean isWriteOwner(int index) {
+        return writeOwners[index] == Thread.currentThread();
+    }
+
+    private void lockRead(int index) {
+        if (isWriteOwner(index)) {
+            // The write lock is already held by the current thread
+            reentrantCounts[index]++;
+            return;
+        }
+
+        var lock = locks[index];
+        var holds = ReadHolds.CURRENT.get();
+        if (holds.reenter(lock)) {
+            // The read lock is already held by the current thread, acquiring it again
+            // could block behind a waiting writer which is waiting for us
+            return;
+        }
+
+        holds.add(lock, lock.readLock());
+    }
+
+    private void unlockRead(int index) {
+        if (isWriteOwner(index)) {
+            if (reentrantCounts[index] == 0) {
+                throw new IllegalMonitorStateException("The read lock is not held by the current thread");
+            }
+            reentrantCounts[index]--;
+            return;
+        }
+
+        var lock = locks[index];
+        var stamp = ReadHolds.CURRENT.get().release(lock);
+        if (stamp != 0) {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void lockWrite(int index) {
+        if (isWriteOwner(index)) {
+            reentrantCounts[index]++;
+            return;
+        }
+
+        if (ReadHolds.CURRENT.get().holds(locks[index])) {
+            throw new IllegalMonitorStateException("Cannot upgrade a read lock to a write lock");
+        }
+
+        writeStamps[index] = locks[index].writeLock();
+        writeOwners[index] = Thread.currentThread();
+    }
+
+    private void unlockWrite(int index) {
+        if (!isWriteOwner(index)) {
+            throw new IllegalMonitorStateException("The write lock is not held by the current thread");
+        }
+
+        if (reentrantCounts[index] > 0) {
+            reentrantCounts[index]--;
+            return;
+        }
+
+        writeOwners[index] = null;
+        locks[index].unlockWrite(writeStamps[index]);
+    }
+
+    /**
+     * The read locks held by a thread. A thread only holds a few read locks at the same time (at most
+     * the sections of a few chunks), so a linear scan is faster than a map here.
+     */
+    private static final class ReadHolds {
+        static final ThreadLocal<ReadHolds> CURRENT = ThreadLocal.withInitial(ReadHolds::new);
+
+        private StampedLock[] locks = new StampedLock[8];
+        private long[] stamps = new long[8];
+        private int[] counts = new int[8];
+        private int size;
+
+        boolean holds(StampedLock lock) {
+            return indexOf(lock) != -1;
+        }
+
+        boolean reenter(StampedLock lock) {
+            var index = indexOf(lock);
+            if (index == -1) {
+                return false;
+            }
+
+            counts[index]++;
+            return true;
+        }
+
+        void add(StampedLock lock, long stamp) {
+            if (size == locks.length) {
+                locks = Arrays.copyOf(locks, size * 2);
+                stamps = Arrays.copyOf(stamps, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+
+            locks[size] = lock;
+            stamps[size] = stamp;
+            counts[size] = 1;
+            size++;
+        }
+
+        /**
+         * @return the stamp which should be used to unlock the lock, or {@code 0} if the lock is still held
+         */
+        long release(StampedLock lock) {
+            var index = indexOf(lock);
+            if (index == -1) {
+                throw new IllegalMonitorStateException("The read lock is not held by the current thread");
+            }
+
+            if (--counts[index] > 0) {
+                return 0;
+            }
+
+            var stamp = stamps[index];
+            // Move the last hold to the released slot
+            size--;
+            locks[index] = locks[size];
+            stamps[index] = stamps[size];
+            counts[index] = counts[size];
+            locks[size] = null;
+            return stamp;
+        }
+
+        private int indexOf(StampedLock lock) {
+            // Search from the end since the latest acquired lock is usually released first
+            for (int i = size - 1; i >= 0; i--) {
+                if (locks[i] == lock) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package org.allaymc.server.world.light;
 
 import com.google.common.base.Preconditions;
-import io.netty.util.internal.PlatformDependent;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.allaymc.api.block.data.BlockFace;
 import org.allaymc.api.math.MathUtils;
 import org.allaymc.api.utils.hash.HashUtils;
@@ -15,7 +13,6 @@ import org.allaymc.api.world.data.Weather;
 import org.allaymc.api.world.light.LightEngine;
 import org.allaymc.server.AllayServer;
 import org.allaymc.server.datastruct.ChunkSectionNibbleArray;
-import org.allaymc.server.datastruct.collections.queue.BlockingQueueWrapper;
 import org.allaymc.server.world.chunk.AllayChunkSection;
 import org.allaymc.server.world.chunk.HeightMap;
 import org.jctools.maps.NonBlockingHashMapLong;
@@ -23,9 +20,12 @@ import org.jctools.maps.NonBlockingHashSet;
 import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
@@ -33,14 +33,17 @@ import java.util.function.Supplier;
  */
 public class AllayLightEngine implements LightEngine {
 
+    protected static final long FINISHED_UPDATE = 1L << 32;
+    protected static final long PENDING_UPDATE_MASK = FINISHED_UPDATE - 1;
+
     protected final DimensionInfo dimensionInfo;
     protected final String worldName;
     protected final AtomicBoolean isRunning;
     protected final Supplier<Integer> timeSupplier;
     protected final Supplier<Weather> weatherSupplier;
     protected final int maxUpdateCount;
-    protected final BlockingQueueWrapper<Runnable> chunkAndBlockUpdateQueue;
-    protected final BlockingQueueWrapper<Runnable> blockLightUpdateQueue;
+    protected final LightCalculationQueue chunkAndBlockUpdateQueue;
+    protected final LightCalculationQueue blockLightUpdateQueue;
     protected final Set<Long> chunks;
     /**
      * Stores the chunks that are loaded but haven't calculated the light yet, because one
@@ -49,8 +52,17 @@ public class AllayLightEngine implements LightEngine {
      * neighbor chunks are loaded.
      */
     protected final Set<Long> awaitingLightCalculationChunks;
-    protected final NonBlockingHashMapLong<ChunkSectionNibbleArray[]> lightDampening;
-    protected final NonBlockingHashMapLong<ChunkSectionNibbleArray[]> lightEmission;
+    /**
+     * The light update stamps of the chunks. The low 32 bits of a stamp are the count of the pending light updates
+     * started in the chunk, and the high 32 bits are the count of the finished ones. A light update only changes the
+     * light within 15 blocks from where it starts, so the light in a chunk is settled when there are no pending light
+     * updates started in the chunk and its neighbor chunks, no matter how busy the other chunks are.
+     */
+    protected final NonBlockingHashMapLong<AtomicLong> lightUpdateStamps;
+    /**
+     * The light emission and dampening of each section, which are derived from the block palettes of the section
+     */
+    protected final NonBlockingHashMapLong<ChunkSectionLightProperties[]> lightProperties;
     protected final NonBlockingHashMapLong<ChunkSectionNibbleArray[]> blockLight;
     protected final LightPropagator blockLightPropagator;
     /**
@@ -62,12 +74,16 @@ public class AllayLightEngine implements LightEngine {
      * Light Dampening&Emission - Chunk & Block Light Calculation Thread
      */
     protected final CachedLightDataAccessor lightDataAccessor;
+    /**
+     * The count of the light updates which are finished in all the calculating threads.
+     */
+    protected final AtomicLong finishedUpdateCount;
 
     /*
      * The following fields are not null only when the dimension has sky light
      */
 
-    protected BlockingQueueWrapper<Runnable> skyLightUpdateQueue;
+    protected LightCalculationQueue skyLightUpdateQueue;
     /**
      * Store the sky light sources' height in each chunk
      */
@@ -100,25 +116,27 @@ public class AllayLightEngine implements LightEngine {
         this.timeSupplier = timeSupplier;
         this.weatherSupplier = weatherSupplier;
         this.maxUpdateCount = maxUpdateCount;
-        this.chunkAndBlockUpdateQueue = BlockingQueueWrapper.wrap(PlatformDependent.newMpscQueue());
-        this.blockLightUpdateQueue = BlockingQueueWrapper.wrap(PlatformDependent.newMpscQueue());
+        var dimensionName = worldName + ":" + dimensionInfo.toString();
+        this.chunkAndBlockUpdateQueue = new LightCalculationQueue("Chunk & Block #" + dimensionName, this::runUpdate);
+        this.blockLightUpdateQueue = new LightCalculationQueue("Block Light #" + dimensionName, this::runUpdate);
         this.chunks = new NonBlockingHashSet<>();
-        // Will only be read and wrote in chunk & block update thread, so no need to use a thread-safe set
-        this.awaitingLightCalculationChunks = new LongOpenHashSet();
-        this.lightDampening = new NonBlockingHashMapLong<>();
-        this.lightEmission = new NonBlockingHashMapLong<>();
+        // Only wrote in chunk & block update thread, but it is also read when copying the light data in other threads
+        this.awaitingLightCalculationChunks = new NonBlockingHashSet<>();
+        this.lightUpdateStamps = new NonBlockingHashMapLong<>();
+        this.lightProperties = new NonBlockingHashMapLong<>();
         this.blockLight = new NonBlockingHashMapLong<>();
-        this.blockLightPropagator = new LightPropagator(new CachedLightDataAccessor(dimensionInfo, blockLight, lightDampening, lightEmission));
+        this.blockLightPropagator = new LightPropagator(new CachedLightDataAccessor(dimensionInfo, blockLight, lightProperties));
         if (dimensionInfo.hasSkyLight()) {
-            this.skyLightUpdateQueue = BlockingQueueWrapper.wrap(PlatformDependent.newMpscQueue());
+            this.skyLightUpdateQueue = new LightCalculationQueue("Sky Light #" + dimensionName, this::runUpdate);
             this.lightHeightMap = new NonBlockingHashMapLong<>();
             this.lightHeightMapAccessor = new CachedChunkMapAccessor<>(lightHeightMap);
             this.skyLightInBorder = new NonBlockingHashMapLong<>();
-            this.skyLightPropagator = new LightPropagator(new CachedLightDataAccessor(dimensionInfo, skyLightInBorder, lightDampening, lightEmission));
+            this.skyLightPropagator = new LightPropagator(new CachedLightDataAccessor(dimensionInfo, skyLightInBorder, lightProperties));
         }
         // Initialize lightDataAccessor after we initialized skylight related things
         // NOTICE: we only cache skyLightInBorder, block light is not much used in "Chunk & Block" thread
-        this.lightDataAccessor = new CachedLightDataAccessor(dimensionInfo, skyLightInBorder, lightDampening, lightEmission);
+        this.lightDataAccessor = new CachedLightDataAccessor(dimensionInfo, skyLightInBorder, lightProperties);
+        this.finishedUpdateCount = new AtomicLong();
     }
 
     @VisibleForTesting
@@ -160,79 +178,96 @@ public class AllayLightEngine implements LightEngine {
     }
 
     public void startTick() {
-        var dimensionName = worldName + ":" + dimensionInfo.toString();
-        startCalculatingThread("Light Calculating Thread (Chunk & Block) #" + dimensionName, chunkAndBlockUpdateQueue);
-        startCalculatingThread("Light Calculating Thread (Block Light) #" + dimensionName, blockLightUpdateQueue);
+        startTick(AllayServer.getInstance().getLightThreadPool());
+    }
+
+    /**
+     * Start calculating the light. The light update queues of this engine will be drained in the given executor.
+     *
+     * @param executor the executor, usually the light thread pool shared by all dimensions
+     */
+    public void startTick(Executor executor) {
+        chunkAndBlockUpdateQueue.start(executor);
+        blockLightUpdateQueue.start(executor);
         if (dimensionInfo.hasSkyLight()) {
-            startCalculatingThread("Light Calculating Thread (Sky Light) #" + dimensionName, skyLightUpdateQueue);
+            skyLightUpdateQueue.start(executor);
         }
     }
 
     public void shutdown() {
         this.isRunning.set(false);
+        chunkAndBlockUpdateQueue.stop();
+        blockLightUpdateQueue.stop();
+        if (dimensionInfo.hasSkyLight()) {
+            skyLightUpdateQueue.stop();
+        }
     }
 
-    protected void startCalculatingThread(String name, BlockingQueueWrapper<Runnable> queue) {
-        Thread.ofPlatform().name(name).start(() -> {
-            while (isRunning.get()) {
-                this.handleUpdateIn(queue);
-            }
-        });
-    }
-
-    protected void handleUpdateIn(BlockingQueueWrapper<Runnable> queue) {
-        Runnable runnable;
-        while ((runnable = queue.tryPoll(1, TimeUnit.SECONDS)) != null) {
+    protected void runUpdate(Runnable runnable) {
+        try {
             runnable.run();
+        } finally {
+            finishedUpdateCount.incrementAndGet();
         }
     }
 
-    protected void handleUpdateUninterruptibleIn(BlockingQueueWrapper<Runnable> queue) {
-        Runnable runnable;
-        while ((runnable = queue.pollNow()) != null) {
-            runnable.run();
+    /**
+     * Offer a light update to the given queue, and record it in the light update stamp of the chunk where it starts.
+     *
+     * @param queue  the queue to offer to
+     * @param chunkX the x coordinate of the chunk where the light update starts
+     * @param chunkZ the z coordinate of the chunk where the light update starts
+     * @param update the light update
+     */
+    protected void offer(LightCalculationQueue queue, int chunkX, int chunkZ, Runnable update) {
+        var hash = HashUtils.hashXZ(chunkX, chunkZ);
+        var stamp = lightUpdateStamps.get(hash);
+        if (stamp == null) {
+            var newStamp = new AtomicLong();
+            stamp = lightUpdateStamps.putIfAbsent(hash, newStamp);
+            if (stamp == null) {
+                stamp = newStamp;
+            }
         }
+
+        var finalStamp = stamp;
+        finalStamp.incrementAndGet();
+        queue.offer(() -> {
+            try {
+                update.run();
+            } finally {
+                // Decrease the pending count and increase the finished count
+                var value = finalStamp.addAndGet(FINISHED_UPDATE - 1);
+                if ((value & PENDING_UPDATE_MASK) == 0 && !chunks.contains(hash)) {
+                    // The chunk is unloaded, its stamp is no longer needed
+                    lightUpdateStamps.remove(hash, finalStamp);
+                }
+            }
+        });
     }
 
     @VisibleForTesting
     public void handleUpdateInAllQueues() {
-        handleUpdateUninterruptibleIn(chunkAndBlockUpdateQueue);
-        handleUpdateUninterruptibleIn(blockLightUpdateQueue);
+        chunkAndBlockUpdateQueue.drainNow();
+        blockLightUpdateQueue.drainNow();
         if (dimensionInfo.hasSkyLight()) {
-            handleUpdateUninterruptibleIn(skyLightUpdateQueue);
+            skyLightUpdateQueue.drainNow();
         }
     }
 
     protected void addChunk(UnsafeChunk chunk) {
-        var chunkLightDampening = createNibbleArrays();
-        var chunkLightEmission = createNibbleArrays();
+        var chunkLightProperties = createLightProperties(chunk);
         var chunkLightHeightMap = dimensionInfo.hasSkyLight() ? new HeightMap((short) dimensionInfo.minHeight()) : null;
-        for (int y = dimensionInfo.maxHeight(); y >= dimensionInfo.minHeight(); y--) {
-            var section = (AllayChunkSection) chunk.getSection(y >> 4);
+        if (dimensionInfo.hasSkyLight()) {
             for (int x = 0; x < 16; x++) {
                 for (int z = 0; z < 16; z++) {
-                    var blockStateData = section.getBlockState(x, y & 0xf, z, 0).getBlockStateData();
-                    var lightDampening = blockStateData.lightDampening();
-                    var lightEmission = blockStateData.lightEmission();
-
-                    if (lightDampening != 0) {
-                        chunkLightDampening[(y - dimensionInfo.minHeight()) >> 4].set(x, y & 0xf, z, lightDampening);
-                        boolean skyLightSourceNotFound = dimensionInfo.hasSkyLight() && chunkLightHeightMap.get(x, z) == dimensionInfo.minHeight();
-                        if (skyLightSourceNotFound) {
-                            chunkLightHeightMap.set(x, z, (short) (y + 1));
-                        }
-                    }
-
-                    if (lightEmission != 0) {
-                        chunkLightEmission[(y - dimensionInfo.minHeight()) >> 4].set(x, y & 0xf, z, lightEmission);
-                    }
+                    chunkLightHeightMap.set(x, z, (short) findLightHeight(chunkLightProperties, x, z));
                 }
             }
         }
 
         var hash = HashUtils.hashXZ(chunk.getX(), chunk.getZ());
-        lightDampening.put(hash, chunkLightDampening);
-        lightEmission.put(hash, chunkLightEmission);
+        lightProperties.put(hash, chunkLightProperties);
         blockLight.put(hash, createNibbleArrays());
         if (dimensionInfo.hasSkyLight()) {
             lightHeightMap.put(hash, chunkLightHeightMap);
@@ -241,10 +276,78 @@ public class AllayLightEngine implements LightEngine {
         chunks.add(hash);
     }
 
+    protected ChunkSectionLightProperties[] createLightProperties(UnsafeChunk chunk) {
+        var properties = new ChunkSectionLightProperties[dimensionInfo.chunkSectionCount()];
+        for (int i = 0; i < properties.length; i++) {
+            var section = (AllayChunkSection) chunk.getSection(i + (dimensionInfo.minHeight() >> 4));
+            properties[i] = ChunkSectionLightProperties.fromBlockPalette(section.blockLayers()[0]);
+        }
+        return properties;
+    }
+
+    /**
+     * Find the light height of a column, which is the y coordinate above the highest block that dampens light.
+     */
+    protected int findLightHeight(ChunkSectionLightProperties[] properties, int x, int z) {
+        for (int sectionIndex = properties.length - 1; sectionIndex >= 0; sectionIndex--) {
+            var sectionProperties = properties[sectionIndex];
+            if (sectionProperties.isTransparent()) {
+                continue;
+            }
+
+            for (int y = 15; y >= 0; y--) {
+                if (sectionProperties.getLightDampening(x, y, z) != 0) {
+                    return (sectionIndex << 4) + dimensionInfo.minHeight() + y + 1;
+                }
+            }
+        }
+        return dimensionInfo.minHeight();
+    }
+
+    protected void restoreChunk(UnsafeChunk chunk, ChunkLightData lightData) {
+        var hash = HashUtils.hashXZ(chunk.getX(), chunk.getZ());
+        lightProperties.put(hash, createLightProperties(chunk));
+        blockLight.put(hash, lightData.blockLight());
+        if (dimensionInfo.hasSkyLight()) {
+            lightHeightMap.put(hash, lightData.lightHeightMap());
+            skyLightInBorder.put(hash, lightData.skyLightInBorder());
+        }
+        chunks.add(hash);
+    }
+
+    /**
+     * Propagate the light at the border of a chunk to its neighbor chunk. This is needed when the light
+     * in one of the two chunks is restored instead of being calculated after both chunks are loaded.
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @param face   the direction of the neighbor chunk, should be a horizontal face
+     */
+    protected void propagateLightAcrossBorder(int chunkX, int chunkZ, BlockFace face) {
+        var offset = face.getOffset();
+        // Local x or z of the border, the other coordinate goes through 0 to 15
+        var borderX = offset.x() == 0 ? -1 : (offset.x() > 0 ? 15 : 0);
+        var borderZ = offset.z() == 0 ? -1 : (offset.z() > 0 ? 15 : 0);
+        offer(blockLightUpdateQueue, chunkX, chunkZ, () -> forEachBorderBlock(chunkX, chunkZ, borderX, borderZ, blockLightPropagator));
+        if (dimensionInfo.hasSkyLight()) {
+            offer(skyLightUpdateQueue, chunkX, chunkZ, () -> forEachBorderBlock(chunkX, chunkZ, borderX, borderZ, skyLightPropagator));
+        }
+    }
+
+    protected void forEachBorderBlock(int chunkX, int chunkZ, int borderX, int borderZ, LightPropagator propagator) {
+        for (int i = 0; i < 16; i++) {
+            var x = (chunkX << 4) + (borderX == -1 ? i : borderX);
+            var z = (chunkZ << 4) + (borderZ == -1 ? i : borderZ);
+            for (int y = dimensionInfo.minHeight(); y <= dimensionInfo.maxHeight(); y++) {
+                propagator.propagateFrom(x, y, z);
+            }
+        }
+    }
+
     protected void tryCalculateChunkLightAt(int chunkX, int chunkZ, Runnable afterCalculated) {
         if (this.getQueuedUpdateCount() > maxUpdateCount) {
             // We have too many light updates in the queue, so we need to wait for a while
-            chunkAndBlockUpdateQueue.offer(() -> {
+            offer(chunkAndBlockUpdateQueue, chunkX, chunkZ, () -> {
                 // Recheck is needed since there may be chunk load/unload
                 if (canCalculateLightInChunk(chunkX, chunkZ)) {
                     tryCalculateChunkLightAt(chunkX, chunkZ, afterCalculated);
@@ -304,7 +407,7 @@ public class AllayLightEngine implements LightEngine {
             }
 
             if (!ignoreCurrentBlockLight) {
-                blockLightUpdateQueue.offer(() -> blockLightPropagator.setLightAndPropagate(x, y, z, 0, lightEmissionValue));
+                offer(blockLightUpdateQueue, x >> 4, z >> 4, () -> blockLightPropagator.setLightAndPropagate(x, y, z, 0, lightEmissionValue));
             }
         }
     }
@@ -319,7 +422,7 @@ public class AllayLightEngine implements LightEngine {
         var maxNeighborLightHeight = getMaxNeighborLightHeight(x, z);
         for (int i = lightHeight; i <= maxNeighborLightHeight; i++) {
             final int skyLightSourceY = i;
-            skyLightUpdateQueue.offer(() -> skyLightPropagator.setLightAndPropagate(x, skyLightSourceY, z, 0, 15));
+            offer(skyLightUpdateQueue, x >> 4, z >> 4, () -> skyLightPropagator.setLightAndPropagate(x, skyLightSourceY, z, 0, 15));
         }
     }
 
@@ -402,90 +505,168 @@ public class AllayLightEngine implements LightEngine {
 
         // Reduce memory usage by packing light data into a single byte
         var packedLightData = packLightData(le, ld);
-        chunkAndBlockUpdateQueue.offer(() -> {
+        offer(chunkAndBlockUpdateQueue, x >> 4, z >> 4, () -> {
             var chunkHash = HashUtils.hashXZ(x >> 4, z >> 4);
             if (!chunks.contains(chunkHash)) {
                 // Chunk is not loaded
                 return;
             }
 
-            var lightDampening = unpackLightDampening(packedLightData);
-            var lightEmissionValue = unpackLightEmission(packedLightData);
-            int oldLightHeight = dimensionInfo.hasSkyLight() ? getLightHeight(x, z) : 0;
-            var oldBlockDampening = lightDataAccessor.getLightDampening(x, y, z);
-            var oldBlockEmission = lightDataAccessor.getLightEmission(x, y, z);
-
-            if (oldBlockDampening != lightDampening) {
-                setLightDampening(x, y, z, lightDampening);
-            }
-
-            if (oldBlockEmission != lightEmissionValue) {
-                lightDataAccessor.setLightEmission(x, y, z, lightEmissionValue);
-            }
+            applyBlockChange(x, y, z, unpackLightEmission(packedLightData), unpackLightDampening(packedLightData));
+        });
+    }
 
-            var chunkLightCalculated = !awaitingLightCalculationChunks.contains(chunkHash);
-            if (!chunkLightCalculated || (oldBlockDampening == lightDampening && oldBlockEmission == lightEmissionValue)) {
-                return;
-            }
+    /**
+     * Called when the blocks in a section are changed in bulk. Instead of queuing a light update for
+     * each changed block, the light properties of the whole section are derived from the block palette
+     * again in one light update, and only the blocks whose light properties are changed are recalculated.
+     *
+     * @param chunk    the chunk which contains the section
+     * @param sectionY the y coordinate of the section
+     */
+    public void onSectionChange(Chunk chunk, int sectionY) {
+        if (!isRunning.get()) {
+            return;
+        }
 
-            blockLightUpdateQueue.offer(() -> blockLightPropagator.setLightAndPropagate(x, y, z, getBlockLight(x, y, z), lightEmissionValue));
-            if (!dimensionInfo.hasSkyLight() || oldBlockDampening == lightDampening) {
-                // No change in light dampening, so no need to recalculate the sky light because
-                // sky light is only related to block dampening
+        offer(chunkAndBlockUpdateQueue, chunk.getX(), chunk.getZ(), () -> {
+            var chunkHash = HashUtils.hashXZ(chunk.getX(), chunk.getZ());
+            if (!chunks.contains(chunkHash)) {
                 return;
             }
 
-            var newLightHeight = getLightHeight(x, z);
-            if (newLightHeight == oldLightHeight) {
-                // No change to light height, only need to make sure the sky light can be re-propagated to the changed block's position
-                skyLightUpdateQueue.offer(() -> skyLightPropagator.setLightAndPropagate(x, y, z, lightDataAccessor.getLight(x, y, z), 0));
-            } else {
-                var min = Math.min(oldLightHeight, newLightHeight);
-                var max = Math.max(oldLightHeight, newLightHeight);
-
-                // Remove old skylight sources responsible for horizontal skylight propagation
-                for (int i = min; i <= max; i++) {
-                    var skyLightSourceY = i;
-                    skyLightUpdateQueue.offer(() -> {
-                        if (lightDataAccessor.getLight(x, skyLightSourceY, z) == 15) {
-                            skyLightPropagator.setLightAndPropagate(x, skyLightSourceY, z, 15, 0);
+            var newProperties = new ChunkSectionLightProperties[1];
+            chunk.applyReadOperationInSection(sectionY, section -> newProperties[0] = ChunkSectionLightProperties.fromBlockPalette(((AllayChunkSection) section).blockLayers()[0]));
+            var oldProperties = lightProperties.get(chunkHash)[sectionY - (dimensionInfo.minHeight() >> 4)];
+            var baseX = chunk.getX() << 4;
+            var baseY = sectionY << 4;
+            var baseZ = chunk.getZ() << 4;
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    // From top to bottom, so that the light height of each column is only raised once
+                    for (int y = 15; y >= 0; y--) {
+                        var lightEmission = newProperties[0].getLightEmission(x, y, z);
+                        var lightDampening = newProperties[0].getLightDampening(x, y, z);
+                        if (oldProperties.getLightEmission(x, y, z) != lightEmission || oldProperties.getLightDampening(x, y, z) != lightDampening) {
+                            applyBlockChange(baseX + x, baseY + y, baseZ + z, lightEmission, lightDampening);
                         }
-                    });
-                    for (var face : BlockFace.getHorizontalBlockFaces()) {
-                        var ox = x + face.getOffset().x();
-                        var oz = z + face.getOffset().z();
-                        skyLightUpdateQueue.offer(() -> {
-                            if (lightDataAccessor.getLight(ox, skyLightSourceY, oz) == 15) {
-                                skyLightPropagator.setLightAndPropagate(ox, skyLightSourceY, oz, 15, 0);
-                            }
-                        });
                     }
                 }
+            }
+        });
+    }
+
+    /**
+     * Apply the change of the light properties of a block. Should only be called in the chunk & block update queue.
+     */
+    protected void applyBlockChange(int x, int y, int z, int lightEmissionValue, int lightDampening) {
+        var chunkHash = HashUtils.hashXZ(x >> 4, z >> 4);
+        int oldLightHeight = dimensionInfo.hasSkyLight() ? getLightHeight(x, z) : 0;
+        var oldBlockDampening = lightDataAccessor.getLightDampening(x, y, z);
+        var oldBlockEmission = lightDataAccessor.getLightEmission(x, y, z);
+
+        if (oldBlockDampening != lightDampening) {
+            setLightDampening(x, y, z, lightDampening);
+        }
+
+        if (oldBlockEmission != lightEmissionValue) {
+            lightDataAccessor.setLightEmission(x, y, z, lightEmissionValue);
+        }
+
+        var chunkLightCalculated = !awaitingLightCalculationChunks.contains(chunkHash);
+        if (!chunkLightCalculated || (oldBlockDampening == lightDampening && oldBlockEmission == lightEmissionValue)) {
+            return;
+        }
+
+        offer(blockLightUpdateQueue, x >> 4, z >> 4, () -> blockLightPropagator.setLightAndPropagate(x, y, z, getBlockLight(x, y, z), lightEmissionValue));
+        if (!dimensionInfo.hasSkyLight() || oldBlockDampening == lightDampening) {
+            // No change in light dampening, so no need to recalculate the sky light because
+            // sky light is only related to block dampening
+            return;
+        }
 
-                // Recalculate skylight
-                calculateSkyLightAt(x, z);
+        var newLightHeight = getLightHeight(x, z);
+        if (newLightHeight == oldLightHeight) {
+            // No change to light height, only need to make sure the sky light can be re-propagated to the changed block's position
+            offer(skyLightUpdateQueue, x >> 4, z >> 4, () -> skyLightPropagator.setLightAndPropagate(x, y, z, lightDataAccessor.getLight(x, y, z), 0));
+        } else {
+            var min = Math.min(oldLightHeight, newLightHeight);
+            var max = Math.max(oldLightHeight, newLightHeight);
+
+            // Remove old skylight sources responsible for horizontal skylight propagation
+            for (int i = min; i <= max; i++) {
+                var skyLightSourceY = i;
+                offer(skyLightUpdateQueue, x >> 4, z >> 4, () -> {
+                    if (lightDataAccessor.getLight(x, skyLightSourceY, z) == 15) {
+                        skyLightPropagator.setLightAndPropagate(x, skyLightSourceY, z, 15, 0);
+                    }
+                });
                 for (var face : BlockFace.getHorizontalBlockFaces()) {
-                    var neighborX = x + face.getOffset().x();
-                    var neighborZ = z + face.getOffset().z();
-                    calculateSkyLightAt(neighborX, neighborZ);
+                    var ox = x + face.getOffset().x();
+                    var oz = z + face.getOffset().z();
+                    offer(skyLightUpdateQueue, ox >> 4, oz >> 4, () -> {
+                        if (lightDataAccessor.getLight(ox, skyLightSourceY, oz) == 15) {
+                            skyLightPropagator.setLightAndPropagate(ox, skyLightSourceY, oz, 15, 0);
+                        }
+                    });
                 }
             }
-        });
+
+            // Recalculate skylight
+            calculateSkyLightAt(x, z);
+            for (var face : BlockFace.getHorizontalBlockFaces()) {
+                var neighborX = x + face.getOffset().x();
+                var neighborZ = z + face.getOffset().z();
+                calculateSkyLightAt(neighborX, neighborZ);
+            }
+        }
     }
 
     public void onChunkLoad(Chunk chunk) {
+        onChunkLoad(chunk, null);
+    }
+
+    /**
+     * Called when a chunk is loaded.
+     *
+     * @param chunk     the loaded chunk
+     * @param lightData the saved light data of the chunk, or {@code null} if the light in the chunk should be calculated
+     */
+    public void onChunkLoad(Chunk chunk, ChunkLightData lightData) {
         if (!isRunning.get()) {
             return;
         }
 
-        chunkAndBlockUpdateQueue.offer(() -> {
-            chunk.applyOperation(this::addChunk, OperationType.READ, OperationType.NONE);
-
-            // Check if we can calculate the light in this chunk immediately
-            if (canCalculateLightInChunk(chunk.getX(), chunk.getZ())) {
-                tryCalculateChunkLightAt(chunk.getX(), chunk.getZ(), null);
+        offer(chunkAndBlockUpdateQueue, chunk.getX(), chunk.getZ(), () -> {
+            if (lightData != null) {
+                chunk.applyOperation(unsafeChunk -> restoreChunk(unsafeChunk, lightData), OperationType.READ, OperationType.NONE);
             } else {
-                awaitingLightCalculationChunks.add(HashUtils.hashXZ(chunk.getX(), chunk.getZ()));
+                chunk.applyOperation(this::addChunk, OperationType.READ, OperationType.NONE);
+
+                // Check if we can calculate the light in this chunk immediately
+                if (canCalculateLightInChunk(chunk.getX(), chunk.getZ())) {
+                    tryCalculateChunkLightAt(chunk.getX(), chunk.getZ(), null);
+                } else {
+                    awaitingLightCalculationChunks.add(HashUtils.hashXZ(chunk.getX(), chunk.getZ()));
+                }
+            }
+
+            // Chunks with restored light (the neighbor chunks that are not awaiting light calculation) won't
+            // calculate the light again, so their light should be propagated across the border manually
+            for (var face : BlockFace.getHorizontalBlockFaces()) {
+                var neighborX = chunk.getX() + face.getOffset().x();
+                var neighborZ = chunk.getZ() + face.getOffset().z();
+                var neighborChunkHash = HashUtils.hashXZ(neighborX, neighborZ);
+                if (!chunks.contains(neighborChunkHash)) {
+                    continue;
+                }
+
+                if (!awaitingLightCalculationChunks.contains(neighborChunkHash)) {
+                    propagateLightAcrossBorder(neighborX, neighborZ, face.opposite());
+                }
+                if (lightData != null) {
+                    propagateLightAcrossBorder(chunk.getX(), chunk.getZ(), face);
+                }
             }
 
             // Check if the neighbor chunks' light can be calculated since we have a
@@ -514,10 +695,9 @@ public class AllayLightEngine implements LightEngine {
             return;
         }
 
-        chunkAndBlockUpdateQueue.offer(() -> {
+        offer(chunkAndBlockUpdateQueue, chunk.getX(), chunk.getZ(), () -> {
             var hash = HashUtils.hashXZ(chunk.getX(), chunk.getZ());
-            lightDampening.remove(hash);
-            lightEmission.remove(hash);
+            lightProperties.remove(hash);
             blockLight.remove(hash);
             if (dimensionInfo.hasSkyLight()) {
                 lightHeightMap.remove(hash);
@@ -545,6 +725,123 @@ public class AllayLightEngine implements LightEngine {
         });
     }
 
+    /**
+     * Copy the light data of a chunk, so that it can be saved together with the chunk. This method can be
+     * called in any thread.
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @return the light data, or {@code null} if the chunk is not loaded, the light in the chunk hasn't been
+     * calculated, or there are light updates in the chunk or its neighbor chunks that haven't finished
+     */
+    public ChunkLightData copyChunkLightData(int chunkX, int chunkZ) {
+        var stamps = getSettledLightUpdateStamps(chunkX, chunkZ);
+        if (stamps == null) {
+            return null;
+        }
+
+        var hash = HashUtils.hashXZ(chunkX, chunkZ);
+        // The chunk is only added to or removed from awaitingLightCalculationChunks by the light
+        // updates started in the chunk or its neighbor chunks, and none of them is running now
+        if (!chunks.contains(hash) || awaitingLightCalculationChunks.contains(hash)) {
+            return null;
+        }
+
+        var lightData = new ChunkLightData(
+                copyNibbleArrays(blockLight.get(hash)),
+                dimensionInfo.hasSkyLight() ? copyNibbleArrays(skyLightInBorder.get(hash)) : null,
+                dimensionInfo.hasSkyLight() ? copyHeightMap(lightHeightMap.get(hash)) : null
+        );
+
+        // Drop the copy if any light update which may change the light in the chunk was run during copying
+        if (!Arrays.equals(stamps, getSettledLightUpdateStamps(chunkX, chunkZ)) ||
+            lightData.blockLight() == null ||
+            (dimensionInfo.hasSkyLight() && (lightData.skyLightInBorder() == null || lightData.lightHeightMap() == null))) {
+            return null;
+        }
+        return lightData;
+    }
+
+    /**
+     * Get the light update stamps of a chunk and its neighbor chunks.
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @return the stamps, or {@code null} if there are pending light updates which may change the light in the chunk
+     */
+    protected long[] getSettledLightUpdateStamps(int chunkX, int chunkZ) {
+        var stamps = new long[9];
+        var index = 0;
+        for (int i = -1; i <= 1; i++) {
+            for (int j = -1; j <= 1; j++) {
+                var stamp = lightUpdateStamps.get(HashUtils.hashXZ(chunkX + i, chunkZ + j));
+                var value = stamp != null ? stamp.get() : 0;
+                if ((value & PENDING_UPDATE_MASK) != 0) {
+                    return null;
+                }
+                stamps[index++] = value;
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * @return the count of the light updates that have been run
+     */
+    public long getFinishedUpdateCount() {
+        return finishedUpdateCount.get();
+    }
+
+    /**
+     * Get the average time the light update queues of this engine wait for the light thread pool.
+     *
+     * @return the average latency (unit: ns)
+     */
+    public long getAverageUpdateLatency() {
+        var queues = getCalculationQueues();
+        long totalLatency = 0, batchCount = 0;
+        for (var queue : queues) {
+            totalLatency += queue.getAverageLatency() * queue.getBatchCount();
+            batchCount += queue.getBatchCount();
+        }
+        return batchCount == 0 ? 0 : totalLatency / batchCount;
+    }
+
+    /**
+     * Get the max time the light update queues of this engine wait for the light thread pool.
+     *
+     * @return the max latency (unit: ns)
+     */
+    public long getMaxUpdateLatency() {
+        long maxLatency = 0;
+        for (var queue : getCalculationQueues()) {
+            maxLatency = Math.max(maxLatency, queue.getMaxLatency());
+        }
+        return maxLatency;
+    }
+
+    protected List<LightCalculationQueue> getCalculationQueues() {
+        return dimensionInfo.hasSkyLight() ?
+                List.of(chunkAndBlockUpdateQueue, blockLightUpdateQueue, skyLightUpdateQueue) :
+                List.of(chunkAndBlockUpdateQueue, blockLightUpdateQueue);
+    }
+
+    protected static ChunkSectionNibbleArray[] copyNibbleArrays(ChunkSectionNibbleArray[] arrays) {
+        if (arrays == null) {
+            return null;
+        }
+
+        var copy = new ChunkSectionNibbleArray[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            copy[i] = arrays[i].copy();
+        }
+        return copy;
+    }
+
+    protected static HeightMap copyHeightMap(HeightMap heightMap) {
+        return heightMap != null ? new HeightMap(heightMap.getHeights().clone()) : null;
+    }
+
     protected void resetBlockAndSkyLightInChunk(long hash) {
         for (var array : blockLight.get(hash)) {
             array.reset();
@@ -587,7 +884,7 @@ public class AllayLightEngine implements LightEngine {
     }
 
     protected void setLightDampening(int x, int y, int z, int value) {
-        setWithoutChunkCheck(lightDampening, x, y, z, value);
+        lightProperties.get(HashUtils.hashXZ(x >> 4, z >> 4))[(y - dimensionInfo.minHeight()) >> 4].setLightDampening(x & 15, y & 15, z & 15, value);
         if (!dimensionInfo.hasSkyLight()) {
             return;
         }
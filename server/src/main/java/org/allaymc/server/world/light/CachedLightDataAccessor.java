@@ -10,17 +10,14 @@ import org.jctools.maps.NonBlockingHashMapLong;
 public class CachedLightDataAccessor implements LightDataAccessor {
     protected final DimensionInfo dimensionInfo;
     protected final CachedChunkMapAccessor<ChunkSectionNibbleArray[]> cachedLight;
-    protected final CachedChunkMapAccessor<ChunkSectionNibbleArray[]> cachedLightDampening;
-    protected final CachedChunkMapAccessor<ChunkSectionNibbleArray[]> cachedLightEmission;
+    protected final CachedChunkMapAccessor<ChunkSectionLightProperties[]> cachedLightProperties;
 
     public CachedLightDataAccessor(DimensionInfo dimensionInfo,
                                    NonBlockingHashMapLong<ChunkSectionNibbleArray[]> light,
-                                   NonBlockingHashMapLong<ChunkSectionNibbleArray[]> lightDampening,
-                                   NonBlockingHashMapLong<ChunkSectionNibbleArray[]> lightEmission) {
+                                   NonBlockingHashMapLong<ChunkSectionLightProperties[]> lightProperties) {
         this.dimensionInfo = dimensionInfo;
         this.cachedLight = new CachedChunkMapAccessor<>(light);
-        this.cachedLightDampening = new CachedChunkMapAccessor<>(lightDampening);
-        this.cachedLightEmission = new CachedChunkMapAccessor<>(lightEmission);
+        this.cachedLightProperties = new CachedChunkMapAccessor<>(lightProperties);
     }
 
     @Override
@@ -35,17 +32,17 @@ public class CachedLightDataAccessor implements LightDataAccessor {
 
     @Override
     public int getLightDampening(int x, int y, int z) {
-        return cachedLightDampening.get(x, z)[(y - dimensionInfo.minHeight()) >> 4].get(x & 15, y & 15, z & 15);
+        return cachedLightProperties.get(x, z)[(y - dimensionInfo.minHeight()) >> 4].getLightDampening(x & 15, y & 15, z & 15);
     }
 
     @Override
     public int getLightEmission(int x, int y, int z) {
-        return cachedLightEmission.get(x, z)[(y - dimensionInfo.minHeight()) >> 4].get(x & 15, y & 15, z & 15);
+        return cachedLightProperties.get(x, z)[(y - dimensionInfo.minHeight()) >> 4].getLightEmission(x & 15, y & 15, z & 15);
     }
 
     @Override
     public void setLightEmission(int x, int y, int z, int value) {
-        cachedLightEmission.get(x, z)[(y - dimensionInfo.minHeight()) >> 4].set(x & 15, y & 15, z & 15, value);
+        cachedLightProperties.get(x, z)[(y - dimensionInfo.minHeight()) >> 4].setLightEmission(x & 15, y & 15, z & 15, value);
     }
 
     @Override
@@ -0,0 +1,64 @@
+package org.allaymc.server.world.light;
+
+import io.netty.buffer.ByteBuf;
+import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.server.datastruct.ChunkSectionNibbleArray;
+import org.allaymc.server.world.chunk.HeightMap;
+
+/**
+ * ChunkLightData is a copy of the light data of a chunk in {@link AllayLightEngine}. It is saved
+ * together with the chunk, so that the light in the chunk doesn't need to be recalculated when the
+ * chunk is loaded again. The light dampening and emission are not included since they are derived
+ * from the block palettes of the chunk.
+ *
+ * @param blockLight       the block light of each section
+ * @param skyLightInBorder the sky light in border of each section, {@code null} if the dimension doesn't have sky light
+ * @param lightHeightMap   the light height map, {@code null} if the dimension doesn't have sky light
+ * @author daoge_cmd
+ */
+public record ChunkLightData(
+        ChunkSectionNibbleArray[] blockLight,
+        ChunkSectionNibbleArray[] skyLightInBorder,
+        HeightMap lightHeightMap
+) {
+    public static ChunkLightData readFrom(ByteBuf buffer, DimensionInfo dimensionInfo) {
+        var sectionCount = dimensionInfo.chunkSectionCount();
+        var blockLight = readNibbleArrays(buffer, sectionCount);
+        if (!dimensionInfo.hasSkyLight()) {
+            return new ChunkLightData(blockLight, null, null);
+        }
+
+        var skyLightInBorder = readNibbleArrays(buffer, sectionCount);
+        var heights = new short[256];
+        for (int i = 0; i < heights.length; i++) {
+            heights[i] = buffer.readShortLE();
+        }
+        return new ChunkLightData(blockLight, skyLightInBorder, new HeightMap(heights));
+    }
+
+    private static ChunkSectionNibbleArray[] readNibbleArrays(ByteBuf buffer, int sectionCount) {
+        var arrays = new ChunkSectionNibbleArray[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            arrays[i] = ChunkSectionNibbleArray.readFrom(buffer);
+        }
+        return arrays;
+    }
+
+    private static void writeNibbleArrays(ByteBuf buffer, ChunkSectionNibbleArray[] arrays) {
+        for (var array : arrays) {
+            array.writeTo(buffer);
+        }
+    }
+
+    public void writeTo(ByteBuf buffer) {
+        writeNibbleArrays(buffer, blockLight);
+        if (skyLightInBorder == null) {
+            return;
+        }
+
+        writeNibbleArrays(buffer, skyLightInBorder);
+        for (var height : lightHeightMap.getHeights()) {
+            buffer.writeShortLE(height);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.allaymc.server.world.light;
+
+import org.allaymc.api.block.type.BlockState;
+import org.allaymc.server.datastruct.bitarray.BitArray;
+import org.allaymc.server.datastruct.bitarray.BitArrayVersion;
+import org.allaymc.server.datastruct.palette.Palette;
+import org.jetbrains.annotations.Range;
+
+/**
+ * ChunkSectionLightProperties stores the light emission and light dampening of each block in a chunk
+ * section. Instead of two nibble arrays, the properties are stored as a palette of the packed light
+ * properties (light emission in the lower 4 bits and light dampening in the higher 4 bits), which is
+ * derived from the block palette of the section. Most sections only contain a few distinct light
+ * properties, so only a few bits (or no bit for uniform sections) are needed for each block.
+ * <p>
+ * The properties should only be written by one thread, while they can be read by any thread.
+ * The positions are indexed in the same order as the block palette, see
+ * {@link org.allaymc.api.utils.hash.HashUtils#hashChunkSectionXYZ(int, int, int)}.
+ *
+ * @author daoge_cmd
+ */
+public final class ChunkSectionLightProperties {
+
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+
+    /**
+     * The palette and the indices are replaced together when resizing, so that
+     * the readers will never see a new index with an old palette.
+     */
+    private volatile Storage storage;
+    private int paletteSize;
+
+    private ChunkSectionLightProperties(Storage storage, int paletteSize) {
+        this.storage = storage;
+        this.paletteSize = paletteSize;
+    }
+
+    /**
+     * Create uniform light properties.
+     *
+     * @param lightEmission  the light emission of all the blocks
+     * @param lightDampening the light dampening of all the blocks
+     * @return the light properties
+     */
+    public static ChunkSectionLightProperties uniform(@Range(from = 0, to = 15) int lightEmission, @Range(from = 0, to = 15) int lightDampening) {
+        return new ChunkSectionLightProperties(new Storage(new byte[]{pack(lightEmission, lightDampening)}, BitArrayVersion.V0.createArray(SECTION_SIZE)), 1);
+    }
+
+    /**
+     * Derive the light properties from a block palette. The light properties are calculated once per
+     * palette entry instead of once per block.
+     *
+     * @param blocks the block palette
+     * @return the light properties
+     */
+    public static ChunkSectionLightProperties fromBlockPalette(Palette<BlockState> blocks) {
+        var entryCount = blocks.getEntryCount();
+        var remapping = new int[entryCount];
+        var palette = new byte[Math.min(entryCount, 256)];
+        var paletteSize = 0;
+        for (int i = 0; i < entryCount; i++) {
+            var data = blocks.getEntry(i).getBlockStateData();
+            var packed = pack(data.lightEmission(), data.lightDampening());
+            var index = indexOf(palette, paletteSize, packed);
+            if (index == -1) {
+                index = paletteSize++;
+                palette[index] = packed;
+            }
+            remapping[i] = index;
+        }
+
+        if (paletteSize == 1 || blocks.oneEntryOnly()) {
+            return uniform(unpackLightEmission(palette[remapping[0]]), unpackLightDampening(palette[remapping[0]]));
+        }
+
+        var version = BitArrayVersion.getMinimalVersion(paletteSize - 1);
+        var indices = version.createArray(SECTION_SIZE);
+        for (int i = 0; i < SECTION_SIZE; i++) {
+            indices.set(i, remapping[blocks.getPaletteIndex(i)]);
+        }
+        var storagePalette = new byte[version.maxEntryIndex + 1];
+        System.arraycopy(palette, 0, storagePalette, 0, paletteSize);
+        return new ChunkSectionLightProperties(new Storage(storagePalette, indices), paletteSize);
+    }
+
+    private static byte pack(int lightEmission, int lightDampening) {
+        return (byte) ((lightEmission & 0x0F) | ((lightDampening & 0x0F) << 4));
+    }
+
+    private static int unpackLightEmission(byte packed) {
+        return packed & 0x0F;
+    }
+
+    private static int unpackLightDampening(byte packed) {
+        return (packed >> 4) & 0x0F;
+    }
+
+    private static int indexOf(byte[] palette, int paletteSize, byte packed) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == packed) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (x << 8) | (z << 4) | y;
+    }
+
+    public int getLightEmission(@Range(from = 0, to = 15) int x, @Range(from = 0, to = 15) int y, @Range(from = 0, to = 15) int z) {
+        return unpackLightEmission(getPacked(index(x, y, z)));
+    }
+
+    public int getLightDampening(@Range(from = 0, to = 15) int x, @Range(from = 0, to = 15) int y, @Range(from = 0, to = 15) int z) {
+        return unpackLightDampening(getPacked(index(x, y, z)));
+    }
+
+    public void setLightEmission(@Range(from = 0, to = 15) int x, @Range(from = 0, to = 15) int y, @Range(from = 0, to = 15) int z, @Range(from = 0, to = 15) int value) {
+        var index = index(x, y, z);
+        setPacked(index, pack(value, unpackLightDampening(getPacked(index))));
+    }
+
+    public void setLightDampening(@Range(from = 0, to = 15) int x, @Range(from = 0, to = 15) int y, @Range(from = 0, to = 15) int z, @Range(from = 0, to = 15) int value) {
+        var index = index(x, y, z);
+        setPacked(index, pack(unpackLightEmission(getPacked(index)), value));
+    }
+
+    /**
+     * Check if no block in this section dampens light, which means this section can be skipped
+     * when looking for the sky light sources.
+     *
+     * @return {@code true} if the light dampening of all the blocks is 0
+     */
+    public boolean isTransparent() {
+        var current = this.storage;
+        for (int i = 0; i < paletteSize; i++) {
+            if (unpackLightDampening(current.palette[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the count of the distinct light properties, some of which may be unused
+     */
+    public int getPaletteSize() {
+        return paletteSize;
+    }
+
+    private byte getPacked(int index) {
+        var current = this.storage;
+        return current.palette[current.indices.get(index)];
+    }
+
+    private void setPacked(int index, byte packed) {
+        var current = this.storage;
+        var paletteIndex = indexOf(current.palette, paletteSize, packed);
+        if (paletteIndex == -1) {
+            paletteIndex = paletteSize;
+            var version = current.indices.version();
+            if (paletteIndex > version.maxEntryIndex) {
+                current = resize(current, version.next);
+            }
+            // The new entry is written before any index points to it
+            current.palette[paletteIndex] = packed;
+            paletteSize++;
+        }
+        current.indices.set(index, paletteIndex);
+    }
+
+    private Storage resize(Storage current, BitArrayVersion version) {
+        var indices = version.createArray(SECTION_SIZE);
+        for (int i = 0; i < SECTION_SIZE; i++) {
+            indices.set(i, current.indices.get(i));
+        }
+        var palette = new byte[version.maxEntryIndex + 1];
+        System.arraycopy(current.palette, 0, palette, 0, paletteSize);
+        var resized = new Storage(palette, indices);
+        this.storage = resized;
+        return resized;
+    }
+
+    private record Storage(byte[] palette, BitArray indices) {}
+}
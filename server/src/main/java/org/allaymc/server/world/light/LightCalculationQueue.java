@@ -0,0 +1,162 @@
+package org.allaymc.server.world.light;
+
+import io.netty.util.internal.PlatformDependent;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * LightCalculationQueue is a queue of light updates which are run one by one in the order they are
+ * offered. Instead of owning a thread, the queue is drained by the shared light thread pool: when
+ * updates are offered to an idle queue, a drain task is submitted to the pool, and the drain task
+ * resubmits itself after running a batch of updates, so that the queues of all dimensions take
+ * turns to use the pool.
+ * <p>
+ * Only one drain task of a queue exists at a time, so the updates in a queue never run concurrently.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+public final class LightCalculationQueue {
+
+    /**
+     * The max count of updates run by a drain task before it gives the pool to the other queues.
+     */
+    private static final int MAX_UPDATES_PER_BATCH = 1024;
+
+    @Getter
+    private final String name;
+    private final Consumer<Runnable> updateRunner;
+    private final Queue<Runnable> queue;
+    private final AtomicBoolean scheduled;
+    private volatile Executor executor;
+    private volatile long scheduleTime;
+
+    /*
+     * The following fields are only written in the drain task
+     */
+
+    @Getter
+    private volatile long batchCount;
+    private volatile long totalLatency;
+    @Getter
+    private volatile long maxLatency;
+
+    /**
+     * @param name         the name of the queue
+     * @param updateRunner the runner used to run each update
+     */
+    public LightCalculationQueue(String name, Consumer<Runnable> updateRunner) {
+        this.name = name;
+        this.updateRunner = updateRunner;
+        this.queue = PlatformDependent.newMpscQueue();
+        this.scheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Start draining this queue in the given executor.
+     *
+     * @param executor the executor, usually the shared light thread pool
+     */
+    public void start(Executor executor) {
+        this.executor = executor;
+        if (!queue.isEmpty()) {
+            trySchedule();
+        }
+    }
+
+    /**
+     * Stop draining this queue. The updates that are not run yet will be left in the queue.
+     */
+    public void stop() {
+        this.executor = null;
+    }
+
+    public void offer(Runnable update) {
+        queue.offer(update);
+        trySchedule();
+    }
+
+    /**
+     * Run all the updates in this queue in the current thread. Should only be used when
+     * the queue is not started.
+     */
+    public void drainNow() {
+        Runnable update;
+        while ((update = queue.poll()) != null) {
+            updateRunner.accept(update);
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Get the average time between a drain task is submitted and it starts to run, which
+     * grows when the light thread pool can't keep up with the light updates.
+     *
+     * @return the average latency (unit: ns)
+     */
+    public long getAverageLatency() {
+        var count = batchCount;
+        return count == 0 ? 0 : totalLatency / count;
+    }
+
+    private void trySchedule() {
+        var currentExecutor = this.executor;
+        if (currentExecutor != null && scheduled.compareAndSet(false, true)) {
+            submit(currentExecutor);
+        }
+    }
+
+    private void submit(Executor currentExecutor) {
+        scheduleTime = System.nanoTime();
+        try {
+            currentExecutor.execute(this::drain);
+        } catch (Exception e) {
+            // The pool is shut down
+            scheduled.set(false);
+            log.debug("Failed to submit light calculation queue {}", name, e);
+        }
+    }
+
+    private void drain() {
+        var latency = System.nanoTime() - scheduleTime;
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        batchCount++;
+
+        Runnable update;
+        int count = 0;
+        while (count < MAX_UPDATES_PER_BATCH && (update = queue.poll()) != null) {
+            try {
+                updateRunner.accept(update);
+            } catch (Throwable t) {
+                log.error("Error while running light update in {}", name, t);
+            }
+            count++;
+        }
+
+        var currentExecutor = this.executor;
+        if (currentExecutor == null) {
+            scheduled.set(false);
+            return;
+        }
+        if (!queue.isEmpty()) {
+            // Keep the scheduled flag and let the other queues run first
+            submit(currentExecutor);
+            return;
+        }
+
+        scheduled.set(false);
+        // Updates may be offered after the last poll but before the flag is cleared
+        if (!queue.isEmpty()) {
+            trySchedule();
+        }
+    }
+}
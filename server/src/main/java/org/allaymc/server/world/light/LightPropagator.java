@@ -42,6 +42,21 @@ public class LightPropagator {
         }
     }
 
+    /**
+     * Propagate the current light at the given position to its neighbors, without changing the light at the position.
+     */
+    public void propagateFrom(int x, int y, int z) {
+        try {
+            var lightValue = lightDataAccessor.getLight(x, y, z);
+            if (lightValue > 1) {
+                lightIncreaseQueue.add(x, y, z, lightValue);
+                propagateIncrease();
+            }
+        } catch (NullPointerException ignored) {
+            // The chunks we touched are unloaded, see setLightAndPropagate()
+        }
+    }
+
     protected void propagateIncrease() {
         while (!lightIncreaseQueue.isEmpty()) {
             lightIncreaseQueue.poll(this.entry);
@@ -1,16 +1,17 @@
 package org.allaymc.server.world.manager;
 
 import io.netty.util.internal.PlatformDependent;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.block.data.BlockFace;
 import org.allaymc.api.block.dto.Block;
 import org.allaymc.api.block.interfaces.BlockLiquidBehavior;
+import org.allaymc.api.block.type.BlockState;
 import org.allaymc.api.eventbus.event.block.BlockNeighborUpdateEvent;
 import org.allaymc.api.math.position.Position3i;
 import org.allaymc.api.world.Dimension;
 import org.allaymc.api.world.gamerule.GameRule;
 import org.allaymc.api.world.manager.BlockUpdateManager;
+import org.allaymc.server.world.chunk.AllayChunkSection;
 import org.joml.Vector3ic;
 
 import java.util.Queue;
@@ -19,31 +20,40 @@ import java.util.Queue;
  * @author daoge_cmd
  */
 @Slf4j
-@RequiredArgsConstructor
 public class AllayBlockUpdateManager implements BlockUpdateManager {
     public static final int MAX_NEIGHBOR_UPDATE_PER_TICK = 65535;
 
     protected final Dimension dimension;
-    protected final Queue<NeighborUpdate> neighborUpdates = PlatformDependent.newMpscQueue();
+    protected final NeighborUpdateQueue neighborUpdates;
+    /**
+     * The neighbor updates which can't be packed into {@link #neighborUpdates}, should be rare.
+     */
+    protected final Queue<NeighborUpdate> irregularNeighborUpdates;
+
+    public AllayBlockUpdateManager(Dimension dimension) {
+        this.dimension = dimension;
+        this.neighborUpdates = new NeighborUpdateQueue(dimension.getDimensionInfo());
+        this.irregularNeighborUpdates = PlatformDependent.newMpscQueue();
+    }
 
     public void tick() {
         tickNeighborUpdates();
     }
 
     @Override
-    public void scheduleBlockUpdateInDelay(Vector3ic pos, long delay) {
-        scheduleBlockUpdate(pos, dimension.getWorld().getTick() + delay);
+    public void scheduleBlockUpdateInDelay(Vector3ic pos, long delay, int priority) {
+        scheduleBlockUpdate(pos, dimension.getWorld().getTick() + delay, priority);
     }
 
     @Override
-    public void scheduleBlockUpdate(Vector3ic pos, long time) {
+    public void scheduleBlockUpdate(Vector3ic pos, long time, int priority) {
         var chunk = dimension.getChunkManager().getChunkByDimensionPos(pos.x(), pos.z());
         if (chunk == null) {
             log.warn("Failed to schedule block update at {} because chunk is not loaded", pos);
             return;
         }
 
-        chunk.addScheduledUpdate(pos.x() & 15, pos.y(), pos.z() & 15, time);
+        chunk.addScheduledUpdate(pos.x() & 15, pos.y(), pos.z() & 15, time, priority);
     }
 
     @Override
@@ -63,54 +73,165 @@ public class AllayBlockUpdateManager implements BlockUpdateManager {
 
     @Override
     public void neighborBlockUpdate(Vector3ic pos, Vector3ic changedNeighbour, BlockFace blockFace) {
-        neighborUpdates.add(new NeighborUpdate(pos, changedNeighbour, blockFace));
+        var offset = blockFace.getOffset();
+        if (changedNeighbour.x() == pos.x() + offset.x() &&
+            changedNeighbour.y() == pos.y() + offset.y() &&
+            changedNeighbour.z() == pos.z() + offset.z() &&
+            NeighborUpdateQueue.canPack(dimension.getDimensionInfo(), pos.x(), pos.y(), pos.z())) {
+            neighborUpdates.offer(pos.x(), pos.y(), pos.z(), blockFace);
+            return;
+        }
+
+        // The neighbor pos can't be derived from the face, or the pos is out of the packable range
+        irregularNeighborUpdates.add(new NeighborUpdate(pos, changedNeighbour, blockFace));
     }
 
     protected void tickNeighborUpdates() {
-        int count = 0;
         // There may be new neighbor updates being added into the queue during the
         // loop, however these updates should be processed in the next tick.
-        int initialNeighborUpdateCount = neighborUpdates.size();
-        while (!neighborUpdates.isEmpty() && count < initialNeighborUpdateCount && count < MAX_NEIGHBOR_UPDATE_PER_TICK) {
-            var update = neighborUpdates.poll();
-            var blockFace = update.blockFace();
+        var keys = neighborUpdates.poll(MAX_NEIGHBOR_UPDATE_PER_TICK);
+        int start = 0;
+        while (start < keys.length) {
+            var end = findSectionEnd(keys, start);
+            processNeighborUpdatesInSection(keys, start, end);
+            start = end;
+        }
+
+        int count = keys.length;
+        int initialNeighborUpdateCount = irregularNeighborUpdates.size();
+        int irregularCount = 0;
+        while (!irregularNeighborUpdates.isEmpty() && irregularCount < initialNeighborUpdateCount && count < MAX_NEIGHBOR_UPDATE_PER_TICK) {
+            var update = irregularNeighborUpdates.poll();
             var pos = update.pos();
             var neighborPos = update.neighborPos();
+            processNeighborUpdate(
+                    pos.x(), pos.y(), pos.z(), update.blockFace(), neighborPos,
+                    dimension.getBlockState(pos), dimension.getBlockState(pos, 1), dimension.getBlockState(neighborPos)
+            );
+            irregularCount++;
+            count++;
+        }
+    }
+
+    /**
+     * Find the end of the run of updates which are in the same chunk section as the update at {@code start}.
+     * Updates are only grouped when they are adjacent in the queue, so the order of the updates is kept.
+     */
+    protected int findSectionEnd(long[] keys, int start) {
+        var sectionX = NeighborUpdateQueue.unpackX(keys[start]) >> 4;
+        var sectionY = neighborUpdates.unpackY(keys[start]) >> 4;
+        var sectionZ = NeighborUpdateQueue.unpackZ(keys[start]) >> 4;
+        int end = start + 1;
+        while (end < keys.length &&
+               NeighborUpdateQueue.unpackX(keys[end]) >> 4 == sectionX &&
+               neighborUpdates.unpackY(keys[end]) >> 4 == sectionY &&
+               NeighborUpdateQueue.unpackZ(keys[end]) >> 4 == sectionZ) {
+            end++;
+        }
+        return end;
+    }
+
+    protected void processNeighborUpdatesInSection(long[] keys, int start, int end) {
+        var count = end - start;
+        var layer0 = new BlockState[count];
+        var layer1 = new BlockState[count];
+        // The neighbor block states in the same section, null if the neighbor block is in another section
+        var neighbors = new BlockState[count];
+        var modificationCounts = new int[2];
+        var sectionHolder = new AllayChunkSection[1];
+
+        var firstX = NeighborUpdateQueue.unpackX(keys[start]);
+        var firstY = neighborUpdates.unpackY(keys[start]);
+        var firstZ = NeighborUpdateQueue.unpackZ(keys[start]);
+        var chunk = dimension.getChunkManager().getChunkByDimensionPos(firstX, firstZ);
+        if (chunk != null && firstY <= dimension.getDimensionInfo().maxHeight()) {
+            // Read all the block states in the section with one lock
+            chunk.applyReadOperationInSection(firstY >> 4, section -> {
+                for (int i = 0; i < count; i++) {
+                    var key = keys[start + i];
+                    var x = NeighborUpdateQueue.unpackX(key);
+                    var y = neighborUpdates.unpackY(key);
+                    var z = NeighborUpdateQueue.unpackZ(key);
+                    var offset = NeighborUpdateQueue.unpackFace(key).getOffset();
+                    layer0[i] = section.getBlockState(x & 15, y & 15, z & 15, 0);
+                    layer1[i] = section.getBlockState(x & 15, y & 15, z & 15, 1);
+                    var neighborX = x + offset.x();
+                    var neighborY = y + offset.y();
+                    var neighborZ = z + offset.z();
+                    neighbors[i] = neighborX >> 4 == x >> 4 && neighborY >> 4 == y >> 4 && neighborZ >> 4 == z >> 4 ?
+                            section.getBlockState(neighborX & 15, neighborY & 15, neighborZ & 15, 0) : null;
+                }
+                var allaySection = (AllayChunkSection) section;
+                sectionHolder[0] = allaySection;
+                modificationCounts[0] = allaySection.blockLayers()[0].getModificationCount();
+                modificationCounts[1] = allaySection.blockLayers()[1].getModificationCount();
+            });
+        }
 
-            var layer0 = dimension.getBlockState(pos);
-            var layer1 = dimension.getBlockState(pos, 1);
+        for (int i = 0; i < count; i++) {
+            var key = keys[start + i];
+            var x = NeighborUpdateQueue.unpackX(key);
+            var y = neighborUpdates.unpackY(key);
+            var z = NeighborUpdateQueue.unpackZ(key);
+            var blockFace = NeighborUpdateQueue.unpackFace(key);
+            var neighborPos = blockFace.offsetPos(x, y, z);
+
+            var section = sectionHolder[0];
+            // The block states read before are outdated if the section is changed by the previous updates
+            var upToDate = section != null &&
+                           section.blockLayers()[0].getModificationCount() == modificationCounts[0] &&
+                           section.blockLayers()[1].getModificationCount() == modificationCounts[1];
+            var blockState0 = upToDate ? layer0[i] : dimension.getBlockState(x, y, z);
+            var blockState1 = upToDate ? layer1[i] : dimension.getBlockState(x, y, z, 1);
+            var neighborBlockState = upToDate && neighbors[i] != null ? neighbors[i] : dimension.getBlockState(neighborPos);
+            processNeighborUpdate(x, y, z, blockFace, neighborPos, blockState0, blockState1, neighborBlockState);
+        }
+    }
+
+    protected void processNeighborUpdate(int x, int y, int z, BlockFace blockFace, Vector3ic neighborPos,
+                                         BlockState layer0, BlockState layer1, BlockState neighborBlockState) {
+        var block0 = new Block(layer0, new Position3i(x, y, z, dimension), 0);
+        var neighborBlock0 = new Block(neighborBlockState, new Position3i(neighborPos, dimension), 0);
+
+        if (!callNeighborUpdateEvent(block0, neighborBlock0, blockFace)) {
+            return;
+        }
 
-            var block0 = new Block(layer0, new Position3i(pos, dimension), 0);
-            var neighborBlock0 = new Block(dimension.getBlockState(neighborPos), new Position3i(neighborPos, dimension), 0);
+        layer0.getBehavior().onNeighborUpdate(
+                block0,
+                neighborBlock0,
+                blockFace
+        );
 
-            if (!callNeighborUpdateEvent(block0, neighborBlock0, blockFace)) {
+        // Only update second layer block if it's a liquid block for better performance,
+        // because only liquid blocks need to be updated in the second layer.
+        if (layer1.getBehavior() instanceof BlockLiquidBehavior) {
+            var block1 = new Block(layer1, new Position3i(x, y, z, dimension), 1);
+
+            if (!callNeighborUpdateEvent(block1, neighborBlock0, blockFace)) {
                 return;
             }
 
-            layer0.getBehavior().onNeighborUpdate(
-                    block0,
+            layer1.getBehavior().onNeighborUpdate(
+                    block1,
                     neighborBlock0,
                     blockFace
             );
+        }
+    }
 
-            // Only update second layer block if it's a liquid block for better performance,
-            // because only liquid blocks need to be updated in the second layer.
-            if (layer1.getBehavior() instanceof BlockLiquidBehavior) {
-                var block1 = new Block(layer1, new Position3i(pos, dimension), 1);
-
-                if (!callNeighborUpdateEvent(block1, neighborBlock0, blockFace)) {
-                    return;
-                }
-
-                layer1.getBehavior().onNeighborUpdate(
-                        block1,
-                        neighborBlock0,
-                        blockFace
-                );
-            }
+    /**
+     * @return the count of the neighbor updates waiting to be processed
+     */
+    public int getQueuedNeighborUpdateCount() {
+        return neighborUpdates.size() + irregularNeighborUpdates.size();
+    }
 
-            count++;
-        }
+    /**
+     * @return the count of the neighbor updates dropped because the same update was already queued
+     */
+    public long getCoalescedNeighborUpdateCount() {
+        return neighborUpdates.getCoalescedUpdateCount();
     }
 
     protected boolean callNeighborUpdateEvent(Block block, Block neighborBlock, BlockFace blockFace) {
@@ -1,5 +1,8 @@
 package org.allaymc.server.world.manager;
 
+import io.netty.util.internal.PlatformDependent;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +24,7 @@ import org.jetbrains.annotations.UnmodifiableView;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -42,6 +46,38 @@ public final class AllayChunkManager implements ChunkManager {
     private final WorldStorage worldStorage;
     private final Map<Long, ChunkHolder> chunkHolders;
     private final Map<ChunkLoader, ChunkLoaderHolder> chunkLoaders;
+    private final ChunkPreGenerator preGenerator;
+    private final int autoSaveCycle;
+    /**
+     * Chunk hashes grouped by their auto save slot, so that only the chunks in the current slot are visited
+     * during each tick. Chunks are added when their holders are created, and removed lazily once unloaded.
+     */
+    private final LongOpenHashSet[] autoSaveBuckets;
+    /**
+     * Chunks whose holders have been created but haven't been added to {@link #autoSaveBuckets} yet. Chunk
+     * holders can be created in other threads, while the buckets are only accessed in the ticking thread.
+     */
+    private final Queue<Long> newAutoSaveChunks;
+    /**
+     * Chunks that are due to be auto saved but haven't been checked yet because of the per-tick budget.
+     */
+    private final LongArrayFIFOQueue autoSaveQueue;
+    private final LongOpenHashSet autoSaveQueuedChunks;
+    /**
+     * The count of chunks that were auto saved during the last tick.
+     */
+    @Getter
+    private int lastTickAutoSavedChunkCount;
+    /**
+     * The total count of chunks that were auto saved.
+     */
+    @Getter
+    private long autoSavedChunkCount;
+    /**
+     * The total count of chunks that were skipped during auto saving because they haven't been changed.
+     */
+    @Getter
+    private long autoSaveSkippedChunkCount;
 
     public AllayChunkManager(Dimension dimension, WorldGenerator worldGenerator, WorldStorage worldStorage) {
         this.dimension = dimension;
@@ -49,9 +85,16 @@ public final class AllayChunkManager implements ChunkManager {
         this.worldStorage = worldStorage;
         this.chunkHolders = new NonBlockingHashMapLong<>();
         this.chunkLoaders = new Object2ObjectOpenHashMap<>();
+        this.preGenerator = new ChunkPreGenerator(this);
+        this.autoSaveCycle = Math.max(AllayServer.getSettings().storageSettings().chunkAutoSaveCycle(), 1);
+        this.autoSaveBuckets = new LongOpenHashSet[this.autoSaveCycle];
+        this.newAutoSaveChunks = PlatformDependent.newMpscQueue();
+        this.autoSaveQueue = new LongArrayFIFOQueue();
+        this.autoSaveQueuedChunks = new LongOpenHashSet();
     }
 
     public void shutdown() {
+        preGenerator.shutdown();
         tickAndWait(unloadAllChunks());
     }
 
@@ -70,8 +113,10 @@ public final class AllayChunkManager implements ChunkManager {
 
     public void tick(long currentTick) {
         tickChunkLoaders();
+        preGenerator.tick();
         tickChunkHolders();
         tickChunks(currentTick);
+        tickAutoSave(currentTick);
     }
 
     private void tickChunkLoaders() {
@@ -97,13 +142,88 @@ public final class AllayChunkManager implements ChunkManager {
 
             try {
                 chunk.applyOperation(unsafeChunk -> ((AllayUnsafeChunk) unsafeChunk).tick(currentTick, dimension), OperationType.WRITE, OperationType.WRITE);
-                ((AllayUnsafeChunk) chunk.toUnsafeChunk()).checkAutoSave(worldStorage);
             } catch (Throwable t) {
                 log.error("Error while ticking chunk({}, {})!", chunk.getX(), chunk.getZ(), t);
             }
         });
     }
 
+    /**
+     * Each loaded chunk is checked once per auto save cycle, at a tick determined by its position
+     * instead of the time it was loaded. So chunks loaded at the same time (e.g. spawn area) are spread
+     * evenly over the cycle, and only the chunks that have been changed are actually saved.
+     */
+    private void tickAutoSave(long currentTick) {
+        Long newChunkHash;
+        while ((newChunkHash = newAutoSaveChunks.poll()) != null) {
+            var slot = getAutoSaveSlot(newChunkHash, autoSaveCycle);
+            if (autoSaveBuckets[slot] == null) {
+                autoSaveBuckets[slot] = new LongOpenHashSet();
+            }
+            autoSaveBuckets[slot].add(newChunkHash.longValue());
+        }
+
+        var slot = (int) (currentTick % autoSaveCycle);
+        var bucket = autoSaveBuckets[slot];
+        if (bucket != null) {
+            var iterator = bucket.iterator();
+            while (iterator.hasNext()) {
+                var chunkHash = iterator.nextLong();
+                var chunkHolder = chunkHolders.get(chunkHash);
+                if (chunkHolder == null) {
+                    // The chunk has been unloaded
+                    iterator.remove();
+                    continue;
+                }
+
+                if (chunkHolder.isValidFullChunk() && autoSaveQueuedChunks.add(chunkHash)) {
+                    autoSaveQueue.enqueue(chunkHash);
+                }
+            }
+
+            if (bucket.isEmpty()) {
+                autoSaveBuckets[slot] = null;
+            }
+        }
+
+        var savedCount = 0;
+        var maxSavedCount = AllayServer.getSettings().storageSettings().chunkAutoSaveMaxChunksPerTick();
+        while (savedCount < maxSavedCount && !autoSaveQueue.isEmpty()) {
+            var chunkHash = autoSaveQueue.dequeueLong();
+            autoSaveQueuedChunks.remove(chunkHash);
+            var chunk = getChunk(chunkHash);
+            if (chunk == null) {
+                // The chunk has been unloaded, and it is saved during unloading
+                continue;
+            }
+
+            try {
+                if (((AllayUnsafeChunk) chunk.toUnsafeChunk()).saveIfDirty(worldStorage)) {
+                    savedCount++;
+                } else {
+                    autoSaveSkippedChunkCount++;
+                }
+            } catch (Throwable t) {
+                log.error("Error while auto saving chunk({}, {})!", chunk.getX(), chunk.getZ(), t);
+            }
+        }
+
+        lastTickAutoSavedChunkCount = savedCount;
+        autoSavedChunkCount += savedCount;
+    }
+
+    private static int getAutoSaveSlot(long chunkHash, int cycle) {
+        // Mix the bits so that nearby chunks are spread over the cycle
+        return (int) (((chunkHash * 0x9E3779B97F4A7C15L) >>> 32) % cycle);
+    }
+
+    /**
+     * @return the count of chunks that are due to be auto saved but are deferred because of the per-tick budget
+     */
+    public int getAutoSaveQueueSize() {
+        return autoSaveQueue.size();
+    }
+
     private boolean shouldTickChunk(Chunk chunk) {
         var cx = chunk.getX();
         var cz = chunk.getZ();
@@ -119,6 +239,21 @@ public final class AllayChunkManager implements ChunkManager {
         return shouldTick;
     }
 
+    @Override
+    public boolean startPreGeneration(int centerX, int centerZ, int radius) {
+        return preGenerator.start(centerX, centerZ, radius);
+    }
+
+    @Override
+    public boolean stopPreGeneration() {
+        return preGenerator.stop();
+    }
+
+    @Override
+    public PreGenerationProgress getPreGenerationProgress() {
+        return preGenerator.getProgress();
+    }
+
     @Override
     public void removeUnusedChunksImmediately() {
         this.chunkHolders.values().forEach(chunkHolder -> {
@@ -129,7 +264,10 @@ public final class AllayChunkManager implements ChunkManager {
     }
 
     public ChunkHolder getOrCreateChunkHolder(int x, int z) {
-        return this.chunkHolders.computeIfAbsent(HashUtils.hashXZ(x, z), $ -> new ChunkHolder(this, x, z, worldStorage.readChunk(x, z, dimension.getDimensionInfo())));
+        return this.chunkHolders.computeIfAbsent(HashUtils.hashXZ(x, z), hash -> {
+            newAutoSaveChunks.offer(hash);
+            return new ChunkHolder(this, x, z, worldStorage.readChunk(x, z, dimension.getDimensionInfo()));
+        });
     }
 
     public ChunkHolder getChunkHolder(int x, int z) {
@@ -1,6 +1,7 @@
 package org.allaymc.server.world.manager;
 
 import io.netty.util.internal.PlatformDependent;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.entity.Entity;
@@ -17,6 +18,8 @@ import org.allaymc.api.world.storage.WorldStorage;
 import org.allaymc.server.AllayServer;
 import org.allaymc.server.entity.component.EntityBaseComponentImpl;
 import org.allaymc.server.entity.impl.EntityImpl;
+import org.allaymc.server.timings.Timing;
+import org.allaymc.server.world.AllayDimension;
 import org.allaymc.server.world.physics.AllayEntityPhysicsEngine;
 import org.jetbrains.annotations.UnmodifiableView;
 
@@ -37,6 +40,15 @@ public class AllayEntityManager implements EntityManager {
     protected final AllayEntityPhysicsEngine physicsService;
     protected final Queue<Runnable> queue;
     protected final Long2ObjectOpenHashMap<Entity> entities;
+    // Entities grouped by the hash of the chunk they are in, which is maintained on add/remove
+    // and when an entity moves across chunk borders. Used to find entities in a chunk quickly
+    protected final Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<Entity>> entitiesByChunk;
+    // The chunk hash under which each entity (by runtime id) is stored in entitiesByChunk
+    protected final Long2LongOpenHashMap entityChunkHashes;
+    // Entities which moved across chunk borders. Entities can be moved in parallel (e.g. by the physics
+    // engine), so the chunk index above is only updated in the ticking thread when draining this queue
+    protected final Queue<Entity> chunkChangeQueue;
+    protected final Timing entityTickTiming, physicsTiming;
     protected long autoSaveTimer = 0;
 
     public AllayEntityManager(Dimension dimension, WorldStorage worldStorage) {
@@ -45,6 +57,16 @@ public class AllayEntityManager implements EntityManager {
         this.physicsService = new AllayEntityPhysicsEngine(dimension);
         this.queue = PlatformDependent.newMpscQueue();
         this.entities = new Long2ObjectOpenHashMap<>();
+        this.entitiesByChunk = new Long2ObjectOpenHashMap<>();
+        this.entityChunkHashes = new Long2LongOpenHashMap();
+        this.chunkChangeQueue = PlatformDependent.newMpscQueue();
+        this.entityTickTiming = ((AllayDimension) dimension).createTiming("entity tick");
+        this.physicsTiming = ((AllayDimension) dimension).createTiming("physics");
+    }
+
+    protected static long chunkHashOf(Entity entity) {
+        var loc = entity.getLocation();
+        return HashUtils.hashXZ((int) loc.x() >> 4, (int) loc.z() >> 4);
     }
 
     public void tick(long currentTick) {
@@ -52,8 +74,16 @@ public class AllayEntityManager implements EntityManager {
         // removed this tick instead of remaining loading until the next tick.
         checkAutoSave();
         processQueue();
+
+        var start = this.entityTickTiming.start();
         tickEntities(currentTick);
+        this.entityTickTiming.stop(start);
+        processChunkChanges();
+
+        start = this.physicsTiming.start();
         this.physicsService.tick();
+        this.physicsTiming.stop(start);
+        processChunkChanges();
     }
 
     public void shutdown() {
@@ -78,18 +108,14 @@ public class AllayEntityManager implements EntityManager {
         // Run the check in ticking thread
         this.queue.offer(() -> {
             // Check if there is no entity in this chunk, and if so, remove the old saved entities in this chunk
-            for (var entry : entities.long2ObjectEntrySet()) {
-                var entity = entry.getValue();
-                if (!entity.willBeSaved()) {
-                    // Discard entities that will not be saved
-                    continue;
-                }
-
-                var loc = entity.getLocation();
-                if (chunkX == (int) loc.x() >> 4 && chunkZ == (int) loc.z() >> 4) {
-                    // There are still entities in this chunk, so we don't remove the old saved entities
-                    // since the old saved entities will be overwritten by the new entities.
-                    return;
+            var entitiesInChunk = entitiesByChunk.get(HashUtils.hashXZ(chunkX, chunkZ));
+            if (entitiesInChunk != null) {
+                for (var entity : entitiesInChunk.values()) {
+                    if (entity.willBeSaved()) {
+                        // There are still entities in this chunk, so we don't remove the old saved entities
+                        // since the old saved entities will be overwritten by the new entities.
+                        return;
+                    }
                 }
             }
 
@@ -107,6 +133,7 @@ public class AllayEntityManager implements EntityManager {
         while (!queue.isEmpty()) {
             queue.poll().run();
         }
+        processChunkChanges();
     }
 
     protected void tickEntities(long currentTick) {
@@ -188,6 +215,7 @@ public class AllayEntityManager implements EntityManager {
         }
 
         physicsService.addEntity(entity);
+        indexEntity(entity, chunkHashOf(entity));
         var chunk = entity.getCurrentChunk();
         if (chunk != null) {
             chunk.getChunkLoaders().forEach(loader -> {
@@ -213,12 +241,65 @@ public class AllayEntityManager implements EntityManager {
         new EntityDespawnEvent(entity).call();
 
         entities.remove(entity.getRuntimeId());
+        unindexEntity(entity);
         physicsService.removeEntity(entity);
         entity.despawnFromAll();
 
         ((EntityBaseComponentImpl) ((EntityImpl) entity).getBaseComponent()).setState(EntityState.DESPAWNED);
     }
 
+    /**
+     * Called when an entity in this manager moved from a chunk to another chunk. This method is thread-safe,
+     * the chunk index will be updated in the ticking thread later.
+     *
+     * @param entity the entity which moved
+     */
+    public void onEntityChangeChunk(Entity entity) {
+        chunkChangeQueue.offer(entity);
+    }
+
+    /**
+     * Update the chunk index of the entities which moved across chunk borders. Should only be called in the ticking thread.
+     */
+    protected void processChunkChanges() {
+        Entity entity;
+        while ((entity = chunkChangeQueue.poll()) != null) {
+            if (!entityChunkHashes.containsKey(entity.getRuntimeId())) {
+                // The entity is not added to this manager yet or has been removed
+                continue;
+            }
+
+            var newChunkHash = chunkHashOf(entity);
+            if (entityChunkHashes.get(entity.getRuntimeId()) == newChunkHash) {
+                continue;
+            }
+
+            unindexEntity(entity);
+            indexEntity(entity, newChunkHash);
+        }
+    }
+
+    protected void indexEntity(Entity entity, long chunkHash) {
+        entityChunkHashes.put(entity.getRuntimeId(), chunkHash);
+        entitiesByChunk.computeIfAbsent(chunkHash, $ -> new Long2ObjectOpenHashMap<>()).put(entity.getRuntimeId(), entity);
+    }
+
+    protected void unindexEntity(Entity entity) {
+        var runtimeId = entity.getRuntimeId();
+        if (!entityChunkHashes.containsKey(runtimeId)) {
+            return;
+        }
+
+        var chunkHash = entityChunkHashes.remove(runtimeId);
+        var entitiesInChunk = entitiesByChunk.get(chunkHash);
+        if (entitiesInChunk != null) {
+            entitiesInChunk.remove(runtimeId);
+            if (entitiesInChunk.isEmpty()) {
+                entitiesByChunk.remove(chunkHash);
+            }
+        }
+    }
+
     @Override
     public Entity getEntity(long runtimeId) {
         return entities.get(runtimeId);
@@ -236,11 +317,41 @@ public class AllayEntityManager implements EntityManager {
 
     @Override
     public void forEachEntitiesInChunkImmediately(int chunkX, int chunkZ, Consumer<Entity> consumer) {
-        for (var entry : entities.long2ObjectEntrySet()) {
-            var entity = entry.getValue();
-            var loc = entity.getLocation();
-            if (chunkX == (int) loc.x() >> 4 && chunkZ == (int) loc.z() >> 4) {
-                consumer.accept(entity);
+        var entitiesInChunk = entitiesByChunk.get(HashUtils.hashXZ(chunkX, chunkZ));
+        if (entitiesInChunk == null) {
+            return;
+        }
+
+        // Copy the entities first, since the consumer may move or remove entities
+        for (var entity : entitiesInChunk.values().toArray(Entity[]::new)) {
+            consumer.accept(entity);
+        }
+    }
+
+    @Override
+    public int getEntityCountInChunk(int chunkX, int chunkZ) {
+        var entitiesInChunk = entitiesByChunk.get(HashUtils.hashXZ(chunkX, chunkZ));
+        return entitiesInChunk != null ? entitiesInChunk.size() : 0;
+    }
+
+    @Override
+    public void forEachEntitiesInRadiusImmediately(double x, double y, double z, double radius, Consumer<Entity> consumer) {
+        var radiusSquared = radius * radius;
+        var minChunkX = (int) (x - radius) >> 4;
+        var maxChunkX = (int) (x + radius) >> 4;
+        var minChunkZ = (int) (z - radius) >> 4;
+        var maxChunkZ = (int) (z + radius) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                forEachEntitiesInChunkImmediately(chunkX, chunkZ, entity -> {
+                    var loc = entity.getLocation();
+                    var dx = loc.x() - x;
+                    var dy = loc.y() - y;
+                    var dz = loc.z() - z;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                        consumer.accept(entity);
+                    }
+                });
             }
         }
     }
@@ -0,0 +1,328 @@
+package org.allaymc.server.world.manager;
+
+import io.netty.util.internal.PlatformDependent;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.annotation.NotThreadSafe;
+import org.allaymc.api.server.Server;
+import org.allaymc.api.utils.hash.HashUtils;
+import org.allaymc.api.world.chunk.ChunkState;
+import org.allaymc.api.world.manager.ChunkManager.PreGenerationProgress;
+import org.allaymc.server.AllayServer;
+import org.allaymc.server.utils.JSONUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+
+/**
+ * ChunkPreGenerator generates the chunks in a square around a center chunk in the background. Chunks
+ * are visited in a spiral from the center and driven to {@link ChunkState#FULL} through the chunk
+ * pyramid like any other chunk, then unloaded (and thus saved) again if no chunk loader is using them.
+ * <p>
+ * The count of chunks that are being generated at the same time is limited, and no new chunk will be
+ * submitted while the MSPT of the world is over the budget. The progress is saved to a file in the
+ * world folder periodically, so that the pre-generation can be resumed after restart.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+@NotThreadSafe
+public final class ChunkPreGenerator {
+
+    private static final int SAVE_PROGRESS_CYCLE = 30 * 20;
+    private static final int LOG_PROGRESS_CYCLE = 10 * 20;
+
+    private final AllayChunkManager chunkManager;
+    /**
+     * The chunks that have been generated, offered by the load futures which may be completed in other threads.
+     */
+    private final Queue<Result> results;
+    /**
+     * Spiral index to chunk hash of the chunks that are being generated.
+     */
+    private final Long2LongOpenHashMap inFlightChunks;
+    /**
+     * Spiral indexes of the chunks that should be submitted again, because they were
+     * unloaded before they are fully generated.
+     */
+    private final LongArrayFIFOQueue retryQueue;
+
+    private Task task;
+    private boolean resumeChecked;
+    private int tickCounter;
+
+    public ChunkPreGenerator(AllayChunkManager chunkManager) {
+        this.chunkManager = chunkManager;
+        this.results = PlatformDependent.newMpscQueue();
+        this.inFlightChunks = new Long2LongOpenHashMap();
+        this.retryQueue = new LongArrayFIFOQueue();
+    }
+
+    public boolean start(int centerX, int centerZ, int radius) {
+        if (this.task != null) {
+            return false;
+        }
+
+        this.task = new Task(centerX, centerZ, Math.max(radius, 0), 0);
+        saveProgress();
+        log.info("Started pre-generating {} chunks around ({}, {}) in {}", task.total, centerX, centerZ, getDimensionName());
+        return true;
+    }
+
+    public boolean stop() {
+        if (this.task == null) {
+            return false;
+        }
+
+        this.task = null;
+        this.inFlightChunks.clear();
+        this.retryQueue.clear();
+        deleteProgress();
+        log.info("Stopped pre-generating chunks in {}", getDimensionName());
+        return true;
+    }
+
+    public PreGenerationProgress getProgress() {
+        if (this.task == null) {
+            return null;
+        }
+
+        var seconds = (System.nanoTime() - task.startTime) / 1_000_000_000.0;
+        var chunksPerSecond = seconds > 0 ? (task.generated - task.generatedAtStart) / seconds : 0;
+        return new PreGenerationProgress(task.centerX, task.centerZ, task.radius, task.generated, task.total, chunksPerSecond);
+    }
+
+    public void tick() {
+        if (!this.resumeChecked) {
+            this.resumeChecked = true;
+            tryResume();
+        }
+
+        if (this.task == null) {
+            // Results of a stopped pre-generation, just discard them
+            this.results.clear();
+            return;
+        }
+
+        handleResults();
+        if (task.isFinished() && this.inFlightChunks.isEmpty()) {
+            log.info("Finished pre-generating {} chunks around ({}, {}) in {}", task.total, task.centerX, task.centerZ, getDimensionName());
+            this.task = null;
+            deleteProgress();
+            return;
+        }
+
+        submitChunks();
+
+        this.tickCounter++;
+        if (this.tickCounter % LOG_PROGRESS_CYCLE == 0) {
+            var progress = getProgress();
+            log.info("Pre-generating chunks in {}: {}/{} ({}%), {} chunks/s, ETA {}s",
+                    getDimensionName(), progress.generatedChunks(), progress.totalChunks(),
+                    String.format("%.2f", progress.percentage()), String.format("%.1f", progress.chunksPerSecond()), progress.etaSeconds());
+        }
+        if (this.tickCounter % SAVE_PROGRESS_CYCLE == 0) {
+            saveProgress();
+        }
+    }
+
+    public void shutdown() {
+        if (this.task != null) {
+            // Keep the progress file so that the pre-generation can be resumed after restart
+            saveProgress();
+        }
+    }
+
+    private void handleResults() {
+        Result result;
+        while ((result = this.results.poll()) != null) {
+            if (result.task != this.task) {
+                // Belongs to a stopped pre-generation
+                continue;
+            }
+
+            if (!result.success) {
+                // The chunk was unloaded before it is fully generated, try again later
+                this.retryQueue.enqueue(result.index);
+                continue;
+            }
+
+            var chunkHash = this.inFlightChunks.remove(result.index);
+            this.task.generated++;
+            var chunkHolder = this.chunkManager.getChunkHolder(HashUtils.getXFromHashXZ(chunkHash), HashUtils.getZFromHashXZ(chunkHash));
+            if (chunkHolder != null && chunkHolder.getChunk().getChunkLoaderCount() == 0) {
+                // The chunk will be saved when it is unloaded
+                this.chunkManager.unloadChunk(chunkHash);
+            }
+        }
+    }
+
+    private void submitChunks() {
+        var settings = AllayServer.getSettings().worldSettings();
+        if (this.chunkManager.getDimension().getWorld().getMSPT() > settings.preGenerationMsptBudget()) {
+            return;
+        }
+
+        var maxInFlightChunks = settings.preGenerationMaxInFlightChunks();
+        while (this.inFlightChunks.size() - this.retryQueue.size() < maxInFlightChunks) {
+            long index;
+            long chunkHash;
+            if (!this.retryQueue.isEmpty()) {
+                index = this.retryQueue.dequeueLong();
+                chunkHash = this.inFlightChunks.get(index);
+            } else if (!task.isFinished()) {
+                index = task.nextIndex;
+                chunkHash = task.next();
+                this.inFlightChunks.put(index, chunkHash);
+            } else {
+                break;
+            }
+
+            submitChunk(index, chunkHash);
+        }
+    }
+
+    private void submitChunk(long index, long chunkHash) {
+        var chunkHolder = this.chunkManager.getOrCreateChunkHolder(HashUtils.getXFromHashXZ(chunkHash), HashUtils.getZFromHashXZ(chunkHash));
+        chunkHolder.setTargetState(ChunkState.FULL);
+        var task = this.task;
+        chunkHolder.getLoadFuture().whenComplete((chunk, t) -> {
+            if (t != null && !(t instanceof CancellationException)) {
+                log.error("Error while pre-generating chunk ({}, {})", chunkHolder.getX(), chunkHolder.getZ(), t);
+            }
+            this.results.offer(new Result(task, index, t == null));
+        });
+    }
+
+    private void tryResume() {
+        var file = getProgressFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+
+        try {
+            var saved = JSONUtils.from(file.toFile(), SavedProgress.class);
+            this.task = new Task(saved.centerX(), saved.centerZ(), saved.radius(), saved.nextIndex());
+            log.info("Resumed pre-generating chunks around ({}, {}) in {}, {}/{} chunks have been generated", task.centerX, task.centerZ, getDimensionName(), task.generated, task.total);
+        } catch (Exception e) {
+            log.error("Failed to read the pre-generation progress of {}", getDimensionName(), e);
+        }
+    }
+
+    private void saveProgress() {
+        var file = getProgressFile();
+        if (file == null) {
+            return;
+        }
+
+        // Chunks that are still being generated may not be finished before the server stops, so
+        // resume from the first of them. Loading a chunk that is already generated is cheap
+        var resumeIndex = task.nextIndex;
+        for (var index : this.inFlightChunks.keySet()) {
+            resumeIndex = Math.min(resumeIndex, index);
+        }
+
+        try {
+            var saved = new SavedProgress(task.centerX, task.centerZ, task.radius, resumeIndex);
+            Files.writeString(file, JSONUtils.to(saved));
+        } catch (Exception e) {
+            log.error("Failed to save the pre-generation progress of {}", getDimensionName(), e);
+        }
+    }
+
+    private void deleteProgress() {
+        var file = getProgressFile();
+        if (file == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            log.error("Failed to delete the pre-generation progress of {}", getDimensionName(), e);
+        }
+    }
+
+    private Path getProgressFile() {
+        var worldFolder = Server.getInstance().getWorldPool().getWorldFolder().resolve(this.chunkManager.getDimension().getWorld().getName());
+        if (!Files.isDirectory(worldFolder)) {
+            // The world isn't stored in the world folder
+            return null;
+        }
+
+        return worldFolder.resolve("pregen_" + this.chunkManager.getDimension().getDimensionInfo().dimensionId() + ".json");
+    }
+
+    private String getDimensionName() {
+        var dimension = this.chunkManager.getDimension();
+        return dimension.getWorld().getName() + ":" + dimension.getDimensionInfo().toString();
+    }
+
+    private record Result(Task task, long index, boolean success) {
+    }
+
+    private record SavedProgress(int centerX, int centerZ, int radius, long nextIndex) {
+    }
+
+    private static final class Task {
+
+        private final int centerX;
+        private final int centerZ;
+        private final int radius;
+        private final long total;
+        private final long generatedAtStart;
+        private final long startTime;
+        private long generated;
+        /**
+         * The spiral index of the next chunk.
+         */
+        private long nextIndex;
+        // State of the spiral walk, (x, z) is the offset of the next chunk from the center
+        private int x;
+        private int z;
+        private int dx;
+        private int dz;
+
+        Task(int centerX, int centerZ, int radius, long nextIndex) {
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+            this.radius = radius;
+            this.total = (2L * radius + 1) * (2L * radius + 1);
+            this.startTime = System.nanoTime();
+            this.dx = 0;
+            this.dz = -1;
+            // Walk to the resumed position, all the chunks before it have been generated
+            while (this.nextIndex < nextIndex && !isFinished()) {
+                next();
+            }
+            this.generated = this.nextIndex;
+            this.generatedAtStart = this.generated;
+        }
+
+        boolean isFinished() {
+            return this.nextIndex >= this.total;
+        }
+
+        /**
+         * Get the next chunk in the spiral and move forward.
+         *
+         * @return the hash of the next chunk
+         */
+        long next() {
+            var chunkHash = HashUtils.hashXZ(this.centerX + this.x, this.centerZ + this.z);
+            if (this.x == this.z || (this.x < 0 && this.x == -this.z) || (this.x > 0 && this.x == 1 - this.z)) {
+                // Turn left at the corners
+                var temp = this.dx;
+                this.dx = -this.dz;
+                this.dz = temp;
+            }
+            this.x += this.dx;
+            this.z += this.dz;
+            this.nextIndex++;
+            return chunkHash;
+        }
+    }
+}
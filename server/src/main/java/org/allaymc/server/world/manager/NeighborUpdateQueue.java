@@ -0,0 +1,145 @@
+package org.allaymc.server.world.manager;
+
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import lombok.Getter;
+import org.allaymc.api.block.data.BlockFace;
+import org.allaymc.api.world.data.DimensionInfo;
+
+/**
+ * NeighborUpdateQueue is a deduplicating queue of neighbor updates. Each update is packed into a long
+ * key (the position of the updated block and the face which is updated), so the same update queued
+ * many times before it is processed (e.g. by {@code updateAround()} in a large redstone or falling block
+ * cascade) is only processed once. The updates are kept in the order they are first queued.
+ * <p>
+ * Only the updates caused by the adjacent block at the updated face can be packed, see
+ * {@link #canPack(DimensionInfo, int, int, int)}. This queue is thread-safe.
+ *
+ * @author daoge_cmd
+ */
+public final class NeighborUpdateQueue {
+
+    private static final int Y_BITS = 9;
+    private static final int FACE_BITS = 3;
+    private static final int XZ_BITS = 26;
+    private static final int XZ_MIN = -(1 << (XZ_BITS - 1));
+    private static final int XZ_MAX = (1 << (XZ_BITS - 1)) - 1;
+    private static final BlockFace[] FACES = BlockFace.values();
+
+    private final int minY;
+    private LongLinkedOpenHashSet pending;
+    /**
+     * The set which is being processed, reused as the pending set of the next tick.
+     */
+    private LongLinkedOpenHashSet processing;
+    /**
+     * The count of the updates which are dropped because the same update is already in the queue.
+     */
+    @Getter
+    private volatile long coalescedUpdateCount;
+
+    public NeighborUpdateQueue(DimensionInfo dimensionInfo) {
+        this.minY = dimensionInfo.minHeight();
+        this.pending = new LongLinkedOpenHashSet();
+        this.processing = new LongLinkedOpenHashSet();
+    }
+
+    /**
+     * Check if the update of the given position can be packed.
+     *
+     * @param dimensionInfo the info of the dimension
+     * @param x             the x coordinate of the updated block
+     * @param y             the y coordinate of the updated block
+     * @param z             the z coordinate of the updated block
+     * @return {@code true} if the update can be offered to the queue
+     */
+    public static boolean canPack(DimensionInfo dimensionInfo, int x, int y, int z) {
+        var relativeY = y - dimensionInfo.minHeight();
+        return relativeY >= 0 && relativeY < (1 << Y_BITS) &&
+               x >= XZ_MIN && x <= XZ_MAX && z >= XZ_MIN && z <= XZ_MAX;
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> (64 - XZ_BITS));
+    }
+
+    public static int unpackZ(long key) {
+        return (int) ((key << XZ_BITS) >> (64 - XZ_BITS));
+    }
+
+    public static BlockFace unpackFace(long key) {
+        return FACES[(int) (key & ((1 << FACE_BITS) - 1))];
+    }
+
+    public int unpackY(long key) {
+        return (int) ((key >>> FACE_BITS) & ((1 << Y_BITS) - 1)) + minY;
+    }
+
+    public long pack(int x, int y, int z, BlockFace face) {
+        return ((long) x << (64 - XZ_BITS)) |
+               (((long) z & ((1L << XZ_BITS) - 1)) << (Y_BITS + FACE_BITS)) |
+               ((long) (y - minY) << FACE_BITS) |
+               face.ordinal();
+    }
+
+    /**
+     * Offer a neighbor update.
+     *
+     * @param x    the x coordinate of the updated block
+     * @param y    the y coordinate of the updated block
+     * @param z    the z coordinate of the updated block
+     * @param face the updated face, the block at this face is the block which causes the update
+     * @return {@code true} if the update is added, or {@code false} if the same update is already in the queue
+     */
+    public synchronized boolean offer(int x, int y, int z, BlockFace face) {
+        if (pending.add(pack(x, y, z, face))) {
+            return true;
+        }
+
+        coalescedUpdateCount++;
+        return false;
+    }
+
+    /**
+     * Take the queued updates out of the queue. The updates offered after this method is called
+     * will be in the next batch.
+     *
+     * @param maxCount the max count of updates to take, the other updates are left in the queue
+     * @return the keys of the updates in the order they are queued
+     */
+    public long[] poll(int maxCount) {
+        LongLinkedOpenHashSet batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return new long[0];
+            }
+
+            batch = pending;
+            pending = processing;
+            processing = batch;
+        }
+
+        var keys = new long[Math.min(batch.size(), maxCount)];
+        var iterator = batch.iterator();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = iterator.nextLong();
+        }
+
+        if (batch.size() > keys.length) {
+            // Put the remaining updates back before the updates which are offered later
+            var remaining = new LongLinkedOpenHashSet(batch.size() - keys.length);
+            while (iterator.hasNext()) {
+                remaining.add(iterator.nextLong());
+            }
+            synchronized (this) {
+                remaining.addAll(pending);
+                pending = remaining;
+            }
+        }
+        batch.clear();
+        return keys;
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+}
@@ -5,7 +5,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.block.component.BlockLiquidBaseComponent;
 import org.allaymc.api.block.data.BlockFace;
 import org.allaymc.api.block.data.BlockTags;
-import org.allaymc.api.block.type.BlockState;
 import org.allaymc.api.entity.Entity;
 import org.allaymc.api.entity.component.EntityPhysicsComponent;
 import org.allaymc.api.entity.interfaces.EntityPlayer;
@@ -16,6 +15,7 @@ import org.allaymc.api.math.location.Location3dc;
 import org.allaymc.api.math.voxelshape.VoxelShape;
 import org.allaymc.api.server.Server;
 import org.allaymc.api.utils.Utils;
+import org.allaymc.api.world.BlockStateBuffer;
 import org.allaymc.api.world.Dimension;
 import org.allaymc.api.world.data.DimensionInfo;
 import org.allaymc.api.world.physics.AABBOverlapFilter;
@@ -31,6 +31,7 @@ import org.allaymc.server.network.processor.PacketProcessor;
 import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
 import org.jctools.maps.NonBlockingHashMapLong;
 import org.joml.Vector3d;
+import org.joml.Vector3i;
 import org.joml.primitives.AABBd;
 import org.joml.primitives.AABBdc;
 
@@ -65,6 +66,10 @@ public class AllayEntityPhysicsEngine implements EntityPhysicsEngine {
     private static final double WATER_FLOW_MOTION = 0.014;
     private static final double LAVA_FLOW_MOTION = 0.002333333;
     private static final double LAVA_FLOW_MOTION_IN_NETHER = 0.007;
+    /**
+     * Entities are ticked in parallel, so each thread reuses its own buffer to find the blocks an entity is stuck in.
+     */
+    private static final ThreadLocal<BlockStateBuffer> COLLISION_BUFFER = ThreadLocal.withInitial(BlockStateBuffer::new);
 
     static {
         var settings = AllayServer.getSettings().entitySettings().physicsEngineSettings();
@@ -101,7 +106,7 @@ public class AllayEntityPhysicsEngine implements EntityPhysicsEngine {
                 return;
             }
 
-            var collidedBlocks = dimension.getCollidingBlockStates(entity.getOffsetAABB());
+            var collidedBlocks = dimension.getCollidingBlockStates(entity.getOffsetAABB(), 0, false, COLLISION_BUFFER.get());
             if (collidedBlocks == null || !physicsComponent.computeBlockCollisionMotion()) {
                 // The entity is not stuck in the block
                 if (physicsComponent.computeEntityCollisionMotion()) {
@@ -154,42 +159,24 @@ public class AllayEntityPhysicsEngine implements EntityPhysicsEngine {
         });
     }
 
-    protected void computeBlockCollisionMotion(Entity entity, BlockState[][][] collidedBlocks) {
+    protected void computeBlockCollisionMotion(Entity entity, BlockStateBuffer collidedBlocks) {
         // 1. Find out the block state which entity collided most
         var aabb = entity.getOffsetAABB();
-        var minX = (int) floor(aabb.minX());
-        var minY = (int) floor(aabb.minY());
-        var minZ = (int) floor(aabb.minZ());
-        int targetX = 0, targetY = 0, targetZ = 0;
-        double volume = 0;
-        for (int offsetX = 0, length0 = collidedBlocks.length; offsetX < length0; offsetX++) {
-            var sub1 = collidedBlocks[offsetX];
-            for (int offsetY = 0, length1 = sub1.length; offsetY < length1; offsetY++) {
-                var sub2 = sub1[offsetY];
-                for (int offsetZ = 0, length2 = sub2.length; offsetZ < length2; offsetZ++) {
-                    var blockState = sub2[offsetZ];
-                    if (blockState == null) {
-                        continue;
-                    }
-
-                    var currentX = minX + offsetX;
-                    var currentY = minY + offsetY;
-                    var currentZ = minZ + offsetZ;
-                    var intersection = blockState
-                            .getBlockStateData()
-                            .computeOffsetCollisionShape(currentX, currentY, currentZ)
-                            .unionAABB()
-                            .intersection(aabb);
-                    var currentVolume = intersection.lengthX() * intersection.lengthY() * intersection.lengthZ();
-                    if (currentVolume > volume) {
-                        volume = currentVolume;
-                        targetX = currentX;
-                        targetY = currentY;
-                        targetZ = currentZ;
-                    }
-                }
+        var target = new Vector3i();
+        var volume = new double[1];
+        collidedBlocks.forEach((x, y, z, blockState) -> {
+            var intersection = blockState
+                    .getBlockStateData()
+                    .computeOffsetCollisionShape(x, y, z)
+                    .unionAABB()
+                    .intersection(aabb);
+            var currentVolume = intersection.lengthX() * intersection.lengthY() * intersection.lengthZ();
+            if (currentVolume > volume[0]) {
+                volume[0] = currentVolume;
+                target.set(x, y, z);
             }
-        }
+        });
+        int targetX = target.x, targetY = target.y, targetZ = target.z;
 
         // 2. Centered on the block pos we found (1), find out the best moving direction
         BlockFace movingDirection = null;
@@ -355,7 +342,7 @@ public class AllayEntityPhysicsEngine implements EntityPhysicsEngine {
                 var aabb = new AABBd(clientMove.player.getOffsetAABB());
                 // Here we should subtract twice FAT_AABB_MARGIN, because the client pos has an extra FAT_AABB_MARGIN in y coordinate
                 aabb.minY -= 2 * FAT_AABB_MARGIN;
-                physicsComponent.setOnGround(dimension.getCollidingBlockStates(aabb) != null);
+                physicsComponent.setOnGround(dimension.hasCollidingBlockStates(aabb));
             }
         }
     }
@@ -3,6 +3,7 @@ package org.allaymc.server.world.storage.leveldb;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.*;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.block.type.BlockState;
 import org.allaymc.api.block.type.BlockTypes;
@@ -34,6 +35,8 @@ import org.allaymc.server.pdc.AllayPersistentDataContainer;
 import org.allaymc.server.world.AllayWorldData;
 import org.allaymc.server.world.chunk.*;
 import org.allaymc.server.world.gamerule.AllayGameRules;
+import org.allaymc.server.world.light.AllayLightEngine;
+import org.allaymc.server.world.light.ChunkLightData;
 import org.allaymc.updater.block.BlockStateUpdaters;
 import org.cloudburstmc.nbt.NBTInputStream;
 import org.cloudburstmc.nbt.NbtMap;
@@ -44,7 +47,6 @@ import org.cloudburstmc.protocol.bedrock.data.GameType;
 import org.iq80.leveldb.CompressionType;
 import org.iq80.leveldb.DB;
 import org.iq80.leveldb.Options;
-import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.impl.Iq80DBFactory;
 import org.jctools.maps.NonBlockingHashMap;
 import org.joml.Vector3i;
@@ -61,6 +63,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.zip.CRC32C;
 
 import static org.allaymc.server.network.NetworkHelper.toNetwork;
 
@@ -113,10 +116,13 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
     private static final String TAG_FORCE_GAME_TYPE = "ForceGameType";
 
     private static final int HEIGHTMAP_SIZE = 256;
+    private static final int LIGHT_DATA_VERSION = 3;
 
     private final Path path;
     private final String worldName;
     private final DB db;
+    @Getter
+    private final LevelDBWriteQueue writeQueue;
 
     private World world;
 
@@ -142,6 +148,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
         } catch (IOException e) {
             throw new WorldStorageException(e);
         }
+        this.writeQueue = new LevelDBWriteQueue(db, AllayServer.getSettings().storageSettings().levelDBMaxPendingWrites(), worldName);
     }
 
     private static AllayWorldData readWorldDataFromNBT(NbtMap nbt) {
@@ -179,41 +186,70 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
                 .build();
     }
 
-    private static void serializeSections(WriteBatch writeBatch, AllayUnsafeChunk chunk) {
-        for (int ySection = chunk.getDimensionInfo().minSectionY(); ySection <= chunk.getDimensionInfo().maxSectionY(); ySection++) {
+    private static void serializeSections(LevelDBWriteQueue.Batch writeBatch, AllayUnsafeChunk chunk) {
+        var minSectionY = chunk.getDimensionInfo().minSectionY();
+        var checksum = new CRC32C();
+        for (int ySection = minSectionY; ySection <= chunk.getDimensionInfo().maxSectionY(); ySection++) {
             var section = chunk.getSection(ySection);
             if (!section.hasDirtyBlockLayer()) {
                 continue;
             }
 
             int finalYSection = ySection;
-            writeBatch.put(
-                    LevelDBKey.CHUNK_SECTION_PREFIX.createKey(chunk.getX(), chunk.getZ(), ySection, chunk.getDimensionInfo()),
-                    withByteBufToArray(buffer -> {
-                        buffer.writeByte(AllayChunkSection.CURRENT_CHUNK_SECTION_VERSION);
-                        buffer.writeByte(AllayChunkSection.LAYER_COUNT);
-                        buffer.writeByte(finalYSection);
-                        for (int i = 0; i < AllayChunkSection.LAYER_COUNT; i++) {
-                            var palette = section.blockLayers()[i];
-                            palette.compact();
-                            palette.writeToStorage(buffer, BlockState::getBlockStateNBT);
-                            palette.setDirty(false);
-                        }
-                    })
-            );
-        }
-    }
-
-    private static void deserializeSections(DB db, AllayChunkBuilder builder) {
+            var sectionData = withByteBufToArray(buffer -> {
+                buffer.writeByte(AllayChunkSection.CURRENT_CHUNK_SECTION_VERSION);
+                buffer.writeByte(AllayChunkSection.LAYER_COUNT);
+                buffer.writeByte(finalYSection);
+                for (int i = 0; i < AllayChunkSection.LAYER_COUNT; i++) {
+                    var palette = section.blockLayers()[i];
+                    palette.compact();
+                    palette.writeToStorage(buffer, BlockState::getBlockStateNBT);
+                    palette.setDirty(false);
+                }
+            });
+            writeBatch.put(LevelDBKey.CHUNK_SECTION_PREFIX.createKey(chunk.getX(), chunk.getZ(), ySection, chunk.getDimensionInfo()), sectionData);
+            checksum.reset();
+            checksum.update(sectionData);
+            chunk.getSavedSectionChecksums()[ySection - minSectionY] = checksum.getValue();
+        }
+    }
+
+    /**
+     * Combine the checksums of the saved data of each section into the checksum of all sections.
+     *
+     * @param sectionChecksums the checksums of each section, {@code -1} if the section is not saved
+     * @return the checksum of all sections
+     */
+    private static int combineSectionChecksums(long[] sectionChecksums) {
+        var checksum = new CRC32C();
+        var buffer = ByteBuffer.allocate(8);
+        for (int i = 0; i < sectionChecksums.length; i++) {
+            if (sectionChecksums[i] != -1) {
+                checksum.update(buffer.clear().putInt(i).putInt((int) sectionChecksums[i]).flip());
+            }
+        }
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * @return the checksum of the saved data of all sections
+     */
+    private static int deserializeSections(LevelDBWriteQueue db, AllayChunkBuilder builder) {
         var dimensionInfo = builder.getDimensionInfo();
         var sections = new AllayChunkSection[dimensionInfo.chunkSectionCount()];
         var minSectionY = dimensionInfo.minSectionY();
+        var sectionChecksums = new long[dimensionInfo.chunkSectionCount()];
+        Arrays.fill(sectionChecksums, -1);
+        var checksum = new CRC32C();
 
         for (int ySection = minSectionY; ySection <= dimensionInfo.maxSectionY(); ySection++) {
             var sectionData = db.get(LevelDBKey.CHUNK_SECTION_PREFIX.createKey(builder.getChunkX(), builder.getChunkZ(), ySection, dimensionInfo));
             if (sectionData == null) {
                 continue;
             }
+            checksum.reset();
+            checksum.update(sectionData);
+            sectionChecksums[ySection - minSectionY] = checksum.getValue();
 
             var byteBuf = Unpooled.wrappedBuffer(sectionData);
             var subChunkVersion = byteBuf.readByte();
@@ -254,6 +290,42 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
             }
         }
         builder.sections(fillNullSections(sections, dimensionInfo));
+        builder.savedSectionChecksums(sectionChecksums);
+        return combineSectionChecksums(sectionChecksums);
+    }
+
+    private static void serializeLightData(LevelDBWriteQueue.Batch writeBatch, AllayUnsafeChunk chunk, ChunkLightData lightData) {
+        if (lightData == null) {
+            // Keep the old light data. If the sections are changed since it was saved, the
+            // checksum won't match and the light will be recalculated when loading the chunk
+            return;
+        }
+
+        var sectionsChecksum = combineSectionChecksums(chunk.getSavedSectionChecksums());
+        writeBatch.put(LevelDBKey.ALLAY_LIGHT_DATA.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()), withByteBufToArray(buffer -> {
+            buffer.writeByte(LIGHT_DATA_VERSION);
+            buffer.writeIntLE(sectionsChecksum);
+            lightData.writeTo(buffer);
+        }));
+    }
+
+    private static void deserializeLightData(LevelDBWriteQueue db, AllayChunkBuilder builder, int sectionsChecksum) {
+        var lightDataBytes = db.get(LevelDBKey.ALLAY_LIGHT_DATA.createKey(builder.getChunkX(), builder.getChunkZ(), builder.getDimensionInfo()));
+        if (lightDataBytes == null) {
+            return;
+        }
+
+        var buffer = Unpooled.wrappedBuffer(lightDataBytes);
+        // The light data is ignored if the sections are changed by other software, and the light will be recalculated
+        if (buffer.readByte() != LIGHT_DATA_VERSION || buffer.readIntLE() != sectionsChecksum) {
+            return;
+        }
+
+        try {
+            builder.lightData(ChunkLightData.readFrom(buffer, builder.getDimensionInfo()));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            log.warn("Corrupted light data in chunk ({}, {}), the light will be recalculated", builder.getChunkX(), builder.getChunkZ());
+        }
     }
 
     private static BlockState fastBlockStateDeserializer(ByteBuf buffer) {
@@ -305,7 +377,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
      *
      * @see <a href="https://github.com/bedrock-dev/bedrock-level/blob/main/src/include/data_3d.h#L115">Biome 3d</a>
      */
-    private static void serializeHeightAndBiome(WriteBatch writeBatch, AllayUnsafeChunk chunk) {
+    private static void serializeHeightAndBiome(LevelDBWriteQueue.Batch writeBatch, AllayUnsafeChunk chunk) {
         writeBatch.put(LevelDBKey.DATA_3D.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()), withByteBufToArray(heightAndBiomesBuffer -> {
             // Serialize height map
             for (var height : chunk.calculateAndGetHeightMap().getHeights()) {
@@ -324,7 +396,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
         }));
     }
 
-    private static void deserializeHeightAndBiome(DB db, AllayChunkBuilder builder) {
+    private static void deserializeHeightAndBiome(LevelDBWriteQueue db, AllayChunkBuilder builder) {
         var data3d = db.get(LevelDBKey.DATA_3D.createKey(builder.getChunkX(), builder.getChunkZ(), builder.getDimensionInfo()));
         if (data3d == null) {
             // Try load data_2d if data_3d is not found
@@ -355,7 +427,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
         }
     }
 
-    private static void deserializeHeightAndBiomeOld(DB db, AllayChunkBuilder builder) {
+    private static void deserializeHeightAndBiomeOld(LevelDBWriteQueue db, AllayChunkBuilder builder) {
         var bytes2D = db.get(LevelDBKey.DATA_2D.createKey(builder.getChunkX(), builder.getChunkZ(), builder.getDimensionInfo()));
         if (bytes2D == null) {
             return;
@@ -389,7 +461,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
         }
     }
 
-    private static void serializeBlockEntities(WriteBatch writeBatch, AllayUnsafeChunk chunk) {
+    private static void serializeBlockEntities(LevelDBWriteQueue.Batch writeBatch, AllayUnsafeChunk chunk) {
         var blockEntities = chunk.getBlockEntities().values();
         var blockEntitiesKey = LevelDBKey.BLOCK_ENTITIES.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo());
         if (blockEntities.isEmpty()) {
@@ -408,7 +480,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
         }));
     }
 
-    private static void serializeScheduledUpdates(WriteBatch writeBatch, AllayUnsafeChunk chunk, World world) {
+    private static void serializeScheduledUpdates(LevelDBWriteQueue.Batch writeBatch, AllayUnsafeChunk chunk, World world) {
         var scheduledUpdates = chunk.getScheduledUpdates().values();
         var key = LevelDBKey.PENDING_TICKS.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo());
         if (scheduledUpdates.isEmpty()) {
@@ -429,7 +501,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
         }));
     }
 
-    private static void deserializeScheduledUpdates(DB db, AllayChunkBuilder builder) {
+    private static void deserializeScheduledUpdates(LevelDBWriteQueue db, AllayChunkBuilder builder) {
         DimensionInfo dimensionInfo = builder.getDimensionInfo();
         var scheduledUpdatesBytes = db.get(LevelDBKey.PENDING_TICKS.createKey(builder.getChunkX(), builder.getChunkZ(), dimensionInfo));
         if (scheduledUpdatesBytes == null) {
@@ -438,11 +510,9 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
 
         var nbt = AllayNBTUtils.bytesToNbtLE(scheduledUpdatesBytes);
         var tickList = nbt.getList(TAG_TICK_LIST, NbtType.COMPOUND);
-        var scheduledUpdates = new NonBlockingHashMap<Integer, ScheduledUpdateInfo>(tickList.size());
+        var scheduledUpdates = new ScheduledUpdateQueue();
         for (var entry : tickList) {
-            var info = ScheduledUpdateInfo.fromNBT(entry);
-            var pos = info.getPos();
-            scheduledUpdates.put(HashUtils.hashChunkXYZ(pos.x() & 15, pos.y(), pos.z() & 15), info);
+            scheduledUpdates.add(ScheduledUpdateInfo.fromNBT(entry));
         }
 
         builder.scheduledUpdates(scheduledUpdates);
@@ -498,9 +568,9 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
             return builder.build().toSafeChunk();
         }
 
-        var versionValue = this.db.get(LevelDBKey.VERSION.createKey(chunkX, chunkZ, dimensionInfo));
+        var versionValue = this.writeQueue.get(LevelDBKey.VERSION.createKey(chunkX, chunkZ, dimensionInfo));
         if (versionValue == null) {
-            versionValue = this.db.get(LevelDBKey.LEGACY_VERSION.createKey(chunkX, chunkZ, dimensionInfo));
+            versionValue = this.writeQueue.get(LevelDBKey.LEGACY_VERSION.createKey(chunkX, chunkZ, dimensionInfo));
         }
         if (versionValue == null) {
             // This might be a slightly-corrupted chunk with a missing version field
@@ -508,13 +578,13 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
             log.warn("Chunk at ({}, {}) is missing version field", chunkX, chunkZ);
         }
 
-        var chunkFinalizedState = this.db.get(LevelDBKey.CHUNK_FINALIZED_STATE.createKey(chunkX, chunkZ, dimensionInfo));
+        var chunkFinalizedState = this.writeQueue.get(LevelDBKey.CHUNK_FINALIZED_STATE.createKey(chunkX, chunkZ, dimensionInfo));
         if (chunkFinalizedState != null && Unpooled.wrappedBuffer(chunkFinalizedState).readByte() != VanillaChunkState.DONE.ordinal()) {
             // Older versions didn't have CHUNK_FINALIZED_STATE data, so we still load this chunk
             return builder.build().toSafeChunk();
         }
 
-        var chunkStateBytes = this.db.get(LevelDBKey.ALLAY_CHUNK_STATE.createKey(chunkX, chunkZ, dimensionInfo));
+        var chunkStateBytes = this.writeQueue.get(LevelDBKey.ALLAY_CHUNK_STATE.createKey(chunkX, chunkZ, dimensionInfo));
         if (chunkStateBytes != null) {
             var chunkStateName = new String(chunkStateBytes);
             try {
@@ -527,17 +597,19 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
             builder.state(ChunkState.FULL);
         }
 
-        deserializeSections(this.db, builder);
-        deserializeHeightAndBiome(this.db, builder);
-        deserializeBlockEntities(this.db, builder);
-        deserializeScheduledUpdates(this.db, builder);
+        var sectionsChecksum = deserializeSections(this.writeQueue, builder);
+        deserializeLightData(this.writeQueue, builder, sectionsChecksum);
+        deserializeHeightAndBiome(this.writeQueue, builder);
+        deserializeBlockEntities(this.writeQueue, builder);
+        deserializeScheduledUpdates(this.writeQueue, builder);
         return builder.build().toSafeChunk();
     }
 
     @Override
     public CompletableFuture<Void> writeChunk(Chunk chunk) {
         return CompletableFuture
-                .runAsync(() -> writeChunkSync(chunk), Server.getInstance().getVirtualThreadPool())
+                .supplyAsync(() -> writeChunk0(chunk), Server.getInstance().getVirtualThreadPool())
+                .thenCompose(future -> future)
                 .exceptionally(t -> {
                     log.error("Failed to write chunk ({}, {})", chunk.getX(), chunk.getZ(), t);
                     return null;
@@ -546,27 +618,44 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
 
     @Override
     public void writeChunkSync(Chunk chunk) {
-        try (var writeBatch = this.db.createWriteBatch()) {
-            writeBatch.put(LevelDBKey.VERSION.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()), new byte[]{(byte) CURRENT_CHUNK_VERSION});
-            writeBatch.put(
-                    LevelDBKey.CHUNK_FINALIZED_STATE.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()),
-                    withByteBufToArray(buf -> buf.writeByte(VanillaChunkState.DONE.ordinal()))
-            );
-            writeBatch.put(
-                    LevelDBKey.ALLAY_CHUNK_STATE.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()),
-                    chunk.getState().name().getBytes()
-            );
-            chunk.applyOperation(c -> {
-                var allayUnsafeChunk = (AllayUnsafeChunk) c;
-                serializeSections(writeBatch, allayUnsafeChunk);
-                serializeHeightAndBiome(writeBatch, allayUnsafeChunk);
-                serializeBlockEntities(writeBatch, allayUnsafeChunk);
-                serializeScheduledUpdates(writeBatch, allayUnsafeChunk, world);
-            }, OperationType.READ, OperationType.READ);
-            this.db.write(writeBatch);
-        } catch (IOException e) {
-            throw new WorldStorageException(e);
+        writeChunk0(chunk).join();
+    }
+
+    protected CompletableFuture<Void> writeChunk0(Chunk chunk) {
+        var writeBatch = this.writeQueue.createBatch();
+        writeBatch.put(LevelDBKey.VERSION.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()), new byte[]{(byte) CURRENT_CHUNK_VERSION});
+        writeBatch.put(
+                LevelDBKey.CHUNK_FINALIZED_STATE.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()),
+                withByteBufToArray(buf -> buf.writeByte(VanillaChunkState.DONE.ordinal()))
+        );
+        writeBatch.put(
+                LevelDBKey.ALLAY_CHUNK_STATE.createKey(chunk.getX(), chunk.getZ(), chunk.getDimensionInfo()),
+                chunk.getState().name().getBytes()
+        );
+        chunk.applyOperation(c -> {
+            var allayUnsafeChunk = (AllayUnsafeChunk) c;
+            serializeSections(writeBatch, allayUnsafeChunk);
+            serializeLightData(writeBatch, allayUnsafeChunk, getLightData(allayUnsafeChunk));
+            serializeHeightAndBiome(writeBatch, allayUnsafeChunk);
+            serializeBlockEntities(writeBatch, allayUnsafeChunk);
+            serializeScheduledUpdates(writeBatch, allayUnsafeChunk, world);
+        }, OperationType.READ, OperationType.READ);
+        return this.writeQueue.submit(writeBatch);
+    }
+
+    protected ChunkLightData getLightData(AllayUnsafeChunk chunk) {
+        if (chunk.isLoaded() && world != null) {
+            var dimension = world.getDimension(chunk.getDimensionInfo().dimensionId());
+            if (dimension != null && dimension.getLightEngine() instanceof AllayLightEngine lightEngine) {
+                var lightData = lightEngine.copyChunkLightData(chunk.getX(), chunk.getZ());
+                if (lightData != null) {
+                    return lightData;
+                }
+            }
         }
+
+        // The light data copied when the chunk is unloaded
+        return chunk.getLightData();
     }
 
     @Override
@@ -581,7 +670,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
 
     @Override
     public Map<Long, Entity> readEntitiesSync(int chunkX, int chunkZ, DimensionInfo dimensionInfo) {
-        var ids = this.db.get(LevelDBKey.createEntityIdsKey(chunkX, chunkZ, dimensionInfo));
+        var ids = this.writeQueue.get(LevelDBKey.createEntityIdsKey(chunkX, chunkZ, dimensionInfo));
         if (ids == null) {
             // Try to load entities through the old method
             return readEntitiesOldSync(chunkX, chunkZ, dimensionInfo);
@@ -591,7 +680,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
         var idsBuf = Unpooled.wrappedBuffer(ids);
         for (var i = 0; i < ids.length; i += Long.BYTES) {
             var id = idsBuf.readLongLE();
-            var nbt = this.db.get(LevelDBKey.indexEntity(id));
+            var nbt = this.writeQueue.get(LevelDBKey.indexEntity(id));
             if (nbt == null) {
                 log.error("NBT data for existing entity unique id {} is missing!", id);
                 continue;
@@ -610,7 +699,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
     }
 
     protected Map<Long, Entity> readEntitiesOldSync(int chunkX, int chunkZ, DimensionInfo dimensionInfo) {
-        var entityBytes = db.get(LevelDBKey.ENTITIES.createKey(chunkX, chunkZ, dimensionInfo));
+        var entityBytes = this.writeQueue.get(LevelDBKey.ENTITIES.createKey(chunkX, chunkZ, dimensionInfo));
         if (entityBytes == null) {
             return Collections.emptyMap();
         }
@@ -641,11 +730,13 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
 
     protected CompletableFuture<Void> writeEntities0(int chunkX, int chunkZ, DimensionInfo dimensionInfo, Map<Long, Entity> entities, boolean asyncWrite) {
         var idsBuf = ByteBufAllocator.DEFAULT.buffer();
-        try (var writeBatch = this.db.createWriteBatch()) {
+        try {
+            var writeBatch = this.writeQueue.createBatch();
             var idsKey = LevelDBKey.createEntityIdsKey(chunkX, chunkZ, dimensionInfo);
 
-            // Delete the old entities in this chunk
-            var oldIds = this.db.get(idsKey);
+            // Delete the old entities in this chunk. The ids may not be written to the
+            // database yet, so they are read through the write queue
+            var oldIds = this.writeQueue.get(idsKey);
             if (oldIds != null) {
                 var oldIdsBuf = Unpooled.wrappedBuffer(oldIds);
                 for (var i = 0; i < oldIds.length; i += Long.BYTES) {
@@ -666,23 +757,20 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
 
             writeBatch.put(idsKey, ByteBufUtil.getBytes(idsBuf));
             return handleEntitiesWriteBatch(chunkX, chunkZ, writeBatch, asyncWrite);
-        } catch (IOException e) {
-            throw new WorldStorageException(e);
         } finally {
             idsBuf.release();
         }
     }
 
-    protected CompletableFuture<Void> handleEntitiesWriteBatch(int chunkX, int chunkZ, WriteBatch writeBatch, boolean asyncWrite) {
+    protected CompletableFuture<Void> handleEntitiesWriteBatch(int chunkX, int chunkZ, LevelDBWriteQueue.Batch writeBatch, boolean asyncWrite) {
+        var future = this.writeQueue.submit(writeBatch);
         if (asyncWrite) {
-            return CompletableFuture
-                    .runAsync(() -> this.db.write(writeBatch), Server.getInstance().getVirtualThreadPool())
-                    .exceptionally(t -> {
-                        log.error("Failed to write entities in chunk ({}, {})", chunkX, chunkZ, t);
-                        return null;
-                    });
+            return future.exceptionally(t -> {
+                log.error("Failed to write entities in chunk ({}, {})", chunkX, chunkZ, t);
+                return null;
+            });
         } else {
-            this.db.write(writeBatch);
+            future.join();
             return null;
         }
     }
@@ -690,7 +778,7 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
     @Override
     public boolean containChunk(int x, int z, DimensionInfo dimensionInfo) {
         for (int ySection = dimensionInfo.minSectionY(); ySection <= dimensionInfo.maxSectionY(); ySection++) {
-            var bytes = db.get(LevelDBKey.CHUNK_SECTION_PREFIX.createKey(x, z, ySection, dimensionInfo));
+            var bytes = this.writeQueue.get(LevelDBKey.CHUNK_SECTION_PREFIX.createKey(x, z, ySection, dimensionInfo));
             if (bytes != null) {
                 return true;
             }
@@ -816,13 +904,18 @@ public class AllayLevelDBWorldStorage implements WorldStorage {
     @Override
     public void shutdown() {
         try {
-            this.db.close();
-        } catch (IOException e) {
-            throw new WorldStorageException(e);
+            // Flush the pending writes before closing the database
+            this.writeQueue.shutdown();
+        } finally {
+            try {
+                this.db.close();
+            } catch (IOException e) {
+                throw new WorldStorageException(e);
+            }
         }
     }
 
-    private void deserializeBlockEntities(DB db, AllayChunkBuilder builder) {
+    private void deserializeBlockEntities(LevelDBWriteQueue db, AllayChunkBuilder builder) {
         byte[] tileBytes = db.get(LevelDBKey.BLOCK_ENTITIES.createKey(builder.getChunkX(), builder.getChunkZ(), builder.getDimensionInfo()));
         if (tileBytes == null) {
             return;
@@ -99,7 +99,12 @@ public enum LevelDBKey {
     /**
      * Stores a string which represents the state of the chunk. The string is consistent with the name in class {@link ChunkState}.
      */
-    ALLAY_CHUNK_STATE(-1);
+    ALLAY_CHUNK_STATE(-1),
+    /**
+     * Stores the light data calculated by the light engine. The data starts with a version byte and
+     * the checksum of the chunk sections it is calculated from, see {@link org.allaymc.server.world.light.ChunkLightData}.
+     */
+    ALLAY_LIGHT_DATA(-2);
 
     /**
      * Used in the <a href="https://learn.microsoft.com/en-us/minecraft/creator/documents/actorstorage?view=minecraft-bedrock-stable">New Actor Storage</a>.
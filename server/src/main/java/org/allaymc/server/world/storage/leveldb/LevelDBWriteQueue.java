@@ -0,0 +1,337 @@
+package org.allaymc.server.world.storage.leveldb;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.allaymc.api.world.storage.WorldStorageException;
+import org.iq80.leveldb.DB;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LevelDBWriteQueue is a write-behind queue in front of a LevelDB database. Writes are not applied to
+ * the database immediately. Instead, they are collected in a pending map keyed by LevelDB key, so that
+ * saving the same chunk several times before it is flushed only writes the latest value of each key
+ * once. A single writer thread takes all the pending writes at once and applies them with one large
+ * {@link org.iq80.leveldb.WriteBatch}.
+ * <p>
+ * Reads should go through {@link #get(byte[])}, which looks up the pending writes and the writes that
+ * are being applied before falling back to the database, so a chunk that is saved and then read again
+ * immediately is always read back correctly.
+ * <p>
+ * The count of pending keys is bounded. Submitting writes blocks the caller if the bound is reached,
+ * until the writer catches up.
+ * <p>
+ * A batch that fails to be written is retried a few times. If it still fails, the future of the batch
+ * is completed exceptionally, and the writes are put back to the pending writes (unless they are
+ * overwritten by newer writes) so that they are neither lost nor hidden from {@link #get(byte[])}, and
+ * will be written with the next batch. {@link #shutdown()} throws if some writes can't be written.
+ *
+ * @author daoge_cmd
+ */
+@Slf4j
+public final class LevelDBWriteQueue {
+
+    // Marks a key as deleted. Compared by reference
+    private static final byte[] DELETED = new byte[0];
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 100;
+
+    private final DB db;
+    private final int maxPendingKeys;
+    private final Thread writerThread;
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    // Guarded by lock
+    private Map<ByteBuffer, byte[]> pending;
+    private Map<ByteBuffer, byte[]> writing;
+    private CompletableFuture<Void> pendingFuture;
+    private long pendingSince;
+    private boolean running;
+    // The error of the last failed batch, which is not cleared until a batch is written successfully
+    private Throwable lastError;
+
+    /**
+     * The count of batches that have been written.
+     */
+    @Getter
+    private volatile long writtenBatchCount;
+    /**
+     * The count of the keys in the last written batch.
+     */
+    @Getter
+    private volatile int lastBatchSize;
+    /**
+     * The time (unit: ns) between the first write of the last written batch was submitted and the batch was written.
+     */
+    @Getter
+    private volatile long lastBatchLatency;
+    /**
+     * The count of the writes that are merged into a pending write of the same key.
+     */
+    @Getter
+    private volatile long coalescedWriteCount;
+
+    public LevelDBWriteQueue(DB db, int maxPendingKeys, String name) {
+        this.db = db;
+        this.maxPendingKeys = maxPendingKeys;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.pending = new LinkedHashMap<>();
+        this.writing = Collections.emptyMap();
+        this.pendingFuture = new CompletableFuture<>();
+        this.running = true;
+        this.writerThread = Thread.ofPlatform().name("LevelDB Writer Thread #" + name).daemon(true).start(this::runWriter);
+    }
+
+    /**
+     * Create a new batch, which should be passed to {@link #submit(Batch)} after all writes are added.
+     *
+     * @return a new batch
+     */
+    public Batch createBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Submit a batch. All the writes in the batch will be written to the database atomically.
+     *
+     * @param batch the batch to submit
+     * @return a future which will be completed when the batch is written to the database
+     */
+    public CompletableFuture<Void> submit(Batch batch) {
+        if (batch.writes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        lock.lock();
+        try {
+            if (!running) {
+                throw new WorldStorageException("The write queue has been shut down");
+            }
+
+            while (pending.size() >= maxPendingKeys && running) {
+                // Backpressure: wait until the writer takes the pending writes
+                notFull.awaitUninterruptibly();
+            }
+
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+            }
+
+            var coalesced = 0;
+            for (var entry : batch.writes.entrySet()) {
+                if (pending.put(entry.getKey(), entry.getValue()) != null) {
+                    coalesced++;
+                }
+            }
+            coalescedWriteCount += coalesced;
+            notEmpty.signal();
+            return pendingFuture;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the value of the specified key, the pending writes will be looked up first.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key doesn't exist
+     */
+    public byte[] get(byte[] key) {
+        var wrapped = ByteBuffer.wrap(key);
+        lock.lock();
+        try {
+            var value = pending.get(wrapped);
+            if (value == null) {
+                value = writing.get(wrapped);
+            }
+            if (value != null) {
+                return value == DELETED ? null : value;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // The value in the database is the latest if there is no pending write of the key. Even if a
+        // write of the key is submitted after the check, the result is still a consistent snapshot
+        return db.get(key);
+    }
+
+    /**
+     * @return the count of the keys that are waiting to be written
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return pending.size() + writing.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write all the pending writes and stop the writer thread. The writes submitted before this
+     * method is called are guaranteed to be written when this method returns normally.
+     *
+     * @throws WorldStorageException if some writes can't be written
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for the LevelDB writer thread to finish");
+        }
+
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                throw new WorldStorageException("Failed to write " + pending.size() + " keys to LevelDB", lastError);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            Map<ByteBuffer, byte[]> writes;
+            CompletableFuture<Void> future;
+            long since;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && running) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    // Not running and all writes are flushed
+                    return;
+                }
+
+                writes = pending;
+                future = pendingFuture;
+                since = pendingSince;
+                writing = writes;
+                pending = new LinkedHashMap<>();
+                pendingFuture = new CompletableFuture<>();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            var error = write(writes);
+            var stop = false;
+            lock.lock();
+            try {
+                writing = Collections.emptyMap();
+                lastError = error;
+                if (error != null) {
+                    log.error("Failed to write {} keys to LevelDB, they will be written with the next batch", writes.size(), error);
+                    requeue(writes, since);
+                    // Don't retry forever when shutting down, shutdown() will report the writes that are not written
+                    stop = !running;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            writtenBatchCount++;
+            lastBatchSize = writes.size();
+            lastBatchLatency = System.nanoTime() - since;
+            if (error == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(error);
+            }
+
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    private Throwable write(Map<ByteBuffer, byte[]> writes) {
+        Throwable error = null;
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            if (attempt > 1) {
+                log.warn("Failed to write {} keys to LevelDB, retrying ({}/{})", writes.size(), attempt, MAX_WRITE_ATTEMPTS, error);
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return error;
+                }
+            }
+
+            try (var writeBatch = db.createWriteBatch()) {
+                for (var entry : writes.entrySet()) {
+                    var key = entry.getKey().array();
+                    var value = entry.getValue();
+                    if (value == DELETED) {
+                        writeBatch.delete(key);
+                    } else {
+                        writeBatch.put(key, value);
+                    }
+                }
+                db.write(writeBatch);
+                return null;
+            } catch (IOException | RuntimeException e) {
+                error = e;
+            }
+        }
+        return error;
+    }
+
+    // Guarded by lock
+    private void requeue(Map<ByteBuffer, byte[]> writes, long since) {
+        if (pending.isEmpty()) {
+            pendingSince = since;
+        } else {
+            pendingSince = Math.min(pendingSince, since);
+        }
+
+        for (var entry : writes.entrySet()) {
+            // Writes submitted after the failed batch are newer and should be kept
+            pending.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Batch collects the writes that should be submitted together. A batch is not thread-safe.
+     */
+    public static final class Batch {
+
+        private final Map<ByteBuffer, byte[]> writes = new LinkedHashMap<>();
+
+        private Batch() {
+        }
+
+        public void put(byte[] key, byte[] value) {
+            writes.put(ByteBuffer.wrap(key), value);
+        }
+
+        public void delete(byte[] key) {
+            writes.put(ByteBuffer.wrap(key), DELETED);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.allaymc.api.world;
+
+import org.allaymc.api.block.type.BlockTypes;
+import org.allaymc.testutils.AllayTestExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+@ExtendWith(AllayTestExtension.class)
+class BlockStateBufferTest {
+    @Test
+    void testGetAndSet() {
+        var buffer = new BlockStateBuffer();
+        buffer.reset(-2, 10, 5, 3, 2, 4);
+        assertEquals(24, buffer.getVolume());
+        assertTrue(buffer.isEmpty());
+
+        var stone = BlockTypes.STONE.getDefaultState();
+        buffer.set(-2, 10, 5, stone);
+        buffer.set(0, 11, 8, stone);
+        assertEquals(stone, buffer.get(-2, 10, 5));
+        assertEquals(stone, buffer.get(0, 11, 8));
+        assertNull(buffer.get(-1, 10, 5));
+        assertFalse(buffer.isEmpty());
+
+        assertTrue(buffer.contains(0, 11, 8));
+        assertFalse(buffer.contains(1, 11, 8));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(1, 11, 8));
+    }
+
+    @Test
+    void testForEach() {
+        var buffer = new BlockStateBuffer();
+        buffer.reset(0, 0, 0, 2, 2, 2);
+        buffer.set(1, 0, 1, BlockTypes.STONE.getDefaultState());
+        buffer.set(0, 1, 0, BlockTypes.DIRT.getDefaultState());
+
+        var visited = new ArrayList<String>();
+        buffer.forEach((x, y, z, blockState) -> visited.add(x + "," + y + "," + z + "," + blockState.getBlockType().getIdentifier().path()));
+        assertEquals(2, visited.size());
+        assertEquals("0,1,0,dirt", visited.get(0));
+        assertEquals("1,0,1,stone", visited.get(1));
+    }
+
+    @Test
+    void testReuse() {
+        var buffer = new BlockStateBuffer();
+        buffer.reset(0, 0, 0, 4, 4, 4);
+        buffer.set(3, 3, 3, BlockTypes.STONE.getDefaultState());
+        var capacity = buffer.getCapacity();
+
+        // A smaller region reuses the array, and the old block states are cleared
+        buffer.reset(0, 0, 0, 2, 2, 2);
+        assertEquals(capacity, buffer.getCapacity());
+        assertTrue(buffer.isEmpty());
+        buffer.reset(0, 0, 0, 4, 4, 4);
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -41,6 +41,20 @@ class BlockStateHashTest {
         }
     }
 
+    @Test
+    void testPrimitiveLookup() {
+        var registry = Registries.BLOCK_STATE_PALETTE;
+        assertEquals(registry.getContent().size(), registry.size());
+        registry.getContent().forEach((hash, blockState) -> assertSame(blockState, registry.get(hash.intValue())));
+        // Unknown hash
+        var unknownHash = 0;
+        while (registry.getContent().containsKey(unknownHash)) {
+            unknownHash++;
+        }
+        assertNull(registry.get(unknownHash));
+        assertFalse(registry.contains(unknownHash));
+    }
+
     @Test
     void testBlockStateEquals() {
         assertSame(BlockTypes.BLUE_CANDLE.getDefaultState(), BlockTypes.BLUE_CANDLE.getDefaultState());
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.allaymc.api.block.type.BlockTypes.BLUE_CANDLE;
@@ -128,6 +129,21 @@ class AllayBlockTypeTest {
         assertEquals(0b1000000, computeSpecialValue(offset, values));
     }
 
+    @Test
+    void testStateTransitions() {
+        for (var state : testBlockType1.getAllStates()) {
+            for (var propertyType : testBlockType1.getProperties().values()) {
+                for (var value : propertyType.getValidValues()) {
+                    var propertyValue = propertyType.tryCreateValue(value);
+                    var expected = new ArrayList<>(state.getPropertyValues().values());
+                    expected.replaceAll(v -> v.getPropertyType() == propertyType ? propertyValue : v);
+                    assertSame(testBlockType1.ofState(expected), state.setPropertyValue(propertyValue));
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> testBlockType1.getDefaultState().setPropertyValue(BlockPropertyTypes.LIT, true));
+    }
+
 //    @Test
 //    void testNullDefaultStateNotAllowed() {
 //        assertThrows(BlockTypeBuildException.class, () -> {
@@ -1,5 +1,6 @@
 package org.allaymc.server.datastruct;
 
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,4 +46,43 @@ class ChunkSectionNibbleArrayTest {
         array.set(0, 0, 0, 0);
         assertNotNull(array.getByteArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSetAfterFilled() {
+        var array = new ChunkSectionNibbleArray();
+        for (int i = 0; i < 4096; i++) {
+            array.set(i, 15);
+        }
+        array.set(0, 0, 0, 0);
+        assertEquals(0, array.get(0, 0, 0));
+        assertEquals(15, array.get(1, 0, 0));
+    }
+
+    @Test
+    void testWriteAndRead() {
+        var buffer = Unpooled.buffer();
+        var empty = new ChunkSectionNibbleArray();
+        var filled = new ChunkSectionNibbleArray();
+        var array = new ChunkSectionNibbleArray();
+        for (int i = 0; i < 4096; i++) {
+            filled.set(i, 15);
+            array.set(i, i % 16);
+        }
+        empty.writeTo(buffer);
+        filled.writeTo(buffer);
+        array.writeTo(buffer);
+
+        assertEquals(0, ChunkSectionNibbleArray.readFrom(buffer).get(5, 5, 5));
+        assertEquals(15, ChunkSectionNibbleArray.readFrom(buffer).get(5, 5, 5));
+        var read = ChunkSectionNibbleArray.readFrom(buffer);
+        for (int i = 0; i < 4096; i++) {
+            assertEquals(i % 16, read.get(i));
+        }
+        assertFalse(buffer.isReadable());
+
+        // The copy shouldn't be affected by the changes of the original array
+        var copy = array.copy();
+        array.set(0, 15);
+        assertEquals(0, copy.get(0));
+    }
+}
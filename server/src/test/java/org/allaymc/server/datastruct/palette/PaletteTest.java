@@ -35,6 +35,30 @@ class PaletteTest {
         assertEquals(e2, palette.get(2));
     }
 
+    @Test
+    void testFill() {
+        var palette = new Palette<>(new Entry(0), BitArrayVersion.V0);
+        for (int i = 0; i < 16; i++) {
+            palette.set(i, new Entry(i));
+        }
+        var modificationCount = palette.getModificationCount();
+
+        var e16 = new Entry(16);
+        palette.fill(e16);
+        assertTrue(palette.oneEntryOnly());
+        assertEquals(BitArrayVersion.V0, palette.getVersion());
+        assertEquals(modificationCount + 1, palette.getModificationCount());
+        for (int i = 0; i < 16 * 16 * 16; i++) {
+            assertEquals(e16, palette.get(i));
+        }
+
+        // The palette can be resized again after filling
+        var e17 = new Entry(17);
+        palette.set(1, e17);
+        assertEquals(e16, palette.get(0));
+        assertEquals(e17, palette.get(1));
+    }
+
     @Test
     void testOneEntryOnly() {
         var e0 = new Entry(0);
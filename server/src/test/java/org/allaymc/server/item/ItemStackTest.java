@@ -1,12 +1,16 @@
 package org.allaymc.server.item;
 
+import org.allaymc.api.item.enchantment.EnchantmentTypes;
 import org.allaymc.api.item.type.ItemTypes;
+import org.allaymc.api.pdc.PersistentDataType;
+import org.allaymc.api.utils.identifier.Identifier;
 import org.allaymc.testutils.AllayTestExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author daoge_cmd
@@ -25,4 +29,78 @@ public class ItemStackTest {
             itemStack.setMeta(-1);
         });
     }
+
+    @Test
+    void testCanMergeAfterMutation() {
+        var a = ItemTypes.DIRT.createItemStack(1);
+        var b = ItemTypes.DIRT.createItemStack(1);
+        assertTrue(a.canMerge(b));
+
+        // The cached extra tags should be dropped when the data changes
+        a.setCustomName("Dirt");
+        assertFalse(a.canMerge(b));
+        b.setCustomName("Dirt");
+        assertTrue(a.canMerge(b));
+
+        a.setLore(List.of("lore"));
+        assertFalse(a.canMerge(b));
+        b.setLore(List.of("lore"));
+        assertTrue(a.canMerge(b));
+
+        a.addEnchantment(EnchantmentTypes.UNBREAKING, 1);
+        assertFalse(a.canMerge(b));
+        a.removeAllEnchantments();
+        assertTrue(a.canMerge(b));
+
+        var key = new Identifier("test", "key");
+        a.getPersistentDataContainer().set(key, PersistentDataType.INTEGER, 1);
+        assertFalse(a.canMerge(b));
+        b.getPersistentDataContainer().set(key, PersistentDataType.INTEGER, 1);
+        assertTrue(a.canMerge(b));
+
+        a.loadExtraTag(b.saveExtraTag());
+        assertTrue(a.canMerge(b));
+        assertFalse(a.canMerge(ItemTypes.DIRT.createItemStack(1)));
+    }
+
+    @Test
+    void testCanMergeFireworkRocketAfterMutation() {
+        var a = ItemTypes.FIREWORK_ROCKET.createItemStack(1);
+        var b = ItemTypes.FIREWORK_ROCKET.createItemStack(1);
+        assertTrue(a.canMerge(b));
+
+        a.setDuration(a.getDuration() + 1);
+        assertFalse(a.canMerge(b));
+        b.setDuration(a.getDuration());
+        assertTrue(a.canMerge(b));
+    }
+
+    @Test
+    void testCanMergeBooksAfterMutation() {
+        // Books can't be stacked, so the count is ignored here
+        var a = ItemTypes.WRITABLE_BOOK.createItemStack(1);
+        var b = ItemTypes.WRITABLE_BOOK.createItemStack(1);
+        assertTrue(a.canMerge(b, true));
+
+        a.setPage(0, "page");
+        assertFalse(a.canMerge(b, true));
+        b.setPage(0, "page");
+        assertTrue(a.canMerge(b, true));
+        a.removePage(0);
+        assertFalse(a.canMerge(b, true));
+
+        var c = ItemTypes.WRITTEN_BOOK.createItemStack(1);
+        var d = ItemTypes.WRITTEN_BOOK.createItemStack(1);
+        assertTrue(c.canMerge(d, true));
+
+        c.setPages(List.of("page"));
+        assertFalse(c.canMerge(d, true));
+        d.setPages(List.of("page"));
+        assertTrue(c.canMerge(d, true));
+
+        c.setTitle("title");
+        assertFalse(c.canMerge(d, true));
+        d.setTitle("title");
+        assertTrue(c.canMerge(d, true));
+    }
 }
@@ -0,0 +1,56 @@
+package org.allaymc.server.network;
+
+import io.netty.buffer.Unpooled;
+import org.allaymc.server.ServerSettings;
+import org.allaymc.testutils.AllayTestExtension;
+import org.cloudburstmc.protocol.bedrock.packet.ItemComponentPacket;
+import org.cloudburstmc.protocol.common.util.VarInts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+@ExtendWith(AllayTestExtension.class)
+class NetworkDataTest {
+
+    @Test
+    void testLoginDataBatch() throws Exception {
+        var codec = ProtocolInfo.FEATURE_VERSION;
+        var batch = NetworkData.getLoginDataBatch(codec, ServerSettings.NetworkSettings.CompressionAlgorithm.ZLIB);
+        // The batch is built only once
+        assertSame(batch, NetworkData.getLoginDataBatch(codec, ServerSettings.NetworkSettings.CompressionAlgorithm.ZLIB));
+        // Compression header of zlib
+        assertEquals(0x00, batch[0]);
+
+        var inflater = new Inflater(true);
+        inflater.setInput(Arrays.copyOfRange(batch, 1, batch.length));
+        var out = new ByteArrayOutputStream();
+        var buffer = new byte[64 * 1024];
+        while (!inflater.finished()) {
+            var length = inflater.inflate(buffer);
+            assertFalse(length == 0 && inflater.needsInput(), "Truncated batch");
+            out.write(buffer, 0, length);
+        }
+        inflater.end();
+
+        var uncompressed = Unpooled.wrappedBuffer(out.toByteArray());
+        var count = 0;
+        while (uncompressed.isReadable()) {
+            var length = VarInts.readUnsignedInt(uncompressed);
+            var packet = uncompressed.readSlice(length);
+            var header = VarInts.readUnsignedInt(packet);
+            if (count == 0) {
+                assertEquals(codec.getPacketDefinition(ItemComponentPacket.class).getId(), header & 0x3ff);
+            }
+            count++;
+        }
+        assertEquals(NetworkData.LOGIN_DATA_PACKETS.get().size(), count);
+    }
+}
@@ -0,0 +1,103 @@
+package org.allaymc.server.pack;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+class EncryptedPackCacheTest {
+
+    private static final String MANIFEST = "{\"header\":{\"uuid\":\"" + UUID.randomUUID() + "\"}}";
+    private static final String TEXTURE = "textures/blocks/stone.json";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReuseUnchangedPack() throws IOException {
+        var source = writePack("pack.zip", Map.of(TEXTURE, "{}"));
+        var cache = new EncryptedPackCache(tempDir.resolve("cache"));
+
+        var first = cache.getOrEncrypt(source, ForkJoinPool.commonPool());
+        assertFalse(first.cached());
+        assertTrue(Files.exists(first.path()));
+        assertEquals(first.key(), Files.readString(first.path().resolveSibling(first.path().getFileName() + ".key")));
+        // The source pack is not modified
+        assertEquals(EncryptedPackCache.sha256(source) + ".zip", first.path().getFileName().toString());
+
+        var second = cache.getOrEncrypt(source, ForkJoinPool.commonPool());
+        assertTrue(second.cached());
+        assertEquals(first.path(), second.path());
+        assertEquals(first.key(), second.key());
+    }
+
+    @Test
+    void testEncryptChangedPack() throws IOException {
+        var cache = new EncryptedPackCache(tempDir.resolve("cache"));
+        var first = cache.getOrEncrypt(writePack("pack.zip", Map.of(TEXTURE, "{}")), ForkJoinPool.commonPool());
+        var second = cache.getOrEncrypt(writePack("pack.zip", Map.of(TEXTURE, "{\"changed\":true}")), ForkJoinPool.commonPool());
+        assertFalse(second.cached());
+        assertNotEquals(first.path(), second.path());
+
+        cache.retainOnly(List.of(second));
+        assertFalse(Files.exists(first.path()));
+        assertFalse(Files.exists(first.path().resolveSibling(first.path().getFileName() + ".key")));
+        assertTrue(Files.exists(second.path()));
+        assertTrue(Files.exists(second.path().resolveSibling(second.path().getFileName() + ".key")));
+    }
+
+    @Test
+    void testEncryptedContent() throws IOException {
+        var source = writePack("pack.zip", Map.of(
+                TEXTURE, "{\"texture\":\"stone\"}",
+                "subpacks/low/textures/blocks/dirt.json", "{\"texture\":\"dirt\"}"
+        ));
+        var entry = new EncryptedPackCache(tempDir.resolve("cache")).getOrEncrypt(source, ForkJoinPool.commonPool());
+
+        try (var zip = new ZipFile(entry.path().toFile())) {
+            assertNotNull(zip.getEntry("contents.json"));
+            assertNotNull(zip.getEntry("subpacks/low/contents.json"));
+            // Manifest is not encrypted
+            assertEquals(MANIFEST, new String(zip.getInputStream(zip.getEntry("manifest.json")).readAllBytes(), StandardCharsets.UTF_8));
+            var texture = zip.getInputStream(zip.getEntry(TEXTURE)).readAllBytes();
+            assertNotEquals("{\"texture\":\"stone\"}", new String(texture, StandardCharsets.UTF_8));
+            assertEquals("{\"texture\":\"stone\"}".length(), texture.length);
+        }
+    }
+
+    private Path writePack(String name, Map<String, String> files) throws IOException {
+        var path = tempDir.resolve(name);
+        try (var zos = new ZipOutputStream(new FileOutputStream(path.toFile()))) {
+            zos.putNextEntry(new ZipEntry("manifest.json"));
+            zos.write(MANIFEST.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+            for (var file : files.entrySet()) {
+                if (file.getKey().startsWith("subpacks/")) {
+                    var subPackRoot = file.getKey().substring(0, file.getKey().indexOf('/', "subpacks/".length()) + 1);
+                    zos.putNextEntry(new ZipEntry(subPackRoot));
+                    zos.closeEntry();
+                }
+                zos.putNextEntry(new ZipEntry(file.getKey()));
+                zos.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return path;
+    }
+}
@@ -0,0 +1,97 @@
+package org.allaymc.server.pack;
+
+import org.allaymc.api.pack.Pack;
+import org.allaymc.api.player.Player;
+import org.cloudburstmc.protocol.bedrock.packet.ResourcePackChunkDataPacket;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author daoge_cmd
+ */
+class PackDownloadSchedulerTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private Pack pack;
+
+    @BeforeEach
+    void setUp() {
+        pack = mock(Pack.class);
+        when(pack.getId()).thenReturn(UUID.randomUUID());
+        when(pack.getStringVersion()).thenReturn("1.0.0");
+        when(pack.getSize()).thenReturn(CHUNK_SIZE * 10 + 1);
+        when(pack.getChunkBuffer(anyInt(), anyInt())).thenReturn(ByteBuffer.allocate(1).asReadOnlyBuffer());
+    }
+
+    @Test
+    void testChunkCount() {
+        var scheduler = new PackDownloadScheduler(CHUNK_SIZE, 0, 0);
+        assertEquals(11, scheduler.getChunkCount(pack));
+    }
+
+    @Test
+    void testNoWindow() {
+        var scheduler = new PackDownloadScheduler(CHUNK_SIZE, 0, 0);
+        var player = mock(Player.class);
+        scheduler.request(player, pack, 0);
+        verify(player, times(1)).sendPacket(any(ResourcePackChunkDataPacket.class));
+        assertEquals(0, scheduler.getPendingRequestCount());
+    }
+
+    @Test
+    void testPlayerWindow() {
+        var scheduler = new PackDownloadScheduler(CHUNK_SIZE, 2, 0);
+        var player = mock(Player.class);
+        for (int i = 0; i < 5; i++) {
+            scheduler.request(player, pack, i);
+        }
+        verify(player, never()).sendPacket(any());
+
+        scheduler.tick();
+        verify(player, times(2)).sendPacket(any(ResourcePackChunkDataPacket.class));
+        assertEquals(3, scheduler.getPendingRequestCount());
+
+        scheduler.tick();
+        scheduler.tick();
+        verify(player, times(5)).sendPacket(any(ResourcePackChunkDataPacket.class));
+        assertEquals(0, scheduler.getPendingRequestCount());
+    }
+
+    @Test
+    void testGlobalWindowIsShared() {
+        var scheduler = new PackDownloadScheduler(CHUNK_SIZE, 8, 4);
+        var player1 = mock(Player.class);
+        var player2 = mock(Player.class);
+        for (int i = 0; i < 8; i++) {
+            scheduler.request(player1, pack, i);
+            scheduler.request(player2, pack, i);
+        }
+
+        scheduler.tick();
+        verify(player1, times(2)).sendPacket(any(ResourcePackChunkDataPacket.class));
+        verify(player2, times(2)).sendPacket(any(ResourcePackChunkDataPacket.class));
+        assertEquals(12, scheduler.getPendingRequestCount());
+    }
+
+    @Test
+    void testDisconnectedPlayer() {
+        var scheduler = new PackDownloadScheduler(CHUNK_SIZE, 1, 0);
+        var player = mock(Player.class);
+        scheduler.request(player, pack, 0);
+        scheduler.request(player, pack, 1);
+        when(player.isDisconnected()).thenReturn(true);
+
+        scheduler.tick();
+        verify(player, never()).sendPacket(any());
+        assertEquals(0, scheduler.getPendingRequestCount());
+    }
+}
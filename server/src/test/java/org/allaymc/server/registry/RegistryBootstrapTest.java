@@ -0,0 +1,65 @@
+package org.allaymc.server.registry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+public class RegistryBootstrapTest {
+    @Test
+    void testDependencyOrder() {
+        var finished = new CopyOnWriteArrayList<String>();
+        var bootstrap = new RegistryBootstrap()
+                .stage("a", () -> finished.add("a"))
+                .stage("b", () -> finished.add("b"))
+                .stage("c", () -> {
+                    assertTrue(finished.containsAll(List.of("a", "b")));
+                    finished.add("c");
+                }, "a", "b")
+                .stage("d", () -> {
+                    assertTrue(finished.contains("c"));
+                    finished.add("d");
+                }, "c");
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            bootstrap.run(executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4, finished.size());
+        assertEquals("d", finished.getLast());
+        assertEquals(4, bootstrap.getTimings().size());
+    }
+
+    @Test
+    void testInvalidStages() {
+        var bootstrap = new RegistryBootstrap().stage("a", () -> {});
+        assertThrows(IllegalArgumentException.class, () -> bootstrap.stage("a", () -> {}));
+        assertThrows(IllegalArgumentException.class, () -> bootstrap.stage("b", () -> {}, "unknown"));
+    }
+
+    @Test
+    void testFailure() {
+        var bootstrap = new RegistryBootstrap()
+                .stage("a", () -> {
+                    throw new IllegalStateException("test");
+                })
+                .stage("b", () -> fail("Dependent stage shouldn't run"), "a");
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var exception = assertThrows(IllegalStateException.class, () -> bootstrap.run(executor));
+            assertEquals("test", exception.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.allaymc.server.registry;
+
+import org.allaymc.server.registry.loader.BlockDefaultStateHashRegistryLoader;
+import org.allaymc.server.registry.loader.BlockStateDataRegistryLoader;
+import org.allaymc.server.registry.loader.ItemDataRegistryLoader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+public class RegistrySnapshotTest {
+    @Test
+    void testRoundTrip() throws Exception {
+        var blockStateData = new BlockStateDataRegistryLoader().loadFromJson();
+        var blockDefaultStateHashes = new BlockDefaultStateHashRegistryLoader().loadFromJson();
+        var itemData = new ItemDataRegistryLoader().loadFromJson();
+
+        var output = new ByteArrayOutputStream();
+        RegistrySnapshot.write(output, blockStateData, blockDefaultStateHashes, itemData);
+        var snapshot = RegistrySnapshot.read(ByteBuffer.wrap(output.toByteArray()));
+
+        assertEquals(blockDefaultStateHashes, snapshot.readBlockDefaultStateHashes());
+        assertEquals(itemData, snapshot.readItemData());
+
+        var loaded = snapshot.readBlockStateData();
+        assertEquals(blockStateData.keySet(), loaded.keySet());
+        blockStateData.forEach((id, states) -> {
+            var loadedStates = loaded.get(id);
+            assertEquals(states.keySet(), loadedStates.keySet());
+            // VoxelShape doesn't override equals(), so compare the voxel shapes by their solids
+            states.forEach((hash, data) -> {
+                var loadedData = loadedStates.get(hash);
+                assertEquals(data.collisionShape().getSolids(), loadedData.collisionShape().getSolids());
+                assertEquals(data.shape().getSolids(), loadedData.shape().getSolids());
+                assertEquals(
+                        data.toBuilder().collisionShape(null).shape(null).build(),
+                        loadedData.toBuilder().collisionShape(null).shape(null).build()
+                );
+            });
+        });
+    }
+
+    @Test
+    void testInvalidSnapshot() {
+        assertThrows(IllegalArgumentException.class, () -> RegistrySnapshot.read(ByteBuffer.allocate(16)));
+    }
+
+    @Test
+    void testBrokenSections() throws Exception {
+        var output = new ByteArrayOutputStream();
+        RegistrySnapshot.write(
+                output,
+                new BlockStateDataRegistryLoader().loadFromJson(),
+                new BlockDefaultStateHashRegistryLoader().loadFromJson(),
+                new ItemDataRegistryLoader().loadFromJson()
+        );
+        var bytes = output.toByteArray();
+
+        // The header is intact but the content is cut off, the broken sections should be ignored instead of failing the loading
+        var snapshot = RegistrySnapshot.read(ByteBuffer.wrap(bytes, 0, bytes.length / 2).slice());
+        assertDoesNotThrow(() -> {
+            assertNull(snapshot.readBlockStateData());
+            assertNull(snapshot.readBlockDefaultStateHashes());
+            assertNull(snapshot.readItemData());
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package org.allaymc.server.timings;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author daoge_cmd
+ */
+class TickHistogramTest {
+    @Test
+    void testEmpty() {
+        var histogram = new TickHistogram(10);
+        assertEquals(0, histogram.size());
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getMax());
+        assertArrayEquals(new int[]{0, 0}, histogram.getBucketCounts(new long[]{10}));
+    }
+
+    @Test
+    void testRollingWindow() {
+        var histogram = new TickHistogram(4);
+        for (int i = 1; i <= 6; i++) {
+            histogram.record(i * 10L);
+        }
+
+        // Only the latest 4 ticks (30, 40, 50, 60) are kept
+        assertEquals(4, histogram.size());
+        assertEquals(60, histogram.getMax());
+        assertEquals(30, histogram.getPercentile(0));
+        assertEquals(40, histogram.getPercentile(0.5));
+        assertEquals(60, histogram.getPercentile(1));
+    }
+
+    @Test
+    void testBucketCounts() {
+        var histogram = new TickHistogram(100);
+        long[] durations = {1, 9, 10, 24, 25, 49, 50, 1000};
+        for (var duration : durations) {
+            histogram.record(duration);
+        }
+
+        assertArrayEquals(new int[]{2, 2, 2, 2}, histogram.getBucketCounts(new long[]{10, 25, 50}));
+    }
+}
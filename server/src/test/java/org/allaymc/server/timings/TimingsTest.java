@@ -0,0 +1,48 @@
+package org.allaymc.server.timings;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+class TimingsTest {
+    @AfterEach
+    void tearDown() {
+        Timings.setEnabled(false);
+    }
+
+    @Test
+    void testSameTimingForSameName() {
+        assertSame(Timings.of("Test", "a"), Timings.of("Test", "a"));
+        assertNotSame(Timings.of("Test", "a"), Timings.of("Test2", "a"));
+    }
+
+    @Test
+    void testNothingRecordedWhenDisabled() {
+        var timing = Timings.of("Test", "disabled");
+        var start = timing.start();
+        assertEquals(0, start);
+        timing.stop(start);
+        assertEquals(0, timing.getCount());
+    }
+
+    @Test
+    void testRecordAndReset() {
+        Timings.setEnabled(true);
+        var timing = Timings.of("Test", "record");
+        timing.record(100);
+        timing.record(300);
+        timing.stop(timing.start());
+        assertEquals(3, timing.getCount());
+        assertTrue(timing.getTotalNanos() >= 400);
+        assertTrue(timing.getMaxNanos() >= 300);
+
+        Timings.reset();
+        assertEquals(0, timing.getCount());
+        assertEquals(0, timing.getTotalNanos());
+        assertEquals(0, timing.getMaxNanos());
+    }
+}
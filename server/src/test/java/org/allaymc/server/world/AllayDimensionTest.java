@@ -0,0 +1,204 @@
+package org.allaymc.server.world;
+
+import org.allaymc.api.eventbus.event.block.BlockPlaceEvent;
+import org.allaymc.api.server.Server;
+import org.allaymc.api.world.BlockStateBuffer;
+import org.allaymc.api.world.Dimension;
+import org.allaymc.server.world.chunk.AllayUnsafeChunk;
+import org.allaymc.server.world.light.AllayLightEngine;
+import org.allaymc.testutils.AllayTestExtension;
+import org.joml.primitives.AABBd;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.allaymc.api.block.type.BlockTypes.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+@ExtendWith(AllayTestExtension.class)
+class AllayDimensionTest {
+
+    // Far away from the spawn point, so that the blocks are not touched by anything else
+    private static final int BASE_X = 4096;
+    private static final int BASE_Z = 4096;
+
+    private Dimension dimension;
+
+    @BeforeEach
+    void setUp() {
+        dimension = Server.getInstance().getWorldPool().getDefaultWorld().getOverWorld();
+        for (int chunkX = (BASE_X >> 4) - 1; chunkX <= (BASE_X >> 4) + 2; chunkX++) {
+            for (int chunkZ = (BASE_Z >> 4) - 1; chunkZ <= (BASE_Z >> 4) + 2; chunkZ++) {
+                dimension.getChunkManager().getOrLoadChunk(chunkX, chunkZ).join();
+            }
+        }
+        // Clear the test area
+        dimension.fillBlockStates(BASE_X - 16, 0, BASE_Z - 16, 64, 64, 64, AIR.getDefaultState());
+    }
+
+    @Test
+    void testFillPartialSections() {
+        // The region crosses the borders of chunks and sections
+        var x = BASE_X + 10;
+        var y = 10;
+        var z = BASE_Z + 14;
+        var count = dimension.fillBlockStates(x, y, z, 12, 20, 4, STONE.getDefaultState());
+        assertEquals(12 * 20 * 4, count);
+        assertEquals(STONE.getDefaultState(), dimension.getBlockState(x, y, z));
+        assertEquals(STONE.getDefaultState(), dimension.getBlockState(x + 11, y + 19, z + 3));
+        assertEquals(AIR.getDefaultState(), dimension.getBlockState(x - 1, y, z));
+        assertEquals(AIR.getDefaultState(), dimension.getBlockState(x + 12, y, z));
+        assertEquals(AIR.getDefaultState(), dimension.getBlockState(x, y + 20, z));
+        assertEquals(AIR.getDefaultState(), dimension.getBlockState(x, y, z + 4));
+
+        // Only the blocks which are really changed are counted
+        assertEquals(0, dimension.fillBlockStates(x, y, z, 12, 20, 4, STONE.getDefaultState()));
+        dimension.setBlockState(x + 1, y + 1, z + 1, DIRT.getDefaultState());
+        assertEquals(1, dimension.fillBlockStates(x, y, z, 12, 20, 4, STONE.getDefaultState()));
+    }
+
+    @Test
+    void testFillFullSections() {
+        // The region covers two full sections
+        assertEquals(2 * 16 * 16 * 16, dimension.fillBlockStates(BASE_X, 0, BASE_Z, 16, 32, 16, STONE.getDefaultState()));
+        assertEquals(STONE.getDefaultState(), dimension.getBlockState(BASE_X + 15, 31, BASE_Z + 15));
+        assertEquals(AIR.getDefaultState(), dimension.getBlockState(BASE_X + 16, 31, BASE_Z + 15));
+
+        // Filling a section with the block state it already holds changes nothing
+        assertEquals(0, dimension.fillBlockStates(BASE_X, 0, BASE_Z, 16, 32, 16, STONE.getDefaultState()));
+        dimension.setBlockState(BASE_X, 0, BASE_Z, DIRT.getDefaultState());
+        dimension.setBlockState(BASE_X + 3, 20, BASE_Z + 7, DIRT.getDefaultState());
+        assertEquals(2, dimension.fillBlockStates(BASE_X, 0, BASE_Z, 16, 32, 16, STONE.getDefaultState()));
+        assertEquals(STONE.getDefaultState(), dimension.getBlockState(BASE_X, 0, BASE_Z));
+    }
+
+    @Test
+    void testSetBlockStatesInBulkWithCancelledEvents() {
+        // Cancel the placement in the even columns
+        Consumer<BlockPlaceEvent> listener = event -> {
+            if ((event.getBlock().getPosition().x() & 1) == 0) {
+                event.cancel();
+            }
+        };
+        Server.getInstance().getEventBus().registerListenerFor(BlockPlaceEvent.class, listener);
+        try {
+            var count = dimension.setBlockStatesInBulk(BASE_X + 14, 5, BASE_Z, 4, 2, 2, 0, (x, y, z) -> y == 5 ? STONE.getDefaultState() : DIRT.getDefaultState(), true, true);
+            assertEquals(2 * 2 * 2, count);
+        } finally {
+            Server.getInstance().getEventBus().unregisterListenerFor(BlockPlaceEvent.class, listener);
+        }
+
+        for (int x = BASE_X + 14; x < BASE_X + 18; x++) {
+            var cancelled = (x & 1) == 0;
+            assertEquals(cancelled ? AIR.getDefaultState() : STONE.getDefaultState(), dimension.getBlockState(x, 5, BASE_Z));
+            assertEquals(cancelled ? AIR.getDefaultState() : DIRT.getDefaultState(), dimension.getBlockState(x, 6, BASE_Z + 1));
+        }
+    }
+
+    @Test
+    void testFillBlockEntities() {
+        var x = BASE_X + 15;
+        var z = BASE_Z + 15;
+        assertEquals(4, dimension.fillBlockStates(x, 1, z, 2, 1, 2, CHEST.getDefaultState()));
+        for (int dx = 0; dx < 2; dx++) {
+            for (int dz = 0; dz < 2; dz++) {
+                assertEquals(CHEST, dimension.getBlockState(x + dx, 1, z + dz).getBlockType());
+                assertNotNull(dimension.getBlockEntity(x + dx, 1, z + dz));
+            }
+        }
+
+        // The block entities should be removed when the blocks are replaced, even if the full section is filled
+        assertEquals(16 * 16 * 16, dimension.fillBlockStates(BASE_X, 0, BASE_Z, 16, 16, 16, STONE.getDefaultState()));
+        assertNull(dimension.getBlockEntity(x, 1, z));
+        assertEquals(4, dimension.fillBlockStates(x, 1, z, 2, 1, 2, AIR.getDefaultState()));
+        for (int dx = 0; dx < 2; dx++) {
+            for (int dz = 0; dz < 2; dz++) {
+                assertNull(dimension.getBlockEntity(x + dx, 1, z + dz));
+            }
+        }
+    }
+
+    @Test
+    void testSaveChunkBeforeBulkLightUpdate() throws InterruptedException {
+        var chunkX = BASE_X >> 4;
+        var chunkZ = BASE_Z >> 4;
+        var lightEngine = (AllayLightEngine) dimension.getLightEngine();
+        // Wait for the light to settle, so that the light can be copied when saving the chunk
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (lightEngine.copyChunkLightData(chunkX, chunkZ) == null) {
+            assertTrue(System.nanoTime() < deadline, "The light in the chunk is not settled");
+            Thread.onSpinWait();
+        }
+
+        var storage = dimension.getWorld().getWorldStorage();
+        var chunk = dimension.getChunkManager().getChunk(chunkX, chunkZ);
+        var saver = new AtomicReference<Thread>();
+        dimension.setBlockStatesInBulk(BASE_X + 8, 40, BASE_Z + 8, 1, 1, 1, 0, (x, y, z) -> {
+            // The supplier is called while the write lock of the section is held, so the chunk
+            // is saved right after the blocks are changed and the lock is released
+            var thread = Thread.ofPlatform().start(() -> storage.writeChunkSync(chunk));
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+            saver.set(thread);
+            return GLOWSTONE.getDefaultState();
+        }, false, false);
+        saver.get().join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(saver.get().isAlive());
+
+        // The old light shouldn't be saved together with the new blocks
+        var lightData = ((AllayUnsafeChunk) storage.readChunkSync(chunkX, chunkZ, dimension.getDimensionInfo()).toUnsafeChunk()).getLightData();
+        if (lightData != null) {
+            var sectionIndex = (40 >> 4) - dimension.getDimensionInfo().minSectionY();
+            assertEquals(GLOWSTONE.getDefaultState().getBlockStateData().lightEmission(), lightData.blockLight()[sectionIndex].get(8, 40 & 15, 8));
+        }
+    }
+
+    @Test
+    void testGetBlockStatesIntoBuffer() {
+        // The region has negative coordinates and crosses the borders of chunks and sections
+        var x = -BASE_X - 3;
+        var y = -3;
+        var z = -BASE_Z - 5;
+        for (int chunkX = (x >> 4); chunkX <= ((x + 6) >> 4); chunkX++) {
+            for (int chunkZ = (z >> 4); chunkZ <= ((z + 8) >> 4); chunkZ++) {
+                dimension.getChunkManager().getOrLoadChunk(chunkX, chunkZ).join();
+            }
+        }
+        dimension.setBlockStates(x, y, z, 6, 7, 9, 0, (bx, by, bz) -> ((bx + by + bz) & 1) == 0 ? STONE.getDefaultState() : DIRT.getDefaultState());
+
+        var buffer = dimension.getBlockStates(x, y, z, 6, 7, 9, 0, new BlockStateBuffer());
+        assertEquals(6 * 7 * 9, buffer.getVolume());
+        for (int bx = x; bx < x + 6; bx++) {
+            for (int by = y; by < y + 7; by++) {
+                for (int bz = z; bz < z + 9; bz++) {
+                    assertEquals(((bx + by + bz) & 1) == 0 ? STONE.getDefaultState() : DIRT.getDefaultState(), buffer.get(bx, by, bz));
+                }
+            }
+        }
+        assertFalse(buffer.contains(x - 1, y, z));
+        assertFalse(buffer.contains(x, y + 7, z));
+
+        // The buffer can be reused for a smaller region, the old block states shouldn't leak into it
+        dimension.getBlockStates(x + 2, y + 2, z + 4, 2, 2, 2, 0, buffer);
+        assertEquals(8, buffer.getVolume());
+        buffer.forEach((bx, by, bz, blockState) -> assertEquals(dimension.getBlockState(bx, by, bz), blockState));
+
+        // The block states in unloaded chunks are null
+        var unloadedX = x - 10 * 16;
+        assertNull(dimension.getChunkManager().getChunkByDimensionPos(unloadedX, z));
+        assertTrue(dimension.getBlockStates(unloadedX, y, z, 2, 2, 2, 0, buffer).isEmpty());
+
+        // The colliding block check reads the same region
+        assertTrue(dimension.hasCollidingBlockStates(new AABBd(x + 2.5, y + 2.5, z + 4.5, x + 3.5, y + 3.5, z + 5.5)));
+        dimension.fillBlockStates(x, y, z, 6, 7, 9, AIR.getDefaultState());
+        assertFalse(dimension.hasCollidingBlockStates(new AABBd(x + 2.5, y + 2.5, z + 4.5, x + 3.5, y + 3.5, z + 5.5)));
+    }
+}
@@ -1,14 +1,20 @@
 package org.allaymc.server.world.chunk;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
 import lombok.extern.slf4j.Slf4j;
 import org.allaymc.api.blockentity.BlockEntityInitInfo;
 import org.allaymc.api.blockentity.type.BlockEntityTypes;
 import org.allaymc.api.world.biome.BiomeTypes;
 import org.allaymc.api.world.chunk.Chunk;
+import org.allaymc.api.world.chunk.OperationType;
 import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.api.world.storage.WorldStorage;
 import org.allaymc.testutils.AllayTestExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
 
 import static org.allaymc.api.block.type.BlockTypes.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -102,4 +108,184 @@ class AllayChunkTest {
         chunk.removeBlockEntity(11, 45, 14);
         assertNull(chunk.getBlockEntity(11, 45, 14));
     }
+
+    @Test
+    void testNetworkCache() {
+        var unsafeChunk = (AllayUnsafeChunk) chunk.toUnsafeChunk();
+        var hits = ChunkNetworkCache.getHits();
+        var misses = ChunkNetworkCache.getMisses();
+
+        var first = ChunkEncoder.writeToNetwork(unsafeChunk);
+        assertEquals(misses + 1, ChunkNetworkCache.getMisses());
+        assertEquals(hits, ChunkNetworkCache.getHits());
+
+        // The payload should be encoded only once if nothing changed
+        var second = ChunkEncoder.writeToNetwork(unsafeChunk);
+        assertEquals(misses + 1, ChunkNetworkCache.getMisses());
+        assertEquals(hits + 1, ChunkNetworkCache.getHits());
+        assertEquals(first, second);
+        assertEquals(unsafeChunk.computeNetworkStamp(), unsafeChunk.computeNetworkStamp());
+
+        // A block change invalidates the cached payload
+        var oldStamp = unsafeChunk.computeNetworkStamp();
+        chunk.setBlockState(0, 0, 0, OAK_WOOD.getDefaultState());
+        assertNotEquals(oldStamp, unsafeChunk.computeNetworkStamp());
+        var third = ChunkEncoder.writeToNetwork(unsafeChunk);
+        assertEquals(misses + 2, ChunkNetworkCache.getMisses());
+        assertEquals(hits + 1, ChunkNetworkCache.getHits());
+        assertNotEquals(first, third);
+
+        // And the new payload is cached again
+        var fourth = ChunkEncoder.writeToNetwork(unsafeChunk);
+        assertEquals(misses + 2, ChunkNetworkCache.getMisses());
+        assertEquals(hits + 2, ChunkNetworkCache.getHits());
+        assertEquals(third, fourth);
+
+        oldStamp = unsafeChunk.computeNetworkStamp();
+        chunk.setBiome(0, 0, 0, BiomeTypes.CHERRY_GROVE);
+        assertNotEquals(oldStamp, unsafeChunk.computeNetworkStamp());
+
+        first.release();
+        second.release();
+        third.release();
+        fourth.release();
+        unsafeChunk.getNetworkCache().release();
+    }
+
+    @Test
+    void testBlobCache() {
+        var unsafeChunk = (AllayUnsafeChunk) chunk.toUnsafeChunk();
+        var blobIds = new LongArrayList();
+        var blobs = new ArrayList<ChunkBlobStore.Blob>();
+        var hits = ChunkNetworkCache.getHits();
+        var misses = ChunkNetworkCache.getMisses();
+        var blobHits = ChunkNetworkCache.getBlobHits();
+        var blobMisses = ChunkNetworkCache.getBlobMisses();
+        ChunkEncoder.writeToNetworkCached(unsafeChunk, blobIds, blobs::add).release();
+        // One blob for each section and one blob for the biomes
+        var blobCount = DimensionInfo.OVERWORLD.chunkSectionCount() + 1;
+        assertEquals(blobCount, blobIds.size());
+        // Blob lookups are counted separately from the payload cache
+        assertEquals(blobMisses + blobCount, ChunkNetworkCache.getBlobMisses());
+        assertEquals(blobHits, ChunkNetworkCache.getBlobHits());
+        assertEquals(hits, ChunkNetworkCache.getHits());
+        assertEquals(misses, ChunkNetworkCache.getMisses());
+        ChunkEncoder.writeToNetworkCached(unsafeChunk, new LongArrayList(), $ -> {}).release();
+        assertEquals(blobMisses + blobCount, ChunkNetworkCache.getBlobMisses());
+        assertEquals(blobHits + blobCount, ChunkNetworkCache.getBlobHits());
+        // Identical sections share the same blob
+        assertEquals(blobIds.getLong(0), blobIds.getLong(1));
+        assertSame(blobs.get(0).data(), blobs.get(1).data());
+        assertArrayEquals(blobs.get(0).data(), ChunkBlobStore.get(blobIds.getLong(0)));
+
+        chunk.setBlockState(0, 0, 0, OAK_WOOD.getDefaultState());
+        var sectionIndex = -DimensionInfo.OVERWORLD.minSectionY();
+        var newBlob = ChunkEncoder.getSectionBlob(unsafeChunk, unsafeChunk.getSection(0));
+        assertNotEquals(blobIds.getLong(sectionIndex), newBlob.id());
+        // Unchanged sections keep their blobs
+        assertEquals(blobIds.getLong(sectionIndex + 1), ChunkEncoder.getSectionBlob(unsafeChunk, unsafeChunk.getSection(1)).id());
+        unsafeChunk.getNetworkCache().release();
+    }
+
+    @Test
+    void testRandomUpdatableBlockCount() {
+        var section = (AllayChunkSection) chunk.getSection(0);
+        assertEquals(0, section.getRandomUpdatableBlockCount());
+
+        chunk.setBlockState(1, 2, 3, GRASS_BLOCK.getDefaultState());
+        chunk.setBlockState(1, 3, 3, GRASS_BLOCK.getDefaultState());
+        chunk.setBlockState(1, 4, 3, STONE.getDefaultState());
+        assertEquals(2, section.getRandomUpdatableBlockCount());
+        assertTrue(section.isRandomUpdatable(1, 2, 3));
+        assertFalse(section.isRandomUpdatable(1, 4, 3));
+
+        chunk.setBlockState(1, 2, 3, STONE.getDefaultState());
+        // Blocks in layer 1 won't be random updated
+        chunk.setBlockState(1, 5, 3, GRASS_BLOCK.getDefaultState(), 1);
+        assertEquals(1, section.getRandomUpdatableBlockCount());
+        assertFalse(section.isRandomUpdatable(1, 2, 3));
+
+        // Changing the palette directly should make the index rebuilt
+        section.blockLayers()[0].set(0, GRASS_BLOCK.getDefaultState());
+        assertEquals(2, section.getRandomUpdatableBlockCount());
+    }
+
+    @Test
+    void testRandomUpdatableBlockCountWithConcurrentWrites() throws InterruptedException {
+        var section = (AllayChunkSection) chunk.getSection(0);
+        var writer = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                var x = i & 15;
+                var z = (i >> 4) & 15;
+                var y = (i >> 8) & 15;
+                chunk.setBlockState(x, y, z, (i & 1) == 0 ? GRASS_BLOCK.getDefaultState() : STONE.getDefaultState());
+            }
+        });
+        writer.start();
+        // Reading the index under the read lock of the section should always see a consistent index
+        var counts = new int[2];
+        while (writer.isAlive()) {
+            chunk.applyOperationInSection(0, s -> {
+                counts[0] = section.getRandomUpdatableBlockCount();
+                counts[1] = countRandomUpdatableBlocks(section);
+            }, OperationType.READ, OperationType.NONE);
+            assertEquals(counts[1], counts[0]);
+        }
+        writer.join();
+        assertEquals(countRandomUpdatableBlocks(section), section.getRandomUpdatableBlockCount());
+    }
+
+    private static int countRandomUpdatableBlocks(AllayChunkSection section) {
+        var count = 0;
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    if (section.getBlockState(x, y, z, 0).getBehavior().canRandomUpdate()) {
+                        assertTrue(section.isRandomUpdatable(x, y, z));
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void testSaveIfDirty() {
+        var unsafeChunk = (AllayUnsafeChunk) chunk.toUnsafeChunk();
+        var worldStorage = Mockito.mock(WorldStorage.class);
+        // Nothing has been changed since the chunk was created
+        assertFalse(unsafeChunk.saveIfDirty(worldStorage));
+
+        chunk.setBlockState(0, 0, 0, STONE.getDefaultState());
+        assertTrue(unsafeChunk.saveIfDirty(worldStorage));
+        assertFalse(unsafeChunk.saveIfDirty(worldStorage));
+
+        chunk.setBiome(0, 0, 0, BiomeTypes.FOREST);
+        assertTrue(unsafeChunk.saveIfDirty(worldStorage));
+        Mockito.verify(worldStorage, Mockito.times(2)).writeChunk(chunk);
+    }
+
+    @Test
+    void testSaveIfBlockEntitiesDirty() {
+        var unsafeChunk = (AllayUnsafeChunk) chunk.toUnsafeChunk();
+        var worldStorage = Mockito.mock(WorldStorage.class);
+        assertFalse(unsafeChunk.saveIfDirty(worldStorage));
+
+        chunk.addBlockEntity(BlockEntityTypes.BARREL.createBlockEntity(BlockEntityInitInfo.builder().pos(1, 2, 3).build()));
+        assertTrue(unsafeChunk.saveIfDirty(worldStorage));
+        assertFalse(unsafeChunk.saveIfDirty(worldStorage));
+
+        // Changes of the block entities are reported by the block entities
+        unsafeChunk.markBlockEntitiesDirty();
+        assertTrue(unsafeChunk.saveIfDirty(worldStorage));
+        assertFalse(unsafeChunk.saveIfDirty(worldStorage));
+
+        // Removing a block entity that doesn't exist changes nothing
+        chunk.removeBlockEntity(4, 5, 6);
+        assertFalse(unsafeChunk.saveIfDirty(worldStorage));
+        chunk.removeBlockEntity(1, 2, 3);
+        assertTrue(unsafeChunk.saveIfDirty(worldStorage));
+        Mockito.verify(worldStorage, Mockito.times(3)).writeChunk(chunk);
+    }
 }
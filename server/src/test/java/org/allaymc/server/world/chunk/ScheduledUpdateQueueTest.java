@@ -0,0 +1,63 @@
+package org.allaymc.server.world.chunk;
+
+import org.allaymc.api.utils.hash.HashUtils;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+class ScheduledUpdateQueueTest {
+
+    @Test
+    void testPollDue() {
+        var queue = new ScheduledUpdateQueue();
+        queue.add(new ScheduledUpdateInfo(new Vector3i(1, 0, 0), 5));
+        queue.add(new ScheduledUpdateInfo(new Vector3i(2, 0, 0), 10));
+        queue.add(new ScheduledUpdateInfo(new Vector3i(3, 0, 0), 3));
+
+        assertTrue(queue.pollDue(2).isEmpty());
+
+        var due = queue.pollDue(5);
+        assertEquals(2, due.size());
+        assertEquals(3, due.get(0).getPos().x());
+        assertEquals(1, due.get(1).getPos().x());
+        assertEquals(1, queue.size());
+        assertFalse(queue.contains(HashUtils.hashChunkXYZ(1, 0, 0)));
+        assertTrue(queue.contains(HashUtils.hashChunkXYZ(2, 0, 0)));
+    }
+
+    @Test
+    void testPriority() {
+        var queue = new ScheduledUpdateQueue();
+        queue.add(new ScheduledUpdateInfo(new Vector3i(1, 0, 0), 5, 1));
+        queue.add(new ScheduledUpdateInfo(new Vector3i(2, 0, 0), 5, -1));
+        queue.add(new ScheduledUpdateInfo(new Vector3i(3, 0, 0), 5, 1));
+
+        var due = queue.pollDue(5);
+        assertEquals(3, due.size());
+        assertEquals(2, due.get(0).getPos().x());
+        // Same priority, keep the order in which they were scheduled
+        assertEquals(1, due.get(1).getPos().x());
+        assertEquals(3, due.get(2).getPos().x());
+    }
+
+    @Test
+    void testReschedule() {
+        var queue = new ScheduledUpdateQueue();
+        queue.add(new ScheduledUpdateInfo(new Vector3i(1, 0, 0), 5));
+        queue.add(new ScheduledUpdateInfo(new Vector3i(1, 0, 0), 20));
+        assertEquals(1, queue.size());
+
+        // The old entry should be skipped
+        assertTrue(queue.pollDue(10).isEmpty());
+        assertTrue(queue.contains(HashUtils.hashChunkXYZ(1, 0, 0)));
+
+        var due = queue.pollDue(20);
+        assertEquals(1, due.size());
+        assertEquals(20, due.getFirst().getTime());
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,212 @@
+package org.allaymc.server.world.chunk;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+class StampedChunkSectionLocksTest {
+
+    private static final int MIN_SECTION_Y = -4;
+    private static final int SECTION_COUNT = 24;
+
+    @Test
+    void testOptimisticReadValidation() throws InterruptedException {
+        var locks = new StampedChunkSectionLocks(MIN_SECTION_Y, SECTION_COUNT);
+        var stamp = locks.tryOptimisticReadAt(0);
+        assertNotEquals(0, stamp);
+        assertTrue(locks.validate(0, stamp));
+
+        // A write in another section won't invalidate the stamp
+        runInOtherThread(() -> {
+            locks.lockWriteLockAt(1);
+            locks.unlockWriteLockAt(1);
+        });
+        assertTrue(locks.validate(0, stamp));
+
+        // A write in the same section invalidates the stamp
+        runInOtherThread(() -> {
+            locks.lockWriteLockAt(0);
+            locks.unlockWriteLockAt(0);
+        });
+        assertFalse(locks.validate(0, stamp));
+
+        // Optimistic read is not available while the section is being written
+        locks.lockWriteLockAt(0);
+        try {
+            var stampWhileWriting = new long[1];
+            runInOtherThread(() -> stampWhileWriting[0] = locks.tryOptimisticReadAt(0));
+            assertEquals(0, stampWhileWriting[0]);
+        } finally {
+            locks.unlockWriteLockAt(0);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void testNestedReadWithWaitingWriter() throws InterruptedException {
+        var locks = new StampedChunkSectionLocks(MIN_SECTION_Y, SECTION_COUNT);
+        locks.lockReadLockAt(0);
+
+        var writer = new Thread(() -> {
+            locks.lockWriteLockAt(0);
+            locks.unlockWriteLockAt(0);
+        });
+        writer.start();
+        // Wait until the writer is queued in the lock
+        while (writer.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+
+        // Reading again with a waiting writer would deadlock if the read lock is acquired again
+        locks.lockReadLockAt(0);
+        locks.unlockReadLockAt(0);
+        assertTrue(writer.isAlive());
+
+        locks.unlockReadLockAt(0);
+        writer.join();
+    }
+
+    @Test
+    void testReentrantWrite() {
+        var locks = new StampedChunkSectionLocks(MIN_SECTION_Y, SECTION_COUNT);
+        locks.lockWriteLockAt(0);
+        locks.lockWriteLockAt(0);
+        locks.lockReadLockAt(0);
+        locks.unlockReadLockAt(0);
+        locks.unlockWriteLockAt(0);
+        locks.unlockWriteLockAt(0);
+
+        var stamp = locks.tryOptimisticReadAt(0);
+        assertNotEquals(0, stamp);
+    }
+
+    @Test
+    void testUnbalancedUnlock() {
+        var locks = new StampedChunkSectionLocks(MIN_SECTION_Y, SECTION_COUNT);
+        assertThrows(IllegalMonitorStateException.class, () -> locks.unlockReadLockAt(0));
+        assertThrows(IllegalMonitorStateException.class, () -> locks.unlockWriteLockAt(0));
+
+        locks.lockReadLockAt(0);
+        locks.unlockReadLockAt(0);
+        assertThrows(IllegalMonitorStateException.class, () -> locks.unlockReadLockAt(0));
+
+        locks.lockWriteLockAt(0);
+        locks.unlockWriteLockAt(0);
+        assertThrows(IllegalMonitorStateException.class, () -> locks.unlockWriteLockAt(0));
+    }
+
+    @Test
+    void testUnlockFromOtherThread() throws InterruptedException {
+        var locks = new StampedChunkSectionLocks(MIN_SECTION_Y, SECTION_COUNT);
+        locks.lockWriteLockAt(0);
+        var failed = new AtomicBoolean();
+        runInOtherThread(() -> {
+            try {
+                locks.unlockWriteLockAt(0);
+            } catch (IllegalMonitorStateException e) {
+                failed.set(true);
+            }
+        });
+        assertTrue(failed.get());
+        locks.unlockWriteLockAt(0);
+    }
+
+    @Test
+    void testUpgradeIsRefused() {
+        var locks = new StampedChunkSectionLocks(MIN_SECTION_Y, SECTION_COUNT);
+        locks.lockReadLockAt(0);
+        assertThrows(IllegalMonitorStateException.class, () -> locks.lockWriteLockAt(0));
+        locks.unlockReadLockAt(0);
+
+        // The section can still be written after the failed upgrade
+        locks.lockWriteLockAt(0);
+        locks.unlockWriteLockAt(0);
+    }
+
+    @Test
+    @Timeout(value = 30, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void testContention() throws InterruptedException {
+        var locks = new StampedChunkSectionLocks(MIN_SECTION_Y, SECTION_COUNT);
+        // Writers keep the two values equal, readers must never see them differ
+        var values = new int[2];
+        var inconsistent = new AtomicBoolean();
+        var start = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                for (int j = 0; j < 10000; j++) {
+                    locks.lockWriteLockAt(0);
+                    try {
+                        values[0]++;
+                        values[1]++;
+                    } finally {
+                        locks.unlockWriteLockAt(0);
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                for (int j = 0; j < 10000; j++) {
+                    locks.lockReadLockAt(0);
+                    try {
+                        // Nested read, like a block callback reading the same section
+                        locks.lockReadLockAt(0);
+                        try {
+                            if (values[0] != values[1]) {
+                                inconsistent.set(true);
+                            }
+                        } finally {
+                            locks.unlockReadLockAt(0);
+                        }
+                    } finally {
+                        locks.unlockReadLockAt(0);
+                    }
+
+                    var stamp = locks.tryOptimisticReadAt(0);
+                    var first = values[0];
+                    var second = values[1];
+                    if (locks.validate(0, stamp) && first != second) {
+                        inconsistent.set(true);
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(inconsistent.get());
+        assertEquals(40000, values[0]);
+        assertEquals(40000, values[1]);
+    }
+
+    private static void runInOtherThread(Runnable runnable) throws InterruptedException {
+        var thread = new Thread(runnable);
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(thread.isAlive());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.allaymc.server.world.light;
 
+import io.netty.buffer.Unpooled;
 import org.allaymc.api.world.WorldData;
 import org.allaymc.api.world.data.DimensionInfo;
 import org.allaymc.api.world.data.Weather;
@@ -8,8 +9,7 @@ import org.allaymc.testutils.AllayTestExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author daoge_cmd
@@ -124,6 +124,79 @@ class AllayLightEngineTest {
         lightService.shutdown();
     }
 
+    @Test
+    void testRestoreLightData() {
+        var lightService = new AllayLightEngine(DimensionInfo.OVERWORLD, "test_world", () -> WorldData.TIME_NOON, () -> Weather.CLEAR);
+        lightService.onChunkLoad(AllayUnsafeChunk.builder().voidChunk(0, 0, DimensionInfo.OVERWORLD).toSafeChunk());
+        lightService.handleUpdateInAllQueues();
+        // The light in the chunk hasn't been calculated since the neighbor chunks are not loaded
+        assertNull(lightService.copyChunkLightData(0, 0));
+
+        for (int x = -1; x <= 1; x++) {
+            for (int z = -1; z <= 1; z++) {
+                if (x != 0 || z != 0) {
+                    lightService.onChunkLoad(AllayUnsafeChunk.builder().voidChunk(x, z, DimensionInfo.OVERWORLD).toSafeChunk());
+                }
+            }
+        }
+        lightService.handleUpdateInAllQueues();
+        lightService.onBlockChange(0, 1, 0, 14, 0);
+        lightService.handleUpdateInAllQueues();
+
+        var lightData = lightService.copyChunkLightData(0, 0);
+        assertNotNull(lightData);
+        var buffer = Unpooled.buffer();
+        lightData.writeTo(buffer);
+        lightService.shutdown();
+
+        // Load the chunk with the saved light data before its neighbor chunks
+        var restoredLightService = new AllayLightEngine(DimensionInfo.OVERWORLD, "test_world", () -> WorldData.TIME_NOON, () -> Weather.CLEAR);
+        restoredLightService.onChunkLoad(
+                AllayUnsafeChunk.builder().voidChunk(0, 0, DimensionInfo.OVERWORLD).toSafeChunk(),
+                ChunkLightData.readFrom(buffer, DimensionInfo.OVERWORLD)
+        );
+        restoredLightService.handleUpdateInAllQueues();
+        assertEquals(14, restoredLightService.getBlockLight(0, 1, 0));
+        assertEquals(13, restoredLightService.getBlockLight(1, 1, 0));
+        assertNotNull(restoredLightService.copyChunkLightData(0, 0));
+
+        // The light in the restored chunk should be propagated to the neighbor chunks
+        restoredLightService.onChunkLoad(AllayUnsafeChunk.builder().voidChunk(-1, 0, DimensionInfo.OVERWORLD).toSafeChunk());
+        restoredLightService.handleUpdateInAllQueues();
+        assertEquals(13, restoredLightService.getBlockLight(-1, 1, 0));
+        assertEquals(12, restoredLightService.getBlockLight(-2, 1, 0));
+
+        restoredLightService.shutdown();
+    }
+
+    @Test
+    void testCopyLightDataWithPendingUpdates() {
+        var lightService = new AllayLightEngine(DimensionInfo.OVERWORLD, "test_world", () -> WorldData.TIME_NOON, () -> Weather.CLEAR);
+        for (int x = -1; x <= 1; x++) {
+            for (int z = -1; z <= 1; z++) {
+                lightService.onChunkLoad(AllayUnsafeChunk.builder().voidChunk(x, z, DimensionInfo.OVERWORLD).toSafeChunk());
+            }
+        }
+        lightService.handleUpdateInAllQueues();
+        assertNotNull(lightService.copyChunkLightData(0, 0));
+
+        // Pending light updates in a far away chunk won't change the light in the chunk
+        lightService.onBlockChange(160, 1, 160, 14, 0);
+        assertTrue(lightService.getQueuedUpdateCount() > 0);
+        assertNotNull(lightService.copyChunkLightData(0, 0));
+
+        // But pending light updates in the neighbor chunks may change it
+        lightService.onBlockChange(16, 1, 0, 14, 0);
+        assertNull(lightService.copyChunkLightData(0, 0));
+        assertNull(lightService.copyChunkLightData(1, 0));
+
+        lightService.handleUpdateInAllQueues();
+        assertNotNull(lightService.copyChunkLightData(0, 0));
+        assertEquals(13, lightService.getBlockLight(15, 1, 0));
+
+        lightService.shutdown();
+    }
+
     @Test
     void testCalculateSkylightReduction() {
         assertEquals(11, AllayLightEngine.calculateSkylightReduction(13670, Weather.CLEAR));
@@ -0,0 +1,59 @@
+package org.allaymc.server.world.light;
+
+import org.allaymc.api.block.type.BlockState;
+import org.allaymc.server.datastruct.palette.Palette;
+import org.allaymc.testutils.AllayTestExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.allaymc.api.block.type.BlockTypes.*;
+import static org.allaymc.api.utils.hash.HashUtils.hashChunkSectionXYZ;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+@ExtendWith(AllayTestExtension.class)
+class ChunkSectionLightPropertiesTest {
+    @Test
+    void testFromBlockPalette() {
+        var blocks = new Palette<BlockState>(AIR.getDefaultState());
+        blocks.set(hashChunkSectionXYZ(1, 2, 3), STONE.getDefaultState());
+        blocks.set(hashChunkSectionXYZ(3, 2, 1), GLOWSTONE.getDefaultState());
+
+        var properties = ChunkSectionLightProperties.fromBlockPalette(blocks);
+        assertEquals(0, properties.getLightDampening(0, 0, 0));
+        assertEquals(0, properties.getLightEmission(0, 0, 0));
+        assertEquals(STONE.getDefaultState().getBlockStateData().lightDampening(), properties.getLightDampening(1, 2, 3));
+        assertEquals(GLOWSTONE.getDefaultState().getBlockStateData().lightEmission(), properties.getLightEmission(3, 2, 1));
+        assertFalse(properties.isTransparent());
+    }
+
+    @Test
+    void testUniformPalette() {
+        var blocks = new Palette<BlockState>(AIR.getDefaultState());
+        // Blocks with the same light properties share one palette entry
+        blocks.set(0, AIR.getDefaultState());
+        var properties = ChunkSectionLightProperties.fromBlockPalette(blocks);
+        assertEquals(1, properties.getPaletteSize());
+        assertTrue(properties.isTransparent());
+    }
+
+    @Test
+    void testSet() {
+        var properties = ChunkSectionLightProperties.uniform(0, 0);
+        for (int i = 0; i < 16; i++) {
+            properties.setLightEmission(i, i, i, i);
+            properties.setLightDampening(i, 0, 0, 15 - i);
+        }
+
+        for (int i = 1; i < 16; i++) {
+            assertEquals(i, properties.getLightEmission(i, i, i));
+            assertEquals(15 - i, properties.getLightDampening(i, 0, 0));
+            assertEquals(0, properties.getLightDampening(i, i, i));
+        }
+        assertEquals(15, properties.getLightDampening(0, 0, 0));
+        assertEquals(0, properties.getLightEmission(0, 1, 0));
+        assertEquals(0, properties.getLightEmission(15, 15, 14));
+    }
+}
@@ -0,0 +1,77 @@
+package org.allaymc.server.world.light;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+class LightCalculationQueueTest {
+    @Test
+    void testDrainNow() {
+        var queue = new LightCalculationQueue("test", Runnable::run);
+        var results = new ArrayList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            var value = i;
+            queue.offer(() -> results.add(value));
+        }
+        assertEquals(10, queue.size());
+
+        queue.drainNow();
+        assertEquals(0, queue.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, results.get(i));
+        }
+    }
+
+    @Test
+    void testOrderingInSharedPool() throws InterruptedException {
+        var pool = Executors.newFixedThreadPool(4);
+        try {
+            var count = 5000;
+            var queue1 = new LightCalculationQueue("test1", Runnable::run);
+            var queue2 = new LightCalculationQueue("test2", Runnable::run);
+            var results1 = Collections.synchronizedList(new ArrayList<Integer>());
+            var results2 = Collections.synchronizedList(new ArrayList<Integer>());
+            var latch = new CountDownLatch(count * 2);
+            queue1.start(pool);
+            queue2.start(pool);
+            for (int i = 0; i < count; i++) {
+                var value = i;
+                queue1.offer(() -> {
+                    results1.add(value);
+                    latch.countDown();
+                });
+                queue2.offer(() -> {
+                    results2.add(value);
+                    latch.countDown();
+                });
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, results1.get(i));
+                assertEquals(i, results2.get(i));
+            }
+            assertTrue(queue1.getBatchCount() > 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testStop() {
+        var queue = new LightCalculationQueue("test", Runnable::run);
+        queue.start(runnable -> fail("Stopped queue shouldn't be drained"));
+        queue.stop();
+        queue.offer(() -> {});
+        assertEquals(1, queue.size());
+    }
+}
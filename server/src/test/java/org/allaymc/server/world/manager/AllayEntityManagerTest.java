@@ -0,0 +1,109 @@
+package org.allaymc.server.world.manager;
+
+import org.allaymc.api.entity.Entity;
+import org.allaymc.api.math.location.Location3d;
+import org.allaymc.api.world.storage.WorldStorage;
+import org.allaymc.server.timings.Timings;
+import org.allaymc.server.world.AllayDimension;
+import org.allaymc.testutils.AllayTestExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+@ExtendWith(AllayTestExtension.class)
+class AllayEntityManagerTest {
+
+    private final ConcurrentHashMap<Long, Location3d> locations = new ConcurrentHashMap<>();
+    private AllayEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        var dimension = Mockito.mock(AllayDimension.class);
+        Mockito.when(dimension.createTiming(Mockito.anyString())).thenAnswer(invocation -> Timings.of("Test", invocation.getArgument(0)));
+        entityManager = new AllayEntityManager(dimension, Mockito.mock(WorldStorage.class));
+    }
+
+    @Test
+    void testMoveAcrossChunks() {
+        var entity = createEntity(1, 8, 8);
+        entityManager.indexEntity(entity, AllayEntityManager.chunkHashOf(entity));
+        assertEquals(1, entityManager.getEntityCountInChunk(0, 0));
+
+        // Moving inside the chunk doesn't change anything
+        moveEntity(entity, 15, 15);
+        entityManager.processChunkChanges();
+        assertEquals(1, entityManager.getEntityCountInChunk(0, 0));
+
+        moveEntity(entity, 16, -1);
+        // The chunk index is only updated when processing the changes in the ticking thread
+        assertEquals(1, entityManager.getEntityCountInChunk(0, 0));
+        entityManager.processChunkChanges();
+        assertEquals(0, entityManager.getEntityCountInChunk(0, 0));
+        assertEquals(1, entityManager.getEntityCountInChunk(1, -1));
+        assertSame(entity, entityManager.getEntitiesInChunk(1, -1).get(1L));
+
+        entityManager.unindexEntity(entity);
+        assertEquals(0, entityManager.getEntityCountInChunk(1, -1));
+        // Changes of the removed entity should be ignored
+        moveEntity(entity, 100, 100);
+        entityManager.processChunkChanges();
+        assertEquals(0, entityManager.getEntityCountInChunk(6, 6));
+    }
+
+    @Test
+    void testMoveAcrossChunksInParallel() {
+        var entities = new ArrayList<Entity>();
+        for (int i = 0; i < 1000; i++) {
+            var entity = createEntity(i, 0.5, 0.5);
+            entityManager.indexEntity(entity, AllayEntityManager.chunkHashOf(entity));
+            entities.add(entity);
+        }
+        assertEquals(1000, entityManager.getEntityCountInChunk(0, 0));
+
+        // Move the entities several times in parallel like what the physics engine does
+        IntStream.range(0, entities.size()).parallel().forEach(i -> {
+            var entity = entities.get(i);
+            for (int step = 1; step <= 4; step++) {
+                moveEntity(entity, (i % 10) * 16 * step + 16.5, (i % 7) * 16 * step + 0.5);
+            }
+        });
+        entityManager.processChunkChanges();
+
+        var counted = new HashSet<Long>();
+        for (int i = 0; i < entities.size(); i++) {
+            var chunkX = (i % 10) * 4 + 1;
+            var chunkZ = (i % 7) * 4;
+            var entitiesInChunk = entityManager.getEntitiesInChunk(chunkX, chunkZ);
+            assertTrue(entitiesInChunk.containsKey((long) i), "Entity " + i + " is not in chunk " + chunkX + ", " + chunkZ);
+            counted.addAll(entitiesInChunk.keySet());
+        }
+        assertEquals(1000, counted.size());
+        assertEquals(0, entityManager.getEntityCountInChunk(0, 0));
+    }
+
+    private Entity createEntity(long runtimeId, double x, double z) {
+        var entity = Mockito.mock(Entity.class);
+        Mockito.when(entity.getRuntimeId()).thenReturn(runtimeId);
+        Mockito.when(entity.getLocation()).thenAnswer($ -> locations.get(runtimeId));
+        locations.put(runtimeId, new Location3d(x, 0, z, null));
+        return entity;
+    }
+
+    private void moveEntity(Entity entity, double x, double z) {
+        var oldLoc = locations.put(entity.getRuntimeId(), new Location3d(x, 0, z, null));
+        if (((int) oldLoc.x() >> 4) != ((int) x >> 4) || ((int) oldLoc.z() >> 4) != ((int) z >> 4)) {
+            entityManager.onEntityChangeChunk(entity);
+        }
+    }
+}
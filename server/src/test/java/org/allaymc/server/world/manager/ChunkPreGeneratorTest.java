@@ -0,0 +1,193 @@
+package org.allaymc.server.world.manager;
+
+import org.allaymc.api.utils.hash.HashUtils;
+import org.allaymc.api.world.Dimension;
+import org.allaymc.api.world.World;
+import org.allaymc.api.world.chunk.Chunk;
+import org.allaymc.api.world.chunk.ChunkState;
+import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.server.AllayServer;
+import org.allaymc.server.world.chunk.ChunkHolder;
+import org.allaymc.testutils.AllayTestExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+@ExtendWith(AllayTestExtension.class)
+class ChunkPreGeneratorTest {
+
+    private final List<Submission> submissions = new ArrayList<>();
+    private AllayChunkManager chunkManager;
+    private World world;
+    private ChunkPreGenerator preGenerator;
+    private int maxInFlightChunks;
+
+    @BeforeEach
+    void setUp() {
+        world = Mockito.mock(World.class);
+        Mockito.when(world.getName()).thenReturn("pregen-test-world");
+        Mockito.when(world.getMSPT()).thenReturn(0f);
+        var dimension = Mockito.mock(Dimension.class);
+        Mockito.when(dimension.getWorld()).thenReturn(world);
+        Mockito.when(dimension.getDimensionInfo()).thenReturn(DimensionInfo.OVERWORLD);
+
+        chunkManager = Mockito.mock(AllayChunkManager.class);
+        Mockito.when(chunkManager.getDimension()).thenReturn(dimension);
+        Mockito.when(chunkManager.getOrCreateChunkHolder(Mockito.anyInt(), Mockito.anyInt())).thenAnswer(invocation -> {
+            int x = invocation.getArgument(0);
+            int z = invocation.getArgument(1);
+            var future = new CompletableFuture<Chunk>();
+            var chunkHolder = Mockito.mock(ChunkHolder.class);
+            Mockito.when(chunkHolder.getX()).thenReturn(x);
+            Mockito.when(chunkHolder.getZ()).thenReturn(z);
+            Mockito.when(chunkHolder.getLoadFuture()).thenReturn(future);
+            Mockito.when(chunkHolder.getChunk()).thenReturn(Mockito.mock(Chunk.class));
+            Mockito.when(chunkManager.getChunkHolder(x, z)).thenReturn(chunkHolder);
+            submissions.add(new Submission(x, z, chunkHolder, future));
+            return chunkHolder;
+        });
+
+        preGenerator = new ChunkPreGenerator(chunkManager);
+        maxInFlightChunks = AllayServer.getSettings().worldSettings().preGenerationMaxInFlightChunks();
+    }
+
+    @Test
+    void testProgress() {
+        // 11 * 11 = 121 chunks, more than the max in-flight chunk count
+        var radius = 5;
+        var total = (2 * radius + 1) * (2 * radius + 1);
+        assertTrue(total > maxInFlightChunks);
+        assertTrue(preGenerator.start(10, -10, radius));
+        assertFalse(preGenerator.start(0, 0, 1));
+
+        var progress = preGenerator.getProgress();
+        assertEquals(0, progress.generatedChunks());
+        assertEquals(total, progress.totalChunks());
+
+        var completed = 0;
+        var generatedChunks = new HashSet<Long>();
+        while (preGenerator.getProgress() != null) {
+            preGenerator.tick();
+            var inFlight = submissions.size() - completed;
+            assertTrue(inFlight <= maxInFlightChunks, "Too many chunks in flight: " + inFlight);
+            if (preGenerator.getProgress() == null) {
+                break;
+            }
+
+            assertEquals(completed, preGenerator.getProgress().generatedChunks());
+            // Complete a few chunks per tick
+            for (int i = 0; i < 3 && completed < submissions.size(); i++, completed++) {
+                var submission = submissions.get(completed);
+                Mockito.verify(submission.chunkHolder).setTargetState(ChunkState.FULL);
+                submission.future.complete(Mockito.mock(Chunk.class));
+                generatedChunks.add(HashUtils.hashXZ(submission.x, submission.z));
+            }
+        }
+
+        // Every chunk in the square should be generated exactly once
+        assertEquals(total, submissions.size());
+        assertEquals(total, generatedChunks.size());
+        for (int x = 10 - radius; x <= 10 + radius; x++) {
+            for (int z = -10 - radius; z <= -10 + radius; z++) {
+                assertTrue(generatedChunks.contains(HashUtils.hashXZ(x, z)), "Chunk (" + x + ", " + z + ") is not generated");
+            }
+        }
+        // The chunks are unloaded once generated since no chunk loader is using them
+        Mockito.verify(chunkManager, Mockito.times(total)).unloadChunk(Mockito.anyLong());
+    }
+
+    @Test
+    void testSpiralOrder() {
+        preGenerator.start(0, 0, 1);
+        preGenerator.tick();
+        // The center chunk is always generated first
+        assertEquals(0, submissions.getFirst().x);
+        assertEquals(0, submissions.getFirst().z);
+        assertEquals(9, submissions.size());
+    }
+
+    @Test
+    void testBoundedInFlightChunks() {
+        preGenerator.start(0, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            preGenerator.tick();
+            // Nothing is completed, so no more chunks should be submitted
+            assertEquals(maxInFlightChunks, submissions.size());
+        }
+
+        submissions.getFirst().future.complete(Mockito.mock(Chunk.class));
+        preGenerator.tick();
+        assertEquals(maxInFlightChunks + 1, submissions.size());
+        assertEquals(1, preGenerator.getProgress().generatedChunks());
+    }
+
+    @Test
+    void testMsptBudget() {
+        Mockito.when(world.getMSPT()).thenReturn(AllayServer.getSettings().worldSettings().preGenerationMsptBudget() + 1);
+        preGenerator.start(0, 0, 2);
+        preGenerator.tick();
+        assertTrue(submissions.isEmpty());
+
+        Mockito.when(world.getMSPT()).thenReturn(0f);
+        preGenerator.tick();
+        assertEquals(Math.min(maxInFlightChunks, 25), submissions.size());
+    }
+
+    @Test
+    void testRetryUnloadedChunk() {
+        preGenerator.start(0, 0, 0);
+        preGenerator.tick();
+        assertEquals(1, submissions.size());
+
+        // The chunk is unloaded before it is fully generated
+        submissions.getFirst().future.cancel(false);
+        preGenerator.tick();
+        assertEquals(2, submissions.size());
+        assertEquals(0, preGenerator.getProgress().generatedChunks());
+        assertEquals(submissions.get(0).x, submissions.get(1).x);
+        assertEquals(submissions.get(0).z, submissions.get(1).z);
+
+        submissions.get(1).future.complete(Mockito.mock(Chunk.class));
+        preGenerator.tick();
+        assertNull(preGenerator.getProgress());
+    }
+
+    @Test
+    void testCancellation() {
+        preGenerator.start(0, 0, 5);
+        preGenerator.tick();
+        var submitted = submissions.size();
+        assertTrue(submitted > 0);
+
+        assertTrue(preGenerator.stop());
+        assertFalse(preGenerator.stop());
+        assertNull(preGenerator.getProgress());
+
+        // Results of the stopped pre-generation should be discarded
+        submissions.forEach(submission -> submission.future.complete(Mockito.mock(Chunk.class)));
+        preGenerator.tick();
+        preGenerator.tick();
+        assertEquals(submitted, submissions.size());
+        Mockito.verify(chunkManager, Mockito.never()).unloadChunk(Mockito.anyLong());
+
+        // A new pre-generation can be started after stopping, and it is not affected by the old results
+        assertTrue(preGenerator.start(0, 0, 0));
+        preGenerator.tick();
+        assertEquals(submitted + 1, submissions.size());
+        assertEquals(0, preGenerator.getProgress().generatedChunks());
+    }
+
+    private record Submission(int x, int z, ChunkHolder chunkHolder, CompletableFuture<Chunk> future) {
+    }
+}
@@ -0,0 +1,69 @@
+package org.allaymc.server.world.manager;
+
+import org.allaymc.api.block.data.BlockFace;
+import org.allaymc.api.world.data.DimensionInfo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author daoge_cmd
+ */
+class NeighborUpdateQueueTest {
+    @Test
+    void testPackAndUnpack() {
+        var queue = new NeighborUpdateQueue(DimensionInfo.OVERWORLD);
+        int[][] positions = {{0, -64, 0}, {-1, 319, -1}, {30000000, 100, -30000000}, {-30000000, 0, 30000000}};
+        for (var pos : positions) {
+            assertTrue(NeighborUpdateQueue.canPack(DimensionInfo.OVERWORLD, pos[0], pos[1], pos[2]));
+            for (var face : BlockFace.values()) {
+                var key = queue.pack(pos[0], pos[1], pos[2], face);
+                assertEquals(pos[0], NeighborUpdateQueue.unpackX(key));
+                assertEquals(pos[1], queue.unpackY(key));
+                assertEquals(pos[2], NeighborUpdateQueue.unpackZ(key));
+                assertEquals(face, NeighborUpdateQueue.unpackFace(key));
+            }
+        }
+        assertFalse(NeighborUpdateQueue.canPack(DimensionInfo.OVERWORLD, 0, -65, 0));
+    }
+
+    @Test
+    void testCoalesce() {
+        var queue = new NeighborUpdateQueue(DimensionInfo.OVERWORLD);
+        assertTrue(queue.offer(1, 2, 3, BlockFace.UP));
+        assertTrue(queue.offer(4, 5, 6, BlockFace.DOWN));
+        assertFalse(queue.offer(1, 2, 3, BlockFace.UP));
+        assertTrue(queue.offer(1, 2, 3, BlockFace.DOWN));
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getCoalescedUpdateCount());
+
+        var keys = queue.poll(Integer.MAX_VALUE);
+        assertEquals(3, keys.length);
+        // The order of the updates is kept
+        assertEquals(queue.pack(1, 2, 3, BlockFace.UP), keys[0]);
+        assertEquals(queue.pack(4, 5, 6, BlockFace.DOWN), keys[1]);
+        assertEquals(queue.pack(1, 2, 3, BlockFace.DOWN), keys[2]);
+        assertEquals(0, queue.size());
+
+        // The same update can be queued again after it is polled
+        assertTrue(queue.offer(1, 2, 3, BlockFace.UP));
+    }
+
+    @Test
+    void testPollWithMaxCount() {
+        var queue = new NeighborUpdateQueue(DimensionInfo.OVERWORLD);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(i, 0, 0, BlockFace.UP);
+        }
+
+        var keys = queue.poll(4);
+        assertEquals(4, keys.length);
+        queue.offer(100, 0, 0, BlockFace.UP);
+
+        // The remaining updates are processed before the updates offered later
+        keys = queue.poll(Integer.MAX_VALUE);
+        assertEquals(7, keys.length);
+        assertEquals(4, NeighborUpdateQueue.unpackX(keys[0]));
+        assertEquals(100, NeighborUpdateQueue.unpackX(keys[6]));
+    }
+}
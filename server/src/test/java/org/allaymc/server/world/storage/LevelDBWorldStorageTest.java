@@ -6,10 +6,17 @@ import org.allaymc.api.world.biome.BiomeTypes;
 import org.allaymc.api.world.chunk.Chunk;
 import org.allaymc.api.world.data.Difficulty;
 import org.allaymc.api.world.data.DimensionInfo;
+import org.allaymc.api.world.storage.WorldStorageException;
+import org.allaymc.server.datastruct.ChunkSectionNibbleArray;
 import org.allaymc.server.world.AllayWorldData;
 import org.allaymc.server.world.chunk.AllayUnsafeChunk;
+import org.allaymc.server.world.chunk.HeightMap;
+import org.allaymc.server.world.light.ChunkLightData;
 import org.allaymc.server.world.storage.leveldb.AllayLevelDBWorldStorage;
+import org.allaymc.server.world.storage.leveldb.LevelDBWriteQueue;
 import org.allaymc.testutils.AllayTestExtension;
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.WriteBatch;
 import org.joml.Vector3i;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,9 +30,11 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.allaymc.api.block.type.BlockTypes.OAK_WOOD;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Cool_Loong
@@ -115,4 +124,115 @@ class LevelDBWorldStorageTest {
         assertEquals(BiomeTypes.FOREST, chunk.getBiome(0, 55, 0));
         assertEquals(319, chunk.getHeight(0, 0));
     }
+
+    @Test
+    void testKeepSavedLightData() {
+        var allayUnsafeChunk = AllayUnsafeChunk.builder().voidChunk(0, 0, DimensionInfo.OVERWORLD);
+        allayUnsafeChunk.setBlockState(0, 0, 0, OAK_WOOD.getDefaultState());
+        allayUnsafeChunk.setLightData(createLightData(DimensionInfo.OVERWORLD));
+        levelDBWorldStorage.writeChunkSync(allayUnsafeChunk.toSafeChunk());
+
+        var unsafeChunk = (AllayUnsafeChunk) levelDBWorldStorage.readChunkSync(0, 0, DimensionInfo.OVERWORLD).toUnsafeChunk();
+        assertNotNull(unsafeChunk.getLightData());
+
+        // The saved light data should be kept if the light data can't be copied when saving the chunk again
+        unsafeChunk.setLightData(null);
+        levelDBWorldStorage.writeChunkSync(unsafeChunk.toSafeChunk());
+        unsafeChunk = (AllayUnsafeChunk) levelDBWorldStorage.readChunkSync(0, 0, DimensionInfo.OVERWORLD).toUnsafeChunk();
+        assertNotNull(unsafeChunk.getLightData());
+
+        // But it is ignored once the sections are changed
+        unsafeChunk.setLightData(null);
+        unsafeChunk.setBlockState(0, 100, 0, OAK_WOOD.getDefaultState());
+        levelDBWorldStorage.writeChunkSync(unsafeChunk.toSafeChunk());
+        unsafeChunk = (AllayUnsafeChunk) levelDBWorldStorage.readChunkSync(0, 0, DimensionInfo.OVERWORLD).toUnsafeChunk();
+        assertNull(unsafeChunk.getLightData());
+    }
+
+    private static ChunkLightData createLightData(DimensionInfo dimensionInfo) {
+        var blockLight = new ChunkSectionNibbleArray[dimensionInfo.chunkSectionCount()];
+        var skyLightInBorder = new ChunkSectionNibbleArray[dimensionInfo.chunkSectionCount()];
+        for (int i = 0; i < blockLight.length; i++) {
+            blockLight[i] = new ChunkSectionNibbleArray();
+            skyLightInBorder[i] = new ChunkSectionNibbleArray();
+        }
+        return new ChunkLightData(blockLight, skyLightInBorder, new HeightMap((short) dimensionInfo.minHeight()));
+    }
+
+    @Test
+    void testWriteQueueReadPendingWrites() {
+        var writeQueue = levelDBWorldStorage.getWriteQueue();
+        var key = "allay_test_key".getBytes();
+
+        var batch1 = writeQueue.createBatch();
+        batch1.put(key, new byte[]{1});
+        writeQueue.submit(batch1);
+        var batch2 = writeQueue.createBatch();
+        batch2.put(key, new byte[]{2});
+        var future = writeQueue.submit(batch2);
+        // The latest value should be read back no matter whether it is flushed or not
+        assertArrayEquals(new byte[]{2}, writeQueue.get(key));
+        future.join();
+        assertArrayEquals(new byte[]{2}, writeQueue.get(key));
+
+        var batch3 = writeQueue.createBatch();
+        batch3.delete(key);
+        writeQueue.submit(batch3);
+        assertNull(writeQueue.get(key));
+    }
+
+    @Test
+    void testWriteQueueFlushOnShutdown() {
+        var key = "allay_test_key".getBytes();
+        var batch = levelDBWorldStorage.getWriteQueue().createBatch();
+        batch.put(key, new byte[]{1});
+        levelDBWorldStorage.getWriteQueue().submit(batch);
+        levelDBWorldStorage.shutdown();
+
+        levelDBWorldStorage = new AllayLevelDBWorldStorage(tempDir.resolve("ldbworld"));
+        assertArrayEquals(new byte[]{1}, levelDBWorldStorage.getWriteQueue().get(key));
+    }
+
+    @Test
+    @SneakyThrows
+    void testWriteQueueRetryFailedBatch() {
+        var db = Mockito.mock(DB.class);
+        Mockito.when(db.createWriteBatch()).thenAnswer($ -> Mockito.mock(WriteBatch.class));
+        var attempts = new AtomicInteger();
+        Mockito.doAnswer($ -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new RuntimeException("Simulated write failure");
+            }
+            return null;
+        }).when(db).write(Mockito.any(WriteBatch.class));
+
+        var writeQueue = new LevelDBWriteQueue(db, 1024, "test");
+        var batch = writeQueue.createBatch();
+        batch.put("allay_test_key".getBytes(), new byte[]{1});
+        // The batch should be written by retrying
+        writeQueue.submit(batch).join();
+        assertEquals(3, attempts.get());
+        writeQueue.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testWriteQueueKeepFailedBatch() {
+        var db = Mockito.mock(DB.class);
+        Mockito.when(db.createWriteBatch()).thenAnswer($ -> Mockito.mock(WriteBatch.class));
+        Mockito.doThrow(new RuntimeException("Simulated write failure")).when(db).write(Mockito.any(WriteBatch.class));
+
+        var writeQueue = new LevelDBWriteQueue(db, 1024, "test");
+        var key = "allay_test_key".getBytes();
+        var batch = writeQueue.createBatch();
+        batch.put(key, new byte[]{1});
+        var future = writeQueue.submit(batch);
+        assertThrows(CompletionException.class, future::join);
+
+        // The failed writes are kept instead of being dropped
+        assertArrayEquals(new byte[]{1}, writeQueue.get(key));
+        assertTrue(writeQueue.getQueueDepth() > 0);
+        // Shutdown should not report success if the writes can't be written
+        assertThrows(WorldStorageException.class, writeQueue::shutdown);
+    }
 }